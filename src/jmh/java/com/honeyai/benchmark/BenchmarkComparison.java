@@ -0,0 +1,105 @@
+package com.honeyai.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files (for example the previous release against the current
+ * build) and exits with status 1 when a benchmark got slower than the threshold.
+ * <pre>
+ * java -cp target/test-classes:target/classes:... com.honeyai.benchmark.BenchmarkComparison \
+ *     baseline.json target/jmh-result.json [threshold-percent, default 10]
+ * </pre>
+ * Benchmarks are matched on their name and parameters; a change counts as a regression only
+ * when it is larger than both the threshold and the combined error margins of the two runs.
+ * Output sizes reported as a {@code bytesPerLabel} secondary result are compared too, on the
+ * mean of their iterations: JMH sums event counters over the iterations in the score.
+ */
+public final class BenchmarkComparison {
+
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10.0;
+    private static final String OUTPUT_SIZE = "bytesPerLabel";
+
+    private BenchmarkComparison() {
+    }
+
+    record Score(double value, double error, String unit, boolean higherIsBetter) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+        Map<String, Score> baseline = read(Path.of(args[0]));
+        Map<String, Score> current = read(Path.of(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s  (new)%n", entry.getKey(), "-", now.value(), "");
+                continue;
+            }
+            double change = (now.value() - before.value()) / before.value() * 100.0;
+            double worse = now.higherIsBetter() ? -change : change;
+            boolean beyondNoise = Math.abs(now.value() - before.value()) > before.error() + now.error();
+            boolean regression = worse > threshold && beyondNoise;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%  %s%s%n", entry.getKey(), before.value(), now.value(),
+                    change, now.unit(), regression ? "  REGRESSION" : "");
+        }
+
+        System.out.printf("%d regression(s) above %.1f%%%n", regressions, threshold);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    static Map<String, Score> read(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file.toFile())) {
+            JsonNode metric = result.path("primaryMetric");
+            double error = metric.path("scoreError").asDouble(0);
+            scores.put(key(result), new Score(
+                    metric.path("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error,
+                    metric.path("scoreUnit").asText(),
+                    "thrpt".equals(result.path("mode").asText())));
+
+            JsonNode size = result.path("secondaryMetrics").path(OUTPUT_SIZE);
+            if (!size.isMissingNode()) {
+                scores.put(key(result) + " " + OUTPUT_SIZE, new Score(mean(size.path("rawData")), 0, "B", false));
+            }
+        }
+        return scores;
+    }
+
+    private static double mean(JsonNode rawData) {
+        double sum = 0;
+        int count = 0;
+        for (JsonNode fork : rawData) {
+            for (JsonNode iteration : fork) {
+                sum += iteration.asDouble();
+                count++;
+            }
+        }
+        return count > 0 ? sum / count : 0;
+    }
+
+    private static String key(JsonNode result) {
+        Map<String, String> params = new TreeMap<>();
+        result.path("params").fields().forEachRemaining(p -> params.put(p.getKey(), p.getValue().asText()));
+        String name = result.path("benchmark").asText().replace("com.honeyai.benchmark.", "");
+        return params.isEmpty() ? name : name + " " + params;
+    }
+}
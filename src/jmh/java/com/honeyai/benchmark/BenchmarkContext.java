@@ -0,0 +1,60 @@
+package com.honeyai.benchmark;
+
+import com.honeyai.HoneyAiApplication;
+import com.honeyai.config.DatasetConfig;
+import com.honeyai.service.DatasetGenerator;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * Starts the application without the web layer on a throw-away SQLite database, so the
+ * benchmarks exercise the real datasource, migrations, indexes and caches.
+ */
+final class BenchmarkContext {
+
+    static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+    static final int DAYS = 731;
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start(String name) {
+        try {
+            Path directory = Files.createTempDirectory("honeyai-bench-" + name);
+            return new SpringApplicationBuilder(HoneyAiApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .logStartupInfo(false)
+                    .properties(
+                            "spring.datasource.url=jdbc:sqlite:" + directory.resolve("honeyai.db"),
+                            "logging.level.root=WARN",
+                            "logging.level.com.honeyai=WARN")
+                    .run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Seeds a deterministic dataset through the {@link DatasetGenerator}: {@code clients} clients
+     * and {@code orders} orders of 1 to 4 lines over 2024 and 2025, one purchase per 20 orders.
+     * Rollups and the client search index are rebuilt by the generator.
+     */
+    static void seed(ConfigurableApplicationContext context, int clients, int orders) {
+        DatasetConfig config = new DatasetConfig();
+        config.setLastYear(FIRST_DAY.getYear() + 1);
+        config.setYears(2);
+        config.setClients(Math.max(1, clients));
+        config.setDeletedClientRatio(0.0);
+        config.setOrdersPerYear(orders / 2);
+        config.setAchatsPerYear(orders / 40);
+        config.setLabelsPerYear(0);
+        context.getBean(DatasetGenerator.class).generate(config);
+    }
+}
@@ -0,0 +1,66 @@
+package com.honeyai.benchmark;
+
+import com.honeyai.dto.ClientSuggestion;
+import com.honeyai.model.Client;
+import com.honeyai.service.ClientService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client search: a common name, an accented name typed without accents, a phone fragment
+ * (full-text index), and a two-letter term that falls back to the LIKE query. The same terms
+ * go through the in-memory typeahead of the order form.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClientSearchBenchmark {
+
+    @Param({"20000"})
+    public int clients;
+
+    @Param({"martin", "helene", "06 12", "du"})
+    public String query;
+
+    private ConfigurableApplicationContext context;
+    private ClientService clientService;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("clients");
+        BenchmarkContext.seed(context, clients, 0);
+        clientService = context.getBean(ClientService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Client> searchClients() {
+        return clientService.searchClients(query);
+    }
+
+    @Benchmark
+    public List<ClientSuggestion> autocomplete() {
+        return clientService.autocomplete(query, null);
+    }
+}
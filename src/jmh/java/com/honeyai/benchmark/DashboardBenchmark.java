@@ -0,0 +1,75 @@
+package com.honeyai.benchmark;
+
+import com.honeyai.dto.TopProduitDto;
+import com.honeyai.service.DashboardService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard figures over a generated dataset, for a whole year (served from the monthly
+ * rollups) and for a period not aligned on months (aggregated from the order lines).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DashboardBenchmark {
+
+    @Param({"20000"})
+    public int orders;
+
+    @Param({"year", "partial"})
+    public String period;
+
+    private ConfigurableApplicationContext context;
+    private DashboardService dashboardService;
+    private LocalDate start;
+    private LocalDate end;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("dashboard");
+        BenchmarkContext.seed(context, 2_000, orders);
+        dashboardService = context.getBean(DashboardService.class);
+        if ("year".equals(period)) {
+            start = LocalDate.of(2025, 1, 1);
+            end = LocalDate.of(2025, 12, 31);
+        } else {
+            start = LocalDate.of(2025, 1, 15);
+            end = LocalDate.of(2025, 12, 14);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TopProduitDto> getTopProduits() {
+        return dashboardService.getTopProduits(start, end, 5);
+    }
+
+    @Benchmark
+    public BigDecimal calculateChiffreAffaires() {
+        return dashboardService.calculateChiffreAffaires(start, end);
+    }
+}
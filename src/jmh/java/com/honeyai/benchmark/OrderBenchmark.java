@@ -0,0 +1,80 @@
+package com.honeyai.benchmark;
+
+import com.honeyai.model.Client;
+import com.honeyai.model.Order;
+import com.honeyai.model.OrderLine;
+import com.honeyai.model.Product;
+import com.honeyai.repository.ClientRepository;
+import com.honeyai.repository.ProductRepository;
+import com.honeyai.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order creation through {@link OrderService#create}: validation, insert of the order and its
+ * lines, and update of the sales rollups, on a database already holding a year of orders.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderBenchmark {
+
+    @Param({"3"})
+    public int lines;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private List<Client> clients;
+    private List<Product> products;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkContext.start("orders");
+        BenchmarkContext.seed(context, 1_000, 5_000);
+        orderService = context.getBean(OrderService.class);
+        clients = context.getBean(ClientRepository.class).findByDeletedAtIsNullOrderByNameAsc();
+        products = context.getBean(ProductRepository.class).findAllByOrderByNameAsc();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Long create() {
+        int n = next++;
+        Order order = Order.builder()
+                .client(clients.get(n % clients.size()))
+                .orderDate(BenchmarkContext.FIRST_DAY.plusDays(n % BenchmarkContext.DAYS))
+                .build();
+        for (int l = 0; l < lines; l++) {
+            order.addLigne(OrderLine.builder()
+                    .product(products.get((n + l) % products.size()))
+                    .quantity(1 + l)
+                    .unitPrice(new BigDecimal("8.50"))
+                    .build());
+        }
+        return orderService.create(order).getId();
+    }
+}
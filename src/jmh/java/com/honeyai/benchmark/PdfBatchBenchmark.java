@@ -0,0 +1,115 @@
+package com.honeyai.benchmark;
+
+import com.honeyai.config.EtiquetteConfig;
+import com.honeyai.dto.EtiquetteBatchLine;
+import com.honeyai.dto.EtiquetteData;
+import com.honeyai.service.PdfService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-page label batches by number of render threads: one thread is the sequential baseline,
+ * and batches per second should grow with the threads up to the cores of the machine. Each
+ * batch also reports its size per label.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PdfBatchBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int renderThreads;
+
+    @Param({"50"})
+    public int pages;
+
+    private PdfService pdfService;
+    private List<EtiquetteBatchLine> lines;
+    private int labels;
+
+    @Setup
+    public void setUp() {
+        EtiquetteConfig config = new EtiquetteConfig();
+        config.setSiret("51103678001500");
+        config.setNomApiculteur("Exploitation Apicole Familiale");
+        config.setAdresse("12 chemin des crouzettes, 43370 Cussac-sur-Loire");
+        config.setTelephone("04 71 03 12 43");
+        config.setRenderThreads(renderThreads);
+        config.setParallelRenderMinPages(2);
+        pdfService = new PdfService(config, new SimpleMeterRegistry());
+
+        // One product per page, 3x7 labels
+        lines = new ArrayList<>();
+        for (int i = 0; i < pages; i++) {
+            EtiquetteData data = EtiquetteData.builder()
+                    .typeMiel(i % 2 == 0 ? "Toutes Fleurs" : "Chataignier")
+                    .formatPot("500g")
+                    .poids("Poids net: 500g")
+                    .dateRecolte("Juin 2026")
+                    .nomApiculteur(config.getNomApiculteur())
+                    .adresse(config.getAdresse())
+                    .siret(config.getSiret())
+                    .telephone(config.getTelephone())
+                    .dluo(LocalDate.of(2028, 6, 15))
+                    .prixUnitaire(new BigDecimal("8.50").add(BigDecimal.valueOf(i)))
+                    .build();
+            lines.add(EtiquetteBatchLine.builder().data(data).quantite(config.getLabelsPerPage()).build());
+            labels += config.getLabelsPerPage();
+        }
+    }
+
+    @Benchmark
+    public int etiquetteBatch(OutputSize size) {
+        CountingStream out = new CountingStream();
+        int written = pdfService.writeEtiquetteBatch(lines, null, out);
+        size.bytesPerLabel = (double) out.count / labels;
+        return written;
+    }
+
+    /**
+     * Bytes of PDF per label of the last batch, reported as a secondary result. JMH sums event
+     * counters over the iterations; each iteration's value is the size (see BenchmarkComparison).
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class OutputSize {
+
+        public double bytesPerLabel;
+    }
+
+    private static final class CountingStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.honeyai.benchmark;
+
+import com.honeyai.config.EtiquetteConfig;
+import com.honeyai.config.LabelCacheConfig;
+import com.honeyai.config.LabelPreset;
+import com.honeyai.dto.EtiquetteData;
+import com.honeyai.service.LabelPdfCache;
+import com.honeyai.service.PdfService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Label rendering: one label, and one full sheet per label layout, rendered and read back from
+ * the label cache on disk (a reprint). Sheets also report their size per label.
+ * <p>
+ * The layouts cover the shipped default and common Avery sheets, from 8 to 65 labels per page,
+ * so they do not depend on the data/label-presets.yml of the machine running the benchmark.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PdfBenchmark {
+
+    private static final Map<String, LabelPreset> PRESETS = Map.of(
+            "Standard", preset("Standard", 60.0f, 40.0f, 3, 7, 10.0f, 10.0f),
+            "Avery-L7160", preset("Avery-L7160", 63.5f, 38.1f, 3, 7, 15.1f, 7.2f),
+            "Avery-L7165", preset("Avery-L7165", 99.1f, 67.7f, 2, 4, 13.1f, 4.6f),
+            "Avery-L7651", preset("Avery-L7651", 38.1f, 21.2f, 5, 13, 10.7f, 4.7f));
+
+    @Param({"Standard", "Avery-L7160", "Avery-L7165", "Avery-L7651"})
+    public String preset;
+
+    private PdfService pdfService;
+    private LabelPreset labelPreset;
+    private EtiquetteData data;
+    private LabelPdfCache labelPdfCache;
+    private String sheetKey;
+
+    @Setup
+    public void setUp() throws IOException {
+        EtiquetteConfig config = new EtiquetteConfig();
+        config.setSiret("51103678001500");
+        config.setNomApiculteur("Exploitation Apicole Familiale");
+        config.setAdresse("12 chemin des crouzettes, 43370 Cussac-sur-Loire");
+        config.setTelephone("04 71 03 12 43");
+        config.setDluoDureeJours(730);
+        config.setLabelWidthMm(60.0f);
+        config.setLabelHeightMm(40.0f);
+        config.setLabelsPerRow(3);
+        config.setLabelsPerColumn(7);
+        config.setMarginTopMm(10.0f);
+        config.setMarginLeftMm(10.0f);
+        pdfService = new PdfService(config, new SimpleMeterRegistry());
+
+        labelPreset = PRESETS.get(preset);
+        data = EtiquetteData.builder()
+                .typeMiel("Toutes Fleurs")
+                .formatPot("500g")
+                .poids("Poids net: 500g")
+                .dateRecolte("Juin 2026")
+                .nomApiculteur(config.getNomApiculteur())
+                .adresse(config.getAdresse())
+                .siret(config.getSiret())
+                .telephone(config.getTelephone())
+                .dluo(LocalDate.of(2028, 6, 15))
+                .prixUnitaire(new BigDecimal("8.50"))
+                .build();
+
+        // Disk tier only, so every lookup reads the file
+        LabelCacheConfig cacheConfig = new LabelCacheConfig();
+        cacheConfig.setDirectory(Files.createTempDirectory("honeyai-label-cache").toString());
+        cacheConfig.setMaxMemoryMb(0);
+        labelPdfCache = new LabelPdfCache(cacheConfig, new SimpleMeterRegistry());
+        sheetKey = pdfService.sheetCacheKey(data, labelPreset);
+        cachedEtiquetteSheet();
+    }
+
+    /**
+     * One label of the current layout on a fresh page, including the document set-up.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int renderLabel() throws IOException {
+        try (PDDocument document = pdfService.createDocument()) {
+            PDPage page = pdfService.createPage(PDRectangle.A4);
+            document.addPage(page);
+            pdfService.renderLabel(document, page, data, 20f, 20f,
+                    labelPreset.getLabelWidthMm(), labelPreset.getLabelHeightMm());
+            return document.getNumberOfPages();
+        }
+    }
+
+    @Benchmark
+    public byte[] generateEtiquetteSheet(OutputSize size) {
+        byte[] pdf = pdfService.generateEtiquetteSheet(data, labelPreset);
+        size.bytesPerLabel = (double) pdf.length / labelPreset.getLabelsPerPage();
+        return pdf;
+    }
+
+    @Benchmark
+    public byte[] cachedEtiquetteSheet() {
+        return labelPdfCache.getOrRender(sheetKey, out -> pdfService.writeEtiquetteSheet(data, labelPreset, out))
+                .content();
+    }
+
+    /**
+     * Bytes of PDF per label of the last sheet, reported as a secondary result. JMH sums event
+     * counters over the iterations; each iteration's value is the size (see BenchmarkComparison).
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class OutputSize {
+
+        public double bytesPerLabel;
+    }
+
+    private static LabelPreset preset(String name, float width, float height, int perRow, int perColumn,
+                                      float marginTop, float marginLeft) {
+        return LabelPreset.builder()
+                .name(name)
+                .labelWidthMm(width)
+                .labelHeightMm(height)
+                .labelsPerRow(perRow)
+                .labelsPerColumn(perColumn)
+                .marginTopMm(marginTop)
+                .marginLeftMm(marginLeft)
+                .build();
+    }
+}
@@ -0,0 +1,25 @@
+package com.honeyai.config;
+
+import com.honeyai.service.ClientAutocompleteIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the in-memory client autocomplete index at startup, after the seed data, so the first
+ * keystroke in the order form does not pay for reading every client.
+ */
+@Component
+@Profile("!test")
+@RequiredArgsConstructor
+public class ClientAutocompleteInitializer implements ApplicationRunner {
+
+    private final ClientAutocompleteIndex clientAutocompleteIndex;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        clientAutocompleteIndex.rebuild();
+    }
+}
@@ -0,0 +1,39 @@
+package com.honeyai.config;
+
+import com.honeyai.repository.ClientRepository;
+import com.honeyai.service.ClientSearchIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the client full-text index on first start after the upgrade, and rebuilds it whenever
+ * its size no longer matches the number of active clients (clients changed outside the
+ * application, restored backup).
+ */
+@Component
+@Profile("!test")
+@RequiredArgsConstructor
+@Slf4j
+public class ClientSearchInitializer implements ApplicationRunner {
+
+    private final ClientSearchIndex clientSearchIndex;
+    private final ClientRepository clientRepository;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!clientSearchIndex.isAvailable()) {
+            return;
+        }
+        long indexed = clientSearchIndex.indexedCount();
+        long active = clientRepository.countByDeletedAtIsNull();
+        if (indexed != active) {
+            log.info("Index de recherche clients desynchronise ({} indexes, {} clients actifs), reconstruction",
+                    indexed, active);
+            clientSearchIndex.rebuild();
+        }
+    }
+}
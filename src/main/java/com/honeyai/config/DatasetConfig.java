@@ -0,0 +1,75 @@
+package com.honeyai.config;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Size and seed of the synthetic dataset written by {@code --generate-dataset}.
+ * The same seed on an empty database always produces the same rows.
+ */
+@ConfigurationProperties(prefix = "honeyai.dataset")
+@Validated
+@Data
+public class DatasetConfig {
+
+    /**
+     * Seed of the random generator.
+     */
+    @NotNull
+    private Long seed = 42L;
+
+    /**
+     * Number of years generated, ending with {@link #lastYear}.
+     */
+    @NotNull
+    @Min(1)
+    private Integer years = 3;
+
+    /**
+     * Last generated year; the current year when absent.
+     */
+    private Integer lastYear;
+
+    @NotNull
+    @Min(1)
+    private Integer clients = 2000;
+
+    /**
+     * Share of clients soft-deleted.
+     */
+    @NotNull
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private Double deletedClientRatio = 0.05;
+
+    @NotNull
+    @Min(0)
+    private Integer ordersPerYear = 20000;
+
+    /**
+     * Lines per order are drawn between 1 and this value.
+     */
+    @NotNull
+    @Min(1)
+    private Integer maxLinesPerOrder = 4;
+
+    @NotNull
+    @Min(0)
+    private Integer achatsPerYear = 120;
+
+    @NotNull
+    @Min(0)
+    private Integer labelsPerYear = 200;
+
+    /**
+     * Rows sent per JDBC batch.
+     */
+    @NotNull
+    @Min(1)
+    private Integer batchSize = 10000;
+}
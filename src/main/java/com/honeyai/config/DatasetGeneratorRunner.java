@@ -0,0 +1,36 @@
+package com.honeyai.config;
+
+import com.honeyai.service.DatasetGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Appends a synthetic dataset when the application is launched with {@code --generate-dataset},
+ * after the seed products exist. Size and seed come from {@code honeyai.dataset.*}:
+ * <pre>
+ * mvn spring-boot:run -Dspring-boot.run.arguments="--generate-dataset --honeyai.dataset.years=4"
+ * </pre>
+ */
+@Component
+@Profile("!test")
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@RequiredArgsConstructor
+public class DatasetGeneratorRunner implements ApplicationRunner {
+
+    static final String GENERATE_OPTION = "generate-dataset";
+
+    private final DatasetGenerator datasetGenerator;
+    private final DatasetConfig datasetConfig;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption(GENERATE_OPTION)) {
+            datasetGenerator.generate(datasetConfig);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.honeyai.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Hibernate second-level cache of the reference entities (products, prices, clients) and of
+ * the query results read on every page. Entries are evicted on write; the time to live only
+ * bounds how long a change made outside Hibernate can stay unseen.
+ */
+@ConfigurationProperties(prefix = "honeyai.entity-cache")
+@Validated
+@Data
+public class EntityCacheConfig {
+
+    /**
+     * Enables the second-level and query caches.
+     */
+    @NotNull
+    private Boolean enabled = true;
+
+    /**
+     * Maximum number of cached products, and of cached prices.
+     */
+    @NotNull
+    @Min(1)
+    private Long catalogMaxEntries = 2_000L;
+
+    /**
+     * Time to live of cached products and prices.
+     */
+    @NotNull
+    private Duration catalogTtl = Duration.ofHours(12);
+
+    /**
+     * Maximum number of cached clients.
+     */
+    @NotNull
+    @Min(1)
+    private Long clientMaxEntries = 20_000L;
+
+    /**
+     * Time to live of cached clients.
+     */
+    @NotNull
+    private Duration clientTtl = Duration.ofHours(1);
+
+    /**
+     * Maximum number of cached query results.
+     */
+    @NotNull
+    @Min(1)
+    private Long queryMaxEntries = 200L;
+
+    /**
+     * Time to live of cached query results.
+     */
+    @NotNull
+    private Duration queryTtl = Duration.ofMinutes(30);
+}
@@ -89,6 +89,28 @@ public class EtiquetteConfig {
     @Min(0)
     private Float marginLeftMm = 10.0f;
 
+    /**
+     * Heap buffer per PDF document in megabytes; streams beyond it spill to a temporary scratch file.
+     */
+    @NotNull
+    @Min(1)
+    private Integer pdfMemoryBufferMb = 16;
+
+    /**
+     * Label pages rendered at the same time off request threads, shared by all batches;
+     * 0 uses every processor but one, which stays available to interactive requests.
+     */
+    @NotNull
+    @Min(0)
+    private Integer renderThreads = 0;
+
+    /**
+     * Batches with fewer pages are rendered on the request thread alone.
+     */
+    @NotNull
+    @Min(1)
+    private Integer parallelRenderMinPages = 4;
+
     /**
      * Total labels per A4 page.
      */
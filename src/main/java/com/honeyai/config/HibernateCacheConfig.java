@@ -0,0 +1,82 @@
+package com.honeyai.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache and query cache on Caffeine, through JCache.
+ * <p>
+ * The regions are created here with their size and time-to-live limits, and Hibernate is set to
+ * fail on any other region, so every cached entity or query has explicit bounds. Each context
+ * gets its own cache manager, so test contexts never share (or close) each other's regions.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "honeyai.entity-cache", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+@Slf4j
+public class HibernateCacheConfig {
+
+    private static final String PRODUCT_REGION = "product";
+    private static final String PRICE_REGION = "price";
+    private static final String CLIENT_REGION = "client";
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(EntityCacheConfig config) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("honeyai:entity-cache:" + UUID.randomUUID()), getClass().getClassLoader());
+
+        cacheManager.createCache(PRODUCT_REGION, region(config.getCatalogMaxEntries(), config.getCatalogTtl()));
+        cacheManager.createCache(PRICE_REGION, region(config.getCatalogMaxEntries(), config.getCatalogTtl()));
+        cacheManager.createCache(CLIENT_REGION, region(config.getClientMaxEntries(), config.getClientTtl()));
+        cacheManager.createCache(QUERY_RESULTS_REGION, region(config.getQueryMaxEntries(), config.getQueryTtl()));
+        // One entry per table, and must outlive the query results it validates
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, region(null, null));
+
+        log.info("Cache de second niveau: catalogue {} entrees/{}, clients {} entrees/{}, requetes {} entrees/{}",
+                config.getCatalogMaxEntries(), config.getCatalogTtl(), config.getClientMaxEntries(),
+                config.getClientTtl(), config.getQueryMaxEntries(), config.getQueryTtl());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheProperties(CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(Long maxEntries, Duration ttl) {
+        CaffeineConfiguration<Object, Object> region = new CaffeineConfiguration<>();
+        if (maxEntries != null) {
+            region.setMaximumSize(OptionalLong.of(maxEntries));
+        }
+        if (ttl != null) {
+            region.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        region.setStatisticsEnabled(true);
+        return region;
+    }
+}
@@ -0,0 +1,45 @@
+package com.honeyai.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Cache of generated label sheets. A sheet is stored under a hash of everything that affects
+ * the PDF (label data, price, layout), so reprinting the same sheet reads a file instead of
+ * rendering it again. Least recently used sheets are evicted once a size budget is exceeded.
+ */
+@ConfigurationProperties(prefix = "honeyai.label-cache")
+@Validated
+@Data
+public class LabelCacheConfig {
+
+    /**
+     * Serves repeated label sheets from the cache.
+     */
+    @NotNull
+    private Boolean enabled = true;
+
+    /**
+     * Directory of the cached PDF files.
+     */
+    @NotBlank
+    private String directory = "./data/label-cache";
+
+    /**
+     * Size budget of the cached files on disk, in megabytes.
+     */
+    @NotNull
+    @Min(1)
+    private Integer maxDiskMb = 256;
+
+    /**
+     * Size budget of the sheets also kept on the heap, in megabytes; 0 reads every hit from disk.
+     */
+    @NotNull
+    @Min(0)
+    private Integer maxMemoryMb = 16;
+}
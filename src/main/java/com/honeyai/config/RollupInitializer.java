@@ -0,0 +1,40 @@
+package com.honeyai.config;
+
+import com.honeyai.dto.RollupRebuildReport;
+import com.honeyai.service.RollupService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the monthly rollups on first start after an upgrade (empty rollup tables) and
+ * rebuilds them on demand when the application is launched with {@code --rebuild-rollups}.
+ * The rebuild compares the stored rollups with the raw orders and purchases and logs any drift.
+ */
+@Component
+@Profile("!test")
+@RequiredArgsConstructor
+@Slf4j
+public class RollupInitializer implements ApplicationRunner {
+
+    static final String REBUILD_OPTION = "rebuild-rollups";
+
+    private final RollupService rollupService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (args.containsOption(REBUILD_OPTION)) {
+            log.info("Rebuilding sales and achat rollups (--{})", REBUILD_OPTION);
+            RollupRebuildReport report = rollupService.rebuild();
+            if (!report.isConsistent()) {
+                log.warn("Rollups were out of sync with raw data and have been regenerated");
+            }
+        } else if (rollupService.isEmpty()) {
+            log.info("Rollup tables empty, building them from existing orders and achats");
+            rollupService.rebuild();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.honeyai.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Per-request SQL monitoring: statement counts, rows and JDBC time, and detection of repeated
+ * identical statements (N+1 queries).
+ */
+@ConfigurationProperties(prefix = "honeyai.sql-monitoring")
+@Validated
+@Data
+public class SqlMonitoringConfig {
+
+    /**
+     * Records SQL activity for every HTTP request.
+     */
+    @NotNull
+    private Boolean enabled = true;
+
+    /**
+     * A request preparing the same statement this many times is reported as an N+1 pattern.
+     */
+    @NotNull
+    @Min(2)
+    private Integer repeatThreshold = 5;
+
+    /**
+     * Adds the {@code X-Sql-Stats} header to responses, with the SQL run until the response is
+     * committed. Meant for development.
+     */
+    @NotNull
+    private Boolean debugHeader = false;
+}
@@ -0,0 +1,240 @@
+package com.honeyai.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the SQL activity of each request ({@link SqlRequestStats}), including the queries run
+ * while rendering the view, and publishes it as metrics tagged with the handler's URI pattern:
+ * <ul>
+ *     <li>{@code honeyai.sql.statements} and {@code honeyai.sql.rows}, per request</li>
+ *     <li>{@code honeyai.sql.jdbc}, JDBC execution time per request</li>
+ *     <li>{@code honeyai.sql.repeated}, requests that repeated a statement at least
+ *     {@code honeyai.sql-monitoring.repeat-threshold} times, each also logged as a warning</li>
+ * </ul>
+ * The finished recording is left in the {@link #STATS_ATTRIBUTE} request attribute. When
+ * {@code honeyai.sql-monitoring.debug-header} is set, the {@code X-Sql-Stats} header carries the
+ * recording as it stands when the response is committed: bodies are never buffered, so streamed
+ * and asynchronous downloads pass through untouched, but SQL run while the rest of a large page
+ * is written is only in the metrics.
+ * <p>
+ * Enables its own properties so that MVC test slices, which pick up filters, can build it.
+ */
+@Component
+@EnableConfigurationProperties(SqlMonitoringConfig.class)
+@RequiredArgsConstructor
+@Slf4j
+public class SqlMonitoringFilter extends OncePerRequestFilter {
+
+    public static final String STATS_ATTRIBUTE = SqlRequestStats.class.getName();
+    public static final String HEADER = "X-Sql-Stats";
+
+    private final SqlMonitoringConfig config;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !config.getEnabled() || path.startsWith("/css/") || path.startsWith("/js/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlRequestStats recording = SqlRequestStats.start();
+        StatsHeaderResponse withHeader = config.getDebugHeader()
+                ? new StatsHeaderResponse(response, recording, config.getRepeatThreshold()) : null;
+        SqlRequestStats stats;
+        try {
+            chain.doFilter(request, withHeader != null ? withHeader : response);
+        } finally {
+            stats = SqlRequestStats.stop();
+        }
+        request.setAttribute(STATS_ATTRIBUTE, stats);
+        report(request, stats);
+        if (withHeader != null && !request.isAsyncStarted()) {
+            // Responses without a body are committed after the filter returns
+            withHeader.addStatsHeader();
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlRequestStats stats) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        Map<String, Integer> repeated = stats.getRepeatedStatements(config.getRepeatThreshold());
+        repeated.forEach((sql, count) -> log.warn("N+1 probable sur {} {}: requete executee {} fois: {}",
+                request.getMethod(), uri, count, sql));
+
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        DistributionSummary.builder("honeyai.sql.statements").tag("uri", uri).register(registry)
+                .record(stats.getStatementCount());
+        DistributionSummary.builder("honeyai.sql.rows").tag("uri", uri).register(registry)
+                .record(stats.getRows());
+        Timer.builder("honeyai.sql.jdbc").tag("uri", uri).register(registry)
+                .record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+        if (!repeated.isEmpty()) {
+            registry.counter("honeyai.sql.repeated", "uri", uri).increment();
+        }
+    }
+
+    /**
+     * Adds the stats header just before the response is committed: on the first write or flush
+     * of the body, on redirects and errors, or when the filter returns.
+     */
+    private static final class StatsHeaderResponse extends HttpServletResponseWrapper {
+
+        private final SqlRequestStats recording;
+        private final int repeatThreshold;
+        private boolean headerAdded;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        StatsHeaderResponse(HttpServletResponse response, SqlRequestStats recording, int repeatThreshold) {
+            super(response);
+            this.recording = recording;
+            this.repeatThreshold = repeatThreshold;
+        }
+
+        synchronized void addStatsHeader() {
+            if (headerAdded || isCommitted()) {
+                return;
+            }
+            headerAdded = true;
+            setHeader(HEADER, recording + "; repeated=" + recording.getRepeatedStatements(repeatThreshold).size());
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new HeaderFirstOutputStream(super.getOutputStream());
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new HeaderFirstWriter(super.getWriter()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            addStatsHeader();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            addStatsHeader();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            addStatsHeader();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            addStatsHeader();
+            super.sendRedirect(location);
+        }
+
+        private final class HeaderFirstOutputStream extends ServletOutputStream {
+
+            private final ServletOutputStream delegate;
+
+            HeaderFirstOutputStream(ServletOutputStream delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(int b) throws IOException {
+                addStatsHeader();
+                delegate.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                addStatsHeader();
+                delegate.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                addStatsHeader();
+                delegate.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                addStatsHeader();
+                delegate.close();
+            }
+
+            @Override
+            public boolean isReady() {
+                return delegate.isReady();
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                delegate.setWriteListener(writeListener);
+            }
+        }
+
+        private final class HeaderFirstWriter extends Writer {
+
+            private final Writer delegate;
+
+            HeaderFirstWriter(Writer delegate) {
+                this.delegate = delegate;
+            }
+
+            @Override
+            public void write(char[] cbuf, int off, int len) throws IOException {
+                addStatsHeader();
+                delegate.write(cbuf, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                addStatsHeader();
+                delegate.flush();
+            }
+
+            @Override
+            public void close() throws IOException {
+                addStatsHeader();
+                delegate.close();
+            }
+        }
+    }
+}
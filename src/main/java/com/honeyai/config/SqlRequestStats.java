@@ -0,0 +1,97 @@
+package com.honeyai.config;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL activity of the current HTTP request: statements prepared by Hibernate, rows returned by
+ * queries and entity fetches, and time spent executing JDBC statements.
+ * <p>
+ * Bound to the request thread by {@link SqlMonitoringFilter} and fed by
+ * {@link SqlStatementCounter}, {@link SqlTimingSessionListener} and {@link SqlRowStatistics}.
+ * Statements issued outside a monitored request (startup, scheduled jobs) are not recorded.
+ * Queries run directly through {@code JdbcTemplate} bypass Hibernate and are not counted either.
+ */
+public final class SqlRequestStats {
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Integer> statements = new HashMap<>();
+    private int statementCount;
+    private long rows;
+    private long jdbcNanos;
+
+    /**
+     * Starts recording on the current thread, replacing any previous recording.
+     */
+    public static SqlRequestStats start() {
+        SqlRequestStats stats = new SqlRequestStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /**
+     * Stops recording on the current thread.
+     *
+     * @return the finished recording, or null when none was started
+     */
+    public static SqlRequestStats stop() {
+        SqlRequestStats stats = CURRENT.get();
+        CURRENT.remove();
+        return stats;
+    }
+
+    static SqlRequestStats current() {
+        return CURRENT.get();
+    }
+
+    void statement(String sql) {
+        statementCount++;
+        statements.merge(sql, 1, Integer::sum);
+    }
+
+    void rows(long count) {
+        rows += count;
+    }
+
+    void jdbcTime(long nanos) {
+        jdbcNanos += nanos;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    public double getJdbcMillis() {
+        return jdbcNanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    /**
+     * Statements prepared at least {@code threshold} times with the same SQL, most repeated
+     * first: the signature of an N+1 query pattern.
+     */
+    public Map<String, Integer> getRepeatedStatements(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        statements.entrySet().stream()
+                .filter(entry -> entry.getValue() >= threshold)
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(entry -> repeated.put(entry.getKey(), entry.getValue()));
+        return Collections.unmodifiableMap(repeated);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("statements=%d; rows=%d; jdbc-ms=%.1f", statementCount, rows, getJdbcMillis());
+    }
+}
@@ -0,0 +1,48 @@
+package com.honeyai.config;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+/**
+ * Hibernate statistics that also attribute rows to the current {@link SqlRequestStats}: the
+ * result rows of each query, plus one row per entity fetched on its own (lookup by id or lazy
+ * association). Registered through {@code hibernate.stats.factory}; requires
+ * {@code hibernate.generate_statistics}.
+ */
+public class SqlRowStatistics extends StatisticsImpl {
+
+    public SqlRowStatistics(SessionFactoryImplementor sessionFactory) {
+        super(sessionFactory);
+    }
+
+    @Override
+    public void queryExecuted(String hql, int rows, long time) {
+        super.queryExecuted(hql, rows, time);
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null) {
+            stats.rows(rows);
+        }
+    }
+
+    @Override
+    public void fetchEntity(String entityName) {
+        super.fetchEntity(entityName);
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null) {
+            stats.rows(1);
+        }
+    }
+
+    /**
+     * Factory named by {@code hibernate.stats.factory}.
+     */
+    public static class Factory implements StatisticsFactory {
+
+        @Override
+        public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+            return new SqlRowStatistics(sessionFactory);
+        }
+    }
+}
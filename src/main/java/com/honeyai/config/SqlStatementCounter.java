@@ -0,0 +1,20 @@
+package com.honeyai.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every SQL statement Hibernate prepares into the current {@link SqlRequestStats}.
+ * Registered through {@code hibernate.session_factory.statement_inspector}; the SQL is returned
+ * unchanged.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null) {
+            stats.statement(sql);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,41 @@
+package com.honeyai.config;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Adds the time spent in JDBC statement and batch execution to the current
+ * {@link SqlRequestStats}. Hibernate creates one instance per session, registered through
+ * {@code hibernate.session.events.auto}.
+ */
+public class SqlTimingSessionListener implements SessionEventListener {
+
+    private long executeStart;
+    private long batchStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        record(executeStart);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        record(batchStart);
+    }
+
+    private static void record(long start) {
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null && start != 0) {
+            stats.jdbcTime(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.honeyai.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteDataSource;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * SQLite datasource layer: WAL journal, one serialized writer and a read-only pool.
+ * <p>
+ * In WAL mode readers never wait for the writer, but SQLite still allows a single writer at a
+ * time. Instead of letting several pooled connections race for the write lock (and fail with
+ * SQLITE_BUSY), all read-write work goes through one writer connection, with a bounded number
+ * of callers queued behind it. {@code @Transactional(readOnly = true)} work is routed to a pool
+ * of read-only connections by {@link LazyConnectionDataSourceProxy}, which fetches the physical
+ * connection only once the transaction's read-only flag is known.
+ */
+@Configuration
+@Profile("!test")
+@Slf4j
+public class SqliteDataSourceConfig {
+
+    @Bean(destroyMethod = "close", defaultCandidate = false)
+    public HikariDataSource sqliteWriteDataSource(
+            @Value("${spring.datasource.url}") String url,
+            @Value("${honeyai.datasource.busy-timeout-ms:5000}") int busyTimeoutMs,
+            @Value("${honeyai.datasource.write-timeout-ms:10000}") long writeTimeoutMs) {
+        return writePool(url, busyTimeoutMs, writeTimeoutMs);
+    }
+
+    @Bean(destroyMethod = "close", defaultCandidate = false)
+    public HikariDataSource sqliteReadDataSource(
+            @Qualifier("sqliteWriteDataSource") HikariDataSource sqliteWriteDataSource,
+            @Value("${spring.datasource.url}") String url,
+            @Value("${honeyai.datasource.busy-timeout-ms:5000}") int busyTimeoutMs,
+            @Value("${honeyai.datasource.read-pool-size:4}") int readPoolSize) {
+        // Depends on the writer: it creates the database file and switches it to WAL first
+        return readPool(url, busyTimeoutMs, readPoolSize);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("sqliteWriteDataSource") HikariDataSource sqliteWriteDataSource,
+            @Qualifier("sqliteReadDataSource") HikariDataSource sqliteReadDataSource,
+            @Value("${honeyai.datasource.write-queue-capacity:16}") int writeQueueCapacity) {
+        log.info("SQLite en mode WAL: 1 connexion d'ecriture (file de {}), {} connexions de lecture",
+                writeQueueCapacity, sqliteReadDataSource.getMaximumPoolSize());
+        return routing(sqliteWriteDataSource, sqliteReadDataSource, writeQueueCapacity);
+    }
+
+    /**
+     * Pool metrics of both SQLite pools ({@code hikaricp.connections.active}, {@code .pending},
+     * {@code .acquire} for the wait time, tagged {@code pool=sqlite-writer|sqlite-reader}) and
+     * {@code honeyai.sqlite.write.queue}, the callers queued for the writer connection.
+     */
+    @Bean
+    public MeterBinder sqlitePoolMetrics(
+            @Qualifier("sqliteWriteDataSource") HikariDataSource sqliteWriteDataSource,
+            @Qualifier("sqliteReadDataSource") HikariDataSource sqliteReadDataSource,
+            DataSource dataSource) {
+        return registry -> {
+            for (HikariDataSource pool : List.of(sqliteWriteDataSource, sqliteReadDataSource)) {
+                if (pool.getMetricsTrackerFactory() == null && pool.getMetricRegistry() == null) {
+                    pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+                }
+            }
+            if (dataSource instanceof LazyConnectionDataSourceProxy proxy
+                    && proxy.getTargetDataSource() instanceof WriteQueueDataSource queue) {
+                Gauge.builder("honeyai.sqlite.write.queue", queue, WriteQueueDataSource::getWaiting)
+                        .description("Callers waiting for the SQLite writer connection")
+                        .register(registry);
+            }
+        };
+    }
+
+    static HikariDataSource writePool(String url, int busyTimeoutMs, long writeTimeoutMs) {
+        SQLiteConfig sqlite = new SQLiteConfig();
+        sqlite.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        sqlite.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        sqlite.setBusyTimeout(busyTimeoutMs);
+
+        HikariConfig hikari = new HikariConfig();
+        hikari.setPoolName("sqlite-writer");
+        hikari.setDataSource(dataSource(url, sqlite));
+        hikari.setMaximumPoolSize(1);
+        hikari.setMinimumIdle(1);
+        hikari.setConnectionTimeout(writeTimeoutMs);
+        return new HikariDataSource(hikari);
+    }
+
+    static HikariDataSource readPool(String url, int busyTimeoutMs, int poolSize) {
+        SQLiteConfig sqlite = new SQLiteConfig();
+        sqlite.setReadOnly(true);
+        sqlite.setBusyTimeout(busyTimeoutMs);
+
+        HikariConfig hikari = new HikariConfig();
+        hikari.setPoolName("sqlite-reader");
+        hikari.setDataSource(dataSource(url, sqlite));
+        // Must match the connection flag: SQLite cannot switch it once opened
+        hikari.setReadOnly(true);
+        hikari.setMaximumPoolSize(poolSize);
+        hikari.setMinimumIdle(1);
+        return new HikariDataSource(hikari);
+    }
+
+    static DataSource routing(DataSource writer, DataSource reader, int writeQueueCapacity) {
+        LazyConnectionDataSourceProxy proxy =
+                new LazyConnectionDataSourceProxy(new WriteQueueDataSource(writer, writeQueueCapacity));
+        proxy.setReadOnlyDataSource(reader);
+        return proxy;
+    }
+
+    private static SQLiteDataSource dataSource(String url, SQLiteConfig config) {
+        SQLiteDataSource dataSource = new SQLiteDataSource(config);
+        dataSource.setUrl(url);
+        return dataSource;
+    }
+}
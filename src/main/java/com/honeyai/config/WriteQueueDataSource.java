@@ -0,0 +1,51 @@
+package com.honeyai.config;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Bounds the number of callers waiting for the single SQLite writer connection.
+ * Up to {@code capacity} threads queue in the writer pool; beyond that, {@link #getConnection()}
+ * fails immediately instead of piling up request threads behind a long write.
+ */
+class WriteQueueDataSource extends DelegatingDataSource {
+
+    private final Semaphore waiting;
+    private final int capacity;
+
+    WriteQueueDataSource(DataSource writer, int capacity) {
+        super(writer);
+        this.capacity = capacity;
+        this.waiting = new Semaphore(capacity);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!waiting.tryAcquire()) {
+            throw new SQLTransientConnectionException(
+                    "File d'attente d'ecriture SQLite pleine (" + capacity + " en attente)");
+        }
+        try {
+            return super.getConnection();
+        } finally {
+            waiting.release();
+        }
+    }
+
+    /**
+     * Callers currently waiting for or acquiring the writer connection.
+     */
+    int getWaiting() {
+        return capacity - waiting.availablePermits();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+}
@@ -1,5 +1,6 @@
 package com.honeyai.controller;
 
+import com.honeyai.dto.KeysetPage;
 import com.honeyai.enums.CategorieAchat;
 import com.honeyai.model.Achat;
 import com.honeyai.service.AchatService;
@@ -16,10 +17,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Controller
 @RequestMapping("/achats")
@@ -32,32 +35,20 @@ public class AchatController {
     @GetMapping
     public String list(@RequestParam(required = false) Integer year,
                        @RequestParam(required = false) CategorieAchat categorie,
+                       @RequestParam(required = false) String after,
+                       @RequestParam(required = false) String before,
+                       @RequestParam(required = false) Integer size,
                        Model model) {
 
-        List<Achat> achats;
-        BigDecimal total;
-
-        if (year != null && categorie != null) {
-            LocalDate start = LocalDate.of(year, 1, 1);
-            LocalDate end = LocalDate.of(year, 12, 31);
-            achats = achatService.findByPeriod(start, end).stream()
-                    .filter(a -> a.getCategorie() == categorie)
-                    .toList();
-        } else if (year != null) {
-            LocalDate start = LocalDate.of(year, 1, 1);
-            LocalDate end = LocalDate.of(year, 12, 31);
-            achats = achatService.findByPeriod(start, end);
-        } else if (categorie != null) {
-            achats = achatService.findByCategorie(categorie);
-        } else {
-            achats = achatService.findAll();
-        }
-
-        total = achats.stream()
-                .map(Achat::getMontant)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        KeysetPage<Achat> page = achatService.findPage(year, categorie, after, before, size);
+        BigDecimal total = achatService.calculateTotal(year, categorie);
 
-        model.addAttribute("achats", achats);
+        model.addAttribute("achats", page.getContent());
+        model.addAttribute("page", page);
+        model.addAttribute("nextUrl", page.hasNext()
+                ? listUrl(year, categorie, size, "after", page.getNextCursor()) : null);
+        model.addAttribute("prevUrl", page.hasPrevious()
+                ? listUrl(year, categorie, size, "before", page.getPrevCursor()) : null);
         model.addAttribute("total", total);
         model.addAttribute("categories", CategorieAchat.values());
         model.addAttribute("selectedYear", year);
@@ -77,7 +68,7 @@ public class AchatController {
 
         if (bindingResult.hasErrors()) {
             log.warn("Erreurs de validation achat: {}", bindingResult.getAllErrors());
-            model.addAttribute("achats", achatService.findAll());
+            model.addAttribute("achats", achatService.findPage(null, null, null, null, null).getContent());
             model.addAttribute("total", BigDecimal.ZERO);
             model.addAttribute("categories", CategorieAchat.values());
             model.addAttribute("availableYears", getAvailableYears());
@@ -129,6 +120,18 @@ public class AchatController {
         return "redirect:/achats";
     }
 
+    /**
+     * Build a list URL keeping the current filters and pointing at a pagination cursor.
+     */
+    private String listUrl(Integer year, CategorieAchat categorie, Integer size, String direction, String cursor) {
+        return UriComponentsBuilder.fromPath("/achats")
+                .queryParamIfPresent("year", Optional.ofNullable(year))
+                .queryParamIfPresent("categorie", Optional.ofNullable(categorie))
+                .queryParamIfPresent("size", Optional.ofNullable(size))
+                .queryParam(direction, cursor)
+                .toUriString();
+    }
+
     private List<Integer> getAvailableYears() {
         int currentYear = LocalDate.now().getYear();
         return List.of(currentYear, currentYear - 1, currentYear - 2);
@@ -1,6 +1,7 @@
 package com.honeyai.controller;
 
 import com.honeyai.dto.BackupFileDto;
+import com.honeyai.dto.BackupResult;
 import com.honeyai.service.BackupService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,11 +16,13 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -30,6 +33,9 @@ import java.util.List;
 @Slf4j
 public class BackupController {
 
+    static final String BACKUP_PAGES_HEADER = "X-Backup-Pages";
+    static final String BACKUP_ELAPSED_HEADER = "X-Backup-Elapsed-Ms";
+
     private final BackupService backupService;
 
     @GetMapping
@@ -42,11 +48,14 @@ public class BackupController {
 
     @PostMapping("/manual")
     public String manualBackup(RedirectAttributes redirectAttributes) {
-        Path result = backupService.performBackup();
+        BackupResult result = backupService.performBackup();
         if (result != null) {
-            log.info("Backup manuel reussi: {}", result.getFileName());
+            log.info("Backup manuel reussi: {}", result.getFilename());
             redirectAttributes.addFlashAttribute("successMessage",
-                    "Sauvegarde creee avec succes : " + result.getFileName());
+                    "Sauvegarde creee avec succes : " + result.getFilename()
+                            + " (" + result.getPagesCopied() + " pages copiees en " + result.getElapsedMs() + " ms, "
+                            + result.getChunksWritten() + " blocs nouveaux, "
+                            + result.getChunksReused() + " deja sauvegardes)");
         } else {
             log.error("Echec du backup manuel");
             redirectAttributes.addFlashAttribute("errorMessage",
@@ -56,18 +65,19 @@ public class BackupController {
     }
 
     @GetMapping("/download/{filename}")
-    public ResponseEntity<Resource> downloadBackup(@PathVariable String filename) throws IOException {
-        Path filePath = backupService.getBackupFile(filename);
-        if (filePath == null) {
+    public ResponseEntity<StreamingResponseBody> downloadBackup(@PathVariable String filename) {
+        BackupFileDto backup = backupService.getBackupFile(filename);
+        if (backup == null) {
             return ResponseEntity.notFound().build();
         }
 
-        InputStreamResource resource = new InputStreamResource(Files.newInputStream(filePath));
+        // Snapshots are rebuilt from the backup store while being sent
+        StreamingResponseBody body = out -> backupService.writeBackup(filename, out);
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
                 .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .contentLength(Files.size(filePath))
-                .body(resource);
+                .contentLength(backup.getSizeBytes())
+                .body(body);
     }
 
     @GetMapping("/export-db")
@@ -78,14 +88,25 @@ public class BackupController {
             return ResponseEntity.notFound().build();
         }
 
+        BackupResult result = backupService.exportDatabase();
+        if (result == null) {
+            return ResponseEntity.internalServerError().build();
+        }
+
         String exportFilename = "honeyai-export-" +
                 LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE) + ".db";
 
-        InputStreamResource resource = new InputStreamResource(Files.newInputStream(dbPath));
+        // The temporary copy is removed once the download stream is closed
+        Path exportPath = result.getPath();
+        long size = Files.size(exportPath);
+        InputStreamResource resource = new InputStreamResource(
+                Files.newInputStream(exportPath, StandardOpenOption.DELETE_ON_CLOSE));
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + exportFilename + "\"")
+                .header(BACKUP_PAGES_HEADER, String.valueOf(result.getPagesCopied()))
+                .header(BACKUP_ELAPSED_HEADER, String.valueOf(result.getElapsedMs()))
                 .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .contentLength(Files.size(dbPath))
+                .contentLength(size)
                 .body(resource);
     }
 }
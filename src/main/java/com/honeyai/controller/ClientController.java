@@ -1,12 +1,17 @@
 package com.honeyai.controller;
 
 import com.honeyai.dto.ClientOrderStatsDto;
+import com.honeyai.dto.ClientRow;
+import com.honeyai.dto.ClientSuggestion;
+import com.honeyai.dto.KeysetPage;
+import com.honeyai.dto.OrderSummary;
+import com.honeyai.enums.ClientSort;
 import com.honeyai.model.Client;
-import com.honeyai.model.Order;
 import com.honeyai.service.ClientService;
 import com.honeyai.service.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.validation.BindingResult;
@@ -16,9 +21,12 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.List;
+import java.util.Optional;
 
 @Controller
 @RequestMapping("/clients")
@@ -31,25 +39,58 @@ public class ClientController {
     private final OrderService orderService;
 
     @GetMapping
-    public String list(@RequestParam(required = false) String search, Model model) {
-        List<Client> clients;
-        if (search != null && !search.trim().isEmpty()) {
-            clients = clientService.searchClients(search);
+    public String list(@RequestParam(required = false) String search,
+                       @RequestParam(required = false) String after,
+                       @RequestParam(required = false) String before,
+                       @RequestParam(required = false) Integer size,
+                       @RequestParam(defaultValue = "NAME") ClientSort sort,
+                       Model model) {
+        String term = (search != null && !search.trim().isEmpty()) ? search : null;
+        if (term != null) {
             model.addAttribute("search", search);
-        } else {
-            clients = clientService.findAllActive();
         }
-        model.addAttribute("clients", clients);
+        KeysetPage<ClientRow> page = clientService.findPage(term, sort, after, before, size);
+
+        model.addAttribute("clients", page.getContent());
+        model.addAttribute("page", page);
+        model.addAttribute("sort", sort);
+        model.addAttribute("sorts", ClientSort.values());
+        model.addAttribute("nextUrl", page.hasNext()
+                ? listUrl(term, sort, size, "after", page.getNextCursor()) : null);
+        model.addAttribute("prevUrl", page.hasPrevious()
+                ? listUrl(term, sort, size, "before", page.getPrevCursor()) : null);
         model.addAttribute("activeMenu", "clients");
         return "clients/list";
     }
 
+    /**
+     * Build a list URL keeping the current search and sort and pointing at a pagination cursor.
+     */
+    private String listUrl(String search, ClientSort sort, Integer size, String direction, String cursor) {
+        return UriComponentsBuilder.fromPath("/clients")
+                .queryParamIfPresent("search", Optional.ofNullable(search))
+                .queryParamIfPresent("sort", Optional.of(sort).filter(s -> s != ClientSort.NAME))
+                .queryParamIfPresent("size", Optional.ofNullable(size))
+                .queryParam(direction, cursor)
+                .toUriString();
+    }
+
+    /**
+     * Typeahead of the order form: active clients matching a partially typed name or phone, as JSON.
+     */
+    @GetMapping(value = "/autocomplete", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public List<ClientSuggestion> autocomplete(@RequestParam(defaultValue = "") String q,
+                                               @RequestParam(required = false) Integer limit) {
+        return clientService.autocomplete(q, limit);
+    }
+
     @GetMapping("/{id}")
     public String detail(@PathVariable Long id, Model model) {
-        Client client = clientService.findByIdOrThrow(id);
+        ClientRow client = clientService.findRowByIdOrThrow(id);
 
-        // Get orders with limit and stats
-        List<Order> orders = orderService.findByClientIdWithLimit(id, MAX_ORDERS_DISPLAYED);
+        // Get order summaries with limit and stats
+        List<OrderSummary> orders = orderService.findSummariesByClientId(id, MAX_ORDERS_DISPLAYED);
         long totalOrderCount = orderService.countByClientId(id);
         ClientOrderStatsDto orderStats = orderService.getClientOrderStats(id);
 
@@ -57,7 +98,6 @@ public class ClientController {
         model.addAttribute("orders", orders);
         model.addAttribute("orderStats", orderStats);
         model.addAttribute("hasMoreOrders", totalOrderCount > MAX_ORDERS_DISPLAYED);
-        model.addAttribute("orderService", orderService);
         model.addAttribute("activeMenu", "clients");
         return "clients/detail";
     }
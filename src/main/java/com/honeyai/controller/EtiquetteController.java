@@ -2,16 +2,24 @@ package com.honeyai.controller;
 
 import com.honeyai.config.LabelPreset;
 import com.honeyai.config.LabelPresetsConfig;
+import com.honeyai.dto.EtiquetteBatchEntry;
+import com.honeyai.dto.EtiquetteBatchLine;
+import com.honeyai.dto.EtiquetteBatchRequest;
 import com.honeyai.dto.EtiquetteData;
 import com.honeyai.dto.EtiquetteRequest;
 import com.honeyai.enums.FormatPot;
 import com.honeyai.enums.HoneyType;
+import com.honeyai.exception.PdfGenerationException;
 import com.honeyai.service.EtiquetteService;
+import com.honeyai.service.LabelPdfCache;
 import com.honeyai.service.PdfService;
 import com.honeyai.service.ProductService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -22,10 +30,16 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Controller for label generation UI and PDF download.
@@ -40,6 +54,7 @@ public class EtiquetteController {
     private final PdfService pdfService;
     private final ProductService productService;
     private final LabelPresetsConfig labelPresetsConfig;
+    private final LabelPdfCache labelPdfCache;
 
     /**
      * Display the label generation form.
@@ -64,21 +79,20 @@ public class EtiquetteController {
     }
 
     /**
-     * Generate PDF labels and return as downloadable file.
+     * Generate PDF labels and write them to the response as a downloadable file.
+     * The sheet comes from the label cache when the same one was printed before. The print is
+     * recorded in the history before any byte is sent, so a failed record shows the form again.
      */
     @PostMapping("/generer")
     public Object generatePdf(@Valid @ModelAttribute("etiquetteRequest") EtiquetteRequest request,
                               BindingResult bindingResult,
-                              Model model) {
+                              Model model,
+                              HttpServletResponse response) {
 
         // Validation errors - return to form
         if (bindingResult.hasErrors()) {
             log.warn("Validation errors for label generation: {}", bindingResult.getAllErrors());
-            model.addAttribute("honeyTypes", HoneyType.values());
-            model.addAttribute("formatPots", FormatPot.values());
-            model.addAttribute("labelPresets", labelPresetsConfig.getPresets());
-            model.addAttribute("etiquetteConfig", pdfService.getEtiquetteConfig());
-            model.addAttribute("activeMenu", "etiquettes");
+            addFormAttributes(model);
             return "etiquettes/form";
         }
 
@@ -87,56 +101,226 @@ public class EtiquetteController {
                     request.getTypeMiel(), request.getFormatPot(),
                     request.getDateRecolte(), request.getPresetName());
 
-            // Resolve preset
-            LabelPreset preset = labelPresetsConfig.findByName(request.getPresetName())
-                    .orElse(labelPresetsConfig.getDefault());
-
-            // Build label data
-            EtiquetteData data = etiquetteService.buildEtiquetteData(request);
-
-            // Lookup price
-            BigDecimal price = productService.findPriceByTypeAndFormat(
-                    request.getTypeMiel(), request.getFormatPot());
-            data.setPrixUnitaire(price);
-
-            if (price == null) {
-                log.warn("No price found for {} {}, generating labels without price",
-                        request.getTypeMiel(), request.getFormatPot());
-            }
-
-            // Generate PDF (one full page) with preset
-            byte[] pdfBytes = pdfService.generateEtiquetteSheet(data, preset);
+            LabelPreset preset = resolvePreset(request.getPresetName());
+            EtiquetteData data = buildPricedData(request);
+            LabelPdfCache.CachedPdf pdf = renderSheet(data, preset);
 
             // Save history record
-            int labelsPerPage = preset.getLabelsPerPage();
-            etiquetteService.saveHistorique(request, data, price, labelsPerPage);
+            request.setPresetName(preset.getName());
+            etiquetteService.saveHistorique(request, data, data.getPrixUnitaire(), preset.getLabelsPerPage());
 
             // Build filename
             String filename = buildFilename(request);
 
-            log.info("PDF generated successfully: {} bytes, filename={}",
-                    pdfBytes.length, filename);
+            // Write PDF (one full page) with preset as download
+            response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+            response.setHeader(HttpHeaders.ETAG, pdf.etag());
+            response.setContentLength(pdf.content().length);
+            response.getOutputStream().write(pdf.content());
+
+            log.info("PDF generated successfully: filename={}", filename);
 
-            // Return PDF as download
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
-                    .contentType(MediaType.APPLICATION_PDF)
-                    .contentLength(pdfBytes.length)
-                    .body(pdfBytes);
+            // Response resolved as an argument marks the request handled: no view is rendered
+            return null;
 
         } catch (Exception e) {
             log.error("Error generating PDF labels: {}", e.getMessage(), e);
+            if (response.isCommitted()) {
+                throw new PdfGenerationException("PDF partially sent: " + e.getMessage(), e);
+            }
+            response.reset();
 
             model.addAttribute("error", "Erreur lors de la generation du PDF. Veuillez reessayer.");
-            model.addAttribute("honeyTypes", HoneyType.values());
-            model.addAttribute("formatPots", FormatPot.values());
-            model.addAttribute("labelPresets", labelPresetsConfig.getPresets());
-            model.addAttribute("etiquetteConfig", pdfService.getEtiquetteConfig());
-            model.addAttribute("activeMenu", "etiquettes");
+            addFormAttributes(model);
             return "etiquettes/form";
         }
     }
 
+    /**
+     * Reprint a sheet from the history: record the print, then redirect to its download.
+     * Recording stays on this POST so that fetching the sheet itself has no side effect.
+     */
+    @PostMapping("/reimprimer")
+    public String reprint(@RequestParam("type") HoneyType typeMiel,
+                          @RequestParam("format") FormatPot formatPot,
+                          @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateRecolte,
+                          @RequestParam(value = "preset", required = false) String presetName,
+                          RedirectAttributes redirectAttributes) {
+        LabelPreset preset = resolvePreset(presetName);
+        EtiquetteRequest request = EtiquetteRequest.builder()
+                .typeMiel(typeMiel)
+                .formatPot(formatPot)
+                .dateRecolte(dateRecolte)
+                .presetName(preset.getName())
+                .build();
+        EtiquetteData data = buildPricedData(request);
+        etiquetteService.saveHistorique(request, data, data.getPrixUnitaire(), preset.getLabelsPerPage());
+        log.info("Label sheet reprinted: type={}, format={}, date={}, preset={}",
+                typeMiel, formatPot, dateRecolte, preset.getName());
+
+        redirectAttributes.addAttribute("type", typeMiel);
+        redirectAttributes.addAttribute("format", formatPot);
+        redirectAttributes.addAttribute("date", dateRecolte.format(DateTimeFormatter.ISO_LOCAL_DATE));
+        redirectAttributes.addAttribute("preset", preset.getName());
+        return "redirect:/etiquettes/telecharger";
+    }
+
+    /**
+     * Download a label sheet from its inputs. Reprints are recorded by {@link #reprint}, which
+     * redirects here; this handler only reads.
+     * The response carries the sheet's cache key as ETag: when the browser already holds that
+     * sheet (If-None-Match), it gets 304 Not Modified and nothing is rendered.
+     */
+    @GetMapping("/telecharger")
+    public ResponseEntity<byte[]> downloadPdf(@RequestParam("type") HoneyType typeMiel,
+                                              @RequestParam("format") FormatPot formatPot,
+                                              @RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateRecolte,
+                                              @RequestParam(value = "preset", required = false) String presetName,
+                                              WebRequest webRequest) {
+        EtiquetteRequest request = EtiquetteRequest.builder()
+                .typeMiel(typeMiel)
+                .formatPot(formatPot)
+                .dateRecolte(dateRecolte)
+                .presetName(presetName)
+                .build();
+        LabelPreset preset = resolvePreset(presetName);
+        EtiquetteData data = buildPricedData(request);
+
+        String key = pdfService.sheetCacheKey(data, preset);
+        if (webRequest.checkNotModified("\"" + key + "\"")) {
+            log.debug("Label sheet not modified: {}", key);
+            return null;
+        }
+
+        LabelPdfCache.CachedPdf pdf = labelPdfCache.getOrRender(key,
+                out -> pdfService.writeEtiquetteSheet(data, preset, out));
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + buildFilename(request) + "\"")
+                .eTag(pdf.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(pdf.content());
+    }
+
+    private LabelPreset resolvePreset(String presetName) {
+        return labelPresetsConfig.findByName(presetName).orElse(labelPresetsConfig.getDefault());
+    }
+
+    /**
+     * Label data for a request, with the current year price when there is one.
+     */
+    private EtiquetteData buildPricedData(EtiquetteRequest request) {
+        EtiquetteData data = etiquetteService.buildEtiquetteData(request);
+        BigDecimal price = productService.findPriceByTypeAndFormat(
+                request.getTypeMiel(), request.getFormatPot());
+        data.setPrixUnitaire(price);
+        if (price == null) {
+            log.warn("No price found for {} {}, generating labels without price",
+                    request.getTypeMiel(), request.getFormatPot());
+        }
+        return data;
+    }
+
+    /**
+     * One label sheet, from the cache or rendered and cached.
+     */
+    private LabelPdfCache.CachedPdf renderSheet(EtiquetteData data, LabelPreset preset) {
+        return labelPdfCache.getOrRender(pdfService.sheetCacheKey(data, preset),
+                out -> pdfService.writeEtiquetteSheet(data, preset, out));
+    }
+
+    /**
+     * Display the batch form: one line per honey type and jar format, quantities at zero.
+     */
+    @GetMapping("/lot")
+    public String showBatchForm(Model model) {
+        EtiquetteBatchRequest batchRequest = EtiquetteBatchRequest.builder()
+                .presetName(labelPresetsConfig.getDefault().getName())
+                .build();
+        LocalDate today = LocalDate.now();
+        for (HoneyType type : HoneyType.values()) {
+            for (FormatPot format : FormatPot.values()) {
+                batchRequest.getEntries().add(EtiquetteBatchEntry.builder()
+                        .etiquette(EtiquetteRequest.builder()
+                                .typeMiel(type)
+                                .formatPot(format)
+                                .dateRecolte(today)
+                                .build())
+                        .quantite(0)
+                        .build());
+            }
+        }
+
+        model.addAttribute("batchRequest", batchRequest);
+        addBatchFormAttributes(model);
+        return "etiquettes/lot";
+    }
+
+    /**
+     * Generate a multi-page PDF for several products at once and write it to the response.
+     * Labels continue on the next free slot of the sheet from one product to the next.
+     * One history record per printed line is saved before the PDF is streamed: once bytes are
+     * sent, a failure can no longer be reported to the user.
+     */
+    @PostMapping("/lot")
+    public Object generateBatchPdf(@Valid @ModelAttribute("batchRequest") EtiquetteBatchRequest batchRequest,
+                                   BindingResult bindingResult,
+                                   Model model,
+                                   HttpServletResponse response) throws IOException {
+
+        if (!bindingResult.hasErrors() && batchRequest.getTotalQuantite() == 0) {
+            bindingResult.reject("lot.vide", "Indiquez au moins une etiquette a imprimer");
+        }
+        if (bindingResult.hasErrors()) {
+            log.warn("Validation errors for label batch: {}", bindingResult.getAllErrors());
+            addBatchFormAttributes(model);
+            return "etiquettes/lot";
+        }
+
+        LabelPreset preset = resolvePreset(batchRequest.getPresetName());
+
+        List<EtiquetteBatchLine> lines = new ArrayList<>();
+        for (EtiquetteBatchEntry entry : batchRequest.getPrintableEntries()) {
+            EtiquetteRequest request = entry.getEtiquette();
+            request.setPresetName(preset.getName());
+            EtiquetteData data = buildPricedData(request);
+            lines.add(EtiquetteBatchLine.builder()
+                    .request(request)
+                    .data(data)
+                    .quantite(entry.getQuantite())
+                    .build());
+        }
+
+        log.info("Generating label batch: {} lines, {} labels, preset={}",
+                lines.size(), batchRequest.getTotalQuantite(), preset.getName());
+
+        etiquetteService.saveHistoriqueBatch(lines);
+
+        String filename = "etiquettes-lot-" + LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE) + ".pdf";
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"");
+
+        // Response resolved as an argument marks the request handled: no view is rendered
+        pdfService.writeEtiquetteBatch(lines, preset, response.getOutputStream());
+        return null;
+    }
+
+    private void addFormAttributes(Model model) {
+        model.addAttribute("honeyTypes", HoneyType.values());
+        model.addAttribute("formatPots", FormatPot.values());
+        model.addAttribute("labelPresets", labelPresetsConfig.getPresets());
+        model.addAttribute("etiquetteConfig", pdfService.getEtiquetteConfig());
+        model.addAttribute("activeMenu", "etiquettes");
+    }
+
+    private void addBatchFormAttributes(Model model) {
+        model.addAttribute("labelPresets", labelPresetsConfig.getPresets());
+        model.addAttribute("etiquetteConfig", pdfService.getEtiquetteConfig());
+        model.addAttribute("activeMenu", "etiquettes");
+    }
+
     /**
      * Build the PDF filename.
      * Format: etiquettes-{type}-{date}.pdf
@@ -166,13 +350,14 @@ public class EtiquetteController {
             @org.springframework.web.bind.annotation.RequestParam("type") String typeMiel,
             @org.springframework.web.bind.annotation.RequestParam("format") String formatPot,
             @org.springframework.web.bind.annotation.RequestParam("date") @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) LocalDate dateRecolte,
+            @org.springframework.web.bind.annotation.RequestParam(value = "preset", required = false) String presetName,
             Model model) {
 
         EtiquetteRequest request = EtiquetteRequest.builder()
                 .typeMiel(HoneyType.valueOf(typeMiel))
                 .formatPot(FormatPot.valueOf(formatPot))
                 .dateRecolte(dateRecolte)
-                .presetName(labelPresetsConfig.getDefault().getName())
+                .presetName(resolvePreset(presetName).getName())
                 .build();
 
         model.addAttribute("etiquetteRequest", request);
@@ -1,8 +1,11 @@
 package com.honeyai.controller;
 
+import com.honeyai.dto.KeysetPage;
+import com.honeyai.dto.OrderDetail;
 import com.honeyai.dto.OrderFormDto;
 import com.honeyai.dto.OrderLineDto;
-import com.honeyai.dto.ProductPriceDto;
+import com.honeyai.dto.OrderSummary;
+import com.honeyai.dto.ProductWithPrice;
 import com.honeyai.enums.OrderStatus;
 import com.honeyai.exception.InvalidStatusTransitionException;
 import com.honeyai.model.Client;
@@ -25,9 +28,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Controller
 @RequestMapping("/orders")
@@ -43,6 +49,9 @@ public class OrderController {
     public String list(
             @RequestParam(required = false) Integer year,
             @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) String before,
+            @RequestParam(required = false) Integer size,
             Model model) {
 
         int currentYear = LocalDate.now().getYear();
@@ -50,8 +59,8 @@ public class OrderController {
         // Default to current year if not specified
         Integer filterYear = year;
 
-        // Get filtered orders
-        List<Order> orders = orderService.findWithFilters(filterYear, status);
+        // Get one keyset page of filtered orders
+        KeysetPage<OrderSummary> page = orderService.findPage(filterYear, status, after, before, size);
 
         // Get distinct years for filter dropdown (as mutable list)
         List<Integer> years = new java.util.ArrayList<>(orderService.getDistinctYears());
@@ -60,18 +69,34 @@ public class OrderController {
             years.addFirst(currentYear);
         }
 
-        model.addAttribute("orders", orders);
+        model.addAttribute("orders", page.getContent());
+        model.addAttribute("page", page);
+        model.addAttribute("nextUrl", page.hasNext()
+                ? listUrl(filterYear, status, size, "after", page.getNextCursor()) : null);
+        model.addAttribute("prevUrl", page.hasPrevious()
+                ? listUrl(filterYear, status, size, "before", page.getPrevCursor()) : null);
         model.addAttribute("currentYear", currentYear);
         model.addAttribute("years", years);
         model.addAttribute("status", OrderStatus.values());
         model.addAttribute("selectedYear", filterYear);
         model.addAttribute("selectedStatus", status);
-        model.addAttribute("orderService", orderService);
         model.addAttribute("activeMenu", "orders");
 
         return "orders/list";
     }
 
+    /**
+     * Build a list URL keeping the current filters and pointing at a pagination cursor.
+     */
+    private String listUrl(Integer year, OrderStatus status, Integer size, String direction, String cursor) {
+        return UriComponentsBuilder.fromPath("/orders")
+                .queryParamIfPresent("year", Optional.ofNullable(year))
+                .queryParamIfPresent("status", Optional.ofNullable(status))
+                .queryParamIfPresent("size", Optional.ofNullable(size))
+                .queryParam(direction, cursor)
+                .toUriString();
+    }
+
     @GetMapping("/new")
     public String showCreateForm(
             @RequestParam(required = false) Long clientId,
@@ -128,19 +153,7 @@ public class OrderController {
                                .build();
 
             // Add lignes
-            for (OrderLineDto ligneDto : form.getLines()) {
-                Product product = productService.findById(ligneDto.getProductId())
-                        .orElseThrow(() -> new IllegalArgumentException(
-                                "Produit non trouve: " + ligneDto.getProductId()));
-
-                OrderLine ligne = OrderLine.builder()
-                                           .product(product)
-                                           .quantity(ligneDto.getQuantity())
-                                           .unitPrice(ligneDto.getUnitPrice())
-                                           .build();
-
-                order.addLigne(ligne);
-            }
+            toLines(form.getLines()).forEach(order::addLigne);
 
             Order saved = orderService.create(order);
             log.info("Created order #{}", saved.getId());
@@ -158,11 +171,11 @@ public class OrderController {
 
     @GetMapping("/{id}")
     public String showDetail(@PathVariable Long id, Model model) {
-        Order order = orderService.findById(id)
-                                  .orElseThrow(() -> new IllegalArgumentException("Commande non trouvee: " + id));
+        OrderDetail order = orderService.findDetail(id)
+                                        .orElseThrow(() -> new IllegalArgumentException("Commande non trouvee: " + id));
 
         model.addAttribute("order", order);
-        model.addAttribute("total", orderService.calculateTotal(id));
+        model.addAttribute("total", order.total());
         model.addAttribute("activeMenu", "orders");
 
         return "orders/detail";
@@ -266,19 +279,7 @@ public class OrderController {
 
             // Clear existing lignes and add new ones
             order.getLines().clear();
-            for (OrderLineDto lineDto : form.getLines()) {
-                Product product = productService.findById(lineDto.getProductId())
-                        .orElseThrow(() -> new IllegalArgumentException(
-                                "Produit non trouve: " + lineDto.getProductId()));
-
-                OrderLine line = OrderLine.builder()
-                                           .product(product)
-                                           .quantity(lineDto.getQuantity())
-                                           .unitPrice(lineDto.getUnitPrice())
-                                           .build();
-
-                order.addLigne(line);
-            }
+            toLines(form.getLines()).forEach(order::addLigne);
 
             orderService.save(order);
             log.info("Updated order #{}", id);
@@ -296,12 +297,39 @@ public class OrderController {
         }
     }
 
+    /**
+     * Build order lines from the form lines, resolving all their products with one query.
+     */
+    private List<OrderLine> toLines(List<OrderLineDto> lineDtos) {
+        Map<Long, Product> products = productService.findAllById(
+                lineDtos.stream().map(OrderLineDto::getProductId).toList());
+
+        return lineDtos.stream()
+                .map(lineDto -> {
+                    Product product = products.get(lineDto.getProductId());
+                    if (product == null) {
+                        throw new IllegalArgumentException("Produit non trouve: " + lineDto.getProductId());
+                    }
+                    return OrderLine.builder()
+                                    .product(product)
+                                    .quantity(lineDto.getQuantity())
+                                    .unitPrice(lineDto.getUnitPrice())
+                                    .build();
+                })
+                .toList();
+    }
+
     private void prepareFormModel(Model model, OrderFormDto form) {
-        List<Client> clients = clientService.findAllActive();
-        List<ProductPriceDto> products = productService.findAllWithCurrentYearPrices();
+        // Clients are picked through the autocomplete endpoint; only the selected one is rendered
+        Client selectedClient = form.getClientId() != null
+                ? clientService.findById(form.getClientId()).orElse(null) : null;
+        if (selectedClient == null) {
+            form.setClientId(null);
+        }
+        List<ProductWithPrice> products = productService.findAllWithCurrentYearPrices();
 
         model.addAttribute("orderForm", form);
-        model.addAttribute("clients", clients);
+        model.addAttribute("selectedClient", selectedClient);
         model.addAttribute("products", products);
         model.addAttribute("activeMenu", "orders");
     }
@@ -1,6 +1,8 @@
 package com.honeyai.controller;
 
+import com.honeyai.dto.ProductWithPrice;
 import com.honeyai.model.Product;
+import com.honeyai.service.EntityCacheService;
 import com.honeyai.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,15 +22,18 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final EntityCacheService entityCacheService;
 
     @GetMapping
     public String list(Model model) {
-        List<Product> products = productService.findAll();
+        List<ProductWithPrice> products = productService.findAllWithCurrentYearPrices();
         int currentYear = LocalDate.now().getYear();
 
         model.addAttribute("products", products);
         model.addAttribute("currentYear", currentYear);
         model.addAttribute("productService", productService);
+        model.addAttribute("priceCacheStats", productService.getPriceCacheStats());
+        model.addAttribute("entityCacheStats", entityCacheService.getStats());
         model.addAttribute("activeMenu", "products");
 
         return "products/list";
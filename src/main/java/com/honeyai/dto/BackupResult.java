@@ -0,0 +1,26 @@
+package com.honeyai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.file.Path;
+
+/**
+ * Outcome of an online SQLite backup: the backup name and written file, the number of database
+ * pages copied and how long the copy took. For snapshots kept in the backup store, {@code path}
+ * is the manifest and the chunk counts tell how much of the snapshot was new.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BackupResult {
+    private String filename;
+    private Path path;
+    private int pagesCopied;
+    private long elapsedMs;
+    private int chunksWritten;
+    private int chunksReused;
+}
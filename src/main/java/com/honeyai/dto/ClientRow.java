@@ -0,0 +1,16 @@
+package com.honeyai.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Read model of a client for the lists, the detail page and the order form.
+ * Fetched as a projection, so it carries no orders association and never enters the persistence context.
+ *
+ * @param orderCount    number of orders, from the denormalised client stats
+ * @param lifetimeValue sum of the paid orders, from the denormalised client stats
+ */
+public record ClientRow(Long id, String name, String phone, String email, String address, String notes,
+                        LocalDateTime createdAt, LocalDateTime updatedAt,
+                        Long orderCount, BigDecimal lifetimeValue) {
+}
@@ -0,0 +1,7 @@
+package com.honeyai.dto;
+
+/**
+ * One typeahead match of the order form client search, serialised as JSON.
+ */
+public record ClientSuggestion(Long id, String name, String phone) {
+}
@@ -0,0 +1,27 @@
+package com.honeyai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * All dashboard figures for one period, computed from grouped queries instead of
+ * hydrating every paid order and purchase.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DashboardSnapshot {
+
+    private BigDecimal chiffreAffaires;
+    private BigDecimal totalDepenses;
+    private BigDecimal benefice;
+    private long commandesPayees;
+    private List<TopProduitDto> topProduits;
+    private List<DepenseCategorieDto> depensesParCategorie;
+}
@@ -0,0 +1,24 @@
+package com.honeyai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Rows written by the synthetic dataset generator.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DatasetReport {
+
+    private int clients;
+    private int prices;
+    private int orders;
+    private int orderLines;
+    private int achats;
+    private int labels;
+    private long elapsedMs;
+}
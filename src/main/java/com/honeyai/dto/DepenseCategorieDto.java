@@ -17,4 +17,11 @@ public class DepenseCategorieDto {
     private CategorieAchat categorie;
     private BigDecimal montant;
     private int pourcentage;
+
+    /**
+     * Constructor used by the JPQL per-category aggregation; the percentage is filled in afterwards.
+     */
+    public DepenseCategorieDto(CategorieAchat categorie, BigDecimal montant) {
+        this(categorie, montant, 0);
+    }
 }
@@ -0,0 +1,30 @@
+package com.honeyai.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of a label batch: a product (type, format, harvest date) and how many labels to print.
+ * Lines with a quantity of zero are ignored.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EtiquetteBatchEntry {
+
+    @Valid
+    @NotNull
+    private EtiquetteRequest etiquette;
+
+    @NotNull(message = "La quantite est obligatoire")
+    @Min(value = 0, message = "La quantite ne peut pas etre negative")
+    @Max(value = 5000, message = "La quantite ne peut pas depasser 5000")
+    private Integer quantite;
+}
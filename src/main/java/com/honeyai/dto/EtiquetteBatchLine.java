@@ -0,0 +1,21 @@
+package com.honeyai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Resolved form of a batch entry: the originating request, the label data (with price) and the
+ * number of copies to lay out.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EtiquetteBatchLine {
+
+    private EtiquetteRequest request;
+    private EtiquetteData data;
+    private int quantite;
+}
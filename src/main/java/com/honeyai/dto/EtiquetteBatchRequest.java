@@ -0,0 +1,44 @@
+package com.honeyai.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Request DTO for batch label generation: several products printed in one PDF on a shared preset.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class EtiquetteBatchRequest {
+
+    /**
+     * Optional label preset name. If null or empty, default preset is used.
+     */
+    private String presetName;
+
+    @Valid
+    @NotEmpty(message = "Le lot doit contenir au moins une ligne")
+    @Builder.Default
+    private List<EtiquetteBatchEntry> entries = new ArrayList<>();
+
+    /**
+     * Entries with at least one label to print.
+     */
+    public List<EtiquetteBatchEntry> getPrintableEntries() {
+        return entries.stream()
+                .filter(e -> e.getQuantite() != null && e.getQuantite() > 0)
+                .toList();
+    }
+
+    public int getTotalQuantite() {
+        return getPrintableEntries().stream().mapToInt(EtiquetteBatchEntry::getQuantite).sum();
+    }
+}
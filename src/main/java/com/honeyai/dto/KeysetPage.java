@@ -0,0 +1,33 @@
+package com.honeyai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated list.
+ * Cursors are opaque URL-safe tokens pointing at the last (next) or first (previous) row of the page;
+ * they are null when there is nothing further in that direction.
+ */
+@Data
+@AllArgsConstructor
+public class KeysetPage<T> {
+
+    private List<T> content;
+    private String nextCursor;
+    private String prevCursor;
+    private int size;
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    public boolean hasPrevious() {
+        return prevCursor != null;
+    }
+
+    public boolean isEmpty() {
+        return content == null || content.isEmpty();
+    }
+}
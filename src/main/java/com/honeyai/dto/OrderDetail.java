@@ -0,0 +1,52 @@
+package com.honeyai.dto;
+
+import com.honeyai.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Read model of the order detail page: the order with its client contact and lines,
+ * assembled from two projections instead of the order entity graph.
+ */
+public record OrderDetail(Long id, LocalDate orderDate, OrderStatus status, String notes,
+                          LocalDateTime createdAt, LocalDateTime updatedAt,
+                          Long clientId, String clientName, String clientPhone,
+                          List<Line> lines) {
+
+    /**
+     * Order header as read by the repository, before its lines are attached.
+     */
+    public record Header(Long id, LocalDate orderDate, OrderStatus status, String notes,
+                         LocalDateTime createdAt, LocalDateTime updatedAt,
+                         Long clientId, String clientName, String clientPhone) {
+
+        public OrderDetail withLines(List<Line> lines) {
+            return new OrderDetail(id, orderDate, status, notes, createdAt, updatedAt,
+                    clientId, clientName, clientPhone, List.copyOf(lines));
+        }
+    }
+
+    /**
+     * One order line with its product name.
+     */
+    public record Line(Long id, String productName, Integer quantity, BigDecimal unitPrice) {
+
+        public BigDecimal total() {
+            return unitPrice.multiply(BigDecimal.valueOf(quantity));
+        }
+    }
+
+    /**
+     * Order total rounded to cents.
+     */
+    public BigDecimal total() {
+        return lines.stream()
+                .map(Line::total)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+}
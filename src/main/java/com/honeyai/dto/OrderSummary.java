@@ -0,0 +1,29 @@
+package com.honeyai.dto;
+
+import com.honeyai.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+
+/**
+ * Read model for one row of an orders table.
+ * Built directly by an aggregated JPQL query so a list never hydrates orders or their lines.
+ *
+ * @param lineCount number of lines of the order
+ * @param total     sum of the line totals, null for an order without lines
+ */
+public record OrderSummary(Long id, LocalDate orderDate, String clientName, OrderStatus status,
+                           Long lineCount, BigDecimal total) {
+
+    /**
+     * Order total rounded to cents, zero for an order without lines.
+     */
+    @Override
+    public BigDecimal total() {
+        if (total == null) {
+            return BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
+        }
+        return total.setScale(2, RoundingMode.HALF_UP);
+    }
+}
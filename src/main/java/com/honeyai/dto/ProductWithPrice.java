@@ -0,0 +1,25 @@
+package com.honeyai.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.honeyai.enums.HoneyType;
+
+import java.math.BigDecimal;
+
+/**
+ * Read model of a product with its price for one year, null when no price is set.
+ * Used by the order form dropdown and the products page.
+ */
+public record ProductWithPrice(Long id, String name, HoneyType type, String unit, BigDecimal price) {
+
+    /**
+     * Display label for dropdown: "Product Name - 12,50 EUR".
+     * Also serialized for the order form script, which builds new line options from it.
+     */
+    @JsonProperty
+    public String displayLabel() {
+        if (price != null) {
+            return String.format("%s - %s EUR", name, price.toString().replace('.', ','));
+        }
+        return name + " - Prix non defini";
+    }
+}
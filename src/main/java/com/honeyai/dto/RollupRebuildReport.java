@@ -0,0 +1,26 @@
+package com.honeyai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a rollup rebuild: how many rows were written and how many existing
+ * rows disagreed with the raw orders and purchases before the rebuild.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RollupRebuildReport {
+
+    private int salesRows;
+    private int achatRows;
+    private int salesMismatches;
+    private int achatMismatches;
+
+    public boolean isConsistent() {
+        return salesMismatches == 0 && achatMismatches == 0;
+    }
+}
@@ -1,5 +1,6 @@
 package com.honeyai.dto;
 
+import com.honeyai.enums.HoneyType;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,4 +18,11 @@ public class TopProduitDto {
     private String typeMiel;
     private Long quantiteTotale;
     private BigDecimal chiffreAffaires;
+
+    /**
+     * Constructor used by the JPQL sales aggregation (one row per product).
+     */
+    public TopProduitDto(String produitNom, HoneyType type, Long quantiteTotale, BigDecimal chiffreAffaires) {
+        this(produitNom, type != null ? type.getDisplayLabel() : null, quantiteTotale, chiffreAffaires);
+    }
 }
@@ -0,0 +1,19 @@
+package com.honeyai.enums;
+
+/**
+ * Sort order of the clients list.
+ */
+public enum ClientSort {
+    NAME("Nom"),
+    LIFETIME_VALUE("Chiffre d'affaires");
+
+    private final String displayLabel;
+
+    ClientSort(String displayLabel) {
+        this.displayLabel = displayLabel;
+    }
+
+    public String getDisplayLabel() {
+        return displayLabel;
+    }
+}
@@ -17,7 +17,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "achats")
+@Table(name = "achats", indexes = {
+    @Index(name = "idx_achats_date_categorie", columnList = "date_achat, categorie, montant"),
+    @Index(name = "idx_achats_categorie_date", columnList = "categorie, date_achat")
+})
 @EntityListeners(AuditingEntityListener.class)
 @Data
 @NoArgsConstructor
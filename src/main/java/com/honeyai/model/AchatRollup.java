@@ -0,0 +1,42 @@
+package com.honeyai.model;
+
+import com.honeyai.enums.CategorieAchat;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Purchase totals per category and calendar month, maintained by {@link com.honeyai.service.RollupService}
+ * whenever a purchase is saved or deleted.
+ */
+@Entity
+@Table(name = "achat_rollup", indexes = {
+    @Index(name = "uk_achat_rollup_period_categorie", columnList = "rollup_year, rollup_month, categorie", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AchatRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rollup_year", nullable = false)
+    private Integer year;
+
+    @Column(name = "rollup_month", nullable = false)
+    private Integer month;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CategorieAchat categorie;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal montant;
+}
@@ -4,20 +4,34 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "clients")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "client")
+@Table(name = "clients", indexes = {
+    @Index(name = "idx_clients_deleted_name", columnList = "deleted_at, name"),
+    @Index(name = "idx_clients_deleted_paid_total", columnList = "deleted_at, paid_total")
+})
 @EntityListeners(AuditingEntityListener.class)
-@Data
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -49,8 +63,29 @@ public class Client {
 
     private LocalDateTime deletedAt;
 
+    /**
+     * Number of orders, maintained by {@code ClientRepository.refreshStats}; never written by the entity.
+     */
+    @ColumnDefault("0")
+    @Column(name = "order_count", nullable = false, insertable = false, updatable = false)
+    private Long orderCount;
+
+    /**
+     * Date of the most recent order, maintained with {@link #orderCount}.
+     */
+    @Column(name = "last_order_date", insertable = false, updatable = false)
+    private LocalDate lastOrderDate;
+
+    /**
+     * Sum of the paid order lines (lifetime value), maintained with {@link #orderCount}.
+     */
+    @ColumnDefault("0")
+    @Column(name = "paid_total", nullable = false, insertable = false, updatable = false, precision = 12, scale = 2)
+    private BigDecimal paidTotal;
+
     @OneToMany(mappedBy = "client")
     @Builder.Default
+    @ToString.Exclude
     private List<Order> orders = new ArrayList<>();
 
     /**
@@ -60,4 +95,17 @@ public class Client {
     public boolean isDeleted() {
         return deletedAt != null;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof Client other && id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Client.class.hashCode();
+    }
 }
@@ -15,15 +15,20 @@ import java.time.LocalDateTime;
  * Provides traceability for regulatory compliance.
  */
 @Entity
-@Table(name = "historique_etiquettes")
+@Table(name = "historique_etiquettes", indexes = {
+    @Index(name = "idx_historique_date_generation", columnList = "date_generation")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class HistoriqueEtiquettes {
 
+    /**
+     * Assigned before the insert so the records of a label batch are written as one JDBC batch.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @MaxIdSequence
     private Long id;
 
     @Column(name = "type_miel", nullable = false)
@@ -46,4 +51,7 @@ public class HistoriqueEtiquettes {
 
     @Column(name = "prix_unitaire", precision = 10, scale = 2)
     private BigDecimal prixUnitaire;
+
+    @Column(name = "preset_name")
+    private String presetName;
 }
@@ -0,0 +1,59 @@
+package com.honeyai.model;
+
+import org.hibernate.engine.jdbc.spi.JdbcCoordinator;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Member;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Hands out ids from memory, starting after the current {@code MAX(id)} of the entity table.
+ * <p>
+ * IDENTITY ids are only known once each row is inserted, which rules out JDBC batching. A
+ * table-backed sequence would allocate through a second connection while the session holds
+ * the single SQLite writer, so ids are taken like {@code DatasetGenerator} does: writes are
+ * serialized on the writer connection, and the maximum read inside the session's transaction
+ * is the true one. It is read again for each new session, so rows inserted with plain JDBC are
+ * never reused; ids left unused by a rolled-back session only leave a gap.
+ */
+public class MaxIdGenerator implements IdentifierGenerator {
+
+    private final String sql;
+    private long lastId;
+    private WeakReference<SharedSessionContractImplementor> lastSession = new WeakReference<>(null);
+
+    public MaxIdGenerator(MaxIdSequence config, Member member, CustomIdGeneratorCreationContext context) {
+        String table = context.getPersistentClass().getTable().getName();
+        String column = context.getProperty().getColumns().getFirst().getName();
+        this.sql = "SELECT COALESCE(MAX(" + column + "), 0) FROM " + table;
+    }
+
+    @Override
+    public synchronized Object generate(SharedSessionContractImplementor session, Object object) {
+        if (lastSession.get() != session) {
+            lastId = Math.max(lastId, currentMax(session));
+            lastSession = new WeakReference<>(session);
+        }
+        return ++lastId;
+    }
+
+    private long currentMax(SharedSessionContractImplementor session) {
+        JdbcCoordinator jdbc = session.getJdbcCoordinator();
+        PreparedStatement statement = jdbc.getStatementPreparer().prepareStatement(sql);
+        try {
+            ResultSet rs = jdbc.getResultSetReturn().extract(statement, sql);
+            return rs.next() ? rs.getLong(1) : 0L;
+        } catch (SQLException e) {
+            throw session.getJdbcServices().getSqlExceptionHelper()
+                    .convert(e, "could not read the current maximum id", sql);
+        } finally {
+            jdbc.getLogicalConnection().getResourceRegistry().release(statement);
+            jdbc.afterStatementExecution();
+        }
+    }
+}
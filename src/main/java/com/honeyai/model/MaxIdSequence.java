@@ -0,0 +1,19 @@
+package com.honeyai.model;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Identifier assigned by {@link MaxIdGenerator} before the insert, so inserts of the entity
+ * can be grouped into JDBC batches.
+ */
+@IdGeneratorType(MaxIdGenerator.class)
+@Retention(RUNTIME)
+@Target(FIELD)
+public @interface MaxIdSequence {
+}
@@ -5,8 +5,10 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -17,9 +19,15 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+    @Index(name = "idx_orders_command_date", columnList = "command_date"),
+    @Index(name = "idx_orders_status_command_date", columnList = "status, command_date"),
+    @Index(name = "idx_orders_client_command_date", columnList = "client_id, command_date")
+})
 @EntityListeners(AuditingEntityListener.class)
-@Data
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -32,6 +40,7 @@ public class Order {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "client_id", nullable = false)
     @NotNull(message = "Le client est obligatoire")
+    @ToString.Exclude
     private Client client;
 
     @NotNull(message = "La date de commande est obligatoire")
@@ -48,6 +57,7 @@ public class Order {
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
+    @ToString.Exclude
     private List<OrderLine> lines = new ArrayList<>();
 
     @CreatedDate
@@ -81,4 +91,21 @@ public class Order {
             case PAID -> false; // Terminal state
         };
     }
+
+    /**
+     * Identity is the database id: a transient instance only equals itself, and neither
+     * equals, hashCode nor toString ever walks the client or lines association.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof Order other && id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Order.class.hashCode();
+    }
 }
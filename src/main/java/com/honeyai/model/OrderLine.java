@@ -6,30 +6,42 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "order_lines")
-@Data
+@Table(name = "order_lines", indexes = {
+    @Index(name = "idx_order_lines_order_product", columnList = "order_id, product_id, quantity, prix_unitaire"),
+    @Index(name = "idx_order_lines_product", columnList = "product_id")
+})
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class OrderLine {
 
+    /**
+     * Assigned before the insert so the lines of an order are written as one JDBC batch.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @MaxIdSequence
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false)
+    @ToString.Exclude
     private Order order;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
     @NotNull(message = "Le produit est obligatoire")
+    @ToString.Exclude
     private Product product;
 
     @NotNull(message = "La quantité est obligatoire")
@@ -51,4 +63,17 @@ public class OrderLine {
         }
         return unitPrice.multiply(BigDecimal.valueOf(quantity));
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof OrderLine other && id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return OrderLine.class.hashCode();
+    }
 }
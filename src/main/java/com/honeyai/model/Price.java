@@ -5,16 +5,25 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "price")
 @Table(name = "prices", indexes = {
-    @Index(name = "uk_price_product_year", columnList = "product_id, price_year", unique = true)
+    @Index(name = "uk_price_product_year", columnList = "product_id, price_year", unique = true),
+    @Index(name = "idx_prices_year_product", columnList = "price_year, product_id, price")
 })
-@Data
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -26,6 +35,7 @@ public class Price {
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
+    @ToString.Exclude
     private Product product;
 
     @NotNull(message = "L'année est obligatoire")
@@ -36,4 +46,17 @@ public class Price {
     @Positive(message = "Le prix doit être positif")
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal price;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof Price other && id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Price.class.hashCode();
+    }
 }
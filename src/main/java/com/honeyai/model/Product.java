@@ -5,15 +5,26 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "products")
-@Data
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
+@Table(name = "products", indexes = {
+    @Index(name = "idx_products_type_unit", columnList = "honey_type, unit"),
+    @Index(name = "idx_products_name", columnList = "name")
+})
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
@@ -37,6 +48,7 @@ public class Product {
 
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
+    @ToString.Exclude
     private List<Price> prices = new ArrayList<>();
 
     public void addPrice(Price price) {
@@ -48,4 +60,17 @@ public class Product {
         prices.remove(price);
         price.setProduct(null);
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof Product other && id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Product.class.hashCode();
+    }
 }
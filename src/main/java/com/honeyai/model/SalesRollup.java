@@ -0,0 +1,43 @@
+package com.honeyai.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Paid sales per product and calendar month, maintained by {@link com.honeyai.service.RollupService}
+ * whenever an order is created or changes.
+ */
+@Entity
+@Table(name = "sales_rollup", indexes = {
+    @Index(name = "uk_sales_rollup_period_product", columnList = "rollup_year, rollup_month, product_id", unique = true)
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SalesRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rollup_year", nullable = false)
+    private Integer year;
+
+    @Column(name = "rollup_month", nullable = false)
+    private Integer month;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Long quantity;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal revenue;
+}
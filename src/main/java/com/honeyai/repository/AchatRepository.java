@@ -1,9 +1,14 @@
 package com.honeyai.repository;
 
+import com.honeyai.dto.DepenseCategorieDto;
 import com.honeyai.enums.CategorieAchat;
 import com.honeyai.model.Achat;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -14,4 +19,58 @@ public interface AchatRepository extends JpaRepository<Achat, Long> {
     List<Achat> findByCategorie(CategorieAchat categorie);
 
     List<Achat> findAllByOrderByDateAchatDesc();
+
+    /**
+     * Keyset page of purchases after a cursor (dateAchat, id), most recent first.
+     * Null filters are ignored; the date range is inclusive.
+     */
+    @Query("SELECT a FROM Achat a " +
+           "WHERE (:start IS NULL OR a.dateAchat >= :start) " +
+           "AND (:end IS NULL OR a.dateAchat <= :end) " +
+           "AND (:categorie IS NULL OR a.categorie = :categorie) " +
+           "AND (:cursorDate IS NULL OR a.dateAchat < :cursorDate " +
+           "OR (a.dateAchat = :cursorDate AND a.id < :cursorId)) " +
+           "ORDER BY a.dateAchat DESC, a.id DESC")
+    List<Achat> findPageAfter(@Param("start") LocalDate start,
+                              @Param("end") LocalDate end,
+                              @Param("categorie") CategorieAchat categorie,
+                              @Param("cursorDate") LocalDate cursorDate,
+                              @Param("cursorId") Long cursorId,
+                              Pageable pageable);
+
+    /**
+     * Keyset page of purchases before a cursor (dateAchat, id), oldest first.
+     * Used to walk back to the previous page; callers reverse the result.
+     */
+    @Query("SELECT a FROM Achat a " +
+           "WHERE (:start IS NULL OR a.dateAchat >= :start) " +
+           "AND (:end IS NULL OR a.dateAchat <= :end) " +
+           "AND (:categorie IS NULL OR a.categorie = :categorie) " +
+           "AND (a.dateAchat > :cursorDate OR (a.dateAchat = :cursorDate AND a.id > :cursorId)) " +
+           "ORDER BY a.dateAchat ASC, a.id ASC")
+    List<Achat> findPageBefore(@Param("start") LocalDate start,
+                               @Param("end") LocalDate end,
+                               @Param("categorie") CategorieAchat categorie,
+                               @Param("cursorDate") LocalDate cursorDate,
+                               @Param("cursorId") Long cursorId,
+                               Pageable pageable);
+
+    /**
+     * Sum of purchase amounts matching the same filters as the paged list.
+     */
+    @Query("SELECT COALESCE(SUM(a.montant), 0) FROM Achat a " +
+           "WHERE (:start IS NULL OR a.dateAchat >= :start) " +
+           "AND (:end IS NULL OR a.dateAchat <= :end) " +
+           "AND (:categorie IS NULL OR a.categorie = :categorie)")
+    BigDecimal sumMontant(@Param("start") LocalDate start,
+                          @Param("end") LocalDate end,
+                          @Param("categorie") CategorieAchat categorie);
+
+    /**
+     * Total purchase amount per category within a date range (inclusive), largest first.
+     */
+    @Query("SELECT new com.honeyai.dto.DepenseCategorieDto(a.categorie, SUM(a.montant)) FROM Achat a " +
+           "WHERE a.dateAchat >= :start AND a.dateAchat <= :end " +
+           "GROUP BY a.categorie ORDER BY SUM(a.montant) DESC")
+    List<DepenseCategorieDto> sumMontantByCategorie(@Param("start") LocalDate start, @Param("end") LocalDate end);
 }
@@ -0,0 +1,36 @@
+package com.honeyai.repository;
+
+import com.honeyai.dto.DepenseCategorieDto;
+import com.honeyai.enums.CategorieAchat;
+import com.honeyai.model.AchatRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface AchatRollupRepository extends JpaRepository<AchatRollup, Long> {
+
+    Optional<AchatRollup> findByYearAndMonthAndCategorie(Integer year, Integer month, CategorieAchat categorie);
+
+    /**
+     * Purchase total per category between two periods (year * 100 + month, inclusive), largest first.
+     * The redundant bound on the year lets the period index narrow the rows.
+     */
+    @Query("SELECT new com.honeyai.dto.DepenseCategorieDto(r.categorie, SUM(r.montant)) FROM AchatRollup r " +
+           "WHERE r.year >= :fromPeriod / 100 AND r.year <= :toPeriod / 100 " +
+           "AND r.year * 100 + r.month >= :fromPeriod AND r.year * 100 + r.month <= :toPeriod " +
+           "GROUP BY r.categorie " +
+           "ORDER BY SUM(r.montant) DESC")
+    List<DepenseCategorieDto> sumByCategorie(@Param("fromPeriod") int fromPeriod, @Param("toPeriod") int toPeriod);
+
+    /**
+     * Delete every row in one statement. The session is left untouched: SQLite reuses rowids
+     * once a table is empty, so callers saving rows afterwards detach the deleted ones first.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM AchatRollup r")
+    void deleteAllRows();
+}
@@ -1,30 +1,172 @@
 package com.honeyai.repository;
 
+import com.honeyai.dto.ClientRow;
 import com.honeyai.model.Client;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ClientRepository extends JpaRepository<Client, Long> {
 
+    /**
+     * Recomputes the denormalised order statistics of the clients matched by an appended WHERE clause.
+     */
+    String REFRESH_STATS = "UPDATE clients SET " +
+            "order_count = (SELECT COUNT(*) FROM orders o WHERE o.client_id = clients.id), " +
+            "last_order_date = (SELECT MAX(o.command_date) FROM orders o WHERE o.client_id = clients.id), " +
+            "paid_total = COALESCE((SELECT ROUND(SUM(l.prix_unitaire * l.quantity), 2) " +
+            "FROM orders o JOIN order_lines l ON l.order_id = o.id " +
+            "WHERE o.client_id = clients.id AND o.status = 'PAID'), 0)";
+
     /**
      * Find all non-deleted clients ordered by name.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Client> findByDeletedAtIsNullOrderByNameAsc();
 
+    /**
+     * Every non-deleted client as a read model, ordered by name (order form client select).
+     * Served from the query cache until a client changes.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.honeyai.dto.ClientRow(c.id, c.name, c.phone, c.email, c.address, c.notes, " +
+           "c.createdAt, c.updatedAt, c.orderCount, c.paidTotal) FROM Client c " +
+           "WHERE c.deletedAt IS NULL ORDER BY c.name ASC")
+    List<ClientRow> findActiveRows();
+
+    /**
+     * Find a non-deleted client by ID as a read model.
+     */
+    @Query("SELECT new com.honeyai.dto.ClientRow(c.id, c.name, c.phone, c.email, c.address, c.notes, " +
+           "c.createdAt, c.updatedAt, c.orderCount, c.paidTotal) FROM Client c " +
+           "WHERE c.id = :id AND c.deletedAt IS NULL")
+    Optional<ClientRow> findActiveRowById(@Param("id") Long id);
+
+    /**
+     * Non-deleted clients among the given ids as read models, in no particular order.
+     */
+    @Query("SELECT new com.honeyai.dto.ClientRow(c.id, c.name, c.phone, c.email, c.address, c.notes, " +
+           "c.createdAt, c.updatedAt, c.orderCount, c.paidTotal) FROM Client c " +
+           "WHERE c.id IN :ids AND c.deletedAt IS NULL")
+    List<ClientRow> findActiveRowsById(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Count non-deleted clients.
+     */
+    long countByDeletedAtIsNull();
+
     /**
      * Find a non-deleted client by ID.
      */
     Optional<Client> findByIdAndDeletedAtIsNull(Long id);
 
     /**
-     * Search non-deleted clients by name or telephone (partial match).
+     * Search non-deleted clients by name, telephone, email or address (partial match), the fields
+     * of the full-text index. Fallback of {@code ClientService.searchClients} when the index is unavailable.
      */
     @Query("SELECT c FROM Client c WHERE c.deletedAt IS NULL " +
            "AND (LOWER(c.name) LIKE LOWER(CONCAT('%', :search, '%')) " +
-           "OR c.phone LIKE CONCAT('%', :search, '%'))")
+           "OR c.phone LIKE CONCAT('%', :search, '%') " +
+           "OR LOWER(c.email) LIKE LOWER(CONCAT('%', :search, '%')) " +
+           "OR LOWER(c.address) LIKE LOWER(CONCAT('%', :search, '%')))")
     List<Client> searchClients(@Param("search") String search);
+
+    /**
+     * Keyset page of non-deleted clients after a cursor (name, id), ordered by name.
+     * A null search lists every client; a null cursor name starts from the top of the list.
+     */
+    @Query("SELECT new com.honeyai.dto.ClientRow(c.id, c.name, c.phone, c.email, c.address, c.notes, " +
+           "c.createdAt, c.updatedAt, c.orderCount, c.paidTotal) FROM Client c WHERE c.deletedAt IS NULL " +
+           "AND (:search IS NULL OR LOWER(c.name) LIKE LOWER(CONCAT('%', :search, '%')) " +
+           "OR c.phone LIKE CONCAT('%', :search, '%') " +
+           "OR LOWER(c.email) LIKE LOWER(CONCAT('%', :search, '%')) " +
+           "OR LOWER(c.address) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+           "AND (:cursorName IS NULL OR c.name > :cursorName " +
+           "OR (c.name = :cursorName AND c.id > :cursorId)) " +
+           "ORDER BY c.name ASC, c.id ASC")
+    List<ClientRow> findActivePageAfter(@Param("search") String search,
+                                        @Param("cursorName") String cursorName,
+                                        @Param("cursorId") Long cursorId,
+                                        Pageable pageable);
+
+    /**
+     * Keyset page of non-deleted clients before a cursor (name, id), in reverse name order.
+     * Used to walk back to the previous page; callers reverse the result.
+     */
+    @Query("SELECT new com.honeyai.dto.ClientRow(c.id, c.name, c.phone, c.email, c.address, c.notes, " +
+           "c.createdAt, c.updatedAt, c.orderCount, c.paidTotal) FROM Client c WHERE c.deletedAt IS NULL " +
+           "AND (:search IS NULL OR LOWER(c.name) LIKE LOWER(CONCAT('%', :search, '%')) " +
+           "OR c.phone LIKE CONCAT('%', :search, '%') " +
+           "OR LOWER(c.email) LIKE LOWER(CONCAT('%', :search, '%')) " +
+           "OR LOWER(c.address) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+           "AND (c.name < :cursorName OR (c.name = :cursorName AND c.id < :cursorId)) " +
+           "ORDER BY c.name DESC, c.id DESC")
+    List<ClientRow> findActivePageBefore(@Param("search") String search,
+                                         @Param("cursorName") String cursorName,
+                                         @Param("cursorId") Long cursorId,
+                                         Pageable pageable);
+
+    /**
+     * Keyset page of non-deleted clients after a cursor (lifetime value, id), highest value first.
+     * A null cursor value starts from the top of the list.
+     */
+    @Query("SELECT new com.honeyai.dto.ClientRow(c.id, c.name, c.phone, c.email, c.address, c.notes, " +
+           "c.createdAt, c.updatedAt, c.orderCount, c.paidTotal) FROM Client c WHERE c.deletedAt IS NULL " +
+           "AND (:search IS NULL OR LOWER(c.name) LIKE LOWER(CONCAT('%', :search, '%')) " +
+           "OR c.phone LIKE CONCAT('%', :search, '%') " +
+           "OR LOWER(c.email) LIKE LOWER(CONCAT('%', :search, '%')) " +
+           "OR LOWER(c.address) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+           "AND (:cursorValue IS NULL OR c.paidTotal < :cursorValue " +
+           "OR (c.paidTotal = :cursorValue AND c.id < :cursorId)) " +
+           "ORDER BY c.paidTotal DESC, c.id DESC")
+    List<ClientRow> findActiveValuePageAfter(@Param("search") String search,
+                                             @Param("cursorValue") BigDecimal cursorValue,
+                                             @Param("cursorId") Long cursorId,
+                                             Pageable pageable);
+
+    /**
+     * Keyset page of non-deleted clients before a cursor (lifetime value, id), lowest value first.
+     * Used to walk back to the previous page; callers reverse the result.
+     */
+    @Query("SELECT new com.honeyai.dto.ClientRow(c.id, c.name, c.phone, c.email, c.address, c.notes, " +
+           "c.createdAt, c.updatedAt, c.orderCount, c.paidTotal) FROM Client c WHERE c.deletedAt IS NULL " +
+           "AND (:search IS NULL OR LOWER(c.name) LIKE LOWER(CONCAT('%', :search, '%')) " +
+           "OR c.phone LIKE CONCAT('%', :search, '%') " +
+           "OR LOWER(c.email) LIKE LOWER(CONCAT('%', :search, '%')) " +
+           "OR LOWER(c.address) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+           "AND (c.paidTotal > :cursorValue OR (c.paidTotal = :cursorValue AND c.id > :cursorId)) " +
+           "ORDER BY c.paidTotal ASC, c.id ASC")
+    List<ClientRow> findActiveValuePageBefore(@Param("search") String search,
+                                              @Param("cursorValue") BigDecimal cursorValue,
+                                              @Param("cursorId") Long cursorId,
+                                              Pageable pageable);
+
+    /**
+     * Recompute the denormalised order count, last order date and paid total of one client
+     * in a single statement. Pending order changes are flushed first so they are counted.
+     * Declared as touching the clients table only, so the second-level cache drops cached
+     * clients but keeps the catalog.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "clients"))
+    @Query(value = REFRESH_STATS + " WHERE id = :clientId", nativeQuery = true)
+    int refreshStats(@Param("clientId") Long clientId);
+
+    /**
+     * Recompute the denormalised order statistics of every client.
+     */
+    @Modifying(flushAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "clients"))
+    @Query(value = REFRESH_STATS, nativeQuery = true)
+    int refreshAllStats();
 }
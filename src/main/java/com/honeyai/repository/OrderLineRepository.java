@@ -2,7 +2,16 @@ package com.honeyai.repository;
 
 import com.honeyai.model.OrderLine;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface OrderLineRepository extends JpaRepository<OrderLine, Long> {
-    // Standard CRUD operations sufficient per story requirements
+
+    /**
+     * Raw paid sales as [orderDate, productId, quantity, unitPrice] rows, used to rebuild the sales rollup.
+     */
+    @Query("SELECT o.orderDate, l.product.id, l.quantity, l.unitPrice " +
+           "FROM OrderLine l JOIN l.order o WHERE o.status = 'PAID'")
+    List<Object[]> findPaidSalesRows();
 }
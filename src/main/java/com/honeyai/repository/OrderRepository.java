@@ -1,5 +1,9 @@
 package com.honeyai.repository;
 
+import com.honeyai.dto.ClientOrderStatsDto;
+import com.honeyai.dto.OrderDetail;
+import com.honeyai.dto.OrderSummary;
+import com.honeyai.dto.TopProduitDto;
 import com.honeyai.enums.OrderStatus;
 import com.honeyai.model.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -26,9 +30,40 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     long countByClientId(Long clientId);
 
     /**
-     * Find orders for a client with pagination (for limiting results).
+     * Order count, paid total and last order date of one client in a single aggregate query.
+     * The paid total is null when the client has no paid order.
      */
-    List<Order> findByClientIdOrderByOrderDateDesc(Long clientId, Pageable pageable);
+    @Query("SELECT new com.honeyai.dto.ClientOrderStatsDto(COUNT(DISTINCT o.id), " +
+           "SUM(CASE WHEN o.status = 'PAID' THEN l.unitPrice * l.quantity END), MAX(o.orderDate)) " +
+           "FROM Order o LEFT JOIN o.lines l WHERE o.client.id = :clientId")
+    ClientOrderStatsDto aggregateClientStats(@Param("clientId") Long clientId);
+
+    /**
+     * Order summaries of one client, most recent first, for the client detail page.
+     * Same per-order subqueries as {@link #findSummariesAfter}, driven by the (client_id, command_date) index.
+     */
+    @Query("SELECT new com.honeyai.dto.OrderSummary(o.id, o.orderDate, c.name, o.status, " +
+           "(SELECT COUNT(l.id) FROM OrderLine l WHERE l.order = o), " +
+           "(SELECT SUM(l.unitPrice * l.quantity) FROM OrderLine l WHERE l.order = o)) " +
+           "FROM Order o JOIN o.client c " +
+           "WHERE o.client.id = :clientId " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderSummary> findSummariesByClientId(@Param("clientId") Long clientId, Pageable pageable);
+
+    /**
+     * Order header with its client contact for the detail page, without loading either entity.
+     */
+    @Query("SELECT new com.honeyai.dto.OrderDetail$Header(o.id, o.orderDate, o.status, o.notes, " +
+           "o.createdAt, o.updatedAt, c.id, c.name, c.phone) " +
+           "FROM Order o JOIN o.client c WHERE o.id = :id")
+    Optional<OrderDetail.Header> findDetailHeader(@Param("id") Long id);
+
+    /**
+     * Lines of an order with their product name, in insertion order.
+     */
+    @Query("SELECT new com.honeyai.dto.OrderDetail$Line(l.id, p.name, l.quantity, l.unitPrice) " +
+           "FROM OrderLine l JOIN l.product p WHERE l.order.id = :orderId ORDER BY l.id")
+    List<OrderDetail.Line> findDetailLines(@Param("orderId") Long orderId);
 
     /**
      * Find all orders for a client, most recent first.
@@ -46,43 +81,75 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByOrderDateBetween(LocalDate start, LocalDate end);
 
     /**
-     * Find orders by date range, sorted by date descending.
-     * Uses JOIN FETCH to eagerly load client for display.
+     * Get all order dates to extract years (SQLite compatible).
      */
-    @Query("SELECT o FROM Order o JOIN FETCH o.client WHERE o.orderDate >= :startDate AND o.orderDate < :endDate ORDER BY o.orderDate DESC")
-    List<Order> findByDateRangeOrderByOrderDateDesc(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+    @Query("SELECT DISTINCT o.orderDate FROM Order o ORDER BY o.orderDate DESC")
+    List<LocalDate> findAllOrderDates();
 
     /**
-     * Find orders by date range and status, sorted by date descending.
-     * Uses JOIN FETCH to eagerly load client for display.
+     * Find paid orders within a date range with lines and products eagerly loaded.
      */
-    @Query("SELECT o FROM Order o JOIN FETCH o.client WHERE o.orderDate >= :startDate AND o.orderDate < :endDate AND o.status = :status ORDER BY o.orderDate DESC")
-    List<Order> findByDateRangeAndStatusOrderByOrderDateDesc(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, @Param("status") OrderStatus status);
+    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.lines l LEFT JOIN FETCH l.product " +
+           "WHERE o.status = 'PAID' AND o.orderDate >= :start AND o.orderDate <= :end")
+    List<Order> findPaidOrdersWithLinesBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
 
     /**
-     * Find orders by status, sorted by date descending.
-     * Uses JOIN FETCH to eagerly load client for display.
+     * Quantity sold and revenue per product over paid orders within a date range,
+     * best sellers first. One grouped query; no order or line entity is loaded.
      */
-    @Query("SELECT o FROM Order o JOIN FETCH o.client WHERE o.status = :status ORDER BY o.orderDate DESC")
-    List<Order> findByStatusOrderByOrderDateDesc(@Param("status") OrderStatus status);
+    @Query("SELECT new com.honeyai.dto.TopProduitDto(p.name, p.type, SUM(l.quantity), SUM(l.unitPrice * l.quantity)) " +
+           "FROM OrderLine l JOIN l.order o JOIN l.product p " +
+           "WHERE o.status = 'PAID' AND o.orderDate >= :start AND o.orderDate <= :end " +
+           "GROUP BY p.id, p.name, p.type " +
+           "ORDER BY SUM(l.quantity) DESC, p.id ASC")
+    List<TopProduitDto> sumPaidSalesByProduct(@Param("start") LocalDate start, @Param("end") LocalDate end);
 
     /**
-     * Find all orders sorted by date descending.
-     * Uses JOIN FETCH to eagerly load client for display.
+     * Count orders with the given status within a date range (inclusive).
      */
-    @Query("SELECT o FROM Order o JOIN FETCH o.client ORDER BY o.orderDate DESC")
-    List<Order> findAllByOrderByOrderDateDesc();
+    long countByStatusAndOrderDateBetween(OrderStatus status, LocalDate start, LocalDate end);
 
     /**
-     * Get all order dates to extract years (SQLite compatible).
+     * Keyset page of order summaries (client name, line count, total) after a cursor (orderDate, id),
+     * most recent first. A null cursor date starts from the most recent order.
+     * Totals are per-order subqueries rather than a GROUP BY, so the orders date index drives the
+     * ORDER BY and the LIMIT stops after the page instead of aggregating every order first.
+     * Null filters are disabled; the date range is [startDate, endDate).
      */
-    @Query("SELECT DISTINCT o.orderDate FROM Order o ORDER BY o.orderDate DESC")
-    List<LocalDate> findAllOrderDates();
+    @Query("SELECT new com.honeyai.dto.OrderSummary(o.id, o.orderDate, c.name, o.status, " +
+           "(SELECT COUNT(l.id) FROM OrderLine l WHERE l.order = o), " +
+           "(SELECT SUM(l.unitPrice * l.quantity) FROM OrderLine l WHERE l.order = o)) " +
+           "FROM Order o JOIN o.client c " +
+           "WHERE (:startDate IS NULL OR o.orderDate >= :startDate) " +
+           "AND (:endDate IS NULL OR o.orderDate < :endDate) " +
+           "AND (:status IS NULL OR o.status = :status) " +
+           "AND (:cursorDate IS NULL OR o.orderDate < :cursorDate " +
+           "OR (o.orderDate = :cursorDate AND o.id < :cursorId)) " +
+           "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderSummary> findSummariesAfter(@Param("startDate") LocalDate startDate,
+                                          @Param("endDate") LocalDate endDate,
+                                          @Param("status") OrderStatus status,
+                                          @Param("cursorDate") LocalDate cursorDate,
+                                          @Param("cursorId") Long cursorId,
+                                          Pageable pageable);
 
     /**
-     * Find paid orders within a date range with lines and products eagerly loaded.
+     * Keyset page of order summaries before a cursor (orderDate, id), oldest first.
+     * Used to walk back to the previous page; callers reverse the result.
      */
-    @Query("SELECT DISTINCT o FROM Order o LEFT JOIN FETCH o.lines l LEFT JOIN FETCH l.product " +
-           "WHERE o.status = 'PAID' AND o.orderDate >= :start AND o.orderDate <= :end")
-    List<Order> findPaidOrdersWithLinesBetween(@Param("start") LocalDate start, @Param("end") LocalDate end);
+    @Query("SELECT new com.honeyai.dto.OrderSummary(o.id, o.orderDate, c.name, o.status, " +
+           "(SELECT COUNT(l.id) FROM OrderLine l WHERE l.order = o), " +
+           "(SELECT SUM(l.unitPrice * l.quantity) FROM OrderLine l WHERE l.order = o)) " +
+           "FROM Order o JOIN o.client c " +
+           "WHERE (:startDate IS NULL OR o.orderDate >= :startDate) " +
+           "AND (:endDate IS NULL OR o.orderDate < :endDate) " +
+           "AND (:status IS NULL OR o.status = :status) " +
+           "AND (o.orderDate > :cursorDate OR (o.orderDate = :cursorDate AND o.id > :cursorId)) " +
+           "ORDER BY o.orderDate ASC, o.id ASC")
+    List<OrderSummary> findSummariesBefore(@Param("startDate") LocalDate startDate,
+                                           @Param("endDate") LocalDate endDate,
+                                           @Param("status") OrderStatus status,
+                                           @Param("cursorDate") LocalDate cursorDate,
+                                           @Param("cursorId") Long cursorId,
+                                           Pageable pageable);
 }
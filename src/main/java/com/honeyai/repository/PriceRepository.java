@@ -1,8 +1,12 @@
 package com.honeyai.repository;
 
 import com.honeyai.model.Price;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,5 +20,11 @@ public interface PriceRepository extends JpaRepository<Price, Long> {
     /**
      * Find all prices for a specific year.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Price> findByYear(Integer year);
+
+    /**
+     * Find the prices of several products for a year with one IN query.
+     */
+    List<Price> findByYearAndProductIdIn(Integer year, Collection<Long> productIds);
 }
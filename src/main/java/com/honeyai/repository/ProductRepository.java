@@ -1,8 +1,14 @@
 package com.honeyai.repository;
 
+import com.honeyai.dto.ProductWithPrice;
 import com.honeyai.enums.HoneyType;
 import com.honeyai.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,8 +18,20 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     /**
      * Find all products ordered by name ascending.
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Product> findAllByOrderByNameAsc();
 
+    /**
+     * Every product with its price for one year (null when unset), ordered by name.
+     * One outer join; neither products nor prices are loaded as entities. Served from the query
+     * cache until a product or price changes.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.honeyai.dto.ProductWithPrice(p.id, p.name, p.type, p.unit, pr.price) " +
+           "FROM Product p LEFT JOIN p.prices pr ON pr.year = :year " +
+           "ORDER BY p.name ASC")
+    List<ProductWithPrice> findAllWithPriceForYear(@Param("year") Integer year);
+
     /**
      * Find product by honey type and unit (format).
      */
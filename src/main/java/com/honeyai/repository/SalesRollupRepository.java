@@ -0,0 +1,36 @@
+package com.honeyai.repository;
+
+import com.honeyai.dto.TopProduitDto;
+import com.honeyai.model.SalesRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface SalesRollupRepository extends JpaRepository<SalesRollup, Long> {
+
+    Optional<SalesRollup> findByYearAndMonthAndProductId(Integer year, Integer month, Long productId);
+
+    /**
+     * Quantity sold and revenue per product between two periods (year * 100 + month, inclusive),
+     * best sellers first. The redundant bound on the year lets the period index narrow the rows.
+     */
+    @Query("SELECT new com.honeyai.dto.TopProduitDto(p.name, p.type, SUM(r.quantity), SUM(r.revenue)) " +
+           "FROM SalesRollup r JOIN Product p ON p.id = r.productId " +
+           "WHERE r.year >= :fromPeriod / 100 AND r.year <= :toPeriod / 100 " +
+           "AND r.year * 100 + r.month >= :fromPeriod AND r.year * 100 + r.month <= :toPeriod " +
+           "GROUP BY p.id, p.name, p.type " +
+           "ORDER BY SUM(r.quantity) DESC, p.id ASC")
+    List<TopProduitDto> sumByProduct(@Param("fromPeriod") int fromPeriod, @Param("toPeriod") int toPeriod);
+
+    /**
+     * Delete every row in one statement. The session is left untouched: SQLite reuses rowids
+     * once a table is empty, so callers saving rows afterwards detach the deleted ones first.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM SalesRollup r")
+    void deleteAllRows();
+}
@@ -1,5 +1,6 @@
 package com.honeyai.service;
 
+import com.honeyai.dto.KeysetPage;
 import com.honeyai.enums.CategorieAchat;
 import com.honeyai.model.Achat;
 import com.honeyai.repository.AchatRepository;
@@ -21,6 +22,7 @@ import java.util.Map;
 public class AchatService {
 
     private final AchatRepository achatRepository;
+    private final RollupService rollupService;
 
     @Transactional(readOnly = true)
     public List<Achat> findAll() {
@@ -35,12 +37,18 @@ public class AchatService {
 
     public Achat save(Achat achat) {
         log.info("Enregistrement achat: {} - {} €", achat.getDesignation(), achat.getMontant());
-        return achatRepository.save(achat);
+        Map<RollupService.AchatKey, BigDecimal> before = achat.getId() != null
+                ? achatRepository.findById(achat.getId()).map(rollupService::achatOf).orElse(Map.of())
+                : Map.of();
+        Achat saved = achatRepository.save(achat);
+        rollupService.applyAchat(before, rollupService.achatOf(saved));
+        return saved;
     }
 
     public void delete(Long id) {
         Achat achat = findById(id);
         log.info("Suppression achat #{}: {}", id, achat.getDesignation());
+        rollupService.applyAchat(rollupService.achatOf(achat), Map.of());
         achatRepository.delete(achat);
     }
 
@@ -71,4 +79,49 @@ public class AchatService {
         }
         return result;
     }
+
+    /**
+     * Find one keyset page of purchases ordered by (dateAchat, id) descending.
+     *
+     * @param year      optional year filter
+     * @param categorie optional category filter
+     * @param after     cursor of the last row of the previous page (next page navigation)
+     * @param before    cursor of the first row of the following page (previous page navigation)
+     * @param size      requested page size, clamped to {@link KeysetPaging#MAX_PAGE_SIZE}
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<Achat> findPage(Integer year, CategorieAchat categorie,
+                                      String after, String before, Integer size) {
+        LocalDate start = year != null ? LocalDate.of(year, 1, 1) : null;
+        LocalDate end = year != null ? LocalDate.of(year, 12, 31) : null;
+        int pageSize = KeysetPaging.pageSize(size);
+
+        KeysetPaging.Cursor<LocalDate> beforeCursor = KeysetPaging.decode(before, LocalDate::parse);
+        if (beforeCursor != null) {
+            List<Achat> rows = achatRepository.findPageBefore(start, end, categorie,
+                    beforeCursor.key(), beforeCursor.id(), KeysetPaging.probe(pageSize));
+            return KeysetPaging.toPage(rows, pageSize, true, true, AchatService::cursorOf);
+        }
+
+        KeysetPaging.Cursor<LocalDate> afterCursor = KeysetPaging.decode(after, LocalDate::parse);
+        List<Achat> rows = achatRepository.findPageAfter(start, end, categorie,
+                afterCursor != null ? afterCursor.key() : null,
+                afterCursor != null ? afterCursor.id() : null,
+                KeysetPaging.probe(pageSize));
+        return KeysetPaging.toPage(rows, pageSize, false, afterCursor != null, AchatService::cursorOf);
+    }
+
+    /**
+     * Total amount of purchases matching the list filters, computed in SQL.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal calculateTotal(Integer year, CategorieAchat categorie) {
+        LocalDate start = year != null ? LocalDate.of(year, 1, 1) : null;
+        LocalDate end = year != null ? LocalDate.of(year, 12, 31) : null;
+        return achatRepository.sumMontant(start, end, categorie);
+    }
+
+    private static String cursorOf(Achat achat) {
+        return KeysetPaging.encode(achat.getDateAchat(), achat.getId());
+    }
 }
@@ -1,23 +1,34 @@
 package com.honeyai.service;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.sqlite.SQLiteConnection;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import com.honeyai.dto.BackupFileDto;
+import com.honeyai.dto.BackupResult;
 
+import javax.sql.DataSource;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 @Service
@@ -26,16 +37,31 @@ public class BackupService {
 
     private static final DateTimeFormatter BACKUP_FORMAT =
             DateTimeFormatter.ofPattern("yyyy-MM-dd-HHmmss");
+    private static final String BACKUP_PREFIX = "honeyai-backup-";
+    private static final String BACKUP_SUFFIX = ".db";
     private static final int RETENTION_DAYS = 30;
+    private static final int BUSY_SLEEP_MS = 100;
+    private static final int BUSY_RETRIES = 50;
 
+    private final DataSource dataSource;
     private final Path databasePath;
     private final Path backupDirectory;
+    private final int pagesPerStep;
+    private final BackupStore store;
+    private final MeterRegistry meterRegistry;
 
     public BackupService(
+            DataSource dataSource,
             @Value("${honeyai.backup.database-path:./data/honeyai.db}") String databasePath,
-            @Value("${honeyai.backup.directory:./backups}") String backupDirectory) {
+            @Value("${honeyai.backup.directory:./backups}") String backupDirectory,
+            @Value("${honeyai.backup.pages-per-step:100}") int pagesPerStep,
+            MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
         this.databasePath = Path.of(databasePath);
         this.backupDirectory = Path.of(backupDirectory);
+        this.pagesPerStep = pagesPerStep;
+        this.store = new BackupStore(this.backupDirectory.resolve("store"));
     }
 
     @Scheduled(cron = "0 0 2 * * ?")
@@ -43,9 +69,26 @@ public class BackupService {
         performBackup();
     }
 
-    public Path performBackup() {
+    /**
+     * Takes an online backup of the database and adds it to the backup store as a new snapshot.
+     * Only the chunks that changed since earlier snapshots are written.
+     * Publishes {@code honeyai.backup} (duration, by outcome), {@code honeyai.backup.bytes}
+     * (database size) and {@code honeyai.backup.pages} (pages copied).
+     */
+    public synchronized BackupResult performBackup() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        BackupResult result = backupToStore();
+        sample.stop(Timer.builder("honeyai.backup")
+                .description("Online backup into the snapshot store")
+                .tag("outcome", result != null ? "success" : "failure")
+                .register(meterRegistry));
+        return result;
+    }
+
+    private BackupResult backupToStore() {
         log.info("Demarrage du backup de la base de donnees...");
 
+        Path copy = null;
         try {
             if (!Files.exists(databasePath)) {
                 log.warn("Fichier base de donnees introuvable: {}", databasePath);
@@ -55,89 +98,169 @@ public class BackupService {
             Files.createDirectories(backupDirectory);
 
             String timestamp = LocalDateTime.now().format(BACKUP_FORMAT);
-            String backupFilename = "honeyai-backup-" + timestamp + ".db";
-            Path backupPath = backupDirectory.resolve(backupFilename);
+            String snapshotName = BACKUP_PREFIX + timestamp;
+            for (int n = 2; store.find(snapshotName).isPresent(); n++) {
+                // Two backups within the same second: keep both
+                snapshotName = BACKUP_PREFIX + timestamp + "-" + n;
+            }
+
+            copy = Files.createTempFile(backupDirectory, snapshotName, ".tmp");
+            BackupResult copied = backupTo(copy);
+            long bytes = Files.size(copy);
+            BackupStore.StoreResult stored = store.store(snapshotName, copy);
+
+            BackupResult result = BackupResult.builder()
+                    .filename(snapshotName + BACKUP_SUFFIX)
+                    .path(stored.snapshot().manifest())
+                    .pagesCopied(copied.getPagesCopied())
+                    .elapsedMs(copied.getElapsedMs())
+                    .chunksWritten(stored.chunksWritten())
+                    .chunksReused(stored.chunksReused())
+                    .build();
+            log.info("Backup reussi: {} ({} pages en {} ms, {} blocs nouveaux, {} reutilises)",
+                    result.getFilename(), result.getPagesCopied(), result.getElapsedMs(),
+                    result.getChunksWritten(), result.getChunksReused());
 
-            Files.copy(databasePath, backupPath, StandardCopyOption.REPLACE_EXISTING);
-            log.info("Backup reussi: {}", backupPath);
+            DistributionSummary.builder("honeyai.backup.bytes").baseUnit("bytes").register(meterRegistry)
+                    .record(bytes);
+            DistributionSummary.builder("honeyai.backup.pages").register(meterRegistry)
+                    .record(result.getPagesCopied());
 
             cleanupOldBackups();
 
-            return backupPath;
+            return result;
 
-        } catch (IOException e) {
+        } catch (IOException | SQLException e) {
             log.error("Erreur lors du backup: {}", e.getMessage(), e);
             return null;
+        } finally {
+            deleteQuietly(copy);
         }
     }
 
-    public List<BackupFileDto> listRecentBackups() {
-        if (!Files.exists(backupDirectory)) {
-            return Collections.emptyList();
+    /**
+     * Writes a consistent copy of the database to a temporary file for export.
+     * The caller owns the file and should delete it once streamed.
+     */
+    public BackupResult exportDatabase() {
+        try {
+            Path exportPath = Files.createTempFile("honeyai-export-", ".db");
+            BackupResult result = backupTo(exportPath);
+            log.info("Export de la base pret: {} pages en {} ms", result.getPagesCopied(), result.getElapsedMs());
+            return result;
+        } catch (IOException | SQLException e) {
+            log.error("Erreur lors de l'export: {}", e.getMessage(), e);
+            return null;
         }
-        try (Stream<Path> files = Files.list(backupDirectory)) {
-            return files
-                    .filter(p -> p.getFileName().toString().startsWith("honeyai-backup-"))
-                    .filter(p -> p.getFileName().toString().endsWith(".db"))
-                    .sorted(Comparator.comparing(p -> {
-                        try {
-                            return Files.getLastModifiedTime((Path) p).toInstant();
-                        } catch (IOException e) {
-                            return java.time.Instant.EPOCH;
-                        }
-                    }).reversed())
-                    .map(p -> {
-                        try {
-                            LocalDateTime modified = Files.getLastModifiedTime(p).toInstant()
-                                    .atZone(ZoneId.systemDefault()).toLocalDateTime();
-                            long size = Files.size(p);
-                            return new BackupFileDto(p.getFileName().toString(), modified, size);
-                        } catch (IOException e) {
-                            return new BackupFileDto(p.getFileName().toString(), LocalDateTime.MIN, 0L);
-                        }
-                    })
-                    .toList();
-        } catch (IOException e) {
-            log.warn("Erreur lors de la lecture des backups: {}", e.getMessage());
-            return Collections.emptyList();
+    }
+
+    /**
+     * Copies the live database to {@code target} with SQLite's online backup API, through a
+     * read-only connection of the application datasource. Pages are copied {@code pagesPerStep}
+     * at a time; the source is only locked during each step, so requests keep reading and writing between
+     * steps, and a step that finds the database busy is retried after a short sleep.
+     */
+    BackupResult backupTo(Path target) throws SQLException, IOException {
+        Files.deleteIfExists(target);
+        long start = System.currentTimeMillis();
+        int[] pageCount = {0};
+
+        try (Connection connection = dataSource.getConnection()) {
+            markReadOnly(connection);
+            SQLiteConnection sqlite = connection.unwrap(SQLiteConnection.class);
+            int rc = sqlite.getDatabase().backup("main", target.toAbsolutePath().toString(),
+                    (remaining, total) -> pageCount[0] = total,
+                    BUSY_SLEEP_MS, BUSY_RETRIES, pagesPerStep);
+            if (rc != 0) {
+                throw new SQLException("Backup SQLite interrompu (code " + rc + ")");
+            }
+        }
+
+        return BackupResult.builder()
+                .filename(target.getFileName().toString())
+                .path(target)
+                .pagesCopied(pageCount[0])
+                .elapsedMs(System.currentTimeMillis() - start)
+                .build();
+    }
+
+    /**
+     * Snapshots of the backup store, plus full copies left by earlier versions, most recent first.
+     */
+    public List<BackupFileDto> listRecentBackups() {
+        List<BackupFileDto> backups = new ArrayList<>();
+        for (BackupStore.Snapshot snapshot : store.list()) {
+            backups.add(toDto(snapshot));
         }
+        backups.addAll(listLegacyBackups());
+        backups.sort(Comparator.comparing(BackupFileDto::getLastModified).reversed());
+        return backups;
     }
 
-    public Path getBackupFile(String filename) {
+    /**
+     * Resolves a backup by its download name ({@code honeyai-backup-<timestamp>.db}).
+     *
+     * @return the backup description, or null if the name is invalid or unknown
+     */
+    public BackupFileDto getBackupFile(String filename) {
         if (filename == null || filename.contains("..") || filename.contains("/") || filename.contains("\\")) {
             log.warn("Tentative d'acces avec un nom de fichier invalide: {}", filename);
             return null;
         }
-        if (!filename.startsWith("honeyai-backup-") || !filename.endsWith(".db")) {
+        if (!filename.startsWith(BACKUP_PREFIX) || !filename.endsWith(BACKUP_SUFFIX)) {
             log.warn("Nom de fichier ne correspond pas au pattern de backup: {}", filename);
             return null;
         }
-        Path filePath = backupDirectory.resolve(filename);
-        if (!filePath.normalize().startsWith(backupDirectory.normalize())) {
-            log.warn("Tentative de path traversal detectee: {}", filename);
-            return null;
+        Optional<BackupStore.Snapshot> snapshot = store.find(snapshotName(filename));
+        if (snapshot.isPresent()) {
+            return toDto(snapshot.get());
         }
-        if (!Files.exists(filePath)) {
-            log.warn("Fichier backup introuvable: {}", filename);
-            return null;
+        Path legacy = legacyBackupPath(filename);
+        if (legacy != null) {
+            return toDto(legacy);
+        }
+        log.warn("Fichier backup introuvable: {}", filename);
+        return null;
+    }
+
+    /**
+     * Writes the database file of a backup into {@code out}. Snapshots are rebuilt from their
+     * chunks on the fly; nothing is materialized on disk. {@link #cleanupOldBackups()} leaves a
+     * snapshot in place while it is being written here, without waiting for the download.
+     */
+    public void writeBackup(String filename, OutputStream out) throws IOException {
+        if (getBackupFile(filename) == null) {
+            throw new IllegalArgumentException("Sauvegarde introuvable: " + filename);
+        }
+        Optional<BackupStore.Snapshot> snapshot = store.find(snapshotName(filename));
+        if (snapshot.isPresent()) {
+            store.write(snapshot.get(), out);
+        } else {
+            Files.copy(legacyBackupPath(filename), out);
         }
-        return filePath;
     }
 
     public Path getDatabasePath() {
         return databasePath;
     }
 
-    void cleanupOldBackups() {
-        try (Stream<Path> files = Files.list(backupDirectory)) {
-            LocalDateTime cutoff = LocalDateTime.now().minus(RETENTION_DAYS, ChronoUnit.DAYS);
+    /**
+     * Deletes snapshots and full copies older than the retention period, then the chunks no
+     * longer referenced by any snapshot.
+     */
+    synchronized void cleanupOldBackups() {
+        Instant cutoff = LocalDateTime.now().minus(RETENTION_DAYS, ChronoUnit.DAYS)
+                .atZone(ZoneId.systemDefault()).toInstant();
+        store.deleteOlderThan(cutoff);
 
-            files.filter(p -> p.getFileName().toString().startsWith("honeyai-backup-"))
-                    .filter(p -> p.getFileName().toString().endsWith(".db"))
+        if (!Files.isDirectory(backupDirectory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(backupDirectory)) {
+            files.filter(this::isLegacyBackup)
                     .filter(p -> {
                         try {
-                            return Files.getLastModifiedTime(p).toInstant()
-                                    .isBefore(cutoff.atZone(java.time.ZoneId.systemDefault()).toInstant());
+                            return Files.getLastModifiedTime(p).toInstant().isBefore(cutoff);
                         } catch (IOException e) {
                             return false;
                         }
@@ -154,4 +277,72 @@ public class BackupService {
             log.warn("Erreur lors du nettoyage des anciens backups: {}", e.getMessage());
         }
     }
+
+    private List<BackupFileDto> listLegacyBackups() {
+        if (!Files.isDirectory(backupDirectory)) {
+            return Collections.emptyList();
+        }
+        try (Stream<Path> files = Files.list(backupDirectory)) {
+            return files.filter(this::isLegacyBackup).map(this::toDto).toList();
+        } catch (IOException e) {
+            log.warn("Erreur lors de la lecture des backups: {}", e.getMessage());
+            return Collections.emptyList();
+        }
+    }
+
+    private boolean isLegacyBackup(Path p) {
+        String name = p.getFileName().toString();
+        return Files.isRegularFile(p) && name.startsWith(BACKUP_PREFIX) && name.endsWith(BACKUP_SUFFIX);
+    }
+
+    private Path legacyBackupPath(String filename) {
+        Path filePath = backupDirectory.resolve(filename);
+        if (!filePath.normalize().startsWith(backupDirectory.normalize())) {
+            log.warn("Tentative de path traversal detectee: {}", filename);
+            return null;
+        }
+        return Files.isRegularFile(filePath) ? filePath : null;
+    }
+
+    private BackupFileDto toDto(BackupStore.Snapshot snapshot) {
+        LocalDateTime created = snapshot.created().atZone(ZoneId.systemDefault()).toLocalDateTime();
+        return new BackupFileDto(snapshot.name() + BACKUP_SUFFIX, created, snapshot.sizeBytes());
+    }
+
+    private BackupFileDto toDto(Path legacy) {
+        try {
+            LocalDateTime modified = Files.getLastModifiedTime(legacy).toInstant()
+                    .atZone(ZoneId.systemDefault()).toLocalDateTime();
+            return new BackupFileDto(legacy.getFileName().toString(), modified, Files.size(legacy));
+        } catch (IOException e) {
+            return new BackupFileDto(legacy.getFileName().toString(), LocalDateTime.MIN, 0L);
+        }
+    }
+
+    /**
+     * The backup only reads the source: ask for a read-pool connection so the single writer
+     * connection stays free. A plain connection that cannot switch after opening is used as is.
+     */
+    private static void markReadOnly(Connection connection) {
+        try {
+            connection.setReadOnly(true);
+        } catch (SQLException e) {
+            log.debug("Connexion de backup non marquee en lecture seule: {}", e.getMessage());
+        }
+    }
+
+    private static String snapshotName(String filename) {
+        return filename.substring(0, filename.length() - BACKUP_SUFFIX.length());
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Impossible de supprimer le fichier temporaire: {}", path, e);
+        }
+    }
 }
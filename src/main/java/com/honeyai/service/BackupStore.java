@@ -0,0 +1,379 @@
+package com.honeyai.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Content-addressed store for database snapshots.
+ * <p>
+ * A snapshot is cut into fixed-size chunks aligned on SQLite pages. Each chunk is stored once,
+ * deflate-compressed, under its SHA-256 hash in {@code chunks/}; a small text manifest in
+ * {@code snapshots/} lists the chunk hashes of one snapshot in order. Unchanged pages between
+ * two nightly backups therefore cost nothing but a line in the next manifest.
+ * <p>
+ * Manifests are written last, so an interrupted backup only leaves unreferenced chunks behind,
+ * which {@link #collectGarbage()} removes. Snapshots being rebuilt by {@link #write} are not
+ * deleted by retention until their last download ends.
+ */
+@Slf4j
+class BackupStore {
+
+    /**
+     * Chunk size: 16 pages of the default 4 KiB SQLite page size.
+     */
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final String MANIFEST_SUFFIX = ".manifest";
+    private static final String CHUNK_SUFFIX = ".z";
+    private static final String MANIFEST_HEADER = "# honeyai snapshot v1";
+
+    private final Path chunksDirectory;
+    private final Path snapshotsDirectory;
+
+    /**
+     * Number of downloads in progress per snapshot name. Guarded by {@code this}.
+     */
+    private final Map<String, Integer> readers = new HashMap<>();
+
+    BackupStore(Path root) {
+        this.chunksDirectory = root.resolve("chunks");
+        this.snapshotsDirectory = root.resolve("snapshots");
+    }
+
+    record Snapshot(String name, Path manifest, long sizeBytes, Instant created) {
+    }
+
+    record StoreResult(Snapshot snapshot, int chunksWritten, int chunksReused) {
+    }
+
+    private record Manifest(long sizeBytes, List<String> chunks) {
+    }
+
+    /**
+     * Stores {@code databaseCopy} as snapshot {@code name}, writing only the chunks not already
+     * present in the store.
+     */
+    StoreResult store(String name, Path databaseCopy) throws IOException {
+        Files.createDirectories(chunksDirectory);
+        Files.createDirectories(snapshotsDirectory);
+
+        List<String> hashes = new ArrayList<>();
+        int written = 0;
+        int reused = 0;
+        long size = 0;
+        MessageDigest digest = sha256();
+
+        try (InputStream in = Files.newInputStream(databaseCopy)) {
+            byte[] chunk;
+            while ((chunk = in.readNBytes(CHUNK_SIZE)).length > 0) {
+                String hash = HexFormat.of().formatHex(digest.digest(chunk));
+                if (writeChunkIfAbsent(hash, chunk)) {
+                    written++;
+                } else {
+                    reused++;
+                }
+                hashes.add(hash);
+                size += chunk.length;
+            }
+        }
+
+        Path manifest = manifestPath(name);
+        Path tmp = Files.createTempFile(snapshotsDirectory, name, ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            writer.write(MANIFEST_HEADER);
+            writer.newLine();
+            writer.write("size=" + size);
+            writer.newLine();
+            writer.write("chunk-size=" + CHUNK_SIZE);
+            writer.newLine();
+            writer.newLine();
+            for (String hash : hashes) {
+                writer.write(hash);
+                writer.newLine();
+            }
+        }
+        move(tmp, manifest);
+
+        Snapshot snapshot = new Snapshot(name, manifest, size, Files.getLastModifiedTime(manifest).toInstant());
+        return new StoreResult(snapshot, written, reused);
+    }
+
+    /**
+     * All snapshots, most recent first.
+     */
+    List<Snapshot> list() {
+        if (!Files.isDirectory(snapshotsDirectory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(snapshotsDirectory)) {
+            return files
+                    .filter(p -> p.getFileName().toString().endsWith(MANIFEST_SUFFIX))
+                    .map(this::readSnapshot)
+                    .flatMap(Optional::stream)
+                    .sorted(Comparator.comparing(Snapshot::created).reversed())
+                    .toList();
+        } catch (IOException e) {
+            log.warn("Erreur lors de la lecture des snapshots: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    Optional<Snapshot> find(String name) {
+        Path manifest = manifestPath(name);
+        if (!Files.exists(manifest)) {
+            return Optional.empty();
+        }
+        return readSnapshot(manifest);
+    }
+
+    /**
+     * Rebuilds the database file of {@code snapshot} into {@code out}, one chunk at a time.
+     * Each chunk is checked against its hash before being written. The snapshot and its chunks
+     * are kept until the end of the call, even if retention expires it meanwhile.
+     *
+     * @throws NoSuchFileException if the snapshot was deleted before the download started
+     */
+    void write(Snapshot snapshot, OutputStream out) throws IOException {
+        acquire(snapshot);
+        try {
+            Manifest manifest = readManifest(snapshot.manifest());
+            MessageDigest digest = sha256();
+            for (String hash : manifest.chunks()) {
+                byte[] chunk;
+                try (InputStream in = new InflaterInputStream(Files.newInputStream(chunkPath(hash)))) {
+                    chunk = in.readAllBytes();
+                }
+                if (!hash.equals(HexFormat.of().formatHex(digest.digest(chunk)))) {
+                    throw new IOException("Bloc corrompu dans le depot de sauvegarde: " + hash);
+                }
+                out.write(chunk);
+            }
+        } finally {
+            release(snapshot);
+        }
+    }
+
+    /**
+     * Deletes the snapshots created before {@code cutoff}, then the chunks no longer referenced.
+     * Snapshots being downloaded are skipped; a later call deletes them.
+     *
+     * @return number of snapshots deleted
+     */
+    int deleteOlderThan(Instant cutoff) {
+        int deleted = 0;
+        for (Snapshot snapshot : list()) {
+            if (snapshot.created().isBefore(cutoff) && deleteUnlessRead(snapshot)) {
+                deleted++;
+            }
+        }
+        if (deleted > 0) {
+            collectGarbage();
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes the chunks referenced by no manifest. Nothing is deleted when any manifest cannot
+     * be read, so a corrupt or briefly locked manifest never loses its chunks.
+     *
+     * @return number of chunks deleted
+     */
+    int collectGarbage() {
+        if (!Files.isDirectory(chunksDirectory)) {
+            return 0;
+        }
+        // Every manifest file, not list(), which skips the unreadable ones
+        Set<String> referenced = new HashSet<>();
+        try (Stream<Path> manifests = Files.list(snapshotsDirectory)) {
+            for (Path manifest : manifests.filter(p -> p.getFileName().toString().endsWith(MANIFEST_SUFFIX)).toList()) {
+                try {
+                    referenced.addAll(readManifest(manifest).chunks());
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Manifest illisible, nettoyage des blocs annule: {}", manifest, e);
+                    return 0;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Erreur lors de la lecture des snapshots, nettoyage des blocs annule: {}", e.getMessage());
+            return 0;
+        }
+
+        int[] deleted = {0};
+        try (Stream<Path> files = Files.walk(chunksDirectory)) {
+            files.filter(Files::isRegularFile)
+                    .filter(p -> !referenced.contains(hashOf(p)))
+                    .forEach(p -> {
+                        try {
+                            Files.delete(p);
+                            deleted[0]++;
+                        } catch (IOException e) {
+                            log.warn("Impossible de supprimer le bloc: {}", p, e);
+                        }
+                    });
+        } catch (IOException e) {
+            log.warn("Erreur lors du nettoyage des blocs: {}", e.getMessage());
+        }
+        if (deleted[0] > 0) {
+            log.info("{} blocs non references supprimes", deleted[0]);
+        }
+        return deleted[0];
+    }
+
+    /**
+     * Total bytes stored in chunk files.
+     */
+    long storedBytes() {
+        if (!Files.isDirectory(chunksDirectory)) {
+            return 0;
+        }
+        try (Stream<Path> files = Files.walk(chunksDirectory)) {
+            return files.filter(Files::isRegularFile).mapToLong(p -> {
+                try {
+                    return Files.size(p);
+                } catch (IOException e) {
+                    return 0;
+                }
+            }).sum();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private synchronized void acquire(Snapshot snapshot) throws NoSuchFileException {
+        if (!Files.exists(snapshot.manifest())) {
+            throw new NoSuchFileException(snapshot.manifest().toString());
+        }
+        readers.merge(snapshot.name(), 1, Integer::sum);
+    }
+
+    private synchronized void release(Snapshot snapshot) {
+        readers.computeIfPresent(snapshot.name(), (name, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * Deletes the manifest of {@code snapshot} unless a download holds it. Its chunks stay
+     * referenced until the manifest is gone.
+     */
+    private synchronized boolean deleteUnlessRead(Snapshot snapshot) {
+        if (readers.containsKey(snapshot.name())) {
+            log.info("Snapshot en cours de telechargement, suppression reportee: {}", snapshot.name());
+            return false;
+        }
+        try {
+            Files.delete(snapshot.manifest());
+            log.info("Ancien snapshot supprime: {}", snapshot.name());
+            return true;
+        } catch (IOException e) {
+            log.warn("Impossible de supprimer le snapshot: {}", snapshot.name(), e);
+            return false;
+        }
+    }
+
+    private boolean writeChunkIfAbsent(String hash, byte[] chunk) throws IOException {
+        Path target = chunkPath(hash);
+        if (Files.exists(target)) {
+            return false;
+        }
+        Files.createDirectories(target.getParent());
+        Path tmp = Files.createTempFile(target.getParent(), hash, ".tmp");
+        try (OutputStream out = new DeflaterOutputStream(Files.newOutputStream(tmp))) {
+            out.write(chunk);
+        }
+        move(tmp, target);
+        return true;
+    }
+
+    private Optional<Snapshot> readSnapshot(Path manifest) {
+        try {
+            String filename = manifest.getFileName().toString();
+            String name = filename.substring(0, filename.length() - MANIFEST_SUFFIX.length());
+            return Optional.of(new Snapshot(name, manifest, readManifest(manifest).sizeBytes(),
+                    Files.getLastModifiedTime(manifest).toInstant()));
+        } catch (IOException | RuntimeException e) {
+            log.warn("Manifest illisible ignore: {}", manifest, e);
+            return Optional.empty();
+        }
+    }
+
+    private Manifest readManifest(Path manifest) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(manifest, StandardCharsets.UTF_8)) {
+            if (!MANIFEST_HEADER.equals(reader.readLine())) {
+                throw new IOException("Format de manifest inconnu: " + manifest);
+            }
+            long size = -1;
+            String line;
+            while ((line = reader.readLine()) != null && !line.isEmpty()) {
+                if (line.startsWith("size=")) {
+                    size = Long.parseLong(line.substring("size=".length()));
+                }
+            }
+            List<String> chunks = new ArrayList<>();
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    chunks.add(line.trim());
+                }
+            }
+            if (size < 0) {
+                throw new IOException("Taille absente du manifest: " + manifest);
+            }
+            return new Manifest(size, chunks);
+        }
+    }
+
+    private Path manifestPath(String name) {
+        return snapshotsDirectory.resolve(name + MANIFEST_SUFFIX);
+    }
+
+    private Path chunkPath(String hash) {
+        return chunksDirectory.resolve(hash.substring(0, 2)).resolve(hash + CHUNK_SUFFIX);
+    }
+
+    private static String hashOf(Path chunk) {
+        String filename = chunk.getFileName().toString();
+        return filename.endsWith(CHUNK_SUFFIX)
+                ? filename.substring(0, filename.length() - CHUNK_SUFFIX.length())
+                : filename;
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
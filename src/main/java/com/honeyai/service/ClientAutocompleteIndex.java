@@ -0,0 +1,333 @@
+package com.honeyai.service;
+
+import com.honeyai.dto.ClientRow;
+import com.honeyai.dto.ClientSuggestion;
+import com.honeyai.model.Client;
+import com.honeyai.repository.ClientRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory typeahead index over the names and phone numbers of active clients, used by the order
+ * form instead of rendering every client into a select.
+ * <p>
+ * Each word of the normalised name and the phone digits are indexed twice: in a sorted map for
+ * prefix lookups, which answer terms of one or two characters, and by trigram for longer terms,
+ * which keep the "contains" semantics of the full-text search. Matches are ranked: name (or phone)
+ * starting with the query first, then every term starting a word, then any substring; ties by name.
+ * <p>
+ * The index is built from the database on first use, or at startup by ClientAutocompleteInitializer,
+ * and {@link ClientService} applies each save and soft delete once its transaction commits.
+ * Lookups take no lock; writers are serialised.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ClientAutocompleteIndex {
+
+    static final int DEFAULT_LIMIT = 10;
+    static final int MAX_LIMIT = 50;
+
+    private static final int GRAM = 3;
+    private static final Pattern WORD_SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Comparator<Match> RANKING = Comparator.comparingInt(Match::score)
+            .thenComparing(match -> match.entry().name())
+            .thenComparing(match -> match.entry().suggestion().id());
+
+    private final ClientRepository clientRepository;
+
+    private volatile Postings postings;
+
+    /**
+     * Best matches for a partially typed name or phone number.
+     *
+     * @param query typed text, matched without case or accents
+     * @param limit maximum number of matches, {@value #DEFAULT_LIMIT} when null, at most {@value #MAX_LIMIT}
+     * @return matches best first, empty for a blank query
+     */
+    public List<ClientSuggestion> suggest(String query, Integer limit) {
+        List<String> terms = terms(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        int k = limit == null || limit < 1 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        Postings current = ensureBuilt();
+
+        Set<Long> candidates = null;
+        for (String term : terms) {
+            Set<Long> ids = term.length() < GRAM ? current.startingWith(term) : current.containing(term);
+            if (candidates == null) {
+                candidates = ids;
+            } else {
+                candidates.retainAll(ids);
+            }
+            if (candidates.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        String prefix = String.join(" ", terms);
+        PriorityQueue<Match> best = new PriorityQueue<>(k + 1, RANKING.reversed());
+        for (Long id : candidates) {
+            Entry entry = current.entries.get(id);
+            if (entry == null || !entry.containsAll(terms)) {
+                continue;
+            }
+            best.add(new Match(entry, entry.score(prefix, terms)));
+            if (best.size() > k) {
+                best.poll();
+            }
+        }
+        List<Match> ranked = new ArrayList<>(best);
+        ranked.sort(RANKING);
+        return ranked.stream().map(match -> match.entry().suggestion()).toList();
+    }
+
+    /**
+     * Indexes a saved client, or removes it once soft-deleted, when the current transaction commits.
+     */
+    public void index(Client client) {
+        if (client.getId() == null) {
+            return;
+        }
+        if (client.isDeleted()) {
+            remove(client.getId());
+            return;
+        }
+        Entry entry = Entry.of(new ClientSuggestion(client.getId(), client.getName(), client.getPhone()));
+        afterCommit(() -> update(current -> current.put(entry)));
+    }
+
+    /**
+     * Removes a client when the current transaction commits.
+     */
+    public void remove(Long clientId) {
+        if (clientId == null) {
+            return;
+        }
+        afterCommit(() -> update(current -> current.remove(clientId)));
+    }
+
+    /**
+     * Rebuilds the index from all active clients.
+     *
+     * @return number of clients indexed
+     */
+    @Transactional(readOnly = true)
+    public synchronized int rebuild() {
+        List<ClientRow> clients = clientRepository.findActiveRows();
+        Postings rebuilt = new Postings();
+        for (ClientRow client : clients) {
+            rebuilt.put(Entry.of(new ClientSuggestion(client.id(), client.name(), client.phone())));
+        }
+        postings = rebuilt;
+        log.info("Index d'autocompletion clients construit: {} clients", clients.size());
+        return clients.size();
+    }
+
+    /**
+     * Number of clients in the index, 0 before it is built.
+     */
+    public int size() {
+        Postings current = postings;
+        return current != null ? current.entries.size() : 0;
+    }
+
+    private Postings ensureBuilt() {
+        Postings current = postings;
+        if (current == null) {
+            synchronized (this) {
+                if (postings == null) {
+                    rebuild();
+                }
+                current = postings;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Applies a change to a built index. Before the first build there is nothing to change: the
+     * build reads the committed clients.
+     */
+    private synchronized void update(Consumer<Postings> change) {
+        if (postings != null) {
+            change.accept(postings);
+        }
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    /**
+     * Query terms: the digits of a phone-like query, otherwise the normalised words.
+     */
+    static List<String> terms(String query) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        String trimmed = query.trim();
+        if (ClientSearchIndex.isPhoneQuery(trimmed)) {
+            String digits = ClientSearchIndex.phoneDigits(trimmed);
+            return digits.isEmpty() ? List.of() : List.of(digits);
+        }
+        return words(trimmed);
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        for (String word : WORD_SEPARATORS.split(ClientSearchIndex.normalize(text))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static List<String> grams(String key) {
+        List<String> grams = new ArrayList<>(Math.max(0, key.length() - GRAM + 1));
+        for (int i = 0; i + GRAM <= key.length(); i++) {
+            grams.add(key.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    /**
+     * An indexed client: its normalised name and the keys (name words and phone digits) it is found by.
+     */
+    private record Entry(ClientSuggestion suggestion, String name, String phone, List<String> keys) {
+
+        static Entry of(ClientSuggestion suggestion) {
+            List<String> keys = words(suggestion.name() != null ? suggestion.name() : "");
+            String name = String.join(" ", keys);
+            String phone = ClientSearchIndex.phoneDigits(suggestion.phone());
+            if (!phone.isEmpty()) {
+                keys.add(phone);
+            }
+            return new Entry(suggestion, name, phone, List.copyOf(keys));
+        }
+
+        boolean containsAll(List<String> terms) {
+            for (String term : terms) {
+                if (keys.stream().noneMatch(key -> key.contains(term))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int score(String prefix, List<String> terms) {
+            if (name.startsWith(prefix) || (!phone.isEmpty() && phone.startsWith(prefix))) {
+                return 0;
+            }
+            for (String term : terms) {
+                if (keys.stream().noneMatch(key -> key.startsWith(term))) {
+                    return 2;
+                }
+            }
+            return 1;
+        }
+    }
+
+    private record Match(Entry entry, int score) {
+    }
+
+    /**
+     * The lookup structures. Readers run concurrently with a single writer, hence the concurrent maps.
+     */
+    private static final class Postings {
+
+        private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+        private final NavigableMap<String, Set<Long>> keys = new ConcurrentSkipListMap<>();
+        private final Map<String, Set<Long>> grams = new ConcurrentHashMap<>();
+
+        void put(Entry entry) {
+            Long id = entry.suggestion().id();
+            remove(id);
+            entries.put(id, entry);
+            for (String key : entry.keys()) {
+                keys.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+                for (String gram : grams(key)) {
+                    grams.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(id);
+                }
+            }
+        }
+
+        void remove(Long id) {
+            Entry entry = entries.remove(id);
+            if (entry == null) {
+                return;
+            }
+            for (String key : entry.keys()) {
+                unlink(keys, key, id);
+                for (String gram : grams(key)) {
+                    unlink(grams, gram, id);
+                }
+            }
+        }
+
+        Set<Long> startingWith(String term) {
+            Set<Long> ids = new HashSet<>();
+            for (Set<Long> matching : keys.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+                ids.addAll(matching);
+            }
+            return ids;
+        }
+
+        /**
+         * Clients having every trigram of {@code term}; a superset of the clients containing it.
+         */
+        Set<Long> containing(String term) {
+            List<Set<Long>> postingLists = new ArrayList<>();
+            for (String gram : grams(term)) {
+                Set<Long> ids = grams.get(gram);
+                if (ids == null) {
+                    return new HashSet<>();
+                }
+                postingLists.add(ids);
+            }
+            postingLists.sort(Comparator.comparingInt(Set::size));
+            Set<Long> ids = new HashSet<>(postingLists.getFirst());
+            for (Collection<Long> others : postingLists.subList(1, postingLists.size())) {
+                ids.retainAll(others);
+            }
+            return ids;
+        }
+
+        private static void unlink(Map<String, Set<Long>> postings, String key, Long id) {
+            postings.computeIfPresent(key, (k, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+}
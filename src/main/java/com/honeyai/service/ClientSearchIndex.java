@@ -0,0 +1,257 @@
+package com.honeyai.service;
+
+import com.honeyai.model.Client;
+import com.honeyai.repository.ClientRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * SQLite FTS5 index over the searchable fields of active clients (table {@code client_search}).
+ * <p>
+ * The trigram tokenizer matches any substring of at least three characters, so search keeps the
+ * "contains" semantics of a LIKE '%...%' but is answered from the index. Text is normalised before
+ * being indexed and queried: lower case without accents, phone numbers as digits only, so
+ * "helene" finds "Hélène" and "06 12 34" finds "06.12.34.56.78".
+ * <p>
+ * The index only exists on SQLite (migration V3). On other databases (H2 in tests)
+ * {@link #isAvailable()} is false, writes are ignored and {@link #search} returns empty, letting
+ * callers fall back to the repository query.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class ClientSearchIndex {
+
+    /**
+     * Shortest term the trigram index can match.
+     */
+    static final int MIN_TERM_LENGTH = 3;
+
+    private static final String TABLE = "client_search";
+
+    /**
+     * bm25 column weights: name, email, address, phone. A name match ranks first.
+     */
+    private static final String RANK = "bm25(" + TABLE + ", 10.0, 2.0, 1.0, 5.0)";
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern PHONE_QUERY = Pattern.compile("[0-9 .+()\\-]+");
+    private static final Pattern NON_DIGITS = Pattern.compile("\\D");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ClientRepository clientRepository;
+
+    private volatile Boolean available;
+
+    /**
+     * Whether the FTS5 table exists in the current database. Checked once.
+     */
+    @Transactional(readOnly = true)
+    public boolean isAvailable() {
+        Boolean result = available;
+        if (result == null) {
+            try {
+                Integer tables = jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM sqlite_master WHERE type = 'table' AND name = ?", Integer.class, TABLE);
+                result = tables != null && tables > 0;
+            } catch (DataAccessException e) {
+                result = false;
+            }
+            if (!result) {
+                log.info("Index de recherche clients indisponible, recherche par LIKE");
+            }
+            available = result;
+        }
+        return result;
+    }
+
+    /**
+     * Indexes a saved client, or removes it from the index once soft-deleted.
+     */
+    public void index(Client client) {
+        if (client.getId() == null || !isAvailable()) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE rowid = ?", client.getId());
+        if (!client.isDeleted()) {
+            insert(client);
+        }
+    }
+
+    public void remove(Long clientId) {
+        if (clientId == null || !isAvailable()) {
+            return;
+        }
+        jdbcTemplate.update("DELETE FROM " + TABLE + " WHERE rowid = ?", clientId);
+    }
+
+    /**
+     * Ids of the clients matching every term of {@code query}, best match first.
+     *
+     * @return empty when the index cannot answer (unavailable, or no term long enough); callers
+     * then fall back to the repository search
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<Long>> search(String query, int limit) {
+        return search(query, 0, limit);
+    }
+
+    /**
+     * Ids of the clients matching every term of {@code query}, best match first, skipping the
+     * {@code offset} best ones: one page of the ranked matches.
+     *
+     * @return empty when the index cannot answer (unavailable, or no term long enough); callers
+     * then fall back to the repository search
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<Long>> search(String query, int offset, int limit) {
+        String match = toMatchExpression(query);
+        if (match == null || !isAvailable()) {
+            return Optional.empty();
+        }
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT rowid FROM " + TABLE + " WHERE " + TABLE + " MATCH ? ORDER BY " + RANK
+                        + " LIMIT ? OFFSET ?",
+                Long.class, match, limit, offset);
+        return Optional.of(ids);
+    }
+
+    /**
+     * Ids of the active clients matching every term of {@code query}, highest lifetime value first
+     * (paid total, then id, descending), skipping the first {@code offset}: one page of the matches
+     * in the order of the value-sorted client list.
+     *
+     * @return empty when the index cannot answer; callers then fall back to the repository search
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<Long>> searchByValue(String query, int offset, int limit) {
+        String match = toMatchExpression(query);
+        if (match == null || !isAvailable()) {
+            return Optional.empty();
+        }
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT c.id FROM " + TABLE + " JOIN clients c ON c.id = " + TABLE + ".rowid"
+                        + " WHERE " + TABLE + " MATCH ? AND c.deleted_at IS NULL"
+                        + " ORDER BY c.paid_total DESC, c.id DESC LIMIT ? OFFSET ?",
+                Long.class, match, limit, offset);
+        return Optional.of(ids);
+    }
+
+    /**
+     * Number of rows in the index.
+     */
+    @Transactional(readOnly = true)
+    public long indexedCount() {
+        if (!isAvailable()) {
+            return 0;
+        }
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + TABLE, Long.class);
+        return count != null ? count : 0;
+    }
+
+    /**
+     * Rebuilds the index from all active clients.
+     *
+     * @return number of clients indexed
+     */
+    public int rebuild() {
+        if (!isAvailable()) {
+            return 0;
+        }
+        List<Client> clients = clientRepository.findByDeletedAtIsNullOrderByNameAsc();
+        jdbcTemplate.update("DELETE FROM " + TABLE);
+        List<Object[]> rows = new ArrayList<>(clients.size());
+        for (Client client : clients) {
+            rows.add(row(client));
+        }
+        jdbcTemplate.batchUpdate(insertSql(), rows);
+        log.info("Index de recherche clients reconstruit: {} clients", clients.size());
+        return clients.size();
+    }
+
+    private void insert(Client client) {
+        jdbcTemplate.update(insertSql(), row(client));
+    }
+
+    private static String insertSql() {
+        return "INSERT INTO " + TABLE + " (rowid, name, email, address, phone) VALUES (?, ?, ?, ?, ?)";
+    }
+
+    private static Object[] row(Client client) {
+        return new Object[]{client.getId(), normalize(client.getName()), normalize(client.getEmail()),
+                normalize(client.getAddress()), phoneDigits(client.getPhone())};
+    }
+
+    /**
+     * FTS5 query for a user search: a phone-like query matches the digits of the phone column,
+     * anything else matches every whitespace-separated term of at least three characters.
+     * Terms are quoted so user input is never parsed as FTS syntax.
+     *
+     * @return null when no term is long enough for the trigram index
+     */
+    static String toMatchExpression(String query) {
+        if (query == null || query.isBlank()) {
+            return null;
+        }
+        String trimmed = query.trim();
+        if (isPhoneQuery(trimmed)) {
+            String digits = phoneDigits(trimmed);
+            return digits.length() >= MIN_TERM_LENGTH ? "phone : " + quote(digits) : null;
+        }
+        List<String> terms = new ArrayList<>();
+        for (String term : normalize(trimmed).split("\\s+")) {
+            if (term.length() >= MIN_TERM_LENGTH) {
+                terms.add(quote(term));
+            }
+        }
+        return terms.isEmpty() ? null : String.join(" AND ", terms);
+    }
+
+    /**
+     * Whether a trimmed user query looks like a phone number (digits and separators only).
+     */
+    static boolean isPhoneQuery(String trimmed) {
+        return PHONE_QUERY.matcher(trimmed).matches();
+    }
+
+    /**
+     * Lower case, accents removed.
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Digits only, with a +33 international prefix turned back into the national leading 0.
+     */
+    static String phoneDigits(String phone) {
+        if (phone == null) {
+            return "";
+        }
+        String digits = NON_DIGITS.matcher(phone).replaceAll("");
+        if (phone.trim().startsWith("+33") && digits.startsWith("33")) {
+            digits = "0" + digits.substring(2);
+        }
+        return digits;
+    }
+
+    private static String quote(String term) {
+        return '"' + term.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,16 +1,26 @@
 package com.honeyai.service;
 
+import com.honeyai.dto.ClientRow;
+import com.honeyai.dto.ClientSuggestion;
+import com.honeyai.dto.KeysetPage;
+import com.honeyai.enums.ClientSort;
 import com.honeyai.exception.ClientNotFoundException;
 import com.honeyai.model.Client;
 import com.honeyai.repository.ClientRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Service
 @Transactional
@@ -19,6 +29,8 @@ import java.util.Optional;
 public class ClientService {
 
     private final ClientRepository clientRepository;
+    private final ClientSearchIndex clientSearchIndex;
+    private final ClientAutocompleteIndex clientAutocompleteIndex;
 
     /**
      * Find all non-deleted clients ordered by name.
@@ -28,6 +40,14 @@ public class ClientService {
         return clientRepository.findByDeletedAtIsNullOrderByNameAsc();
     }
 
+    /**
+     * Find all non-deleted clients ordered by name, as read models.
+     */
+    @Transactional(readOnly = true)
+    public List<ClientRow> findActiveRows() {
+        return clientRepository.findActiveRows();
+    }
+
     /**
      * Find a non-deleted client by ID.
      * @param id client ID
@@ -51,14 +71,29 @@ public class ClientService {
     }
 
     /**
-     * Save a client. Sets updatedAt timestamp.
+     * Find a client read model by ID or throw exception.
+     * @param id client ID
+     * @return the client row
+     * @throws ClientNotFoundException if client not found or soft-deleted
+     */
+    @Transactional(readOnly = true)
+    public ClientRow findRowByIdOrThrow(Long id) {
+        return clientRepository.findActiveRowById(id)
+                .orElseThrow(() -> new ClientNotFoundException(id));
+    }
+
+    /**
+     * Save a client. Sets updatedAt timestamp and refreshes the search and autocomplete indexes.
      * @param client the client to save
      * @return the saved client
      */
     public Client save(Client client) {
         client.setUpdatedAt(LocalDateTime.now());
         log.info("Saving client: {}", client.getName());
-        return clientRepository.save(client);
+        Client saved = clientRepository.save(client);
+        clientSearchIndex.index(saved);
+        clientAutocompleteIndex.index(saved);
+        return saved;
     }
 
     /**
@@ -71,20 +106,183 @@ public class ClientService {
         Client client = findByIdOrThrow(id);
         client.setDeletedAt(LocalDateTime.now());
         clientRepository.save(client);
+        clientSearchIndex.remove(id);
+        clientAutocompleteIndex.remove(id);
         log.info("Soft deleted client: {} (id={})", client.getName(), id);
     }
 
     /**
-     * Search clients by name or phone number.
+     * Typeahead for the order form: best active clients whose name or phone matches what was typed,
+     * answered from the in-memory autocomplete index. Runs outside any transaction so a keystroke
+     * never takes a database connection.
+     * @param query partially typed name or phone number
+     * @param limit maximum number of matches, a default when null
+     * @return matches best first, empty for a blank query
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<ClientSuggestion> autocomplete(String query, Integer limit) {
+        return clientAutocompleteIndex.suggest(query, limit);
+    }
+
+    /**
+     * Search clients by name, email, address or phone number, best match first.
+     * Uses the full-text index when it can answer the query, the repository LIKE search otherwise.
      * Handles null or empty search strings gracefully by returning all active clients.
      * @param search search term
-     * @return list of matching clients
+     * @return list of matching clients, at most {@link KeysetPaging#MAX_PAGE_SIZE} when ranked
      */
     @Transactional(readOnly = true)
     public List<Client> searchClients(String search) {
         if (search == null || search.trim().isEmpty()) {
             return findAllActive();
         }
-        return clientRepository.searchClients(search.trim());
+        String term = search.trim();
+        return rankedSearch(term, KeysetPaging.MAX_PAGE_SIZE, clientRepository::findAllById, Client::getId)
+                .map(clients -> clients.stream().filter(client -> !client.isDeleted()).toList())
+                .orElseGet(() -> clientRepository.searchClients(term));
+    }
+
+    /**
+     * Find one keyset page of active clients ordered by (name, id), optionally filtered by a search term.
+     * A search answered by the full-text index is paged in rank order instead.
+     *
+     * @param search optional fragment of the name, phone, email or address
+     * @param after  cursor of the last row of the previous page (next page navigation)
+     * @param before cursor of the first row of the following page (previous page navigation)
+     * @param size   requested page size, clamped to {@link KeysetPaging#MAX_PAGE_SIZE}
+     * @return the requested page of client rows
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<ClientRow> findPage(String search, String after, String before, Integer size) {
+        return findPage(search, ClientSort.NAME, after, before, size);
+    }
+
+    /**
+     * Find one keyset page of active clients in the given sort order. Sorting by lifetime value
+     * walks (paid_total desc, id desc) on the denormalised client stats, so no order is read.
+     * A search answered by the full-text index is paged in rank order, or by lifetime value when
+     * so sorted, with cursors holding the position of the boundary row among the matches.
+     *
+     * @param search optional fragment of the name, phone, email or address
+     * @param sort   sort order, name when null
+     * @param after  cursor of the last row of the previous page (next page navigation)
+     * @param before cursor of the first row of the following page (previous page navigation)
+     * @param size   requested page size, clamped to {@link KeysetPaging#MAX_PAGE_SIZE}
+     * @return the requested page of client rows
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<ClientRow> findPage(String search, ClientSort sort, String after, String before,
+                                          Integer size) {
+        String term = (search == null || search.isBlank()) ? null : search.trim();
+        int pageSize = KeysetPaging.pageSize(size);
+
+        if (term != null) {
+            Optional<KeysetPage<ClientRow>> ranked = findRankedPage(term, sort, after, before, pageSize);
+            if (ranked.isPresent()) {
+                return ranked.get();
+            }
+        }
+
+        if (sort == ClientSort.LIFETIME_VALUE) {
+            return findValuePage(term, after, before, pageSize);
+        }
+
+        KeysetPaging.Cursor<String> beforeCursor = KeysetPaging.decode(before, key -> key);
+        if (beforeCursor != null) {
+            List<ClientRow> rows = clientRepository.findActivePageBefore(term,
+                    beforeCursor.key(), beforeCursor.id(), KeysetPaging.probe(pageSize));
+            return KeysetPaging.toPage(rows, pageSize, true, true, ClientService::cursorOf);
+        }
+
+        KeysetPaging.Cursor<String> afterCursor = KeysetPaging.decode(after, key -> key);
+        List<ClientRow> rows = clientRepository.findActivePageAfter(term,
+                afterCursor != null ? afterCursor.key() : null,
+                afterCursor != null ? afterCursor.id() : null,
+                KeysetPaging.probe(pageSize));
+        return KeysetPaging.toPage(rows, pageSize, false, afterCursor != null, ClientService::cursorOf);
+    }
+
+    private KeysetPage<ClientRow> findValuePage(String term, String after, String before, int pageSize) {
+        KeysetPaging.Cursor<BigDecimal> beforeCursor = KeysetPaging.decode(before, BigDecimal::new);
+        if (beforeCursor != null) {
+            List<ClientRow> rows = clientRepository.findActiveValuePageBefore(term,
+                    beforeCursor.key(), beforeCursor.id(), KeysetPaging.probe(pageSize));
+            return KeysetPaging.toPage(rows, pageSize, true, true, ClientService::valueCursorOf);
+        }
+
+        KeysetPaging.Cursor<BigDecimal> afterCursor = KeysetPaging.decode(after, BigDecimal::new);
+        List<ClientRow> rows = clientRepository.findActiveValuePageAfter(term,
+                afterCursor != null ? afterCursor.key() : null,
+                afterCursor != null ? afterCursor.id() : null,
+                KeysetPaging.probe(pageSize));
+        return KeysetPaging.toPage(rows, pageSize, false, afterCursor != null, ClientService::valueCursorOf);
+    }
+
+    /**
+     * One page of the full-text matches of {@code term}, in rank order or by lifetime value, or empty
+     * when the index cannot answer. The cursor key is the position of the boundary row among the
+     * matches: the next page starts after the last row, the previous page ends before the first one.
+     */
+    private Optional<KeysetPage<ClientRow>> findRankedPage(String term, ClientSort sort, String after,
+                                                           String before, int pageSize) {
+        KeysetPaging.Cursor<Integer> beforeCursor = KeysetPaging.decode(before, Integer::valueOf);
+        KeysetPaging.Cursor<Integer> afterCursor = KeysetPaging.decode(after, Integer::valueOf);
+        int offset;
+        int limit;
+        if (beforeCursor != null) {
+            offset = Math.max(0, beforeCursor.key() - pageSize);
+            limit = beforeCursor.key() - offset;
+        } else {
+            offset = afterCursor != null ? afterCursor.key() + 1 : 0;
+            limit = pageSize + 1;
+        }
+
+        Optional<List<Long>> matches = sort == ClientSort.LIFETIME_VALUE
+                ? clientSearchIndex.searchByValue(term, offset, limit)
+                : clientSearchIndex.search(term, offset, limit);
+        return matches.map(ids -> {
+            boolean hasNext = beforeCursor != null || ids.size() > pageSize;
+            List<Long> pageIds = ids.subList(0, Math.min(ids.size(), pageSize));
+            List<ClientRow> content = inRankOrder(pageIds, clientRepository::findActiveRowsById, ClientRow::id);
+            if (content.isEmpty()) {
+                return new KeysetPage<>(content, null, null, pageSize);
+            }
+            String next = hasNext ? KeysetPaging.encode(offset + pageIds.size() - 1, content.getLast().id()) : null;
+            String prev = offset > 0 ? KeysetPaging.encode(offset, content.getFirst().id()) : null;
+            return new KeysetPage<>(content, next, prev, pageSize);
+        });
+    }
+
+    /**
+     * Clients matching {@code term} in rank order, loaded by {@code loader}, or empty when the index cannot answer.
+     */
+    private <T> Optional<List<T>> rankedSearch(String term, int limit,
+                                               Function<List<Long>, List<T>> loader, Function<T, Long> idOf) {
+        return clientSearchIndex.search(term, limit).map(ids -> inRankOrder(ids, loader, idOf));
+    }
+
+    /**
+     * Loads {@code ids} with {@code loader} and returns them in the order of {@code ids}.
+     */
+    private static <T> List<T> inRankOrder(List<Long> ids, Function<List<Long>, List<T>> loader,
+                                           Function<T, Long> idOf) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        return loader.apply(ids).stream()
+                .sorted(Comparator.comparing(row -> rank.get(idOf.apply(row))))
+                .toList();
+    }
+
+    private static String cursorOf(ClientRow client) {
+        return KeysetPaging.encode(client.name(), client.id());
+    }
+
+    private static String valueCursorOf(ClientRow client) {
+        return KeysetPaging.encode(client.lifetimeValue().toPlainString(), client.id());
     }
 }
@@ -1,9 +1,14 @@
 package com.honeyai.service;
 
+import com.honeyai.dto.DashboardSnapshot;
+import com.honeyai.dto.DepenseCategorieDto;
 import com.honeyai.dto.TopProduitDto;
-import com.honeyai.model.Order;
-import com.honeyai.model.OrderLine;
+import com.honeyai.enums.OrderStatus;
+import com.honeyai.repository.AchatRepository;
+import com.honeyai.repository.AchatRollupRepository;
 import com.honeyai.repository.OrderRepository;
+import com.honeyai.repository.SalesRollupRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -12,29 +17,67 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.util.*;
-import java.util.stream.Collectors;
+import java.util.List;
 
 @Service
 @Transactional(readOnly = true)
+@Timed(value = "honeyai.dashboard", description = "Dashboard figures, tagged by method")
 @RequiredArgsConstructor
 @Slf4j
 public class DashboardService {
 
     private final OrderRepository orderRepository;
-    private final AchatService achatService;
+    private final AchatRepository achatRepository;
+    private final SalesRollupRepository salesRollupRepository;
+    private final AchatRollupRepository achatRollupRepository;
+
+    /**
+     * Compute every dashboard figure for a period with three queries: sales grouped by product,
+     * paid order count, and purchases grouped by category. Revenue, expenses and profit are
+     * derived from the grouped rows rather than re-queried. Whole-month periods such as the
+     * dashboard year are served from the monthly rollups.
+     */
+    public DashboardSnapshot getSnapshot(LocalDate start, LocalDate end, int topLimit) {
+        List<TopProduitDto> sales = salesByProduct(start, end);
+        BigDecimal ca = sales.stream()
+                .map(TopProduitDto::getChiffreAffaires)
+                .reduce(BigDecimal.ZERO, BigDecimal::add)
+                .setScale(2, RoundingMode.HALF_UP);
+        long commandesPayees = orderRepository.countByStatusAndOrderDateBetween(OrderStatus.PAID, start, end);
+
+        List<DepenseCategorieDto> depensesParCategorie = depensesByCategorie(start, end);
+        BigDecimal depenses = depensesParCategorie.stream()
+                .map(DepenseCategorieDto::getMontant)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        for (DepenseCategorieDto d : depensesParCategorie) {
+            d.setPourcentage(depenses.signum() > 0
+                    ? d.getMontant().multiply(BigDecimal.valueOf(100))
+                            .divide(depenses, 0, RoundingMode.HALF_UP)
+                            .intValue()
+                    : 0);
+        }
+
+        return DashboardSnapshot.builder()
+                .chiffreAffaires(ca)
+                .totalDepenses(depenses)
+                .benefice(ca.subtract(depenses).setScale(2, RoundingMode.HALF_UP))
+                .commandesPayees(commandesPayees)
+                .topProduits(sales.stream().limit(topLimit).toList())
+                .depensesParCategorie(depensesParCategorie)
+                .build();
+    }
 
     public BigDecimal calculateChiffreAffaires(LocalDate start, LocalDate end) {
-        List<Order> paidOrders = orderRepository.findPaidOrdersWithLinesBetween(start, end);
-        return paidOrders.stream()
-                .flatMap(order -> order.getLines().stream())
-                .map(OrderLine::getTotal)
+        return salesByProduct(start, end).stream()
+                .map(TopProduitDto::getChiffreAffaires)
                 .reduce(BigDecimal.ZERO, BigDecimal::add)
                 .setScale(2, RoundingMode.HALF_UP);
     }
 
     public BigDecimal calculateTotalDepenses(LocalDate start, LocalDate end) {
-        return achatService.calculateTotalDepenses(start, end);
+        return depensesByCategorie(start, end).stream()
+                .map(DepenseCategorieDto::getMontant)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
     public BigDecimal calculateBenefice(LocalDate start, LocalDate end) {
@@ -44,33 +87,30 @@ public class DashboardService {
     }
 
     public List<TopProduitDto> getTopProduits(LocalDate start, LocalDate end, int limit) {
-        List<Order> paidOrders = orderRepository.findPaidOrdersWithLinesBetween(start, end);
-
-        Map<Long, TopProduitDto> productMap = new LinkedHashMap<>();
+        return salesByProduct(start, end).stream()
+                .limit(limit)
+                .toList();
+    }
 
-        for (Order order : paidOrders) {
-            for (OrderLine line : order.getLines()) {
-                Long productId = line.getProduct().getId();
-                productMap.merge(productId,
-                        TopProduitDto.builder()
-                                .produitNom(line.getProduct().getName())
-                                .typeMiel(line.getProduct().getType() != null
-                                        ? line.getProduct().getType().getDisplayLabel()
-                                        : null)
-                                .quantiteTotale(Long.valueOf(line.getQuantity()))
-                                .chiffreAffaires(line.getTotal())
-                                .build(),
-                        (existing, incoming) -> {
-                            existing.setQuantiteTotale(existing.getQuantiteTotale() + incoming.getQuantiteTotale());
-                            existing.setChiffreAffaires(existing.getChiffreAffaires().add(incoming.getChiffreAffaires()));
-                            return existing;
-                        });
-            }
+    /**
+     * Sales per product, read from the monthly rollup when the period covers whole months
+     * and from the raw order lines otherwise.
+     */
+    private List<TopProduitDto> salesByProduct(LocalDate start, LocalDate end) {
+        if (RollupService.isMonthAligned(start, end)) {
+            return salesRollupRepository.sumByProduct(RollupService.period(start), RollupService.period(end));
         }
+        return orderRepository.sumPaidSalesByProduct(start, end);
+    }
 
-        return productMap.values().stream()
-                .sorted(Comparator.comparingLong(TopProduitDto::getQuantiteTotale).reversed())
-                .limit(limit)
-                .collect(Collectors.toList());
+    /**
+     * Purchases per category, read from the monthly rollup when the period covers whole months
+     * and from the raw purchases otherwise.
+     */
+    private List<DepenseCategorieDto> depensesByCategorie(LocalDate start, LocalDate end) {
+        if (RollupService.isMonthAligned(start, end)) {
+            return achatRollupRepository.sumByCategorie(RollupService.period(start), RollupService.period(end));
+        }
+        return achatRepository.sumMontantByCategorie(start, end);
     }
 }
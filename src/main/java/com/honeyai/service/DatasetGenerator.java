@@ -0,0 +1,410 @@
+package com.honeyai.service;
+
+import com.honeyai.config.DatasetConfig;
+import com.honeyai.dto.DatasetReport;
+import com.honeyai.enums.CategorieAchat;
+import com.honeyai.enums.FormatPot;
+import com.honeyai.enums.HoneyType;
+import com.honeyai.enums.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills the database with a realistic, reproducible dataset for load tests and benchmarks:
+ * clients (some soft-deleted), yearly prices, multi-line orders in every status, purchases in
+ * every category and label history.
+ * <p>
+ * Rows are written with batched JDBC inserts and explicit ids in a single transaction, bypassing
+ * the persistence context, so a million order lines take seconds rather than minutes. Rollups
+ * and the client search index are rebuilt afterwards. Rows are appended to existing data; the
+ * same seed on the same database state always yields the same rows.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class DatasetGenerator {
+
+    private static final String[] LAST_NAMES = {"Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard",
+            "Petit", "Durand", "Leroy", "Moreau", "Simon", "Laurent", "Lefèvre", "Michel", "Garcia", "Roux",
+            "Fournier", "Girard", "Bonnet", "Mercier", "Chabanel", "Boyer", "Vidal", "Rousset"};
+    private static final String[] FIRST_NAMES = {"Jean", "Marie", "Pierre", "Hélène", "Luc", "Sophie", "Paul",
+            "Anne", "Louis", "Camille", "Jacques", "Élise", "François", "Céline", "André", "Nathalie"};
+    private static final String[] TOWNS = {"43000 Le Puy-en-Velay", "43100 Brioude", "43200 Yssingeaux",
+            "43370 Cussac-sur-Loire", "43120 Monistrol-sur-Loire", "43300 Langeac", "43700 Brives-Charensac"};
+    private static final String[] STREETS = {"rue des Abeilles", "chemin des Ruches", "avenue du Miel",
+            "place du Marché", "route de la Forêt", "impasse des Tilleuls"};
+
+    /**
+     * Orders older than this are mostly paid; recent ones are spread over every status.
+     */
+    private static final int SETTLED_AFTER_DAYS = 60;
+    private static final double YEARLY_PRICE_INCREASE = 0.03;
+    private static final BigDecimal DEFAULT_PRICE = new BigDecimal("10.00");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RollupService rollupService;
+    private final ClientSearchIndex clientSearchIndex;
+    private final ClientAutocompleteIndex clientAutocompleteIndex;
+    private final EntityCacheService entityCacheService;
+    private final ProductService productService;
+
+    /**
+     * Generates the dataset described by {@code config}.
+     *
+     * @throws IllegalStateException when there is no product to order
+     */
+    public DatasetReport generate(DatasetConfig config) {
+        long started = System.nanoTime();
+        LocalDate today = LocalDate.now();
+        int lastYear = config.getLastYear() != null ? config.getLastYear() : today.getYear();
+        int firstYear = lastYear - config.getYears() + 1;
+        Random random = new Random(config.getSeed());
+
+        List<Long> productIds = jdbcTemplate.queryForList("SELECT id FROM products ORDER BY id", Long.class);
+        if (productIds.isEmpty()) {
+            throw new IllegalStateException("Aucun produit en base: impossible de generer des commandes");
+        }
+        log.info("Generation du jeu de donnees: {} annees ({}-{}), graine {}", config.getYears(), firstYear,
+                lastYear, config.getSeed());
+
+        DatasetReport report = jdbcTemplate.execute((ConnectionCallback<DatasetReport>) connection -> {
+            DatasetReport.DatasetReportBuilder result = DatasetReport.builder();
+            Map<Long, Map<Integer, BigDecimal>> prices = loadPrices(productIds);
+            result.prices(insertPrices(connection, config, prices, firstYear, lastYear));
+            long[] clientIds = insertClients(connection, config, random, firstYear, today, result);
+            insertOrders(connection, config, random, clientIds, productIds, prices, firstYear, lastYear, today, result);
+            result.achats(insertAchats(connection, config, random, firstYear, lastYear, today));
+            result.labels(insertLabels(connection, config, random, firstYear, lastYear, today));
+            return result.build();
+        });
+
+        // Rows were written over plain JDBC, behind the second-level and price caches
+        entityCacheService.evictAll();
+        productService.clearPriceCache();
+        rollupService.rebuild();
+        clientSearchIndex.rebuild();
+        clientAutocompleteIndex.rebuild();
+
+        report.setElapsedMs(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        log.info("Jeu de donnees genere en {} ms: {} clients, {} prix, {} commandes, {} lignes, {} achats, {} etiquettes",
+                report.getElapsedMs(), report.getClients(), report.getPrices(), report.getOrders(),
+                report.getOrderLines(), report.getAchats(), report.getLabels());
+        return report;
+    }
+
+    private Map<Long, Map<Integer, BigDecimal>> loadPrices(List<Long> productIds) {
+        Map<Long, Map<Integer, BigDecimal>> prices = new HashMap<>();
+        for (Long productId : productIds) {
+            prices.put(productId, new TreeMap<>());
+        }
+        jdbcTemplate.query("SELECT product_id, price_year, price FROM prices", rs -> {
+            Map<Integer, BigDecimal> byYear = prices.get(rs.getLong(1));
+            if (byYear != null) {
+                byYear.put(rs.getInt(2), rs.getBigDecimal(3).setScale(2, RoundingMode.HALF_UP));
+            }
+        });
+        return prices;
+    }
+
+    /**
+     * Adds the missing yearly prices, following the closest known year by 3% a year.
+     */
+    private int insertPrices(Connection connection, DatasetConfig config, Map<Long, Map<Integer, BigDecimal>> prices,
+                             int firstYear, int lastYear) throws SQLException {
+        try (Batch batch = new Batch(connection, config.getBatchSize(), "prices",
+                "INSERT INTO prices (id, price, price_year, product_id) VALUES (?, ?, ?, ?)")) {
+            for (Map.Entry<Long, Map<Integer, BigDecimal>> product : prices.entrySet().stream()
+                    .sorted(Map.Entry.comparingByKey()).toList()) {
+                Map<Integer, BigDecimal> byYear = product.getValue();
+                Map<Integer, BigDecimal> known = new TreeMap<>(byYear);
+                for (int year = firstYear; year <= lastYear; year++) {
+                    if (byYear.containsKey(year)) {
+                        continue;
+                    }
+                    BigDecimal price = extrapolate(known, year);
+                    byYear.put(year, price);
+                    PreparedStatement ps = batch.next();
+                    ps.setBigDecimal(2, price);
+                    ps.setInt(3, year);
+                    ps.setLong(4, product.getKey());
+                    batch.add();
+                }
+            }
+            return batch.count();
+        }
+    }
+
+    private static BigDecimal extrapolate(Map<Integer, BigDecimal> known, int year) {
+        if (known.isEmpty()) {
+            return DEFAULT_PRICE;
+        }
+        int closest = known.keySet().stream()
+                .min((a, b) -> Integer.compare(Math.abs(a - year), Math.abs(b - year)))
+                .orElseThrow();
+        double factor = Math.pow(1 + YEARLY_PRICE_INCREASE, year - closest);
+        return known.get(closest).multiply(BigDecimal.valueOf(factor)).setScale(1, RoundingMode.HALF_UP)
+                .setScale(2, RoundingMode.UNNECESSARY);
+    }
+
+    private long[] insertClients(Connection connection, DatasetConfig config, Random random, int firstYear,
+                                 LocalDate today, DatasetReport.DatasetReportBuilder result) throws SQLException {
+        long[] ids = new long[config.getClients()];
+        LocalDate start = LocalDate.of(firstYear, 1, 1);
+        int span = (int) Math.max(1, ChronoUnit.DAYS.between(start, today));
+        try (Batch batch = new Batch(connection, config.getBatchSize(), "clients",
+                "INSERT INTO clients (id, address, created_at, deleted_at, email, name, notes, phone, updated_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < ids.length; i++) {
+                String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+                LocalDateTime created = start.plusDays(random.nextInt(span)).atTime(8 + random.nextInt(10),
+                        random.nextInt(60));
+                boolean deleted = random.nextDouble() < config.getDeletedClientRatio();
+
+                PreparedStatement ps = batch.next();
+                ids[i] = batch.lastId();
+                ps.setString(2, (1 + random.nextInt(120)) + " " + STREETS[random.nextInt(STREETS.length)] + ", "
+                        + TOWNS[random.nextInt(TOWNS.length)]);
+                ps.setTimestamp(3, Timestamp.valueOf(created));
+                if (deleted) {
+                    ps.setTimestamp(4, Timestamp.valueOf(created.plusDays(1 + random.nextInt(365))));
+                } else {
+                    ps.setNull(4, Types.TIMESTAMP);
+                }
+                ps.setString(5, ClientSearchIndex.normalize(firstName + "." + lastName).replace(' ', '-')
+                        + ids[i] + "@example.fr");
+                ps.setString(6, lastName + " " + firstName);
+                ps.setNull(7, Types.VARCHAR);
+                ps.setString(8, String.format("0%d %02d %02d %02d %02d", 6 + random.nextInt(2),
+                        random.nextInt(100), random.nextInt(100), random.nextInt(100), random.nextInt(100)));
+                ps.setTimestamp(9, Timestamp.valueOf(created));
+                batch.add();
+            }
+            result.clients(batch.count());
+        }
+        return ids;
+    }
+
+    private void insertOrders(Connection connection, DatasetConfig config, Random random, long[] clientIds,
+                              List<Long> productIds, Map<Long, Map<Integer, BigDecimal>> prices,
+                              int firstYear, int lastYear, LocalDate today,
+                              DatasetReport.DatasetReportBuilder result) throws SQLException {
+        if (clientIds.length == 0) {
+            return;
+        }
+        OrderStatus[] statuses = OrderStatus.values();
+        long[] products = productIds.stream().mapToLong(Long::longValue).toArray();
+        try (Batch orders = new Batch(connection, config.getBatchSize(), "orders",
+                "INSERT INTO orders (id, created_at, notes, command_date, status, updated_at, client_id) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?)");
+             Batch lines = new Batch(connection, config.getBatchSize(), "order_lines",
+                     "INSERT INTO order_lines (id, quantity, prix_unitaire, order_id, product_id) "
+                             + "VALUES (?, ?, ?, ?, ?)")) {
+            for (int year = firstYear; year <= lastYear; year++) {
+                // Sorted dates: ids grow with the order date, as they do in real use
+                int[] days = randomDays(random, config.getOrdersPerYear(), year, today);
+                for (int day : days) {
+                    LocalDate date = LocalDate.ofYearDay(year, day);
+                    long age = ChronoUnit.DAYS.between(date, today);
+                    OrderStatus status = age > SETTLED_AFTER_DAYS
+                            ? settledStatus(random)
+                            : statuses[random.nextInt(statuses.length)];
+                    LocalDateTime created = date.atTime(8 + random.nextInt(10), random.nextInt(60));
+
+                    PreparedStatement ps = orders.next();
+                    long orderId = orders.lastId();
+                    ps.setTimestamp(2, Timestamp.valueOf(created));
+                    ps.setNull(3, Types.VARCHAR);
+                    ps.setDate(4, Date.valueOf(date));
+                    ps.setString(5, status.name());
+                    ps.setTimestamp(6, Timestamp.valueOf(created));
+                    ps.setLong(7, clientIds[random.nextInt(clientIds.length)]);
+                    orders.add();
+
+                    int lineCount = 1 + random.nextInt(Math.min(config.getMaxLinesPerOrder(), products.length));
+                    int first = random.nextInt(products.length);
+                    for (int l = 0; l < lineCount; l++) {
+                        long productId = products[(first + l) % products.length];
+                        PreparedStatement line = lines.next();
+                        line.setInt(2, 1 + random.nextInt(3) + (random.nextInt(10) == 0 ? random.nextInt(10) : 0));
+                        line.setBigDecimal(3, prices.get(productId).get(year));
+                        line.setLong(4, orderId);
+                        line.setLong(5, productId);
+                        lines.add();
+                    }
+                }
+            }
+            result.orders(orders.count());
+            result.orderLines(lines.count());
+        }
+    }
+
+    private static OrderStatus settledStatus(Random random) {
+        int roll = random.nextInt(100);
+        if (roll < 90) {
+            return OrderStatus.PAID;
+        }
+        return roll < 97 ? OrderStatus.RECOVERED : OrderStatus.ORDERED;
+    }
+
+    private int insertAchats(Connection connection, DatasetConfig config, Random random, int firstYear,
+                             int lastYear, LocalDate today) throws SQLException {
+        CategorieAchat[] categories = CategorieAchat.values();
+        try (Batch batch = new Batch(connection, config.getBatchSize(), "achats",
+                "INSERT INTO achats (id, categorie, created_at, date_achat, designation, montant, notes) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int year = firstYear; year <= lastYear; year++) {
+                int[] days = randomDays(random, config.getAchatsPerYear(), year, today);
+                for (int i = 0; i < days.length; i++) {
+                    // Round robin so every category appears each year
+                    CategorieAchat categorie = categories[i % categories.length];
+                    LocalDate date = LocalDate.ofYearDay(year, days[i]);
+                    PreparedStatement ps = batch.next();
+                    ps.setString(2, categorie.name());
+                    ps.setTimestamp(3, Timestamp.valueOf(date.atTime(18, 0)));
+                    ps.setDate(4, Date.valueOf(date));
+                    ps.setString(5, categorie.getDisplayLabel() + " " + (i + 1));
+                    ps.setBigDecimal(6, BigDecimal.valueOf(1000 + random.nextInt(49000), 2));
+                    ps.setNull(7, Types.VARCHAR);
+                    batch.add();
+                }
+            }
+            return batch.count();
+        }
+    }
+
+    private int insertLabels(Connection connection, DatasetConfig config, Random random, int firstYear,
+                             int lastYear, LocalDate today) throws SQLException {
+        HoneyType[] types = HoneyType.values();
+        FormatPot[] formats = FormatPot.values();
+        try (Batch batch = new Batch(connection, config.getBatchSize(), "historique_etiquettes",
+                "INSERT INTO historique_etiquettes (id, date_generation, date_recolte, dluo, format_pot, "
+                        + "prix_unitaire, quantite, type_miel) VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (int year = firstYear; year <= lastYear; year++) {
+                int[] days = randomDays(random, config.getLabelsPerYear(), year, today);
+                for (int day : days) {
+                    FormatPot format = formats[random.nextInt(formats.length)];
+                    LocalDate recolte = LocalDate.of(year, 6 + random.nextInt(3), 1 + random.nextInt(28));
+                    PreparedStatement ps = batch.next();
+                    ps.setTimestamp(2, Timestamp.valueOf(LocalDate.ofYearDay(year, day)
+                            .atTime(8 + random.nextInt(10), random.nextInt(60))));
+                    ps.setDate(3, Date.valueOf(recolte));
+                    ps.setDate(4, Date.valueOf(recolte.plusDays(730)));
+                    ps.setString(5, format.name());
+                    ps.setBigDecimal(6, format == FormatPot.POT_1KG ? new BigDecimal("17.00") : new BigDecimal("9.00"));
+                    ps.setInt(7, 21 * (1 + random.nextInt(5)));
+                    ps.setString(8, types[random.nextInt(types.length)].name());
+                    batch.add();
+                }
+            }
+            return batch.count();
+        }
+    }
+
+    /**
+     * {@code count} sorted days of {@code year}, not after {@code today}.
+     */
+    private static int[] randomDays(Random random, int count, int year, LocalDate today) {
+        LocalDate first = LocalDate.of(year, 1, 1);
+        if (first.isAfter(today)) {
+            return new int[0];
+        }
+        int lastDay = year == today.getYear() ? today.getDayOfYear() : first.lengthOfYear();
+        int[] days = new int[count];
+        for (int i = 0; i < count; i++) {
+            days[i] = 1 + random.nextInt(lastDay);
+        }
+        Arrays.sort(days);
+        return days;
+    }
+
+    /**
+     * Batched insert with explicit ids following the current maximum of the table.
+     * Parameter 1 of the statement is always the id.
+     */
+    private static final class Batch implements AutoCloseable {
+
+        private final PreparedStatement statement;
+        private final int size;
+        private long nextId;
+        private int pending;
+        private int count;
+
+        Batch(Connection connection, int size, String table, String sql) throws SQLException {
+            this.size = size;
+            try (PreparedStatement max = connection.prepareStatement("SELECT COALESCE(MAX(id), 0) FROM " + table);
+                 var rs = max.executeQuery()) {
+                rs.next();
+                this.nextId = rs.getLong(1) + 1;
+            }
+            this.statement = connection.prepareStatement(sql);
+        }
+
+        /**
+         * Statement ready for the next row, with its id already bound.
+         */
+        PreparedStatement next() throws SQLException {
+            statement.setLong(1, nextId);
+            return statement;
+        }
+
+        long lastId() {
+            return nextId;
+        }
+
+        void add() throws SQLException {
+            statement.addBatch();
+            nextId++;
+            count++;
+            if (++pending == size) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        }
+
+        int count() throws SQLException {
+            flush();
+            return count;
+        }
+
+        private void flush() throws SQLException {
+            if (pending > 0) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                flush();
+            } finally {
+                statement.close();
+            }
+        }
+    }
+}
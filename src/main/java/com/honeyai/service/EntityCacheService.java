@@ -0,0 +1,58 @@
+package com.honeyai.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.honeyai.dto.CacheStatsDto;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+
+import javax.cache.CacheManager;
+
+/**
+ * Statistics and eviction of the Hibernate second-level cache (see {@code HibernateCacheConfig}).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class EntityCacheService {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final ObjectProvider<CacheManager> entityCacheManager;
+
+    /**
+     * Entity and query cache lookups served from memory (hits) or from the database (misses),
+     * and the number of entries currently held by the cache regions.
+     */
+    public CacheStatsDto getStats() {
+        Statistics statistics = sessionFactory().getStatistics();
+        // Hibernate cannot count JCache entries, Caffeine can
+        long size = 0;
+        CacheManager cacheManager = entityCacheManager.getIfAvailable();
+        if (cacheManager != null) {
+            for (String region : cacheManager.getCacheNames()) {
+                size += cacheManager.getCache(region).unwrap(Cache.class).estimatedSize();
+            }
+        }
+        return CacheStatsDto.builder()
+                .hits(statistics.getSecondLevelCacheHitCount() + statistics.getQueryCacheHitCount())
+                .misses(statistics.getSecondLevelCacheMissCount() + statistics.getQueryCacheMissCount())
+                .size(size)
+                .build();
+    }
+
+    /**
+     * Drop every cached entity and query result, after rows were written without Hibernate.
+     */
+    public void evictAll() {
+        sessionFactory().getCache().evictAllRegions();
+        log.info("Second-level cache evicted");
+    }
+
+    private SessionFactory sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactory.class);
+    }
+}
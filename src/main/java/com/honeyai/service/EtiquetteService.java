@@ -1,6 +1,7 @@
 package com.honeyai.service;
 
 import com.honeyai.config.EtiquetteConfig;
+import com.honeyai.dto.EtiquetteBatchLine;
 import com.honeyai.dto.EtiquetteData;
 import com.honeyai.dto.EtiquetteRequest;
 import com.honeyai.enums.HoneyType;
@@ -130,7 +131,7 @@ public class EtiquetteService {
     /**
      * Save a history record after successful PDF generation.
      *
-     * @param request       the original label request
+     * @param request       the original label request, with the name of the preset printed
      * @param data          the computed label data
      * @param prixUnitaire  the price used (may be null)
      * @param labelsPerPage number of labels on the page
@@ -145,6 +146,7 @@ public class EtiquetteService {
                 .quantite(labelsPerPage)
                 .dateGeneration(LocalDateTime.now())
                 .prixUnitaire(prixUnitaire)
+                .presetName(request.getPresetName())
                 .build();
 
         HistoriqueEtiquettes saved = historiqueEtiquettesRepository.save(historique);
@@ -154,6 +156,36 @@ public class EtiquetteService {
         return saved;
     }
 
+    /**
+     * Save one history record per batch line after a batch PDF has been generated.
+     * All records are written through a single {@code saveAll} in the current transaction, as one
+     * JDBC batch since their ids are assigned before the insert.
+     *
+     * @param lines the printed batch lines (request, label data with price, quantity)
+     * @return the saved history records, in line order
+     */
+    public List<HistoriqueEtiquettes> saveHistoriqueBatch(List<EtiquetteBatchLine> lines) {
+        LocalDateTime now = LocalDateTime.now();
+        List<HistoriqueEtiquettes> historiques = lines.stream()
+                .map(line -> HistoriqueEtiquettes.builder()
+                        .typeMiel(line.getRequest().getTypeMiel().name())
+                        .formatPot(line.getRequest().getFormatPot().name())
+                        .dateRecolte(line.getRequest().getDateRecolte())
+                        .dluo(line.getData().getDluo())
+                        .quantite(line.getQuantite())
+                        .dateGeneration(now)
+                        .prixUnitaire(line.getData().getPrixUnitaire())
+                        .presetName(line.getRequest().getPresetName())
+                        .build())
+                .toList();
+
+        List<HistoriqueEtiquettes> saved = historiqueEtiquettesRepository.saveAll(historiques);
+        log.info("Saved label batch history: {} entries, {} labels",
+                saved.size(), lines.stream().mapToInt(EtiquetteBatchLine::getQuantite).sum());
+
+        return saved;
+    }
+
     /**
      * Get the most recent label generations (up to 20).
      *
@@ -0,0 +1,103 @@
+package com.honeyai.service;
+
+import com.honeyai.dto.KeysetPage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Helpers shared by services exposing keyset (cursor-based) pagination.
+ * A cursor encodes the sort key and id of a boundary row as "key|id" in URL-safe Base64.
+ */
+@Slf4j
+final class KeysetPaging {
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
+    private static final char SEPARATOR = '|';
+
+    private KeysetPaging() {
+    }
+
+    /**
+     * Decoded cursor: the sort key of the boundary row and its id as tie-breaker.
+     */
+    record Cursor<K>(K key, Long id) {
+    }
+
+    /**
+     * Clamp a requested page size to [1, MAX_PAGE_SIZE], defaulting when absent.
+     */
+    static int pageSize(Integer requested) {
+        if (requested == null || requested < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(requested, MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Fetch one row more than the page size so the query tells whether another page exists.
+     */
+    static Pageable probe(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+    static String encode(Object key, Long id) {
+        String raw = String.valueOf(key) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor from the URL. Blank or malformed cursors yield null (first page).
+     */
+    static <K> Cursor<K> decode(String cursor, Function<String, K> keyParser) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            K key = keyParser.apply(raw.substring(0, separator));
+            Long id = Long.valueOf(raw.substring(separator + 1));
+            return new Cursor<>(key, id);
+        } catch (RuntimeException e) {
+            log.warn("Ignoring invalid pagination cursor: {}", cursor);
+            return null;
+        }
+    }
+
+    /**
+     * Build a page from the rows returned by a probe query.
+     *
+     * @param rows       rows in query order, at most size + 1
+     * @param size       page size
+     * @param backward   true when rows were fetched in reverse order (navigating to the previous page)
+     * @param fromCursor true when the query started from a cursor rather than the top of the list
+     * @param cursorOf   encodes the cursor of a row
+     */
+    static <T> KeysetPage<T> toPage(List<T> rows, int size, boolean backward, boolean fromCursor,
+                                    Function<T, String> cursorOf) {
+        boolean hasMore = rows.size() > size;
+        List<T> content = new ArrayList<>(hasMore ? rows.subList(0, size) : rows);
+        if (backward) {
+            Collections.reverse(content);
+        }
+        if (content.isEmpty()) {
+            return new KeysetPage<>(content, null, null, size);
+        }
+
+        String first = cursorOf.apply(content.getFirst());
+        String last = cursorOf.apply(content.getLast());
+        String next = backward ? last : (hasMore ? last : null);
+        String prev = backward ? (hasMore ? first : null) : (fromCursor ? first : null);
+        return new KeysetPage<>(content, next, prev, size);
+    }
+}
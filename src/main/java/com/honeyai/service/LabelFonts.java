@@ -0,0 +1,69 @@
+package com.honeyai.service;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Precomputed glyph widths of the Standard 14 fonts used on labels.
+ * <p>
+ * Widths of the Latin-1 range are measured once per font when the class loads; measuring a
+ * label line is then a table lookup per character instead of a font metrics call. The tables
+ * are immutable after construction and safe to share between threads. {@link #newFont()}
+ * hands out a fresh font instance for each document, since PDFBox fonts keep mutable
+ * encoding caches.
+ */
+final class LabelFonts {
+
+    static final LabelFonts REGULAR = new LabelFonts(Standard14Fonts.FontName.HELVETICA);
+    static final LabelFonts BOLD = new LabelFonts(Standard14Fonts.FontName.HELVETICA_BOLD);
+
+    private static final int TABLE_SIZE = 256;
+
+    private final Standard14Fonts.FontName name;
+    private final PDFont font;
+    private final float[] widths = new float[TABLE_SIZE];
+    private final Map<Character, Float> extraWidths = new ConcurrentHashMap<>();
+
+    private LabelFonts(Standard14Fonts.FontName name) {
+        this.name = name;
+        this.font = new PDType1Font(name);
+        Arrays.fill(widths, Float.NaN);
+        for (char c = ' '; c < TABLE_SIZE; c++) {
+            widths[c] = measure(c);
+        }
+    }
+
+    PDFont newFont() {
+        return new PDType1Font(name);
+    }
+
+    /**
+     * Width of already sanitized text in points.
+     */
+    float width(String text, float fontSize) {
+        float units = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            float w = c < TABLE_SIZE ? widths[c] : extraWidths.computeIfAbsent(c, this::measure);
+            if (!Float.isNaN(w)) {
+                units += w;
+            }
+        }
+        return units / 1000 * fontSize;
+    }
+
+    private synchronized float measure(char c) {
+        try {
+            return font.getStringWidth(String.valueOf(c));
+        } catch (IOException | IllegalArgumentException e) {
+            // Not encodable in WinAnsiEncoding; sanitizeText keeps such characters out of labels
+            return Float.NaN;
+        }
+    }
+}
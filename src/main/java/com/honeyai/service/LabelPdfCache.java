@@ -0,0 +1,300 @@
+package com.honeyai.service;
+
+import com.honeyai.config.LabelCacheConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed cache of generated label PDFs, on disk with the most recent sheets also on
+ * the heap.
+ * <p>
+ * A sheet is stored as {@code <key>.pdf}, the key being a hash of everything that affects the
+ * output ({@link PdfService#sheetCacheKey}), so an entry never needs invalidating: a new price or
+ * configuration gives a new key, and the old file ages out. Both tiers evict the least recently
+ * used sheets once their size budget is exceeded; the file modification time records use on
+ * disk, so the order survives a restart.
+ * <p>
+ * Publishes {@code honeyai.label.cache} (lookups, by result: memory, disk or miss) and
+ * {@code honeyai.label.cache.bytes} (cached bytes, by tier).
+ */
+@Service
+@Slf4j
+public class LabelPdfCache {
+
+    private static final String SUFFIX = ".pdf";
+    private static final Pattern KEY = Pattern.compile("[0-9a-f]{16,128}");
+
+    private final LabelCacheConfig config;
+    private final MeterRegistry meterRegistry;
+    private final Path directory;
+
+    /**
+     * Sheets on disk, least recently used first: key to file size.
+     */
+    private final LinkedHashMap<String, Long> disk = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private long diskBytes;
+    private long memoryBytes;
+    private boolean loaded;
+
+    public LabelPdfCache(LabelCacheConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.directory = Path.of(config.getDirectory());
+        Gauge.builder("honeyai.label.cache.bytes", this, cache -> cache.cachedBytes(true))
+                .baseUnit("bytes")
+                .tag("tier", "disk")
+                .register(meterRegistry);
+        Gauge.builder("honeyai.label.cache.bytes", this, cache -> cache.cachedBytes(false))
+                .baseUnit("bytes")
+                .tag("tier", "memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A label PDF with the key it is cached under.
+     */
+    public record CachedPdf(String key, byte[] content) {
+
+        /**
+         * Strong HTTP entity tag: the content is fully determined by the key.
+         */
+        public String etag() {
+            return "\"" + key + "\"";
+        }
+    }
+
+    /**
+     * Returns the sheet cached under {@code key}, or renders it with {@code renderer} and caches it.
+     *
+     * @param key      hash of the render inputs, lower-case hexadecimal
+     * @param renderer writes the PDF to the given stream
+     */
+    public CachedPdf getOrRender(String key, Consumer<OutputStream> renderer) {
+        if (key == null || !KEY.matcher(key).matches()) {
+            throw new IllegalArgumentException("Invalid label cache key: " + key);
+        }
+        if (!config.getEnabled()) {
+            return new CachedPdf(key, render(renderer));
+        }
+
+        byte[] content = fromMemory(key);
+        if (content != null) {
+            count("memory");
+            return new CachedPdf(key, content);
+        }
+        content = fromDisk(key);
+        if (content != null) {
+            count("disk");
+            return new CachedPdf(key, content);
+        }
+
+        count("miss");
+        content = render(renderer);
+        store(key, content);
+        return new CachedPdf(key, content);
+    }
+
+    /**
+     * Number of sheets on disk.
+     */
+    public synchronized int size() {
+        load();
+        return disk.size();
+    }
+
+    private synchronized byte[] fromMemory(String key) {
+        byte[] content = memory.get(key);
+        if (content != null) {
+            // Keep the disk copy of a hot sheet at the recent end too
+            disk.get(key);
+        }
+        return content;
+    }
+
+    private byte[] fromDisk(String key) {
+        synchronized (this) {
+            load();
+            // get, not containsKey: a lookup moves the sheet to the recent end
+            if (disk.get(key) == null) {
+                return null;
+            }
+        }
+        Path file = fileOf(key);
+        try {
+            byte[] content = Files.readAllBytes(file);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            synchronized (this) {
+                remember(key, content);
+            }
+            return content;
+        } catch (NoSuchFileException e) {
+            log.warn("Etiquettes en cache supprimees du disque: {}", file);
+            synchronized (this) {
+                Long size = disk.remove(key);
+                diskBytes -= size != null ? size : 0;
+            }
+            return null;
+        } catch (IOException e) {
+            log.warn("Lecture du cache d'etiquettes impossible: {}", file, e);
+            return null;
+        }
+    }
+
+    private void store(String key, byte[] content) {
+        Path file = fileOf(key);
+        try {
+            Files.createDirectories(directory);
+            Path tmp = Files.createTempFile(directory, key, ".tmp");
+            Files.write(tmp, content);
+            move(tmp, file);
+        } catch (IOException e) {
+            // The sheet was rendered; failing to cache it only costs a render next time
+            log.warn("Ecriture du cache d'etiquettes impossible: {}", file, e);
+            return;
+        }
+        synchronized (this) {
+            load();
+            Long previous = disk.put(key, (long) content.length);
+            diskBytes += content.length - (previous != null ? previous : 0);
+            evictDisk();
+            remember(key, content);
+        }
+    }
+
+    /**
+     * Keeps a sheet on the heap, evicting the least recently used ones beyond the memory budget.
+     */
+    private void remember(String key, byte[] content) {
+        long budget = megabytes(config.getMaxMemoryMb());
+        if (content.length > budget) {
+            return;
+        }
+        byte[] previous = memory.put(key, content);
+        memoryBytes += content.length - (previous != null ? previous.length : 0);
+        Iterator<Map.Entry<String, byte[]>> eldest = memory.entrySet().iterator();
+        while (memoryBytes > budget && eldest.hasNext()) {
+            memoryBytes -= eldest.next().getValue().length;
+            eldest.remove();
+        }
+    }
+
+    private void evictDisk() {
+        long budget = megabytes(config.getMaxDiskMb());
+        Iterator<Map.Entry<String, Long>> eldest = disk.entrySet().iterator();
+        while (diskBytes > budget && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            try {
+                Files.deleteIfExists(fileOf(entry.getKey()));
+            } catch (IOException e) {
+                log.warn("Suppression du cache d'etiquettes impossible: {}", entry.getKey(), e);
+            }
+            diskBytes -= entry.getValue();
+            byte[] inMemory = memory.remove(entry.getKey());
+            memoryBytes -= inMemory != null ? inMemory.length : 0;
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Reads the sheets already on disk, oldest use first, and drops leftovers of interrupted writes.
+     */
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> sheets = files
+                    .filter(file -> {
+                        if (file.getFileName().toString().endsWith(".tmp")) {
+                            deleteQuietly(file);
+                            return false;
+                        }
+                        return file.getFileName().toString().endsWith(SUFFIX);
+                    })
+                    .sorted(Comparator.comparing(LabelPdfCache::lastModified))
+                    .toList();
+            for (Path sheet : sheets) {
+                String name = sheet.getFileName().toString();
+                long size = Files.size(sheet);
+                disk.put(name.substring(0, name.length() - SUFFIX.length()), size);
+                diskBytes += size;
+            }
+            evictDisk();
+            log.info("Cache d'etiquettes: {} feuilles, {} octets", disk.size(), diskBytes);
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Lecture du cache d'etiquettes impossible: {}", directory, e);
+        }
+    }
+
+    private synchronized long cachedBytes(boolean onDisk) {
+        return onDisk ? diskBytes : memoryBytes;
+    }
+
+    private Path fileOf(String key) {
+        return directory.resolve(key + SUFFIX);
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("honeyai.label.cache", "result", result).increment();
+    }
+
+    private static byte[] render(Consumer<OutputStream> renderer) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        renderer.accept(out);
+        return out.toByteArray();
+    }
+
+    private static long megabytes(int mb) {
+        return mb * 1024L * 1024L;
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Suppression impossible: {}", file, e);
+        }
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
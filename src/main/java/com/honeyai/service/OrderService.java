@@ -2,15 +2,21 @@ package com.honeyai.service;
 
 import com.honeyai.enums.OrderStatus;
 import com.honeyai.exception.InvalidStatusTransitionException;
+import com.honeyai.exception.PriceNotFoundException;
 import com.honeyai.model.Order;
 import com.honeyai.model.OrderLine;
+import com.honeyai.repository.ClientRepository;
 import com.honeyai.repository.OrderRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.honeyai.dto.ClientOrderStatsDto;
+import com.honeyai.dto.KeysetPage;
+import com.honeyai.dto.OrderDetail;
+import com.honeyai.dto.OrderSummary;
 import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
@@ -18,6 +24,7 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -29,6 +36,8 @@ public class OrderService {
 
     private final OrderRepository orderRepository;
     private final ProductService productService;
+    private final RollupService rollupService;
+    private final ClientRepository clientRepository;
 
     @Transactional(readOnly = true)
     public List<Order> findAll() {
@@ -40,46 +49,23 @@ public class OrderService {
         return orderRepository.findByIdWithClient(id);
     }
 
-    @Transactional(readOnly = true)
-    public List<Order> findByClientId(Long clientId) {
-        return orderRepository.findByClientIdOrderByOrderDateDesc(clientId);
-    }
-
-    @Transactional(readOnly = true)
-    public List<Order> findByStatus(OrderStatus status) {
-        return orderRepository.findByStatus(status);
-    }
-
-    @Transactional(readOnly = true)
-    public List<Order> findAllSortedByDateDesc() {
-        return orderRepository.findAllByOrderByOrderDateDesc();
-    }
-
     /**
-     * Find orders for a specific year, sorted by date descending.
-     * Converts year to date range (Jan 1 to Jan 1 of next year).
+     * Find the read model of the order detail page: header and client contact, then lines.
      */
     @Transactional(readOnly = true)
-    public List<Order> findByYear(Integer year) {
-        LocalDate startDate = LocalDate.of(year, 1, 1);
-        LocalDate endDate = LocalDate.of(year + 1, 1, 1);
-        return orderRepository.findByDateRangeOrderByOrderDateDesc(startDate, endDate);
+    public Optional<OrderDetail> findDetail(Long id) {
+        return orderRepository.findDetailHeader(id)
+                .map(header -> header.withLines(orderRepository.findDetailLines(id)));
     }
 
-    /**
-     * Find orders for a specific year and status, sorted by date descending.
-     * Converts year to date range (Jan 1 to Jan 1 of next year).
-     */
     @Transactional(readOnly = true)
-    public List<Order> findByYearAndStatus(Integer year, OrderStatus status) {
-        LocalDate startDate = LocalDate.of(year, 1, 1);
-        LocalDate endDate = LocalDate.of(year + 1, 1, 1);
-        return orderRepository.findByDateRangeAndStatusOrderByOrderDateDesc(startDate, endDate, status);
+    public List<Order> findByClientId(Long clientId) {
+        return orderRepository.findByClientIdOrderByOrderDateDesc(clientId);
     }
 
     @Transactional(readOnly = true)
-    public List<Order> findByStatusSortedByDateDesc(OrderStatus status) {
-        return orderRepository.findByStatusOrderByOrderDateDesc(status);
+    public List<Order> findByStatus(OrderStatus status) {
+        return orderRepository.findByStatus(status);
     }
 
     /**
@@ -95,19 +81,42 @@ public class OrderService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Find one keyset page of order summaries, ordered by (orderDate, id) descending.
+     *
+     * @param year   optional year filter
+     * @param status optional status filter
+     * @param after  cursor of the last row of the previous page (next page navigation)
+     * @param before cursor of the first row of the following page (previous page navigation)
+     * @param size   requested page size, clamped to {@link KeysetPaging#MAX_PAGE_SIZE}
+     */
     @Transactional(readOnly = true)
-    public List<Order> findWithFilters(Integer year, OrderStatus status) {
-        if (year != null && status != null) {
-            return findByYearAndStatus(year, status);
-        } else if (year != null) {
-            return findByYear(year);
-        } else if (status != null) {
-            return findByStatusSortedByDateDesc(status);
-        } else {
-            return findAllSortedByDateDesc();
+    public KeysetPage<OrderSummary> findPage(Integer year, OrderStatus status,
+                                             String after, String before, Integer size) {
+        LocalDate startDate = year != null ? LocalDate.of(year, 1, 1) : null;
+        LocalDate endDate = year != null ? LocalDate.of(year + 1, 1, 1) : null;
+        int pageSize = KeysetPaging.pageSize(size);
+
+        KeysetPaging.Cursor<LocalDate> beforeCursor = KeysetPaging.decode(before, LocalDate::parse);
+        if (beforeCursor != null) {
+            List<OrderSummary> rows = orderRepository.findSummariesBefore(startDate, endDate, status,
+                    beforeCursor.key(), beforeCursor.id(), KeysetPaging.probe(pageSize));
+            return KeysetPaging.toPage(rows, pageSize, true, true, OrderService::cursorOf);
         }
+
+        KeysetPaging.Cursor<LocalDate> afterCursor = KeysetPaging.decode(after, LocalDate::parse);
+        List<OrderSummary> rows = orderRepository.findSummariesAfter(startDate, endDate, status,
+                afterCursor != null ? afterCursor.key() : null,
+                afterCursor != null ? afterCursor.id() : null,
+                KeysetPaging.probe(pageSize));
+        return KeysetPaging.toPage(rows, pageSize, false, afterCursor != null, OrderService::cursorOf);
+    }
+
+    private static String cursorOf(OrderSummary summary) {
+        return KeysetPaging.encode(summary.orderDate(), summary.id());
     }
 
+    @Timed(value = "honeyai.orders.create", description = "Order creation with its lines and rollups")
     public Order create(Order order) {
         log.info("Creating new order for client #{}",
                 order.getClient() != null ? order.getClient().getId() : "null");
@@ -127,20 +136,32 @@ public class OrderService {
             throw new IllegalArgumentException("La commande doit contenir au moins une ligne");
         }
 
-        // Auto-fetch unitPrice from current year price if not provided
-        for (OrderLine ligne : order.getLines()) {
-            if (ligne.getUnitPrice() == null && ligne.getProduct() != null) {
-                BigDecimal price = productService.getCurrentYearPrice(ligne.getProduct().getId());
+        // Auto-fetch unitPrice from current year prices if not provided, all lines at once
+        List<OrderLine> unpriced = order.getLines().stream()
+                .filter(ligne -> ligne.getUnitPrice() == null && ligne.getProduct() != null)
+                .toList();
+        if (!unpriced.isEmpty()) {
+            Map<Long, BigDecimal> prices = productService.getCurrentYearPrices(
+                    unpriced.stream().map(ligne -> ligne.getProduct().getId()).collect(Collectors.toSet()));
+            for (OrderLine ligne : unpriced) {
+                Long productId = ligne.getProduct().getId();
+                BigDecimal price = prices.get(productId);
+                if (price == null) {
+                    throw new PriceNotFoundException(productId, LocalDate.now().getYear());
+                }
                 ligne.setUnitPrice(price);
-                log.debug("Auto-populated price {} for product #{}", price, ligne.getProduct().getId());
+                log.debug("Auto-populated price {} for product #{}", price, productId);
             }
         }
 
         Order saved = orderRepository.save(order);
+        rollupService.applySales(Map.of(), rollupService.salesOf(saved));
+        clientRepository.refreshStats(saved.getClient().getId());
         log.info("Created order #{} with {} lignes", saved.getId(), saved.getLines().size());
         return saved;
     }
 
+    @Timed(value = "honeyai.orders.status", description = "Order status transition")
     public Order updateStatus(Long orderId, OrderStatus newStatus) {
         Order order = orderRepository.findByIdWithClient(orderId)
                                      .orElseThrow(() -> new IllegalArgumentException("order not found: " + orderId));
@@ -153,8 +174,11 @@ public class OrderService {
             throw new InvalidStatusTransitionException(oldStatus, newStatus);
         }
 
+        Map<RollupService.SalesKey, RollupService.SalesTotals> before = rollupService.salesOf(order);
         order.setStatus(newStatus);
         Order saved = orderRepository.save(order);
+        rollupService.applySales(before, rollupService.salesOf(saved));
+        clientRepository.refreshStats(saved.getClient().getId());
 
         log.info("Status transition for order #{}: {} -> {} at {}",
                 orderId, oldStatus, newStatus, LocalDateTime.now());
@@ -174,19 +198,35 @@ public class OrderService {
     }
 
     /**
-     * Save an existing order (for updates).
+     * Save an existing order (for updates). The stored version is read first so the
+     * sales rollup can be moved from its old contribution to the new one, and the stats of
+     * its previous client refreshed when the order changed hands.
      */
     public Order save(Order order) {
         log.info("Saving order #{}", order.getId());
-        return orderRepository.save(order);
+        Optional<Order> stored = order.getId() != null
+                ? orderRepository.findByIdWithClient(order.getId())
+                : Optional.empty();
+        Map<RollupService.SalesKey, RollupService.SalesTotals> before =
+                stored.map(rollupService::salesOf).orElse(Map.of());
+        Long previousClientId = stored.map(previous -> previous.getClient().getId()).orElse(null);
+
+        Order saved = orderRepository.save(order);
+        rollupService.applySales(before, rollupService.salesOf(saved));
+        Long clientId = saved.getClient().getId();
+        clientRepository.refreshStats(clientId);
+        if (previousClientId != null && !previousClientId.equals(clientId)) {
+            clientRepository.refreshStats(previousClientId);
+        }
+        return saved;
     }
 
     /**
-     * Find orders for a client with a limit on results.
+     * Find the most recent order summaries of a client, totals included.
      */
     @Transactional(readOnly = true)
-    public List<Order> findByClientIdWithLimit(Long clientId, int limit) {
-        return orderRepository.findByClientIdOrderByOrderDateDesc(clientId, PageRequest.of(0, limit));
+    public List<OrderSummary> findSummariesByClientId(Long clientId, int limit) {
+        return orderRepository.findSummariesByClientId(clientId, PageRequest.of(0, limit));
     }
 
     /**
@@ -198,27 +238,13 @@ public class OrderService {
     }
 
     /**
-     * Get order statistics for a client (for detail page).
+     * Get order statistics for a client (for detail page), from one aggregate query.
      */
     @Transactional(readOnly = true)
     public ClientOrderStatsDto getClientOrderStats(Long clientId) {
-        List<Order> allOrders = orderRepository.findByClientIdOrderByOrderDateDesc(clientId);
-
-        long totalOrders = allOrders.size();
-        LocalDate lastOrderDate = allOrders.isEmpty() ? null : allOrders.get(0).getOrderDate();
-
-        BigDecimal totalPaid = allOrders.stream()
-                .filter(order -> order.getStatus() == OrderStatus.PAID)
-                .map(order -> order.getLines().stream()
-                        .map(line -> line.getUnitPrice().multiply(BigDecimal.valueOf(line.getQuantity())))
-                        .reduce(BigDecimal.ZERO, BigDecimal::add))
-                .reduce(BigDecimal.ZERO, BigDecimal::add)
-                .setScale(2, RoundingMode.HALF_UP);
-
-        return ClientOrderStatsDto.builder()
-                .totalOrders(totalOrders)
-                .totalPaidAmount(totalPaid)
-                .lastOrderDate(lastOrderDate)
-                .build();
+        ClientOrderStatsDto stats = orderRepository.aggregateClientStats(clientId);
+        BigDecimal totalPaid = stats.getTotalPaidAmount() != null ? stats.getTotalPaidAmount() : BigDecimal.ZERO;
+        stats.setTotalPaidAmount(totalPaid.setScale(2, RoundingMode.HALF_UP));
+        return stats;
     }
 }
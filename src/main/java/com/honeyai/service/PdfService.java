@@ -2,43 +2,101 @@ package com.honeyai.service;
 
 import com.honeyai.config.EtiquetteConfig;
 import com.honeyai.config.LabelPreset;
+import com.honeyai.dto.EtiquetteBatchLine;
 import com.honeyai.dto.EtiquetteData;
 import com.honeyai.exception.PdfGenerationException;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdfwriter.compress.CompressParameters;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.PDResources;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.common.PDStream;
 import org.apache.pdfbox.pdmodel.font.PDFont;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.interactive.annotation.PDAppearanceStream;
+import org.apache.pdfbox.util.Matrix;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.zip.DeflaterOutputStream;
 
 /**
  * Service for PDF document generation using Apache PDFBox.
  * Foundation service for label generation feature.
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class PdfService {
 
+    /**
+     * Label documents pack their many small objects into compressed object streams, indexed by a
+     * cross-reference stream instead of a plain-text table.
+     */
+    private static final CompressParameters COMPRESSION = CompressParameters.DEFAULT_COMPRESSION;
+
     private final EtiquetteConfig etiquetteConfig;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Pages rendered off request threads at most at the same time, across all batches.
+     */
+    private final int renderThreads;
+    private final Semaphore renderPermits;
+
+    public PdfService(EtiquetteConfig etiquetteConfig, MeterRegistry meterRegistry) {
+        this.etiquetteConfig = etiquetteConfig;
+        this.meterRegistry = meterRegistry;
+        this.renderThreads = etiquetteConfig.getRenderThreads() > 0
+                ? etiquetteConfig.getRenderThreads()
+                : Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        this.renderPermits = new Semaphore(renderThreads);
+    }
 
     /**
      * Creates a new empty PDF document.
+     * Page content is buffered in memory up to {@code pdfMemoryBufferMb}, then in a temporary
+     * scratch file, so large batches do not grow the heap with the label count.
      * Caller is responsible for closing the document.
      *
      * @return new PDDocument instance
      */
     public PDDocument createDocument() {
-        return new PDDocument();
+        long maxMainMemoryBytes = etiquetteConfig.getPdfMemoryBufferMb() * 1024L * 1024L;
+        return new PDDocument(MemoryUsageSetting.setupMixed(maxMainMemoryBytes).streamCache);
     }
 
     /**
@@ -182,6 +240,12 @@ public class PdfService {
 
     // ==================== Label Rendering ====================
 
+    /**
+     * Version of the label rendering, part of {@link #sheetCacheKey}. Increment it whenever a change
+     * to the layout or fonts alters the PDF, so sheets cached by earlier versions are not served.
+     */
+    public static final int RENDER_VERSION = 2;
+
     /** Padding inside label border in mm (at reference scale) */
     private static final float PADDING_MM = 1.5f;
 
@@ -235,111 +299,149 @@ public class PdfService {
      */
     public void renderLabel(PDDocument document, PDPage page, EtiquetteData data,
                             float x, float y, float widthMm, float heightMm) {
-        float widthPt = mmToPoints(widthMm);
-        float heightPt = mmToPoints(heightMm);
+        try (PDPageContentStream cs = new PDPageContentStream(
+                document, page, PDPageContentStream.AppendMode.APPEND, true, true)) {
+            LabelRenderContext ctx = new LabelRenderContext(document);
+            ctx.prepare(data, LabelGeometry.of(widthMm, heightMm), this::buildHeader, this::buildLabel);
+            renderLabel(cs, ctx, data, x, y, widthMm, heightMm);
+        } catch (IOException e) {
+            throw new PdfGenerationException("Failed to render label: " + e.getMessage(), e);
+        }
+    }
 
-        // Scale factor: fonts/spacings are calibrated for REFERENCE_HEIGHT_MM
-        float scale = heightMm / REFERENCE_HEIGHT_MM;
+    /**
+     * Renders one label into an open page content stream by stamping its label template.
+     */
+    private void renderLabel(PDPageContentStream cs, LabelRenderContext ctx, EtiquetteData data,
+                             float x, float y, float widthMm, float heightMm) throws IOException {
+        LabelGeometry g = LabelGeometry.of(widthMm, heightMm);
 
-        float paddingPt = mmToPoints(PADDING_MM * scale);
-        float lineSpacingPt = mmToPoints(LINE_SPACING_MM * scale);
-        float sectionMarginPt = mmToPoints(SECTION_MARGIN_MM * scale);
+        cs.saveGraphicsState();
+        cs.transform(Matrix.getTranslateInstance(x, y));
+        cs.drawForm(ctx.label(data, g));
+        cs.restoreGraphicsState();
 
-        float fontHeader = FONT_SIZE_HEADER * scale;
-        float fontInfo = FONT_SIZE_INFO * scale;
-        float fontWeight = FONT_SIZE_WEIGHT * scale;
-        float fontPrice = FONT_SIZE_PRICE * scale;
+        log.debug("Label rendered at ({}, {}) size {}x{}mm scale={}", x, y, widthMm, heightMm, g.scale());
+    }
 
-        try (PDPageContentStream cs = new PDPageContentStream(
-                document, page, PDPageContentStream.AppendMode.APPEND, true, true)) {
+    /**
+     * Draws a whole label into a form XObject in label coordinates: the header template
+     * (border, origin line, beekeeper details) and the variable lines below it. Identical
+     * labels, on a sheet or across the pages of a batch, stamp the same form.
+     */
+    private PDFormXObject buildLabel(LabelRenderContext ctx, EtiquetteData data, LabelGeometry g,
+                                     HeaderTemplate header) throws IOException {
+        PDAppearanceStream form = newForm(ctx, g, ctx.labelResources());
+
+        try (PDPageContentStream cs = new PDPageContentStream(ctx.document(), form)) {
+            cs.drawForm(header.form());
+
+            float contentX = g.paddingPt();
+            float contentWidth = g.widthPt() - (2 * g.paddingPt());
+            float currentY = header.bodyTopPt();
+
+            // Line 7: DLUO
+            String dluoLine = "A consommer de preference avant fin: " + data.getDluoFormatted();
+            currentY = drawCenteredText(cs, dluoLine, ctx.regular(), g.fontInfo(),
+                    contentX, currentY, contentWidth);
+            currentY -= 2 * g.sectionMarginPt();
+
+            // Line 8: Weight in grams (bold, with space above)
+            String weightLine = getWeightInGrams(data.getFormatPot());
+            currentY = drawCenteredText(cs, weightLine, ctx.bold(), g.fontWeight(),
+                    contentX, currentY, contentWidth);
+            currentY -= g.lineSpacingPt();
+
+            // Line 9: Price (bold, larger font)
+            if (data.getPrixUnitaire() != null) {
+                String priceLine = formatPrice(data.getPrixUnitaire());
+                drawCenteredText(cs, priceLine, ctx.bold(), g.fontPrice(),
+                        contentX, currentY, contentWidth);
+            }
+        }
+        return form;
+    }
+
+    /**
+     * An empty form XObject the size of a label, using the given shared resources.
+     */
+    private static PDAppearanceStream newForm(LabelRenderContext ctx, LabelGeometry g, PDResources resources) {
+        // PDAppearanceStream is the form XObject type PDPageContentStream can write into
+        PDAppearanceStream form = new PDAppearanceStream(ctx.document());
+        form.setBBox(new PDRectangle(g.widthPt(), g.heightPt()));
+        form.setResources(resources);
+        return form;
+    }
 
-            // 1. Draw border rectangle
-            drawBorder(cs, x, y, widthPt, heightPt);
+    /**
+     * Draws the fixed part of a label (lines 1 to 6 and the border) into a form XObject in
+     * label coordinates, so every label template of the document can reuse it.
+     */
+    private HeaderTemplate buildHeader(LabelRenderContext ctx, EtiquetteData data, LabelGeometry g)
+            throws IOException {
+        PDAppearanceStream form = newForm(ctx, g, ctx.headerResources());
 
-            // Calculate content area
-            float contentX = x + paddingPt;
-            float contentWidth = widthPt - (2 * paddingPt);
-            float currentY = y + heightPt - paddingPt;
+        float currentY;
+        try (PDPageContentStream cs = new PDPageContentStream(ctx.document(), form)) {
+            drawBorder(cs, 0, 0, g.widthPt(), g.heightPt());
 
-            PDFont fontBold = new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD);
-            PDFont fontRegular = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+            float contentX = g.paddingPt();
+            float contentWidth = g.widthPt() - (2 * g.paddingPt());
+            currentY = g.heightPt() - g.paddingPt();
 
-            currentY -= 2 * sectionMarginPt;
+            currentY -= 2 * g.sectionMarginPt();
 
             // Line 1: "Récolté en FRANCE et mis en pot par l'apiculteur" (FRANCE in bold)
             currentY = drawMixedTextCentered(cs, "Recolté en ", "FRANCE", " et mis en pot par l'apiculteur",
-                    fontRegular, fontBold, fontHeader, contentX, currentY, contentWidth);
-            currentY -= 2 * sectionMarginPt;
+                    ctx.regular(), ctx.bold(), g.fontHeader(), contentX, currentY, contentWidth);
+            currentY -= 2 * g.sectionMarginPt();
 
             // Line 2: Exploitation name (bold, with margins)
             if (data.getNomApiculteur() != null && !data.getNomApiculteur().isBlank()) {
-                currentY = drawCenteredText(cs, data.getNomApiculteur(), fontBold, fontHeader,
+                currentY = drawCenteredText(cs, data.getNomApiculteur(), ctx.bold(), g.fontHeader(),
                         contentX, currentY, contentWidth);
             }
-            currentY -= 2 * sectionMarginPt;
+            currentY -= 2 * g.sectionMarginPt();
 
             // Lines 3-4: Address (split into 2 lines if needed)
             if (data.getAdresse() != null && !data.getAdresse().isBlank()) {
                 String[] addressLines = splitAddress(data.getAdresse());
                 for (String line : addressLines) {
                     if (!line.isBlank()) {
-                        currentY = drawCenteredText(cs, line, fontRegular, fontInfo,
+                        currentY = drawCenteredText(cs, line, ctx.regular(), g.fontInfo(),
                                 contentX, currentY, contentWidth);
-                        currentY -= lineSpacingPt;
+                        currentY -= g.lineSpacingPt();
                     }
                 }
             }
 
             // Line 5: Phone
             if (data.getTelephone() != null && !data.getTelephone().isBlank()) {
-                currentY = drawCenteredText(cs, data.getTelephone(), fontRegular, fontInfo,
+                currentY = drawCenteredText(cs, data.getTelephone(), ctx.regular(), g.fontInfo(),
                         contentX, currentY, contentWidth);
-                currentY -= lineSpacingPt;
+                currentY -= g.lineSpacingPt();
             }
 
             // Line 6: SIRET
             if (data.getSiret() != null && !data.getSiret().isBlank()) {
-                currentY = drawCenteredText(cs, "SIRET: " + data.getSiret(), fontRegular, fontInfo,
+                currentY = drawCenteredText(cs, "SIRET: " + data.getSiret(), ctx.regular(), g.fontInfo(),
                         contentX, currentY, contentWidth);
-                currentY -= lineSpacingPt;
+                currentY -= g.lineSpacingPt();
             }
-
-            // Line 7: DLUO
-            String dluoLine = "A consommer de preference avant fin: " + data.getDluoFormatted();
-            currentY = drawCenteredText(cs, dluoLine, fontRegular, fontInfo,
-                    contentX, currentY, contentWidth);
-            currentY -= 2 * sectionMarginPt;
-
-            // Line 8: Weight in grams (bold, with space above)
-            String weightLine = getWeightInGrams(data.getFormatPot());
-            currentY = drawCenteredText(cs, weightLine, fontBold, fontWeight,
-                    contentX, currentY, contentWidth);
-            currentY -= lineSpacingPt;
-
-            // Line 9: Price (bold, larger font)
-            if (data.getPrixUnitaire() != null) {
-                String priceLine = formatPrice(data.getPrixUnitaire());
-                drawCenteredText(cs, priceLine, fontBold, fontPrice,
-                        contentX, currentY, contentWidth);
-            }
-
-            log.debug("Label rendered at ({}, {}) size {}x{}mm scale={}", x, y, widthMm, heightMm, scale);
-
-        } catch (IOException e) {
-            throw new PdfGenerationException("Failed to render label: " + e.getMessage(), e);
         }
+        return new HeaderTemplate(form, currentY);
     }
 
     /**
      * Draws text with a bold word in the middle (for "FRANCE").
      */
     private float drawMixedTextCentered(PDPageContentStream cs, String before, String boldPart, String after,
-                                        PDFont fontRegular, PDFont fontBold, float fontSize,
+                                        LabelFont fontRegular, LabelFont fontBold, float fontSize,
                                         float x, float y, float width) throws IOException {
         // Calculate total width
-        float beforeWidth = fontRegular.getStringWidth(sanitizeText(before)) / 1000 * fontSize;
-        float boldWidth = fontBold.getStringWidth(sanitizeText(boldPart)) / 1000 * fontSize;
-        float afterWidth = fontRegular.getStringWidth(sanitizeText(after)) / 1000 * fontSize;
+        float beforeWidth = fontRegular.width(sanitizeText(before), fontSize);
+        float boldWidth = fontBold.width(sanitizeText(boldPart), fontSize);
+        float afterWidth = fontRegular.width(sanitizeText(after), fontSize);
         float totalWidth = beforeWidth + boldWidth + afterWidth;
 
         float startX = x + (width - totalWidth) / 2;
@@ -347,21 +449,21 @@ public class PdfService {
 
         // Draw "before" text
         cs.beginText();
-        cs.setFont(fontRegular, fontSize);
+        cs.setFont(fontRegular.font(), fontSize);
         cs.newLineAtOffset(startX, textY);
         cs.showText(sanitizeText(before));
         cs.endText();
 
         // Draw bold part
         cs.beginText();
-        cs.setFont(fontBold, fontSize);
+        cs.setFont(fontBold.font(), fontSize);
         cs.newLineAtOffset(startX + beforeWidth, textY);
         cs.showText(sanitizeText(boldPart));
         cs.endText();
 
         // Draw "after" text
         cs.beginText();
-        cs.setFont(fontRegular, fontSize);
+        cs.setFont(fontRegular.font(), fontSize);
         cs.newLineAtOffset(startX + beforeWidth + boldWidth, textY);
         cs.showText(sanitizeText(after));
         cs.endText();
@@ -439,15 +541,16 @@ public class PdfService {
      *
      * @return the Y position after drawing (accounting for font descent)
      */
-    private float drawCenteredText(PDPageContentStream cs, String text, PDFont font,
+    private float drawCenteredText(PDPageContentStream cs, String text, LabelFont font,
                                    float fontSize, float x, float y, float width) throws IOException {
-        float textWidth = calculateTextWidth(text, font, fontSize);
+        String sanitized = sanitizeText(text);
+        float textWidth = font.width(sanitized, fontSize);
         float centeredX = x + (width - textWidth) / 2;
 
         cs.beginText();
-        cs.setFont(font, fontSize);
+        cs.setFont(font.font(), fontSize);
         cs.newLineAtOffset(centeredX, y - fontSize);
-        cs.showText(sanitizeText(text));
+        cs.showText(sanitized);
         cs.endText();
 
         return y - fontSize;
@@ -601,28 +704,61 @@ public class PdfService {
      * @return byte array containing the PDF document
      */
     public byte[] generateEtiquetteSheet(EtiquetteData data) {
+        return generateEtiquetteSheet(data, null);
+    }
+
+    /**
+     * Generates a single-page label sheet PDF using a specific preset.
+     *
+     * @param data   the label data to repeat on all labels
+     * @param preset the label preset defining dimensions and grid (configuration when null)
+     * @return byte array containing the PDF document
+     */
+    public byte[] generateEtiquetteSheet(EtiquetteData data, LabelPreset preset) {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeEtiquetteSheet(data, preset, baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Writes a single-page label sheet PDF to the given stream, without an intermediate byte array.
+     *
+     * @param data   the label data to repeat on all labels
+     * @param preset the label preset defining dimensions and grid (configuration when null)
+     * @param out    destination of the PDF; not closed
+     */
+    public void writeEtiquetteSheet(EtiquetteData data, LabelPreset preset, OutputStream out) {
         if (data == null) {
             throw new IllegalArgumentException("Les données d'étiquette sont obligatoires");
         }
 
-        int labelsPerPage = etiquetteConfig.getLabelsPerPage();
-        log.info("Generating label sheet: {} labels ({}x{})",
-                labelsPerPage, etiquetteConfig.getLabelsPerRow(), etiquetteConfig.getLabelsPerColumn());
+        SheetLayout layout;
+        if (preset == null) {
+            layout = SheetLayout.of(etiquetteConfig);
+            log.info("Generating label sheet: {} labels ({}x{})",
+                    layout.labelsPerPage(), etiquetteConfig.getLabelsPerRow(), etiquetteConfig.getLabelsPerColumn());
+        } else {
+            layout = SheetLayout.of(preset);
+            log.info("Generating label sheet with preset '{}': {} labels ({}x{})",
+                    preset.getName(), layout.labelsPerPage(), preset.getLabelsPerRow(), preset.getLabelsPerColumn());
+        }
         long startTime = System.currentTimeMillis();
+        Timer.Sample sample = Timer.start(meterRegistry);
 
-        try (PDDocument document = createDocument();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
-            PDPage page = createA4Page();
-            document.addPage(page);
-            renderLabelsOnPage(document, page, data);
+        try (PDDocument document = createDocument()) {
+            LabelRenderContext ctx = new LabelRenderContext(document);
+            ctx.prepare(data, layout.geometry(), this::buildHeader, this::buildLabel);
+            try (PageQueue queue = new PageQueue(ctx, layout, false)) {
+                queue.add(Collections.nCopies(layout.labelsPerPage(), data));
+                queue.finish();
+            }
 
-            document.save(baos);
+            CountingOutputStream counted = new CountingOutputStream(out);
+            document.save(counted, COMPRESSION);
+            recordRender("sheet", sample, layout.labelsPerPage(), counted.count);
 
             long duration = System.currentTimeMillis() - startTime;
-            log.info("Label sheet generated: {} labels on 1 page in {}ms", labelsPerPage, duration);
-
-            return baos.toByteArray();
+            log.info("Label sheet generated: {} labels on 1 page in {}ms", layout.labelsPerPage(), duration);
 
         } catch (IOException e) {
             throw new PdfGenerationException("Failed to generate label sheet: " + e.getMessage(), e);
@@ -630,124 +766,314 @@ public class PdfService {
     }
 
     /**
-     * Generates a single-page label sheet PDF using a specific preset.
+     * Writes a multi-product label batch as one PDF. Labels are laid out in slot order (left to
+     * right, top to bottom) across as many pages as needed; each line continues on the slot after
+     * the previous line's last label, so partial sheets are filled before a new page starts.
+     * <p>
+     * Batches of at least {@code parallelRenderMinPages} pages have their page content rendered
+     * on several cores (see {@link PageQueue}); the document is the same either way.
      *
-     * @param data   the label data to repeat on all labels
-     * @param preset the label preset defining dimensions and grid
-     * @return byte array containing the PDF document
+     * @param lines  label data and quantity per product, in print order
+     * @param preset the label preset defining dimensions and grid (configuration when null)
+     * @param out    destination of the PDF; not closed
+     * @return number of pages written
      */
-    public byte[] generateEtiquetteSheet(EtiquetteData data, LabelPreset preset) {
-        if (data == null) {
-            throw new IllegalArgumentException("Les données d'étiquette sont obligatoires");
+    public int writeEtiquetteBatch(List<EtiquetteBatchLine> lines, LabelPreset preset, OutputStream out) {
+        if (lines == null || lines.isEmpty()) {
+            throw new IllegalArgumentException("Le lot d'étiquettes est vide");
         }
-        if (preset == null) {
-            return generateEtiquetteSheet(data);
+        SheetLayout layout = preset != null ? SheetLayout.of(preset) : SheetLayout.of(etiquetteConfig);
+        int perPage = layout.labelsPerPage();
+        int total = lines.stream().mapToInt(EtiquetteBatchLine::getQuantite).sum();
+        if (total <= 0) {
+            throw new IllegalArgumentException("Le lot d'étiquettes est vide");
         }
-
-        int labelsPerPage = preset.getLabelsPerPage();
-        log.info("Generating label sheet with preset '{}': {} labels ({}x{})",
-                preset.getName(), labelsPerPage, preset.getLabelsPerRow(), preset.getLabelsPerColumn());
+        int pages = (total + perPage - 1) / perPage;
+        log.info("Generating label batch: {} labels for {} products on {} pages", total, lines.size(), pages);
         long startTime = System.currentTimeMillis();
+        Timer.Sample sample = Timer.start(meterRegistry);
 
-        try (PDDocument document = createDocument();
-             ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-
-            PDPage page = createA4Page();
-            document.addPage(page);
-            renderLabelsOnPage(document, page, data, preset);
+        boolean parallel = renderThreads > 1 && pages >= etiquetteConfig.getParallelRenderMinPages();
+        try (PDDocument document = createDocument()) {
+            LabelRenderContext ctx = new LabelRenderContext(document);
+            for (EtiquetteBatchLine line : lines) {
+                ctx.prepare(line.getData(), layout.geometry(), this::buildHeader, this::buildLabel);
+            }
+            try (PageQueue queue = new PageQueue(ctx, layout, parallel)) {
+                List<EtiquetteData> slots = new ArrayList<>(perPage);
+                for (EtiquetteBatchLine line : lines) {
+                    for (int i = 0; i < line.getQuantite(); i++) {
+                        slots.add(line.getData());
+                        if (slots.size() == perPage) {
+                            queue.add(slots);
+                            slots.clear();
+                        }
+                    }
+                }
+                if (!slots.isEmpty()) {
+                    queue.add(slots);
+                }
+                queue.finish();
+            }
 
-            document.save(baos);
+            CountingOutputStream counted = new CountingOutputStream(out);
+            document.save(counted, COMPRESSION);
+            recordRender("batch", sample, total, counted.count);
 
             long duration = System.currentTimeMillis() - startTime;
-            log.info("Label sheet generated: {} labels on 1 page in {}ms", labelsPerPage, duration);
-
-            return baos.toByteArray();
+            log.info("Label batch generated: {} labels on {} pages in {}ms ({})", total, pages, duration,
+                    parallel ? "parallel" : "sequential");
+            return pages;
 
         } catch (IOException e) {
-            throw new PdfGenerationException("Failed to generate label sheet: " + e.getMessage(), e);
+            throw new PdfGenerationException("Failed to generate label batch: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Renders all labels on a single page using a specific preset.
+     * Publishes one rendered document: {@code honeyai.pdf.render} (duration),
+     * {@code honeyai.pdf.labels} (labels, whose rate is the labels per second),
+     * {@code honeyai.pdf.bytes} (output size) and {@code honeyai.pdf.bytes.per.label},
+     * tagged by kind of document.
      */
-    private void renderLabelsOnPage(PDDocument document, PDPage page, EtiquetteData data, LabelPreset preset) {
-        float pageHeight = page.getMediaBox().getHeight();
+    private void recordRender(String kind, Timer.Sample sample, int labels, long bytes) {
+        sample.stop(Timer.builder("honeyai.pdf.render")
+                .description("Label PDF rendering, layout to last byte written")
+                .tag("kind", kind)
+                .register(meterRegistry));
+        meterRegistry.counter("honeyai.pdf.labels", "kind", kind).increment(labels);
+        DistributionSummary.builder("honeyai.pdf.bytes")
+                .baseUnit("bytes")
+                .tag("kind", kind)
+                .register(meterRegistry)
+                .record(bytes);
+        DistributionSummary.builder("honeyai.pdf.bytes.per.label")
+                .baseUnit("bytes")
+                .tag("kind", kind)
+                .register(meterRegistry)
+                .record((double) bytes / labels);
+    }
+
+    /**
+     * Appends a page of labels. Every page shares the document's label resources, and pages
+     * with the same labels share their content stream.
+     */
+    private void addLabelPage(LabelRenderContext ctx, COSStream contents) {
+        PDPage page = createA4Page();
+        page.setResources(ctx.pageResources());
+        page.setContents(new PDStream(contents));
+        ctx.document().addPage(page);
+    }
+
+    /**
+     * Stores page content produced by {@link #renderPageContent} in the document as is.
+     */
+    private COSStream pageContents(PDDocument document, byte[] content) throws IOException {
+        COSStream stream = document.getDocument().createCOSStream();
+        stream.setItem(COSName.FILTER, COSName.FLATE_DECODE);
+        try (OutputStream raw = stream.createRawOutputStream()) {
+            raw.write(content);
+        }
+        return stream;
+    }
+
+    /**
+     * Renders the labels of one A4 page in a grid layout, through one content stream, and
+     * returns its operators Flate-compressed.
+     * Slot {@code i} of {@code slots} goes to row {@code i / cols}, column {@code i % cols};
+     * positions past the end of the list stay empty.
+     * Gaps between labels are calculated from remaining space after placing
+     * labels with configured dimensions and margins.
+     * <p>
+     * Only stamps label templates prepared beforehand, and only reads the document and its
+     * resources doing so, so pages can be rendered concurrently.
+     */
+    private byte[] renderPageContent(LabelRenderContext ctx, List<EtiquetteData> slots, SheetLayout layout)
+            throws IOException {
+        float pageWidthPt = PDRectangle.A4.getWidth();
+        float pageHeight = PDRectangle.A4.getHeight();
 
-        float marginTopPt = mmToPoints(preset.getMarginTopMm());
-        float marginLeftPt = mmToPoints(preset.getMarginLeftMm());
+        float marginTopPt = mmToPoints(layout.marginTopMm());
+        float marginLeftPt = mmToPoints(layout.marginLeftMm());
 
-        float labelWidthMm = preset.getLabelWidthMm();
-        float labelHeightMm = preset.getLabelHeightMm();
-        float labelWidthPt = mmToPoints(labelWidthMm);
-        float labelHeightPt = mmToPoints(labelHeightMm);
+        float labelWidthPt = mmToPoints(layout.labelWidthMm());
+        float labelHeightPt = mmToPoints(layout.labelHeightMm());
 
-        int cols = preset.getLabelsPerRow();
-        int rows = preset.getLabelsPerColumn();
+        int cols = layout.labelsPerRow();
+        int rows = layout.labelsPerColumn();
 
-        float pageWidthPt = page.getMediaBox().getWidth();
+        // Calculate gaps from remaining space
         float usedWidth = marginLeftPt + (cols * labelWidthPt);
         float usedHeight = marginTopPt + (rows * labelHeightPt);
         float hGapPt = cols > 1 ? (pageWidthPt - usedWidth - marginLeftPt) / (cols - 1) : 0;
         float vGapPt = rows > 1 ? (pageHeight - usedHeight - marginTopPt) / (rows - 1) : 0;
 
+        // Starting position (top-left of first label)
         float startX = marginLeftPt;
         float startY = pageHeight - marginTopPt - labelHeightPt;
 
-        for (int row = 0; row < rows; row++) {
-            for (int col = 0; col < cols; col++) {
+        // The content stream writes to the buffer; the canvas only lends it the page resources
+        PDAppearanceStream canvas = new PDAppearanceStream(new COSStream());
+        canvas.setResources(ctx.pageResources());
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+
+        int count = Math.min(slots.size(), rows * cols);
+        try (PDPageContentStream cs = new PDPageContentStream(
+                ctx.document(), canvas, new DeflaterOutputStream(buffer))) {
+            for (int slot = 0; slot < count; slot++) {
+                int row = slot / cols;
+                int col = slot % cols;
                 float x = startX + col * (labelWidthPt + hGapPt);
                 float y = startY - row * (labelHeightPt + vGapPt);
 
-                renderLabel(document, page, data, x, y, labelWidthMm, labelHeightMm);
+                renderLabel(cs, ctx, slots.get(slot), x, y, layout.labelWidthMm(), layout.labelHeightMm());
             }
         }
+        return buffer.toByteArray();
     }
 
     /**
-     * Renders all labels on a single page in a grid layout.
-     * Gaps between labels are calculated from remaining space after placing
-     * labels with configured dimensions and margins.
-     *
-     * @param document the PDF document
-     * @param page     the page to render on
-     * @param data     the label data
+     * Adds the pages of one document in order. Sequential, each page is rendered and added on the
+     * calling thread. Parallel, page content is rendered on virtual threads, at most
+     * {@link #renderThreads} pages at a time across all documents so a large batch leaves cores to
+     * interactive requests, and the calling thread adds the pages in submission order; no more
+     * than twice that many rendered pages wait to be added, which bounds the heap a batch uses.
+     * A page with the same labels as an earlier one is not rendered again but reuses its content.
      */
-    private void renderLabelsOnPage(PDDocument document, PDPage page, EtiquetteData data) {
-        float pageHeight = page.getMediaBox().getHeight();
-
-        float marginTopPt = mmToPoints(etiquetteConfig.getMarginTopMm());
-        float marginLeftPt = mmToPoints(etiquetteConfig.getMarginLeftMm());
+    private final class PageQueue implements AutoCloseable {
+
+        private final LabelRenderContext ctx;
+        private final SheetLayout layout;
+        private final ExecutorService executor;
+        private final Deque<PendingPage> pending = new ArrayDeque<>();
+        private final Set<List<EtiquetteData>> submitted = new HashSet<>();
+        private final Map<List<EtiquetteData>, COSStream> contents = new HashMap<>();
+
+        PageQueue(LabelRenderContext ctx, SheetLayout layout, boolean parallel) {
+            this.ctx = ctx;
+            this.layout = layout;
+            this.executor = parallel
+                    ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("label-render-", 0).factory())
+                    : null;
+        }
 
-        float labelWidthMm = etiquetteConfig.getLabelWidthMm();
-        float labelHeightMm = etiquetteConfig.getLabelHeightMm();
-        float labelWidthPt = mmToPoints(labelWidthMm);
-        float labelHeightPt = mmToPoints(labelHeightMm);
+        void add(List<EtiquetteData> slots) throws IOException {
+            List<EtiquetteData> page = List.copyOf(slots);
+            boolean repeated = !submitted.add(page);
+            if (executor == null) {
+                addPage(page, repeated ? null : renderPageContent(ctx, page, layout));
+                return;
+            }
+            pending.add(new PendingPage(page, repeated ? null : executor.submit(() -> render(page))));
+            if (pending.size() >= 2 * renderThreads) {
+                addNext();
+            }
+        }
 
-        int cols = etiquetteConfig.getLabelsPerRow();
-        int rows = etiquetteConfig.getLabelsPerColumn();
+        void finish() throws IOException {
+            while (!pending.isEmpty()) {
+                addNext();
+            }
+        }
 
-        // Calculate gaps from remaining space
-        float pageWidthPt = page.getMediaBox().getWidth();
-        float usedWidth = marginLeftPt + (cols * labelWidthPt);
-        float usedHeight = marginTopPt + (rows * labelHeightPt);
-        float hGapPt = cols > 1 ? (pageWidthPt - usedWidth - marginLeftPt) / (cols - 1) : 0;
-        float vGapPt = rows > 1 ? (pageHeight - usedHeight - marginTopPt) / (rows - 1) : 0;
+        private byte[] render(List<EtiquetteData> page) throws IOException, InterruptedException {
+            renderPermits.acquire();
+            try {
+                return renderPageContent(ctx, page, layout);
+            } finally {
+                renderPermits.release();
+            }
+        }
 
-        // Starting position (top-left of first label)
-        float startX = marginLeftPt;
-        float startY = pageHeight - marginTopPt - labelHeightPt;
+        private void addNext() throws IOException {
+            PendingPage next = pending.removeFirst();
+            if (next.content() == null) {
+                addPage(next.slots(), null);
+                return;
+            }
+            try {
+                addPage(next.slots(), next.content().get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Label rendering interrupted");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException io) {
+                    throw io;
+                }
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new IOException(e.getCause());
+            }
+        }
 
-        for (int row = 0; row < rows; row++) {
-            for (int col = 0; col < cols; col++) {
-                float x = startX + col * (labelWidthPt + hGapPt);
-                float y = startY - row * (labelHeightPt + vGapPt);
+        /**
+         * Adds a page with its freshly rendered content, or with the content of the earlier page
+         * holding the same labels when {@code content} is null.
+         */
+        private void addPage(List<EtiquetteData> slots, byte[] content) throws IOException {
+            COSStream stream;
+            if (content != null) {
+                stream = pageContents(ctx.document(), content);
+                contents.put(slots, stream);
+            } else {
+                stream = contents.get(slots);
+            }
+            addLabelPage(ctx, stream);
+        }
 
-                renderLabel(document, page, data, x, y, labelWidthMm, labelHeightMm);
+        /**
+         * Cancels the pages still pending after a failure and waits for the running ones.
+         */
+        @Override
+        public void close() {
+            if (executor != null) {
+                pending.forEach(page -> {
+                    if (page.content() != null) {
+                        page.content().cancel(true);
+                    }
+                });
+                executor.close();
             }
         }
     }
 
+    /**
+     * A page waiting to be added; {@code content} is null when it repeats an earlier page.
+     */
+    private record PendingPage(List<EtiquetteData> slots, Future<byte[]> content) {
+    }
+
+    /**
+     * Key of a label sheet in the {@link LabelPdfCache}: SHA-256 of every input that affects
+     * {@link #writeEtiquetteSheet} output, that is the label data (which already carries the
+     * exploitation details and the price), the sheet layout and {@link #RENDER_VERSION}.
+     *
+     * @param data   the label data to repeat on all labels
+     * @param preset the label preset (configuration when null)
+     * @return lower-case hexadecimal hash
+     */
+    public String sheetCacheKey(EtiquetteData data, LabelPreset preset) {
+        if (data == null) {
+            throw new IllegalArgumentException("Les données d'étiquette sont obligatoires");
+        }
+        SheetLayout layout = preset != null ? SheetLayout.of(preset) : SheetLayout.of(etiquetteConfig);
+        String inputs = String.join("\u001f",
+                "sheet", String.valueOf(RENDER_VERSION), layout.toString(),
+                String.valueOf(data.getTypeMiel()), String.valueOf(data.getFormatPot()),
+                String.valueOf(data.getDateRecolte()), String.valueOf(data.getDluo()),
+                String.valueOf(data.getNomApiculteur()), String.valueOf(data.getAdresse()),
+                String.valueOf(data.getSiret()), String.valueOf(data.getTelephone()),
+                data.getPrixUnitaire() != null ? data.getPrixUnitaire().toPlainString() : "null",
+                String.valueOf(data.getPoids()));
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(inputs.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     /**
      * Gets the number of labels per page from configuration.
      *
@@ -757,4 +1083,207 @@ public class PdfService {
         return etiquetteConfig.getLabelsPerPage();
     }
 
+    // ==================== Rendering State ====================
+
+    /**
+     * Grid of labels on an A4 sheet, from the configuration or a preset.
+     */
+    private record SheetLayout(float labelWidthMm, float labelHeightMm, int labelsPerRow, int labelsPerColumn,
+                               float marginTopMm, float marginLeftMm) {
+
+        LabelGeometry geometry() {
+            return LabelGeometry.of(labelWidthMm, labelHeightMm);
+        }
+
+        static SheetLayout of(EtiquetteConfig config) {
+            return new SheetLayout(config.getLabelWidthMm(), config.getLabelHeightMm(),
+                    config.getLabelsPerRow(), config.getLabelsPerColumn(),
+                    config.getMarginTopMm(), config.getMarginLeftMm());
+        }
+
+        static SheetLayout of(LabelPreset preset) {
+            return new SheetLayout(preset.getLabelWidthMm(), preset.getLabelHeightMm(),
+                    preset.getLabelsPerRow(), preset.getLabelsPerColumn(),
+                    preset.getMarginTopMm(), preset.getMarginLeftMm());
+        }
+
+        int labelsPerPage() {
+            return labelsPerRow * labelsPerColumn;
+        }
+    }
+
+    /**
+     * Label dimensions, spacings and font sizes in points, scaled from the reference label height.
+     */
+    private record LabelGeometry(float widthMm, float heightMm, float scale, float widthPt, float heightPt,
+                                 float paddingPt, float lineSpacingPt, float sectionMarginPt,
+                                 float fontHeader, float fontInfo, float fontWeight, float fontPrice) {
+
+        static LabelGeometry of(float widthMm, float heightMm) {
+            // Scale factor: fonts/spacings are calibrated for REFERENCE_HEIGHT_MM
+            float scale = heightMm / REFERENCE_HEIGHT_MM;
+            return new LabelGeometry(widthMm, heightMm, scale,
+                    toPoints(widthMm), toPoints(heightMm),
+                    toPoints(PADDING_MM * scale), toPoints(LINE_SPACING_MM * scale),
+                    toPoints(SECTION_MARGIN_MM * scale),
+                    FONT_SIZE_HEADER * scale, FONT_SIZE_INFO * scale,
+                    FONT_SIZE_WEIGHT * scale, FONT_SIZE_PRICE * scale);
+        }
+
+        private static float toPoints(float mm) {
+            return mm * 2.83465f;
+        }
+    }
+
+    /**
+     * A document font paired with its precomputed width table.
+     */
+    private record LabelFont(PDFont font, LabelFonts widths) {
+
+        float width(String sanitizedText, float fontSize) {
+            return widths.width(sanitizedText, fontSize);
+        }
+    }
+
+    /**
+     * Fixed part of a label as a form XObject; {@code bodyTopPt} is where the variable lines
+     * start, measured from the bottom of the label.
+     */
+    private record HeaderTemplate(PDFormXObject form, float bodyTopPt) {
+    }
+
+    private record HeaderKey(String nomApiculteur, String adresse, String telephone, String siret,
+                             float widthMm, float heightMm) {
+
+        static HeaderKey of(EtiquetteData data, LabelGeometry geometry) {
+            return new HeaderKey(data.getNomApiculteur(), data.getAdresse(), data.getTelephone(),
+                    data.getSiret(), geometry.widthMm(), geometry.heightMm());
+        }
+    }
+
+    /**
+     * A whole label; the data is compared by value, so identical labels share one template.
+     */
+    private record LabelKey(EtiquetteData data, float widthMm, float heightMm) {
+    }
+
+    @FunctionalInterface
+    private interface HeaderBuilder {
+        HeaderTemplate build(LabelRenderContext ctx, EtiquetteData data, LabelGeometry geometry) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface LabelBuilder {
+        PDFormXObject build(LabelRenderContext ctx, EtiquetteData data, LabelGeometry geometry,
+                            HeaderTemplate header) throws IOException;
+    }
+
+    /**
+     * Per-document rendering state: one font instance per style, the header and label templates
+     * built for this document, and one resource dictionary for all header templates (the fonts),
+     * one for all label templates (the fonts and headers) and one for all pages (the labels).
+     * A template cannot list itself among its resources, hence three. Form XObjects belong to
+     * their document, so the context must not outlive it.
+     * <p>
+     * Templates are built by {@link #prepare} before any page is rendered; page rendering then
+     * only looks them up, which lets several threads render pages at the same time.
+     */
+    private static final class LabelRenderContext {
+
+        private final PDDocument document;
+        private final LabelFont regular = new LabelFont(LabelFonts.REGULAR.newFont(), LabelFonts.REGULAR);
+        private final LabelFont bold = new LabelFont(LabelFonts.BOLD.newFont(), LabelFonts.BOLD);
+        private final Map<HeaderKey, HeaderTemplate> headers = new HashMap<>();
+        private final Map<LabelKey, PDFormXObject> labels = new HashMap<>();
+        private final PDResources headerResources = new PDResources();
+        private final PDResources labelResources = new PDResources();
+        private final PDResources pageResources = new PDResources();
+
+        LabelRenderContext(PDDocument document) {
+            this.document = document;
+            headerResources.add(regular.font());
+            headerResources.add(bold.font());
+            labelResources.add(regular.font());
+            labelResources.add(bold.font());
+        }
+
+        PDDocument document() {
+            return document;
+        }
+
+        LabelFont regular() {
+            return regular;
+        }
+
+        LabelFont bold() {
+            return bold;
+        }
+
+        PDResources headerResources() {
+            return headerResources;
+        }
+
+        PDResources labelResources() {
+            return labelResources;
+        }
+
+        PDResources pageResources() {
+            return pageResources;
+        }
+
+        /**
+         * Builds the header and label templates of {@code data} unless already built, and adds
+         * them to the resources of their users.
+         */
+        void prepare(EtiquetteData data, LabelGeometry geometry, HeaderBuilder headerBuilder,
+                     LabelBuilder labelBuilder) throws IOException {
+            LabelKey key = new LabelKey(data, geometry.widthMm(), geometry.heightMm());
+            if (labels.containsKey(key)) {
+                return;
+            }
+            HeaderKey headerKey = HeaderKey.of(data, geometry);
+            HeaderTemplate header = headers.get(headerKey);
+            if (header == null) {
+                header = headerBuilder.build(this, data, geometry);
+                headers.put(headerKey, header);
+                labelResources.add(header.form());
+            }
+            PDFormXObject label = labelBuilder.build(this, data, geometry, header);
+            labels.put(key, label);
+            // Registered up front so that page content streams only ever look names up
+            pageResources.add(label);
+        }
+
+        PDFormXObject label(EtiquetteData data, LabelGeometry geometry) {
+            PDFormXObject label = labels.get(new LabelKey(data, geometry.widthMm(), geometry.heightMm()));
+            if (label == null) {
+                throw new IllegalStateException("Label template not prepared for " + data.getTypeMiel());
+            }
+            return label;
+        }
+    }
+
+    /**
+     * Counts the bytes written through it.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
 }
@@ -0,0 +1,143 @@
+package com.honeyai.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.honeyai.dto.CacheStatsDto;
+import com.honeyai.enums.FormatPot;
+import com.honeyai.enums.HoneyType;
+import com.honeyai.model.Product;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * In-memory price lookups for {@link ProductService}: (productId, year) to price, including
+ * known-missing prices, plus a (HoneyType, unit) to product id index. Loading is left to the
+ * caller so this class stays free of repositories and transactions.
+ */
+final class PriceCache {
+
+    private static final long MAXIMUM_SIZE = 10_000;
+
+    record PriceKey(Long productId, int year) {
+    }
+
+    record ProductKey(HoneyType type, String unit) {
+    }
+
+    private final Cache<PriceKey, Optional<BigDecimal>> prices = Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_SIZE)
+            .build();
+
+    private volatile Map<ProductKey, Long> productIndex;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Cached price for a product and year, calling {@code loader} on a miss. An absent price is
+     * cached as well so repeated lookups for an unpriced product do not hit the database.
+     */
+    Optional<BigDecimal> price(Long productId, int year, Supplier<Optional<BigDecimal>> loader) {
+        PriceKey key = new PriceKey(productId, year);
+        Optional<BigDecimal> cached = prices.getIfPresent(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        Optional<BigDecimal> loaded = loader.get();
+        prices.put(key, loaded);
+        return loaded;
+    }
+
+    /**
+     * Cached prices of several products for a year, calling {@code loader} once with all the
+     * misses. Products without a price are absent from the result, and cached as absent.
+     */
+    Map<Long, BigDecimal> prices(Collection<Long> productIds, int year,
+                                 Function<Collection<Long>, Map<Long, BigDecimal>> loader) {
+        Map<Long, BigDecimal> result = new HashMap<>();
+        Set<Long> missing = new HashSet<>();
+        for (Long productId : productIds) {
+            Optional<BigDecimal> cached = prices.getIfPresent(new PriceKey(productId, year));
+            if (cached == null) {
+                missing.add(productId);
+            } else {
+                cached.ifPresent(price -> result.put(productId, price));
+            }
+        }
+        hits.add(productIds.size() - missing.size());
+        if (!missing.isEmpty()) {
+            misses.add(missing.size());
+            Map<Long, BigDecimal> loaded = loader.apply(missing);
+            putYear(year, missing, loaded);
+            result.putAll(loaded);
+        }
+        return result;
+    }
+
+    boolean contains(Long productId, int year) {
+        return prices.getIfPresent(new PriceKey(productId, year)) != null;
+    }
+
+    /**
+     * Replace all entries of a year with a bulk-loaded price map; products without a price are
+     * recorded as absent.
+     */
+    void putYear(int year, Collection<Long> productIds, Map<Long, BigDecimal> pricesByProduct) {
+        for (Long productId : productIds) {
+            prices.put(new PriceKey(productId, year), Optional.ofNullable(pricesByProduct.get(productId)));
+        }
+    }
+
+    void invalidate(Long productId, int year) {
+        prices.invalidate(new PriceKey(productId, year));
+    }
+
+    /**
+     * Product id for a honey type and jar format, building the index with {@code loader} on first use.
+     */
+    Optional<Long> productId(HoneyType type, FormatPot format, Supplier<Collection<Product>> loader) {
+        Map<ProductKey, Long> index = productIndex;
+        if (index == null) {
+            misses.increment();
+            index = indexProducts(loader.get());
+        } else {
+            hits.increment();
+        }
+        return Optional.ofNullable(index.get(new ProductKey(type, format.getUnitLabel())));
+    }
+
+    Map<ProductKey, Long> indexProducts(Collection<Product> products) {
+        Map<ProductKey, Long> index = new HashMap<>();
+        for (Product product : products) {
+            if (product.getType() != null) {
+                index.putIfAbsent(new ProductKey(product.getType(), product.getUnit()), product.getId());
+            }
+        }
+        productIndex = Map.copyOf(index);
+        return productIndex;
+    }
+
+    void invalidateAll() {
+        prices.invalidateAll();
+        productIndex = null;
+    }
+
+    CacheStatsDto stats() {
+        return CacheStatsDto.builder()
+                .hits(hits.sum())
+                .misses(misses.sum())
+                .size(prices.estimatedSize())
+                .build();
+    }
+}
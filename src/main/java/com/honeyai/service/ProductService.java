@@ -1,6 +1,7 @@
 package com.honeyai.service;
 
-import com.honeyai.dto.ProductPriceDto;
+import com.honeyai.dto.CacheStatsDto;
+import com.honeyai.dto.ProductWithPrice;
 import com.honeyai.enums.FormatPot;
 import com.honeyai.enums.HoneyType;
 import com.honeyai.exception.PriceNotFoundException;
@@ -10,13 +11,22 @@ import com.honeyai.repository.PriceRepository;
 import com.honeyai.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,6 +37,36 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final PriceRepository priceRepository;
+    private final PriceCache priceCache = new PriceCache();
+
+    /**
+     * Load every current-year price and the product index once the application is up,
+     * so the first order and label lookups are already served from memory.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmPriceCache() {
+        int currentYear = LocalDate.now().getYear();
+        List<Product> products = productRepository.findAll();
+        priceCache.indexProducts(products);
+        loadYear(currentYear, products.stream().map(Product::getId).toList());
+        log.info("Price cache warmed with {} products for {}", products.size(), currentYear);
+    }
+
+    /**
+     * Hit/miss counters of the price cache.
+     */
+    public CacheStatsDto getPriceCacheStats() {
+        return priceCache.stats();
+    }
+
+    /**
+     * Drop every cached price and the product index, for callers that wrote prices without
+     * going through this service.
+     */
+    public void clearPriceCache() {
+        invalidateNowAndAfterCompletion(priceCache::invalidateAll);
+    }
 
     @Transactional(readOnly = true)
     public List<Product> findAll() {
@@ -38,19 +78,36 @@ public class ProductService {
         return productRepository.findById(id);
     }
 
+    /**
+     * Find several products with one query, keyed by id. Unknown ids are absent from the map.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Product> findAllById(Collection<Long> ids) {
+        return productRepository.findAllById(new HashSet<>(ids)).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+
     @Transactional(readOnly = true)
     public BigDecimal getCurrentYearPrice(Long productId) {
         int currentYear = LocalDate.now().getYear();
-        return priceRepository.findByProductIdAndYear(productId, currentYear)
-                .map(Price::getPrice)
+        return cachedPrice(productId, currentYear)
                 .orElseThrow(() -> new PriceNotFoundException(productId, currentYear));
     }
 
+    /**
+     * Current year prices of several products, keyed by product id: cached prices first, then
+     * the misses with one IN query. Products without a current year price are absent.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, BigDecimal> getCurrentYearPrices(Collection<Long> productIds) {
+        int currentYear = LocalDate.now().getYear();
+        return priceCache.prices(productIds, currentYear, missing -> pricesByProduct(
+                priceRepository.findByYearAndProductIdIn(currentYear, missing)));
+    }
+
     @Transactional(readOnly = true)
     public BigDecimal getPriceForYear(Long productId, Integer year) {
-        return priceRepository.findByProductIdAndYear(productId, year)
-                .map(Price::getPrice)
-                .orElse(null);
+        return cachedPrice(productId, year).orElse(null);
     }
 
     public Price updatePrice(Long productId, Integer year, BigDecimal price) {
@@ -66,31 +123,18 @@ public class ProductService {
                         .build());
 
         priceEntity.setPrice(price);
-        return priceRepository.save(priceEntity);
+        Price saved = priceRepository.save(priceEntity);
+        evictPrice(productId, year);
+        return saved;
     }
 
     /**
-     * Get all products with their current year prices.
+     * Get all products with their current year prices, as read models from a single query.
      * Products without a price for the current year will have null price.
      */
     @Transactional(readOnly = true)
-    public List<ProductPriceDto> findAllWithCurrentYearPrices() {
-        int currentYear = LocalDate.now().getYear();
-        List<Product> products = productRepository.findAllByOrderByNameAsc();
-
-        return products.stream()
-                .map(product -> {
-                    BigDecimal price = priceRepository.findByProductIdAndYear(product.getId(), currentYear)
-                            .map(Price::getPrice)
-                            .orElse(null);
-                    return ProductPriceDto.builder()
-                            .id(product.getId())
-                            .name(product.getName())
-                            .unit(product.getUnit())
-                            .price(price)
-                            .build();
-                })
-                .collect(Collectors.toList());
+    public List<ProductWithPrice> findAllWithCurrentYearPrices() {
+        return productRepository.findAllWithPriceForYear(LocalDate.now().getYear());
     }
 
     /**
@@ -104,9 +148,8 @@ public class ProductService {
     public BigDecimal findPriceByTypeAndFormat(HoneyType honeyType, FormatPot formatPot) {
         int currentYear = LocalDate.now().getYear();
 
-        return productRepository.findByTypeAndUnit(honeyType, formatPot.getUnitLabel())
-                .flatMap(product -> priceRepository.findByProductIdAndYear(product.getId(), currentYear))
-                .map(Price::getPrice)
+        return priceCache.productId(honeyType, formatPot, productRepository::findAll)
+                .flatMap(productId -> cachedPrice(productId, currentYear))
                 .orElse(null);
     }
 
@@ -115,6 +158,47 @@ public class ProductService {
      */
     @Transactional(readOnly = true)
     public Optional<Product> findByTypeAndFormat(HoneyType honeyType, FormatPot formatPot) {
-        return productRepository.findByTypeAndUnit(honeyType, formatPot.getUnitLabel());
+        return priceCache.productId(honeyType, formatPot, productRepository::findAll)
+                .flatMap(productRepository::findById);
+    }
+
+    private Optional<BigDecimal> cachedPrice(Long productId, int year) {
+        return priceCache.price(productId, year,
+                () -> priceRepository.findByProductIdAndYear(productId, year).map(Price::getPrice));
+    }
+
+    /**
+     * Bulk-load one year of prices with a single query and record the given products in the cache.
+     */
+    private void loadYear(int year, Collection<Long> productIds) {
+        priceCache.putYear(year, productIds, pricesByProduct(priceRepository.findByYear(year)));
+    }
+
+    private static Map<Long, BigDecimal> pricesByProduct(Collection<Price> prices) {
+        Map<Long, BigDecimal> pricesByProduct = new HashMap<>();
+        for (Price price : prices) {
+            pricesByProduct.put(price.getProduct().getId(), price.getPrice());
+        }
+        return pricesByProduct;
+    }
+
+    /**
+     * Drop a cached price now and again after commit, so a concurrent read during the
+     * transaction cannot leave the old value cached.
+     */
+    private void evictPrice(Long productId, int year) {
+        invalidateNowAndAfterCompletion(() -> priceCache.invalidate(productId, year));
+    }
+
+    private static void invalidateNowAndAfterCompletion(Runnable invalidation) {
+        invalidation.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidation.run();
+                }
+            });
+        }
     }
 }
@@ -0,0 +1,298 @@
+package com.honeyai.service;
+
+import com.honeyai.dto.RollupRebuildReport;
+import com.honeyai.enums.CategorieAchat;
+import com.honeyai.enums.OrderStatus;
+import com.honeyai.model.Achat;
+import com.honeyai.model.AchatRollup;
+import com.honeyai.model.Order;
+import com.honeyai.model.OrderLine;
+import com.honeyai.model.SalesRollup;
+import com.honeyai.repository.AchatRepository;
+import com.honeyai.repository.AchatRollupRepository;
+import com.honeyai.repository.ClientRepository;
+import com.honeyai.repository.OrderLineRepository;
+import com.honeyai.repository.SalesRollupRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains the monthly {@link SalesRollup} and {@link AchatRollup} tables.
+ * <p>
+ * Callers capture the contribution of an order or purchase before changing it, then apply the
+ * difference with its new contribution inside the same transaction, so the rollups only ever
+ * move together with the raw rows. {@link #rebuild()} regenerates both tables from scratch,
+ * along with the denormalised per-client order statistics.
+ */
+@Service
+@Transactional
+@RequiredArgsConstructor
+@Slf4j
+public class RollupService {
+
+    private final SalesRollupRepository salesRollupRepository;
+    private final AchatRollupRepository achatRollupRepository;
+    private final OrderLineRepository orderLineRepository;
+    private final AchatRepository achatRepository;
+    private final ClientRepository clientRepository;
+    private final EntityManager entityManager;
+
+    record SalesKey(int year, int month, Long productId) {
+    }
+
+    record SalesTotals(long quantity, BigDecimal revenue) {
+        SalesTotals add(SalesTotals other) {
+            return new SalesTotals(quantity + other.quantity, revenue.add(other.revenue));
+        }
+
+        SalesTotals negate() {
+            return new SalesTotals(-quantity, revenue.negate());
+        }
+    }
+
+    record AchatKey(int year, int month, CategorieAchat categorie) {
+    }
+
+    /**
+     * Contribution of an order to the sales rollup: nothing unless it is paid.
+     */
+    public Map<SalesKey, SalesTotals> salesOf(Order order) {
+        if (order == null || order.getStatus() != OrderStatus.PAID || order.getOrderDate() == null
+                || order.getLines() == null) {
+            return Collections.emptyMap();
+        }
+        Map<SalesKey, SalesTotals> result = new HashMap<>();
+        for (OrderLine line : order.getLines()) {
+            if (line.getProduct() == null || line.getQuantity() == null) {
+                continue;
+            }
+            result.merge(salesKey(order.getOrderDate(), line.getProduct().getId()),
+                    new SalesTotals(line.getQuantity(), line.getTotal()), SalesTotals::add);
+        }
+        return result;
+    }
+
+    /**
+     * Contribution of a purchase to the achat rollup.
+     */
+    public Map<AchatKey, BigDecimal> achatOf(Achat achat) {
+        if (achat == null || achat.getDateAchat() == null || achat.getCategorie() == null
+                || achat.getMontant() == null) {
+            return Collections.emptyMap();
+        }
+        return Map.of(achatKey(achat.getDateAchat(), achat.getCategorie()), achat.getMontant());
+    }
+
+    /**
+     * Move the sales rollup from an order's previous contribution to its current one.
+     */
+    public void applySales(Map<SalesKey, SalesTotals> before, Map<SalesKey, SalesTotals> after) {
+        Map<SalesKey, SalesTotals> delta = new HashMap<>(after);
+        before.forEach((key, totals) -> delta.merge(key, totals.negate(), SalesTotals::add));
+        delta.forEach((key, totals) -> {
+            if (totals.quantity() != 0 || totals.revenue().signum() != 0) {
+                addSales(key, totals);
+            }
+        });
+    }
+
+    /**
+     * Move the achat rollup from a purchase's previous contribution to its current one.
+     */
+    public void applyAchat(Map<AchatKey, BigDecimal> before, Map<AchatKey, BigDecimal> after) {
+        Map<AchatKey, BigDecimal> delta = new HashMap<>(after);
+        before.forEach((key, montant) -> delta.merge(key, montant.negate(), BigDecimal::add));
+        delta.forEach((key, montant) -> {
+            if (montant.signum() != 0) {
+                addAchat(key, montant);
+            }
+        });
+    }
+
+    /**
+     * Regenerate both rollups from the raw orders and purchases. Existing rows are compared with
+     * the recomputed values first and every difference is counted and logged. Client order
+     * stats are recomputed in one statement.
+     * <p>
+     * The old rollup rows are detached from the persistence context once deleted, since the new
+     * ones may reuse their ids; the caller's other entities stay managed.
+     */
+    public RollupRebuildReport rebuild() {
+        Map<SalesKey, SalesTotals> expectedSales = new HashMap<>();
+        for (Object[] row : orderLineRepository.findPaidSalesRows()) {
+            LocalDate date = (LocalDate) row[0];
+            int quantity = ((Number) row[2]).intValue();
+            BigDecimal unitPrice = (BigDecimal) row[3];
+            expectedSales.merge(salesKey(date, (Long) row[1]),
+                    new SalesTotals(quantity, unitPrice.multiply(BigDecimal.valueOf(quantity))), SalesTotals::add);
+        }
+        Map<AchatKey, BigDecimal> expectedAchats = new HashMap<>();
+        for (Achat achat : achatRepository.findAll()) {
+            achatOf(achat).forEach((key, montant) -> expectedAchats.merge(key, montant, BigDecimal::add));
+        }
+
+        List<SalesRollup> storedSales = salesRollupRepository.findAll();
+        List<AchatRollup> storedAchats = achatRollupRepository.findAll();
+        int salesMismatches = countSalesMismatches(storedSales, expectedSales);
+        int achatMismatches = countAchatMismatches(storedAchats, expectedAchats);
+
+        salesRollupRepository.deleteAllRows();
+        achatRollupRepository.deleteAllRows();
+        storedSales.forEach(entityManager::detach);
+        storedAchats.forEach(entityManager::detach);
+        salesRollupRepository.saveAll(expectedSales.entrySet().stream()
+                .map(e -> SalesRollup.builder()
+                        .year(e.getKey().year())
+                        .month(e.getKey().month())
+                        .productId(e.getKey().productId())
+                        .quantity(e.getValue().quantity())
+                        .revenue(e.getValue().revenue())
+                        .build())
+                .toList());
+        achatRollupRepository.saveAll(expectedAchats.entrySet().stream()
+                .map(e -> AchatRollup.builder()
+                        .year(e.getKey().year())
+                        .month(e.getKey().month())
+                        .categorie(e.getKey().categorie())
+                        .montant(e.getValue())
+                        .build())
+                .toList());
+        int clients = clientRepository.refreshAllStats();
+        log.info("Client order stats recomputed for {} clients", clients);
+
+        RollupRebuildReport report = RollupRebuildReport.builder()
+                .salesRows(expectedSales.size())
+                .achatRows(expectedAchats.size())
+                .salesMismatches(salesMismatches)
+                .achatMismatches(achatMismatches)
+                .build();
+        if (report.isConsistent()) {
+            log.info("Rollups rebuilt: {} sales rows, {} achat rows, no drift", report.getSalesRows(), report.getAchatRows());
+        } else {
+            log.warn("Rollups rebuilt: {} sales rows, {} achat rows, {} sales and {} achat rows had drifted",
+                    report.getSalesRows(), report.getAchatRows(), salesMismatches, achatMismatches);
+        }
+        return report;
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isEmpty() {
+        return salesRollupRepository.count() == 0 && achatRollupRepository.count() == 0;
+    }
+
+    private int countSalesMismatches(List<SalesRollup> stored, Map<SalesKey, SalesTotals> expected) {
+        int mismatches = 0;
+        Set<SalesKey> seen = new HashSet<>();
+        for (SalesRollup row : stored) {
+            SalesKey key = new SalesKey(row.getYear(), row.getMonth(), row.getProductId());
+            seen.add(key);
+            SalesTotals want = expected.get(key);
+            if (want == null || want.quantity() != row.getQuantity()
+                    || want.revenue().compareTo(row.getRevenue()) != 0) {
+                log.warn("Sales rollup drift for {}: stored {} / {}, expected {}", key,
+                        row.getQuantity(), row.getRevenue(), want);
+                mismatches++;
+            }
+        }
+        for (SalesKey key : expected.keySet()) {
+            if (!seen.contains(key)) {
+                log.warn("Sales rollup row missing for {}", key);
+                mismatches++;
+            }
+        }
+        return mismatches;
+    }
+
+    private int countAchatMismatches(List<AchatRollup> stored, Map<AchatKey, BigDecimal> expected) {
+        int mismatches = 0;
+        Set<AchatKey> seen = new HashSet<>();
+        for (AchatRollup row : stored) {
+            AchatKey key = new AchatKey(row.getYear(), row.getMonth(), row.getCategorie());
+            seen.add(key);
+            BigDecimal want = expected.get(key);
+            if (want == null || want.compareTo(row.getMontant()) != 0) {
+                log.warn("Achat rollup drift for {}: stored {}, expected {}", key, row.getMontant(), want);
+                mismatches++;
+            }
+        }
+        for (AchatKey key : expected.keySet()) {
+            if (!seen.contains(key)) {
+                log.warn("Achat rollup row missing for {}", key);
+                mismatches++;
+            }
+        }
+        return mismatches;
+    }
+
+    private void addSales(SalesKey key, SalesTotals totals) {
+        SalesRollup row = salesRollupRepository
+                .findByYearAndMonthAndProductId(key.year(), key.month(), key.productId())
+                .orElseGet(() -> SalesRollup.builder()
+                        .year(key.year())
+                        .month(key.month())
+                        .productId(key.productId())
+                        .quantity(0L)
+                        .revenue(BigDecimal.ZERO)
+                        .build());
+        row.setQuantity(row.getQuantity() + totals.quantity());
+        row.setRevenue(row.getRevenue().add(totals.revenue()));
+        if (row.getQuantity() == 0 && row.getRevenue().signum() == 0) {
+            if (row.getId() != null) {
+                salesRollupRepository.delete(row);
+            }
+        } else {
+            salesRollupRepository.save(row);
+        }
+    }
+
+    private void addAchat(AchatKey key, BigDecimal montant) {
+        AchatRollup row = achatRollupRepository
+                .findByYearAndMonthAndCategorie(key.year(), key.month(), key.categorie())
+                .orElseGet(() -> AchatRollup.builder()
+                        .year(key.year())
+                        .month(key.month())
+                        .categorie(key.categorie())
+                        .montant(BigDecimal.ZERO)
+                        .build());
+        row.setMontant(row.getMontant().add(montant));
+        if (row.getMontant().signum() == 0) {
+            if (row.getId() != null) {
+                achatRollupRepository.delete(row);
+            }
+        } else {
+            achatRollupRepository.save(row);
+        }
+    }
+
+    private static SalesKey salesKey(LocalDate date, Long productId) {
+        return new SalesKey(date.getYear(), date.getMonthValue(), productId);
+    }
+
+    private static AchatKey achatKey(LocalDate date, CategorieAchat categorie) {
+        return new AchatKey(date.getYear(), date.getMonthValue(), categorie);
+    }
+
+    /**
+     * Period key used by the rollup queries: {@code year * 100 + month}.
+     */
+    static int period(LocalDate date) {
+        return date.getYear() * 100 + date.getMonthValue();
+    }
+
+    static boolean isMonthAligned(LocalDate start, LocalDate end) {
+        return start.getDayOfMonth() == 1 && end.getDayOfMonth() == end.lengthOfMonth()
+                && !end.isBefore(start);
+    }
+}
@@ -0,0 +1,93 @@
+-- Baseline: the schema previously created by Hibernate (ddl-auto: update).
+-- IF NOT EXISTS keeps this a no-op on databases created before migrations were introduced.
+
+CREATE TABLE IF NOT EXISTS clients (
+    id integer,
+    address varchar(255),
+    created_at timestamp,
+    deleted_at timestamp,
+    email varchar(255),
+    name varchar(255) not null,
+    notes varchar(1000),
+    phone varchar(255),
+    updated_at timestamp,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS products (
+    id integer,
+    name varchar(255) not null,
+    honey_type varchar(255) check (honey_type in ('TOUTES_FLEURS','FORET','CHATAIGNIER')),
+    unit varchar(255) not null,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS prices (
+    id integer,
+    price numeric(10,2) not null,
+    price_year integer not null,
+    product_id bigint not null,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS orders (
+    id integer,
+    created_at timestamp,
+    notes varchar(1000),
+    command_date date not null,
+    status varchar(255) not null check (status in ('ORDERED','RECOVERED','PAID')),
+    updated_at timestamp,
+    client_id bigint not null,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS order_lines (
+    id integer,
+    quantity integer not null check (quantity>=1),
+    prix_unitaire numeric(10,2) not null,
+    order_id bigint not null,
+    product_id bigint not null,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS achats (
+    id integer,
+    categorie varchar(255) not null check (categorie in ('CIRE','POTS','COUVERCLES','NOURRISSEMENT','AUTRE')),
+    created_at timestamp,
+    date_achat date not null,
+    designation varchar(255) not null,
+    montant numeric(10,2) not null,
+    notes varchar(1000),
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS historique_etiquettes (
+    id integer,
+    date_generation timestamp not null,
+    date_recolte date not null,
+    dluo date not null,
+    format_pot varchar(255) not null,
+    prix_unitaire numeric(10,2),
+    quantite integer not null,
+    type_miel varchar(255) not null,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS sales_rollup (
+    id integer,
+    rollup_month integer not null,
+    product_id bigint not null,
+    quantity bigint not null,
+    revenue numeric(12,2) not null,
+    rollup_year integer not null,
+    primary key (id)
+);
+
+CREATE TABLE IF NOT EXISTS achat_rollup (
+    id integer,
+    categorie varchar(255) not null check (categorie in ('CIRE','POTS','COUVERCLES','NOURRISSEMENT','AUTRE')),
+    montant numeric(12,2) not null,
+    rollup_month integer not null,
+    rollup_year integer not null,
+    primary key (id)
+);
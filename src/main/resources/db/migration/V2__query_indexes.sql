@@ -0,0 +1,37 @@
+-- Indexes for the repository access paths. Every id column is the rowid, so each index
+-- already ends with the primary key and serves (column, id) keyset pagination.
+-- QueryPlanRegressionTest fails if a repository query falls back to a full table scan.
+
+-- Orders: date-range lists and keyset pages, status filters, per-client history
+CREATE INDEX IF NOT EXISTS idx_orders_command_date ON orders (command_date);
+CREATE INDEX IF NOT EXISTS idx_orders_status_command_date ON orders (status, command_date);
+CREATE INDEX IF NOT EXISTS idx_orders_client_command_date ON orders (client_id, command_date);
+
+-- Order lines: covering index for the per-order sales aggregations
+CREATE INDEX IF NOT EXISTS idx_order_lines_order_product ON order_lines (order_id, product_id, quantity, prix_unitaire);
+CREATE INDEX IF NOT EXISTS idx_order_lines_product ON order_lines (product_id);
+
+-- Prices: one price per product and year; covering index for the yearly price list.
+-- Databases created by ddl-auto had no such constraint: keep the latest price (highest id)
+-- of each product and year so the unique index can be built.
+DELETE FROM prices WHERE id NOT IN (SELECT MAX(id) FROM prices GROUP BY product_id, price_year);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_price_product_year ON prices (product_id, price_year);
+CREATE INDEX IF NOT EXISTS idx_prices_year_product ON prices (price_year, product_id, price);
+
+-- Products: lookup by honey type and unit, catalogue listed by name
+CREATE INDEX IF NOT EXISTS idx_products_type_unit ON products (honey_type, unit);
+CREATE INDEX IF NOT EXISTS idx_products_name ON products (name);
+
+-- Purchases: covering index for the date-range sums, category filter
+CREATE INDEX IF NOT EXISTS idx_achats_date_categorie ON achats (date_achat, categorie, montant);
+CREATE INDEX IF NOT EXISTS idx_achats_categorie_date ON achats (categorie, date_achat);
+
+-- Label history: most recent generations
+CREATE INDEX IF NOT EXISTS idx_historique_date_generation ON historique_etiquettes (date_generation);
+
+-- Clients: active clients listed by name
+CREATE INDEX IF NOT EXISTS idx_clients_deleted_name ON clients (deleted_at, name);
+
+-- Rollups: one row per period and key
+CREATE UNIQUE INDEX IF NOT EXISTS uk_sales_rollup_period_product ON sales_rollup (rollup_year, rollup_month, product_id);
+CREATE UNIQUE INDEX IF NOT EXISTS uk_achat_rollup_period_categorie ON achat_rollup (rollup_year, rollup_month, categorie);
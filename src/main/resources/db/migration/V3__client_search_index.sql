@@ -0,0 +1,11 @@
+-- Full-text index for client search. Trigrams match any substring of 3+ characters,
+-- like the former LIKE '%...%', without scanning the clients table.
+-- Columns hold normalised text (lower case, accents removed, phone digits only) written by
+-- ClientSearchIndex; rowid is the client id. Filled at startup by ClientSearchInitializer.
+CREATE VIRTUAL TABLE IF NOT EXISTS client_search USING fts5(
+    name,
+    email,
+    address,
+    phone,
+    tokenize = 'trigram'
+);
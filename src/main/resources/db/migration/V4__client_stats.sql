@@ -0,0 +1,18 @@
+-- Denormalised per-client order statistics, so the clients list can show and sort by
+-- lifetime value without aggregating orders per row. Kept current by OrderService, which
+-- refreshes the client's columns whenever one of its orders is created, edited or changes
+-- status; RollupService.rebuild() recomputes them for every client.
+ALTER TABLE clients ADD COLUMN order_count integer not null default 0;
+ALTER TABLE clients ADD COLUMN last_order_date date;
+ALTER TABLE clients ADD COLUMN paid_total numeric(12,2) not null default 0;
+
+-- Clients: active clients listed by lifetime value
+CREATE INDEX IF NOT EXISTS idx_clients_deleted_paid_total ON clients (deleted_at, paid_total);
+
+-- Backfill from existing orders
+UPDATE clients SET
+    order_count = (SELECT COUNT(*) FROM orders o WHERE o.client_id = clients.id),
+    last_order_date = (SELECT MAX(o.command_date) FROM orders o WHERE o.client_id = clients.id),
+    paid_total = COALESCE((SELECT ROUND(SUM(l.prix_unitaire * l.quantity), 2)
+                           FROM orders o JOIN order_lines l ON l.order_id = o.id
+                           WHERE o.client_id = clients.id AND o.status = 'PAID'), 0);
@@ -0,0 +1,4 @@
+-- Label preset used for each printed sheet, so a reprint from the history uses the same
+-- sheet layout. Rows printed before this column existed keep NULL and reprint with the
+-- default preset.
+ALTER TABLE historique_etiquettes ADD COLUMN preset_name varchar(255);
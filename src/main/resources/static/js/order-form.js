@@ -10,6 +10,9 @@ document.addEventListener('DOMContentLoaded', function() {
     // Add line button handler
     document.getElementById('addLineBtn').addEventListener('click', addNewLine);
 
+    // Client typeahead
+    initializeClientSearch();
+
     // Calculate totals on page load
     calculateAllTotals();
 });
@@ -35,6 +38,118 @@ function initializeExistingRows() {
     });
 }
 
+/**
+ * Client typeahead: queries /clients/autocomplete as the user types and stores the chosen
+ * client in the hidden clientId field. Typing again clears the selection.
+ */
+var CLIENT_SEARCH_DELAY_MS = 150;
+var CLIENT_SEARCH_LIMIT = 10;
+
+function initializeClientSearch() {
+    var input = document.getElementById('clientSearch');
+    var hidden = document.getElementById('clientId');
+    var list = document.getElementById('clientSuggestions');
+    if (!input || !hidden || !list) {
+        return;
+    }
+
+    var timer = null;
+    var requestSeq = 0;
+    var activeIndex = -1;
+
+    input.addEventListener('input', function() {
+        hidden.value = '';
+        clearTimeout(timer);
+        var query = input.value.trim();
+        if (!query) {
+            hideClientSuggestions(input, list);
+            return;
+        }
+        timer = setTimeout(function() {
+            var seq = ++requestSeq;
+            var url = input.dataset.url + '?q=' + encodeURIComponent(query) + '&limit=' + CLIENT_SEARCH_LIMIT;
+            fetch(url, { headers: { 'Accept': 'application/json' } })
+                .then(function(response) { return response.ok ? response.json() : []; })
+                .then(function(clients) {
+                    // Ignore answers to queries the user has already typed past
+                    if (seq === requestSeq) {
+                        activeIndex = -1;
+                        renderClientSuggestions(input, hidden, list, clients);
+                    }
+                })
+                .catch(function() { hideClientSuggestions(input, list); });
+        }, CLIENT_SEARCH_DELAY_MS);
+    });
+
+    input.addEventListener('keydown', function(event) {
+        var items = list.querySelectorAll('.list-group-item');
+        if (list.style.display === 'none' || items.length === 0) {
+            return;
+        }
+        if (event.key === 'ArrowDown' || event.key === 'ArrowUp') {
+            event.preventDefault();
+            var step = event.key === 'ArrowDown' ? 1 : -1;
+            activeIndex = (activeIndex + step + items.length) % items.length;
+            items.forEach(function(item, index) {
+                item.classList.toggle('active', index === activeIndex);
+            });
+        } else if (event.key === 'Enter' && activeIndex >= 0) {
+            event.preventDefault();
+            items[activeIndex].click();
+        } else if (event.key === 'Escape') {
+            hideClientSuggestions(input, list);
+        }
+    });
+
+    document.addEventListener('click', function(event) {
+        if (event.target !== input && !list.contains(event.target)) {
+            hideClientSuggestions(input, list);
+        }
+    });
+}
+
+function renderClientSuggestions(input, hidden, list, clients) {
+    list.replaceChildren();
+    if (!clients || clients.length === 0) {
+        var empty = document.createElement('div');
+        empty.className = 'list-group-item text-muted';
+        empty.textContent = 'Aucun client trouve';
+        list.appendChild(empty);
+    }
+    (clients || []).forEach(function(client) {
+        var item = document.createElement('button');
+        item.type = 'button';
+        item.className = 'list-group-item list-group-item-action d-flex justify-content-between';
+        item.setAttribute('role', 'option');
+
+        var name = document.createElement('span');
+        name.textContent = client.name;
+        item.appendChild(name);
+        if (client.phone) {
+            var phone = document.createElement('small');
+            phone.className = 'text-muted';
+            phone.textContent = client.phone;
+            item.appendChild(phone);
+        }
+
+        item.addEventListener('click', function() {
+            hidden.value = client.id;
+            input.value = client.name;
+            input.classList.remove('is-invalid');
+            hideClientSuggestions(input, list);
+        });
+        list.appendChild(item);
+    });
+    list.style.display = 'block';
+    input.setAttribute('aria-expanded', 'true');
+}
+
+function hideClientSuggestions(input, list) {
+    list.style.display = 'none';
+    list.replaceChildren();
+    input.setAttribute('aria-expanded', 'false');
+}
+
 /**
  * Add a new product line to the table
  */
@@ -0,0 +1,72 @@
+package com.honeyai.config;
+
+import com.honeyai.service.DashboardService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Scrapes the Prometheus endpoint of the application running on SQLite: service timers with
+ * their percentiles, the metrics of both SQLite pools and the second-level cache statistics.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointTest {
+
+    private static final Path DATABASE = createTempDatabase();
+
+    @DynamicPropertySource
+    static void sqliteDatabase(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + DATABASE);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Test
+    void prometheus_shouldExposeServiceTimersAndSqlitePools() throws Exception {
+        // Given
+        dashboardService.calculateChiffreAffaires(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31));
+
+        // When / Then
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(
+                        "honeyai_dashboard_seconds{class=\"com.honeyai.service.DashboardService\"")))
+                .andExpect(content().string(containsString("method=\"calculateChiffreAffaires\",quantile=\"0.95\"")))
+                .andExpect(content().string(containsString("method=\"calculateChiffreAffaires\",quantile=\"0.99\"")))
+                .andExpect(content().string(containsString("hikaricp_connections_pending{pool=\"sqlite-writer\"}")))
+                .andExpect(content().string(containsString("hikaricp_connections_active{pool=\"sqlite-reader\"}")))
+                .andExpect(content().string(containsString("honeyai_sqlite_write_queue")))
+                .andExpect(content().string(containsString("hibernate_second_level_cache_requests_total")))
+                .andExpect(content().string(containsString("region=\"product\"")));
+    }
+
+    private static Path createTempDatabase() {
+        try {
+            return Files.createTempDirectory("honeyai-metrics").resolve("honeyai.db");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.honeyai.config;
+
+import com.honeyai.controller.BackupController;
+import com.honeyai.dto.BackupFileDto;
+import com.honeyai.service.BackupService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * The {@code X-Sql-Stats} debug header must not hold back response bodies: the backup download
+ * is streamed after the first dispatch has returned through the filter.
+ */
+@WebMvcTest(BackupController.class)
+@TestPropertySource(properties = "honeyai.sql-monitoring.debug-header=true")
+class SqlMonitoringDebugHeaderTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BackupService backupService;
+
+    @Test
+    void backupDownload_shouldStreamBodyWithSqlStatsHeader() throws Exception {
+        // Given
+        String filename = "honeyai-backup-2026-01-30-020000.db";
+        when(backupService.getBackupFile(filename))
+                .thenReturn(new BackupFileDto(filename, LocalDateTime.of(2026, 1, 30, 2, 0), 14L));
+        doAnswer(inv -> {
+            inv.getArgument(1, OutputStream.class).write("backup content".getBytes());
+            return null;
+        }).when(backupService).writeBackup(eq(filename), any(OutputStream.class));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/backup/download/{filename}", filename))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue("Content-Length", 14L))
+                .andExpect(header().string(SqlMonitoringFilter.HEADER, startsWith("statements=")))
+                .andExpect(content().string("backup content"));
+    }
+
+    @Test
+    void renderedPage_shouldCarrySqlStatsHeader() throws Exception {
+        // Given
+        when(backupService.listRecentBackups()).thenReturn(Collections.emptyList());
+
+        // When / Then
+        mockMvc.perform(get("/backup"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SqlMonitoringFilter.HEADER, startsWith("statements=")));
+    }
+
+    @Test
+    void emptyResponse_shouldCarrySqlStatsHeader() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/backup/download/{filename}", "unknown.db"))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string(SqlMonitoringFilter.HEADER, startsWith("statements=")));
+    }
+}
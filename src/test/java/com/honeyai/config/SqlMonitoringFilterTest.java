@@ -0,0 +1,215 @@
+package com.honeyai.config;
+
+import com.honeyai.enums.FormatPot;
+import com.honeyai.enums.HoneyType;
+import com.honeyai.enums.OrderStatus;
+import com.honeyai.model.Client;
+import com.honeyai.model.Order;
+import com.honeyai.model.OrderLine;
+import com.honeyai.model.Product;
+import com.honeyai.repository.ClientRepository;
+import com.honeyai.repository.HistoriqueEtiquettesRepository;
+import com.honeyai.repository.OrderRepository;
+import com.honeyai.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SqlMonitoringFilterTest {
+
+    private static final int ORDERS = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private HistoriqueEtiquettesRepository historiqueEtiquettesRepository;
+
+    private Client client;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        client = clientRepository.save(Client.builder().name("Budget Client").phone("0612345678").build());
+        product = productRepository.save(Product.builder()
+                .name("Miel Budget")
+                .type(HoneyType.TOUTES_FLEURS)
+                .unit("pot 500g")
+                .build());
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = Order.builder()
+                    .client(client)
+                    .orderDate(LocalDate.of(2025, 3, 1 + i))
+                    .status(OrderStatus.PAID)
+                    .build();
+            order.addLigne(OrderLine.builder().product(product).quantity(2).unitPrice(new BigDecimal("8.50")).build());
+            orderRepository.save(order);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll(orderRepository.findByClientIdOrderByOrderDateDesc(client.getId()));
+        clientRepository.delete(client);
+        productRepository.delete(product);
+        historiqueEtiquettesRepository.deleteAll();
+    }
+
+    @Test
+    void clientDetail_shouldAggregateOrderStatsInOneQuery() throws Exception {
+        // When - client row, order summaries, order count and one aggregate for the stats
+        MvcResult result = mockMvc.perform(get("/clients/{id}", client.getId()))
+                .andExpect(status().isOk())
+                .andExpect(SqlQueryBudget.maxStatements(4))
+                .andExpect(SqlQueryBudget.noRepeatedStatements(2))
+                .andReturn();
+
+        // Then - the statement count no longer grows with the number of orders
+        SqlRequestStats stats = SqlQueryBudget.statsOf(result);
+        assertThat(stats.getStatementCount()).isLessThan(ORDERS);
+        assertThat(stats.getRows()).isPositive();
+        assertThat(meterRegistry.find("honeyai.sql.statements").tag("uri", "/clients/{id}").summary())
+                .isNotNull()
+                .satisfies(summary -> assertThat(summary.count()).isPositive());
+    }
+
+    @Test
+    void ordersList_shouldStayWithinQueryBudget() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/orders"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(SqlMonitoringFilter.HEADER))
+                .andExpect(SqlQueryBudget.maxStatements(4))
+                .andExpect(SqlQueryBudget.noRepeatedStatements(2));
+
+        assertThat(meterRegistry.find("honeyai.sql.statements").tag("uri", "/orders").summary())
+                .isNotNull()
+                .satisfies(summary -> assertThat(summary.count()).isPositive());
+        assertThat(meterRegistry.find("honeyai.sql.jdbc").tag("uri", "/orders").timer())
+                .isNotNull()
+                .satisfies(timer -> assertThat(timer.totalTime(TimeUnit.NANOSECONDS))
+                        .isPositive());
+    }
+
+    @Test
+    void orderDetail_shouldReadHeaderAndLinesOnly() throws Exception {
+        // Given
+        Long orderId = orderRepository.findByClientIdOrderByOrderDateDesc(client.getId()).getFirst().getId();
+
+        // When / Then - one projection for the order and its client, one for the lines
+        mockMvc.perform(get("/orders/{id}", orderId))
+                .andExpect(status().isOk())
+                .andExpect(SqlQueryBudget.maxStatements(2))
+                .andExpect(SqlQueryBudget.noRepeatedStatements(2));
+    }
+
+    @Test
+    void clientsListAndOrderForm_shouldStayWithinQueryBudget() throws Exception {
+        // When / Then
+        mockMvc.perform(get("/clients"))
+                .andExpect(status().isOk())
+                .andExpect(SqlQueryBudget.maxStatements(1));
+        mockMvc.perform(get("/orders/new"))
+                .andExpect(status().isOk())
+                .andExpect(SqlQueryBudget.maxStatements(1));
+    }
+
+    @Test
+    void clientAutocomplete_shouldRunWithoutStatementsOnceIndexed() throws Exception {
+        // Given - the first lookup may build the index
+        mockMvc.perform(get("/clients/autocomplete").param("q", "bud")).andExpect(status().isOk());
+
+        // When / Then
+        mockMvc.perform(get("/clients/autocomplete").param("q", "budg"))
+                .andExpect(status().isOk())
+                .andExpect(SqlQueryBudget.maxStatements(0));
+    }
+
+    @Test
+    void createOrder_shouldInsertLinesInOneBatch() throws Exception {
+        // Given - a wholesale order with many lines
+        int lines = 30;
+        MockHttpServletRequestBuilder request = post("/orders")
+                .param("clientId", client.getId().toString())
+                .param("orderDate", "2025-04-01");
+        for (int i = 0; i < lines; i++) {
+            request.param("lines[" + i + "].productId", product.getId().toString())
+                    .param("lines[" + i + "].quantity", "1")
+                    .param("lines[" + i + "].unitPrice", "8.50");
+        }
+
+        // When / Then - products resolved once, lines written as one batched statement
+        mockMvc.perform(request)
+                .andExpect(status().is3xxRedirection())
+                .andExpect(SqlQueryBudget.noRepeatedStatements(2));
+        assertThat(orderRepository.findSummariesByClientId(client.getId(), PageRequest.of(0, 1)))
+                .singleElement()
+                .satisfies(summary -> assertThat(summary.lineCount()).isEqualTo((long) lines));
+    }
+
+    @Test
+    void labelBatch_shouldInsertHistoryInOneBatch() throws Exception {
+        // Given - one line per honey type and jar format
+        MockHttpServletRequestBuilder request = post("/etiquettes/lot");
+        int entries = 0;
+        for (HoneyType type : HoneyType.values()) {
+            for (FormatPot format : FormatPot.values()) {
+                request.param("entries[" + entries + "].etiquette.typeMiel", type.name())
+                        .param("entries[" + entries + "].etiquette.formatPot", format.name())
+                        .param("entries[" + entries + "].etiquette.dateRecolte", "2025-06-15")
+                        .param("entries[" + entries + "].quantite", "1");
+                entries++;
+            }
+        }
+
+        // When / Then - prices resolved from the cache, history records written as one batched statement
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(SqlQueryBudget.maxStatements(4))
+                .andExpect(SqlQueryBudget.noRepeatedStatements(2));
+        assertThat(historiqueEtiquettesRepository.count()).isEqualTo(entries);
+    }
+
+    @Test
+    void staticResources_shouldNotBeMonitored() throws Exception {
+        // When
+        MvcResult result = mockMvc.perform(get("/css/custom.css")).andReturn();
+
+        // Then
+        assertThat(result.getRequest().getAttribute(SqlMonitoringFilter.STATS_ATTRIBUTE)).isNull();
+    }
+}
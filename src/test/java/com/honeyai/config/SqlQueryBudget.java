@@ -0,0 +1,45 @@
+package com.honeyai.config;
+
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MockMvc matchers asserting the SQL budget of an endpoint, from the {@link SqlRequestStats}
+ * left by {@link SqlMonitoringFilter}:
+ * <pre>
+ * mockMvc.perform(get("/orders"))
+ *         .andExpect(SqlQueryBudget.maxStatements(4))
+ *         .andExpect(SqlQueryBudget.noRepeatedStatements(2));
+ * </pre>
+ */
+public final class SqlQueryBudget {
+
+    private SqlQueryBudget() {
+    }
+
+    public static SqlRequestStats statsOf(MvcResult result) {
+        Object stats = result.getRequest().getAttribute(SqlMonitoringFilter.STATS_ATTRIBUTE);
+        assertThat(stats).as("SQL stats recorded by SqlMonitoringFilter").isInstanceOf(SqlRequestStats.class);
+        return (SqlRequestStats) stats;
+    }
+
+    public static ResultMatcher maxStatements(int max) {
+        return result -> assertThat(statsOf(result).getStatementCount())
+                .as("SQL statements for %s", result.getRequest().getRequestURI())
+                .isLessThanOrEqualTo(max);
+    }
+
+    /**
+     * No statement prepared {@code threshold} times or more.
+     */
+    public static ResultMatcher noRepeatedStatements(int threshold) {
+        return result -> {
+            Map<String, Integer> repeated = statsOf(result).getRepeatedStatements(threshold);
+            assertThat(repeated).as("statements repeated for %s", result.getRequest().getRequestURI()).isEmpty();
+        };
+    }
+}
@@ -0,0 +1,167 @@
+package com.honeyai.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SqliteDataSourceConfigTest {
+
+    private static final int WRITERS = 6;
+    private static final int WRITES_PER_THREAD = 50;
+    private static final int READERS = 4;
+
+    @TempDir
+    Path tempDir;
+
+    private HikariDataSource writer;
+    private HikariDataSource reader;
+    private DataSource dataSource;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate writeTx;
+    private TransactionTemplate readTx;
+
+    @BeforeEach
+    void setUp() {
+        String url = "jdbc:sqlite:" + tempDir.resolve("honeyai.db");
+        writer = SqliteDataSourceConfig.writePool(url, 5000, 10000);
+        reader = SqliteDataSourceConfig.readPool(url, 5000, READERS);
+        dataSource = SqliteDataSourceConfig.routing(writer, reader, 16);
+
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager txManager = new DataSourceTransactionManager(dataSource);
+        writeTx = new TransactionTemplate(txManager);
+        readTx = new TransactionTemplate(txManager);
+        readTx.setReadOnly(true);
+
+        writeTx.executeWithoutResult(s ->
+                jdbc.execute("CREATE TABLE orders (id INTEGER PRIMARY KEY AUTOINCREMENT, client TEXT, total REAL)"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        reader.close();
+        writer.close();
+    }
+
+    @Test
+    void writePool_shouldRunInWalMode() {
+        // When
+        String journalMode = readTx.execute(s -> jdbc.queryForObject("PRAGMA journal_mode", String.class));
+
+        // Then
+        assertThat(journalMode).isEqualTo("wal");
+    }
+
+    @Test
+    void readOnlyTransaction_shouldUseReadOnlyPool() {
+        // When/Then - the read pool rejects writes, so a read-only transaction cannot reach the writer
+        assertThatThrownBy(() -> readTx.executeWithoutResult(s ->
+                jdbc.update("INSERT INTO orders (client, total) VALUES ('x', 1)")))
+                .hasMessageContaining("SQLITE_READONLY");
+        assertThat(reader.getHikariPoolMXBean().getTotalConnections()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void concurrentWritesAndReads_shouldAllSucceed_withoutBusyErrors() throws Exception {
+        // Given
+        ExecutorService pool = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger reads = new AtomicInteger();
+        List<Future<?>> writers = new ArrayList<>();
+        List<Future<?>> readers = new ArrayList<>();
+
+        for (int w = 0; w < WRITERS; w++) {
+            int client = w;
+            writers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < WRITES_PER_THREAD; i++) {
+                    // Read-then-write transaction, as OrderService.create does
+                    writeTx.executeWithoutResult(s -> {
+                        jdbc.queryForObject("SELECT COUNT(*) FROM orders", Integer.class);
+                        jdbc.update("INSERT INTO orders (client, total) VALUES (?, ?)", "client-" + client, 12.5);
+                    });
+                }
+                return null;
+            }));
+        }
+        for (int r = 0; r < READERS; r++) {
+            readers.add(pool.submit(() -> {
+                start.await();
+                while (writing.get()) {
+                    readTx.execute(s -> jdbc.queryForObject("SELECT SUM(total) FROM orders", Double.class));
+                    reads.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+
+        // When
+        start.countDown();
+        for (Future<?> f : writers) {
+            f.get(60, TimeUnit.SECONDS);
+        }
+        writing.set(false);
+        for (Future<?> f : readers) {
+            f.get(10, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Then - every write landed, readers kept running, nobody saw SQLITE_BUSY
+        assertThat(jdbc.queryForObject("SELECT COUNT(*) FROM orders", Integer.class))
+                .isEqualTo(WRITERS * WRITES_PER_THREAD);
+        assertThat(reads.get()).isGreaterThan(0);
+    }
+
+    @Test
+    void writeQueue_shouldRejectCallersBeyondCapacity() throws Exception {
+        // Given - capacity 1: the writer is held, one caller waits, the next is turned away
+        DataSource bounded = new WriteQueueDataSource(writer, 1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try (Connection held = bounded.getConnection()) {
+            CountDownLatch waiting = new CountDownLatch(1);
+            Future<?> queued = pool.submit(() -> {
+                waiting.countDown();
+                try (Connection ignored = bounded.getConnection()) {
+                    return null;
+                }
+            });
+            waiting.await();
+            while (writer.getHikariPoolMXBean().getThreadsAwaitingConnection() == 0) {
+                Thread.sleep(5);
+            }
+
+            // When/Then
+            assertThatThrownBy(bounded::getConnection)
+                    .isInstanceOf(SQLTransientConnectionException.class)
+                    .hasMessageContaining("pleine");
+
+            held.close();
+            queued.get(5, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
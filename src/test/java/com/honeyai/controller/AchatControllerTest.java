@@ -1,5 +1,6 @@
 package com.honeyai.controller;
 
+import com.honeyai.dto.KeysetPage;
 import com.honeyai.enums.CategorieAchat;
 import com.honeyai.model.Achat;
 import com.honeyai.service.AchatService;
@@ -16,6 +17,8 @@ import java.util.List;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -40,7 +43,8 @@ class AchatControllerTest {
                 .montant(new BigDecimal("45.00"))
                 .categorie(CategorieAchat.CIRE)
                 .build();
-        when(achatService.findAll()).thenReturn(List.of(achat));
+        when(achatService.findPage(any(), any(), any(), any(), any())).thenReturn(page(List.of(achat)));
+        when(achatService.calculateTotal(any(), any())).thenReturn(new BigDecimal("45.00"));
 
         // When / Then
         mockMvc.perform(get("/achats"))
@@ -54,7 +58,7 @@ class AchatControllerTest {
     @Test
     void list_shouldShowEmptyState_whenNoAchats() throws Exception {
         // Given
-        when(achatService.findAll()).thenReturn(Collections.emptyList());
+        when(achatService.findPage(any(), any(), any(), any(), any())).thenReturn(page(Collections.emptyList()));
 
         // When / Then
         mockMvc.perform(get("/achats"))
@@ -73,10 +77,8 @@ class AchatControllerTest {
                 .montant(new BigDecimal("30.00"))
                 .categorie(CategorieAchat.POTS)
                 .build();
-        when(achatService.findByPeriod(
-                LocalDate.of(2025, 1, 1),
-                LocalDate.of(2025, 12, 31)))
-                .thenReturn(List.of(achat));
+        when(achatService.findPage(eq(2025), isNull(), isNull(), isNull(), isNull()))
+                .thenReturn(page(List.of(achat)));
 
         // When / Then
         mockMvc.perform(get("/achats").param("year", "2025"))
@@ -95,7 +97,8 @@ class AchatControllerTest {
                 .montant(new BigDecimal("45.00"))
                 .categorie(CategorieAchat.CIRE)
                 .build();
-        when(achatService.findByCategorie(CategorieAchat.CIRE)).thenReturn(List.of(achat));
+        when(achatService.findPage(isNull(), eq(CategorieAchat.CIRE), isNull(), isNull(), isNull()))
+                .thenReturn(page(List.of(achat)));
 
         // When / Then
         mockMvc.perform(get("/achats").param("categorie", "CIRE"))
@@ -113,7 +116,8 @@ class AchatControllerTest {
                 Achat.builder().id(2L).dateAchat(LocalDate.now()).designation("B")
                         .montant(new BigDecimal("20.50")).categorie(CategorieAchat.POTS).build()
         );
-        when(achatService.findAll()).thenReturn(achats);
+        when(achatService.findPage(any(), any(), any(), any(), any())).thenReturn(page(achats));
+        when(achatService.calculateTotal(isNull(), isNull())).thenReturn(new BigDecimal("30.50"));
 
         // When / Then
         mockMvc.perform(get("/achats"))
@@ -149,7 +153,7 @@ class AchatControllerTest {
     @Test
     void save_shouldReturnFormWithErrors_whenValidationFails() throws Exception {
         // Given - missing required fields
-        when(achatService.findAll()).thenReturn(Collections.emptyList());
+        when(achatService.findPage(any(), any(), any(), any(), any())).thenReturn(page(Collections.emptyList()));
 
         // When / Then
         mockMvc.perform(post("/achats")
@@ -233,4 +237,8 @@ class AchatControllerTest {
 
         verify(achatService).delete(1L);
     }
+
+    private static KeysetPage<Achat> page(List<Achat> content) {
+        return new KeysetPage<>(content, null, null, 50);
+    }
 }
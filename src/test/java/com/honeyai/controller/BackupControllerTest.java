@@ -1,6 +1,7 @@
 package com.honeyai.controller;
 
 import com.honeyai.dto.BackupFileDto;
+import com.honeyai.dto.BackupResult;
 import com.honeyai.service.BackupService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -8,14 +9,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -63,13 +70,21 @@ class BackupControllerTest {
         // Given
         Path backupPath = tempDir.resolve("honeyai-backup-2026-01-30-143000.db");
         Files.writeString(backupPath, "test");
-        when(backupService.performBackup()).thenReturn(backupPath);
+        when(backupService.performBackup()).thenReturn(BackupResult.builder()
+                .filename("honeyai-backup-2026-01-30-143000.db")
+                .path(backupPath)
+                .pagesCopied(42)
+                .elapsedMs(15L)
+                .chunksWritten(2)
+                .chunksReused(9)
+                .build());
 
         // When / Then
         mockMvc.perform(post("/backup/manual"))
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/backup"))
-                .andExpect(flash().attributeExists("successMessage"));
+                .andExpect(flash().attribute("successMessage",
+                        org.hamcrest.Matchers.containsString("42 pages copiees en 15 ms, 2 blocs nouveaux, 9 deja sauvegardes")));
 
         verify(backupService).performBackup();
     }
@@ -87,18 +102,28 @@ class BackupControllerTest {
     }
 
     @Test
-    void downloadBackup_shouldReturnFile_whenValid() throws Exception {
+    void downloadBackup_shouldStreamRebuiltFile_whenValid() throws Exception {
         // Given
         String filename = "honeyai-backup-2026-01-30-020000.db";
-        Path backupFile = tempDir.resolve(filename);
-        Files.writeString(backupFile, "backup content");
-        when(backupService.getBackupFile(filename)).thenReturn(backupFile);
-
-        // When / Then
-        mockMvc.perform(get("/backup/download/{filename}", filename))
+        when(backupService.getBackupFile(filename))
+                .thenReturn(new BackupFileDto(filename, LocalDateTime.of(2026, 1, 30, 2, 0), 14L));
+        doAnswer(inv -> {
+            inv.getArgument(1, OutputStream.class).write("backup content".getBytes());
+            return null;
+        }).when(backupService).writeBackup(eq(filename), any(OutputStream.class));
+
+        // When
+        MvcResult result = mockMvc.perform(get("/backup/download/{filename}", filename))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Disposition",
-                        "attachment; filename=\"" + filename + "\""));
+                        "attachment; filename=\"" + filename + "\""))
+                .andExpect(header().longValue("Content-Length", 14L))
+                .andExpect(content().string("backup content"));
     }
 
     @Test
@@ -126,13 +151,40 @@ class BackupControllerTest {
         // Given
         Path dbFile = tempDir.resolve("honeyai.db");
         Files.writeString(dbFile, "SQLite data");
+        Path exportFile = tempDir.resolve("honeyai-export-tmp.db");
+        Files.writeString(exportFile, "SQLite copy");
         when(backupService.getDatabasePath()).thenReturn(dbFile);
+        when(backupService.exportDatabase()).thenReturn(BackupResult.builder()
+                .filename(exportFile.getFileName().toString())
+                .path(exportFile)
+                .pagesCopied(7)
+                .elapsedMs(3L)
+                .build());
 
         // When / Then
         mockMvc.perform(get("/backup/export-db"))
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Disposition",
-                        org.hamcrest.Matchers.startsWith("attachment; filename=\"honeyai-export-")));
+                        org.hamcrest.Matchers.startsWith("attachment; filename=\"honeyai-export-")))
+                .andExpect(header().string("X-Backup-Pages", "7"))
+                .andExpect(header().string("X-Backup-Elapsed-Ms", "3"))
+                .andExpect(content().string("SQLite copy"));
+
+        // Then - the temporary copy is removed once streamed
+        assertThat(Files.exists(exportFile)).isFalse();
+    }
+
+    @Test
+    void exportDb_shouldReturn500_whenBackupFails() throws Exception {
+        // Given
+        Path dbFile = tempDir.resolve("honeyai.db");
+        Files.writeString(dbFile, "SQLite data");
+        when(backupService.getDatabasePath()).thenReturn(dbFile);
+        when(backupService.exportDatabase()).thenReturn(null);
+
+        // When / Then
+        mockMvc.perform(get("/backup/export-db"))
+                .andExpect(status().isInternalServerError());
     }
 
     @Test
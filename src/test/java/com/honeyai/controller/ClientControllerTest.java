@@ -1,23 +1,35 @@
 package com.honeyai.controller;
 
 import com.honeyai.dto.ClientOrderStatsDto;
+import com.honeyai.dto.ClientRow;
+import com.honeyai.dto.ClientSuggestion;
+import com.honeyai.dto.KeysetPage;
+import com.honeyai.dto.OrderSummary;
+import com.honeyai.enums.ClientSort;
+import com.honeyai.enums.OrderStatus;
 import com.honeyai.exception.ClientNotFoundException;
 import com.honeyai.model.Client;
 import com.honeyai.service.ClientService;
 import com.honeyai.service.OrderService;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Collections;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -36,6 +48,7 @@ class ClientControllerTest {
     private OrderService orderService;
 
     private Client existingClient;
+    private ClientRow clientRow;
 
     @BeforeEach
     void setUp() {
@@ -45,9 +58,10 @@ class ClientControllerTest {
                 .phone("0612345678")
                 .email("jean@example.com")
                 .build();
+        clientRow = new ClientRow(1L, "Jean Dupont", "0612345678", "jean@example.com", null, null, null, null, 0L, BigDecimal.ZERO);
 
         // Default mocks for OrderService (used by detail endpoint)
-        when(orderService.findByClientIdWithLimit(anyLong(), anyInt())).thenReturn(Collections.emptyList());
+        when(orderService.findSummariesByClientId(anyLong(), anyInt())).thenReturn(Collections.emptyList());
         when(orderService.countByClientId(anyLong())).thenReturn(0L);
         when(orderService.getClientOrderStats(anyLong())).thenReturn(
                 ClientOrderStatsDto.builder()
@@ -57,6 +71,60 @@ class ClientControllerTest {
         );
     }
 
+    @Test
+    void list_shouldReturnFirstPageOfClients() throws Exception {
+        when(clientService.findPage(isNull(), eq(ClientSort.NAME), isNull(), isNull(), isNull()))
+                .thenReturn(new KeysetPage<>(List.of(clientRow), "next", null, 50));
+
+        mockMvc.perform(get("/clients"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("clients/list"))
+                .andExpect(model().attribute("clients", List.of(clientRow)))
+                .andExpect(model().attribute("nextUrl", "/clients?after=next"))
+                .andExpect(model().attribute("prevUrl", (Object) null))
+                .andExpect(model().attribute("activeMenu", "clients"));
+    }
+
+    @Test
+    void list_shouldKeepSearchTermInCursorLinks() throws Exception {
+        when(clientService.findPage(eq("Jean Dupont"), eq(ClientSort.NAME), isNull(), eq("cur"), isNull()))
+                .thenReturn(new KeysetPage<>(List.of(clientRow), "next", "prev", 50));
+
+        mockMvc.perform(get("/clients").param("search", "Jean Dupont").param("before", "cur"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("search", "Jean Dupont"))
+                .andExpect(model().attribute("nextUrl", "/clients?search=Jean%20Dupont&after=next"))
+                .andExpect(model().attribute("prevUrl", "/clients?search=Jean%20Dupont&before=prev"));
+    }
+
+    @Test
+    void list_shouldKeepValueSortInCursorLinksAndShowLifetimeValue() throws Exception {
+        ClientRow valued = new ClientRow(2L, "Marie Durand", null, null, null, null, null, null,
+                4L, new BigDecimal("125.50"));
+        when(clientService.findPage(isNull(), eq(ClientSort.LIFETIME_VALUE), eq("cur"), isNull(), isNull()))
+                .thenReturn(new KeysetPage<>(List.of(valued), "next", "prev", 50));
+
+        mockMvc.perform(get("/clients").param("sort", "LIFETIME_VALUE").param("after", "cur"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("sort", ClientSort.LIFETIME_VALUE))
+                .andExpect(model().attribute("nextUrl", "/clients?sort=LIFETIME_VALUE&after=next"))
+                .andExpect(model().attribute("prevUrl", "/clients?sort=LIFETIME_VALUE&before=prev"))
+                .andExpect(content().string(containsString("125.50 EUR")));
+    }
+
+    @Test
+    void autocomplete_shouldReturnMatchesAsJson() throws Exception {
+        when(clientService.autocomplete("dup", 5))
+                .thenReturn(List.of(new ClientSuggestion(1L, "Jean Dupont", "0612345678")));
+
+        mockMvc.perform(get("/clients/autocomplete").param("q", "dup").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].name").value("Jean Dupont"))
+                .andExpect(jsonPath("$[0].phone").value("0612345678"));
+    }
+
     @Test
     void createForm_shouldReturnFormViewWithEmptyClient() throws Exception {
         mockMvc.perform(get("/clients/new"))
@@ -173,9 +241,27 @@ class ClientControllerTest {
         verify(clientService, never()).softDelete(anyLong());
     }
 
+    @Test
+    void detail_shouldRenderClientRowWithOrderSummaries() throws Exception {
+        OrderSummary summary = new OrderSummary(7L, LocalDate.of(2026, 1, 15), "Jean Dupont",
+                OrderStatus.PAID, 2L, new BigDecimal("33.00"));
+        when(clientService.findRowByIdOrThrow(1L)).thenReturn(clientRow);
+        when(orderService.findSummariesByClientId(1L, 50)).thenReturn(List.of(summary));
+
+        mockMvc.perform(get("/clients/1"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("clients/detail"))
+                .andExpect(model().attribute("client", clientRow))
+                .andExpect(model().attribute("orders", List.of(summary)))
+                .andExpect(model().attributeDoesNotExist("orderService"))
+                .andExpect(content().string(containsString("33.00 EUR")));
+
+        verify(clientService, never()).findByIdOrThrow(anyLong());
+    }
+
     @Test
     void detail_shouldReturn404_whenClientNotFound() throws Exception {
-        when(clientService.findByIdOrThrow(99L)).thenThrow(new ClientNotFoundException(99L));
+        when(clientService.findRowByIdOrThrow(99L)).thenThrow(new ClientNotFoundException(99L));
 
         mockMvc.perform(get("/clients/99"))
                 .andExpect(status().isNotFound());
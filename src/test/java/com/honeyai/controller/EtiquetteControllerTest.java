@@ -3,30 +3,42 @@ package com.honeyai.controller;
 import com.honeyai.config.EtiquetteConfig;
 import com.honeyai.config.LabelPreset;
 import com.honeyai.config.LabelPresetsConfig;
+import com.honeyai.dto.EtiquetteBatchLine;
 import com.honeyai.dto.EtiquetteData;
 import com.honeyai.dto.EtiquetteRequest;
 import com.honeyai.enums.FormatPot;
 import com.honeyai.enums.HoneyType;
+import com.honeyai.exception.PdfGenerationException;
 import com.honeyai.model.HistoriqueEtiquettes;
 import com.honeyai.service.EtiquetteService;
+import com.honeyai.service.LabelPdfCache;
 import com.honeyai.service.PdfService;
 import com.honeyai.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.*;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -53,6 +65,11 @@ class EtiquetteControllerTest {
     @MockBean
     private LabelPresetsConfig labelPresetsConfig;
 
+    @MockBean
+    private LabelPdfCache labelPdfCache;
+
+    private static final String SHEET_KEY = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+
     private static final LabelPreset DEFAULT_PRESET = LabelPreset.builder()
             .name("Standard (60x40mm - 3x7)")
             .labelWidthMm(60.0f)
@@ -69,6 +86,13 @@ class EtiquetteControllerTest {
         when(labelPresetsConfig.getPresets()).thenReturn(List.of(DEFAULT_PRESET));
         when(labelPresetsConfig.findByName(any())).thenReturn(Optional.of(DEFAULT_PRESET));
         when(pdfService.getEtiquetteConfig()).thenReturn(etiquetteConfig);
+        when(pdfService.sheetCacheKey(any(), any())).thenReturn(SHEET_KEY);
+        // Cache miss: render through the given renderer
+        when(labelPdfCache.getOrRender(any(), any())).thenAnswer(inv -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            inv.<Consumer<OutputStream>>getArgument(1).accept(out);
+            return new LabelPdfCache.CachedPdf(inv.getArgument(0), out.toByteArray());
+        });
     }
 
     // ==================== GET /etiquettes Tests ====================
@@ -153,11 +177,12 @@ class EtiquetteControllerTest {
                 .dluo(LocalDate.of(2026, 8, 15))
                 .build();
 
-        byte[] mockPdfBytes = "PDF content".getBytes();
-
         when(etiquetteService.buildEtiquetteData(any(EtiquetteRequest.class))).thenReturn(mockData);
         when(productService.findPriceByTypeAndFormat(any(), any())).thenReturn(new BigDecimal("8.50"));
-        when(pdfService.generateEtiquetteSheet(any(EtiquetteData.class), any(LabelPreset.class))).thenReturn(mockPdfBytes);
+        doAnswer(inv -> {
+            inv.getArgument(2, OutputStream.class).write("PDF content".getBytes());
+            return null;
+        }).when(pdfService).writeEtiquetteSheet(any(EtiquetteData.class), any(LabelPreset.class), any(OutputStream.class));
 
         // When/Then
         mockMvc.perform(post("/etiquettes/generer")
@@ -169,10 +194,11 @@ class EtiquetteControllerTest {
                 .andExpect(header().string("Content-Disposition",
                         containsString("attachment; filename=")))
                 .andExpect(header().string("Content-Disposition",
-                        containsString("etiquettes-toutes-fleurs-2024-08-15.pdf")));
+                        containsString("etiquettes-toutes-fleurs-2024-08-15.pdf")))
+                .andExpect(content().string("PDF content"));
 
         verify(etiquetteService).buildEtiquetteData(any(EtiquetteRequest.class));
-        verify(pdfService).generateEtiquetteSheet(any(EtiquetteData.class), any(LabelPreset.class));
+        verify(pdfService).writeEtiquetteSheet(any(EtiquetteData.class), any(LabelPreset.class), any(OutputStream.class));
     }
 
     @Test
@@ -204,6 +230,52 @@ class EtiquetteControllerTest {
                 .andExpect(model().attribute("error", containsString("Erreur")));
     }
 
+    @Test
+    void generatePdf_shouldReturnFormWithError_whenPdfFailsBeforeAnyByteIsSent() throws Exception {
+        // Given
+        when(etiquetteService.buildEtiquetteData(any(EtiquetteRequest.class)))
+                .thenReturn(EtiquetteData.builder().dluo(LocalDate.of(2026, 8, 15)).build());
+        doThrow(new PdfGenerationException("boom"))
+                .when(pdfService).writeEtiquetteSheet(any(EtiquetteData.class), any(LabelPreset.class), any(OutputStream.class));
+
+        // When/Then - headers set for the download are discarded
+        mockMvc.perform(post("/etiquettes/generer")
+                        .param("typeMiel", "TOUTES_FLEURS")
+                        .param("formatPot", "POT_500G")
+                        .param("dateRecolte", "2024-08-15"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("etiquettes/form"))
+                .andExpect(header().doesNotExist("Content-Disposition"))
+                .andExpect(model().attribute("error", containsString("Erreur")));
+
+        verify(etiquetteService, never()).saveHistorique(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void generatePdf_shouldReturnFormWithoutPdf_whenHistoryCannotBeSaved() throws Exception {
+        // Given
+        when(etiquetteService.buildEtiquetteData(any(EtiquetteRequest.class)))
+                .thenReturn(EtiquetteData.builder().dluo(LocalDate.of(2026, 8, 15)).build());
+        // Larger than the response buffer: written first, it would already be committed
+        doAnswer(inv -> {
+            inv.getArgument(2, OutputStream.class).write(new byte[64 * 1024]);
+            return null;
+        }).when(pdfService).writeEtiquetteSheet(any(EtiquetteData.class), any(LabelPreset.class), any(OutputStream.class));
+        doThrow(new IllegalStateException("database locked"))
+                .when(etiquetteService).saveHistorique(any(), any(), any(), anyInt());
+
+        // When/Then - nothing is downloaded that the history does not know about
+        mockMvc.perform(post("/etiquettes/generer")
+                        .param("typeMiel", "TOUTES_FLEURS")
+                        .param("formatPot", "POT_500G")
+                        .param("dateRecolte", "2024-08-15"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("etiquettes/form"))
+                .andExpect(header().doesNotExist("Content-Disposition"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_HTML))
+                .andExpect(model().attribute("error", containsString("Erreur")));
+    }
+
     @Test
     void generatePdf_shouldGenerateWithoutPrice_whenPriceNotFound() throws Exception {
         // Given
@@ -213,11 +285,12 @@ class EtiquetteControllerTest {
                 .dluo(LocalDate.of(2026, 8, 15))
                 .build();
 
-        byte[] mockPdfBytes = "PDF content".getBytes();
-
         when(etiquetteService.buildEtiquetteData(any(EtiquetteRequest.class))).thenReturn(mockData);
         when(productService.findPriceByTypeAndFormat(any(), any())).thenReturn(null); // No price
-        when(pdfService.generateEtiquetteSheet(any(EtiquetteData.class), any(LabelPreset.class))).thenReturn(mockPdfBytes);
+        doAnswer(inv -> {
+            inv.getArgument(2, OutputStream.class).write("PDF content".getBytes());
+            return null;
+        }).when(pdfService).writeEtiquetteSheet(any(EtiquetteData.class), any(LabelPreset.class), any(OutputStream.class));
 
         // When/Then
         mockMvc.perform(post("/etiquettes/generer")
@@ -257,11 +330,12 @@ class EtiquetteControllerTest {
                 .dluo(LocalDate.of(2026, 9, 1))
                 .build();
 
-        byte[] mockPdfBytes = "PDF content".getBytes();
-
         when(etiquetteService.buildEtiquetteData(any(EtiquetteRequest.class))).thenReturn(mockData);
         when(productService.findPriceByTypeAndFormat(any(), any())).thenReturn(new BigDecimal("15.00"));
-        when(pdfService.generateEtiquetteSheet(any(EtiquetteData.class), any(LabelPreset.class))).thenReturn(mockPdfBytes);
+        doAnswer(inv -> {
+            inv.getArgument(2, OutputStream.class).write("PDF content".getBytes());
+            return null;
+        }).when(pdfService).writeEtiquetteSheet(any(EtiquetteData.class), any(LabelPreset.class), any(OutputStream.class));
 
         // When/Then
         mockMvc.perform(post("/etiquettes/generer")
@@ -273,7 +347,105 @@ class EtiquetteControllerTest {
                 .andExpect(header().string("Content-Disposition",
                         containsString("etiquettes-foret-2024-09-01.pdf")));
 
-        verify(pdfService).generateEtiquetteSheet(any(EtiquetteData.class), any(LabelPreset.class));
+        verify(pdfService).writeEtiquetteSheet(any(EtiquetteData.class), any(LabelPreset.class), any(OutputStream.class));
+    }
+
+    @Test
+    void generatePdf_shouldServeCachedSheetWithEtag() throws Exception {
+        // Given
+        when(etiquetteService.buildEtiquetteData(any(EtiquetteRequest.class)))
+                .thenReturn(EtiquetteData.builder().dluo(LocalDate.of(2026, 8, 15)).build());
+        doReturn(new LabelPdfCache.CachedPdf(SHEET_KEY, "cached PDF".getBytes()))
+                .when(labelPdfCache).getOrRender(eq(SHEET_KEY), any());
+
+        // When/Then
+        mockMvc.perform(post("/etiquettes/generer")
+                        .param("typeMiel", "TOUTES_FLEURS")
+                        .param("formatPot", "POT_500G")
+                        .param("dateRecolte", "2024-08-15"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + SHEET_KEY + "\""))
+                .andExpect(content().string("cached PDF"));
+
+        verify(pdfService, never()).writeEtiquetteSheet(any(), any(), any());
+        verify(etiquetteService).saveHistorique(any(), any(), any(), eq(21));
+    }
+
+    // ==================== POST /etiquettes/reimprimer Tests ====================
+
+    @Test
+    void reprint_shouldRecordPrintWithPreset_andRedirectToDownload() throws Exception {
+        // Given
+        when(etiquetteService.buildEtiquetteData(any(EtiquetteRequest.class)))
+                .thenReturn(EtiquetteData.builder().dluo(LocalDate.of(2026, 8, 15)).build());
+        when(productService.findPriceByTypeAndFormat(HoneyType.FORET, FormatPot.POT_1KG))
+                .thenReturn(new BigDecimal("15.00"));
+
+        // When/Then
+        mockMvc.perform(post("/etiquettes/reimprimer")
+                        .param("type", "FORET")
+                        .param("format", "POT_1KG")
+                        .param("date", "2024-09-01")
+                        .param("preset", DEFAULT_PRESET.getName()))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(header().string("Location",
+                        org.hamcrest.Matchers.startsWith("/etiquettes/telecharger?type=FORET&format=POT_1KG&date=2024-09-01&preset=Standard")));
+
+        ArgumentCaptor<EtiquetteRequest> request = ArgumentCaptor.forClass(EtiquetteRequest.class);
+        verify(etiquetteService).saveHistorique(request.capture(), any(), eq(new BigDecimal("15.00")), eq(21));
+        assertThat(request.getValue().getPresetName()).isEqualTo(DEFAULT_PRESET.getName());
+        verify(labelPdfCache, never()).getOrRender(any(), any());
+    }
+
+    // ==================== GET /etiquettes/telecharger Tests ====================
+
+    @Test
+    void downloadPdf_shouldReturnSheetWithEtag_withoutRecordingPrint() throws Exception {
+        // Given
+        when(etiquetteService.buildEtiquetteData(any(EtiquetteRequest.class)))
+                .thenReturn(EtiquetteData.builder().dluo(LocalDate.of(2026, 8, 15)).build());
+        when(productService.findPriceByTypeAndFormat(HoneyType.FORET, FormatPot.POT_1KG))
+                .thenReturn(new BigDecimal("15.00"));
+        doAnswer(inv -> {
+            inv.getArgument(2, OutputStream.class).write("PDF content".getBytes());
+            return null;
+        }).when(pdfService).writeEtiquetteSheet(any(EtiquetteData.class), any(LabelPreset.class), any(OutputStream.class));
+
+        // When/Then
+        mockMvc.perform(get("/etiquettes/telecharger")
+                        .param("type", "FORET")
+                        .param("format", "POT_1KG")
+                        .param("date", "2024-09-01"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andExpect(header().string("Content-Disposition", containsString("etiquettes-foret-2024-09-01.pdf")))
+                .andExpect(header().string("ETag", "\"" + SHEET_KEY + "\""))
+                .andExpect(header().string("Cache-Control", containsString("no-cache")))
+                .andExpect(content().string("PDF content"));
+
+        ArgumentCaptor<EtiquetteData> data = ArgumentCaptor.forClass(EtiquetteData.class);
+        verify(pdfService).sheetCacheKey(data.capture(), eq(DEFAULT_PRESET));
+        assertThat(data.getValue().getPrixUnitaire()).isEqualByComparingTo("15.00");
+        verify(etiquetteService, never()).saveHistorique(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void downloadPdf_shouldReturnNotModified_whenBrowserHoldsSameSheet() throws Exception {
+        // Given
+        when(etiquetteService.buildEtiquetteData(any(EtiquetteRequest.class)))
+                .thenReturn(EtiquetteData.builder().dluo(LocalDate.of(2026, 8, 15)).build());
+
+        // When/Then
+        mockMvc.perform(get("/etiquettes/telecharger")
+                        .param("type", "FORET")
+                        .param("format", "POT_1KG")
+                        .param("date", "2024-09-01")
+                        .header("If-None-Match", "\"" + SHEET_KEY + "\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+
+        verify(labelPdfCache, never()).getOrRender(any(), any());
+        verify(etiquetteService, never()).saveHistorique(any(), any(), any(), anyInt());
     }
 
     // ==================== GET /etiquettes/historique Tests ====================
@@ -313,6 +485,91 @@ class EtiquetteControllerTest {
                 .andExpect(model().attribute("historique", hasSize(1)));
     }
 
+    // ==================== /etiquettes/lot Tests ====================
+
+    @Test
+    void showBatchForm_shouldListEveryTypeAndFormatWithZeroQuantity() throws Exception {
+        mockMvc.perform(get("/etiquettes/lot"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("etiquettes/lot"))
+                .andExpect(model().attribute("batchRequest",
+                        hasProperty("entries", hasSize(HoneyType.values().length * FormatPot.values().length))))
+                .andExpect(model().attribute("batchRequest",
+                        hasProperty("entries", everyItem(hasProperty("quantite", equalTo(0))))))
+                .andExpect(model().attribute("activeMenu", "etiquettes"));
+    }
+
+    @Test
+    void generateBatchPdf_shouldWritePdfAndSaveHistory_forPrintableEntries() throws Exception {
+        // Given
+        when(etiquetteService.buildEtiquetteData(any(EtiquetteRequest.class)))
+                .thenAnswer(inv -> EtiquetteData.builder().dluo(LocalDate.of(2026, 8, 15)).build());
+        when(productService.findPriceByTypeAndFormat(any(), any())).thenReturn(new BigDecimal("8.50"));
+        when(pdfService.writeEtiquetteBatch(anyList(), any(LabelPreset.class), any())).thenAnswer(inv -> {
+            inv.getArgument(2, OutputStream.class).write("PDF content".getBytes());
+            return 2;
+        });
+
+        // When/Then
+        mockMvc.perform(post("/etiquettes/lot")
+                        .param("presetName", DEFAULT_PRESET.getName())
+                        .param("entries[0].etiquette.typeMiel", "TOUTES_FLEURS")
+                        .param("entries[0].etiquette.formatPot", "POT_500G")
+                        .param("entries[0].etiquette.dateRecolte", "2024-08-15")
+                        .param("entries[0].quantite", "30")
+                        .param("entries[1].etiquette.typeMiel", "FORET")
+                        .param("entries[1].etiquette.formatPot", "POT_1KG")
+                        .param("entries[1].etiquette.dateRecolte", "2024-08-15")
+                        .param("entries[1].quantite", "0")
+                        .param("entries[2].etiquette.typeMiel", "CHATAIGNIER")
+                        .param("entries[2].etiquette.formatPot", "POT_500G")
+                        .param("entries[2].etiquette.dateRecolte", "2024-09-01")
+                        .param("entries[2].quantite", "12"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_PDF))
+                .andExpect(header().string("Content-Disposition", containsString("etiquettes-lot-")))
+                .andExpect(content().string("PDF content"));
+
+        ArgumentCaptor<List<EtiquetteBatchLine>> captor = ArgumentCaptor.forClass(List.class);
+        // History is recorded before any byte of the PDF is streamed
+        InOrder inOrder = inOrder(etiquetteService, pdfService);
+        inOrder.verify(etiquetteService).saveHistoriqueBatch(anyList());
+        inOrder.verify(pdfService).writeEtiquetteBatch(captor.capture(), eq(DEFAULT_PRESET), any());
+        assertThat(captor.getValue()).extracting(EtiquetteBatchLine::getQuantite).containsExactly(30, 12);
+        assertThat(captor.getValue()).allSatisfy(line ->
+                assertThat(line.getData().getPrixUnitaire()).isEqualByComparingTo("8.50"));
+        verify(etiquetteService).saveHistoriqueBatch(captor.getValue());
+    }
+
+    @Test
+    void generateBatchPdf_shouldReturnForm_whenNothingToPrint() throws Exception {
+        mockMvc.perform(post("/etiquettes/lot")
+                        .param("entries[0].etiquette.typeMiel", "TOUTES_FLEURS")
+                        .param("entries[0].etiquette.formatPot", "POT_500G")
+                        .param("entries[0].etiquette.dateRecolte", "2024-08-15")
+                        .param("entries[0].quantite", "0"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("etiquettes/lot"))
+                .andExpect(model().hasErrors());
+
+        verifyNoInteractions(etiquetteService);
+        verify(pdfService, never()).writeEtiquetteBatch(anyList(), any(), any());
+    }
+
+    @Test
+    void generateBatchPdf_shouldReturnForm_whenQuantityInvalid() throws Exception {
+        mockMvc.perform(post("/etiquettes/lot")
+                        .param("entries[0].etiquette.typeMiel", "TOUTES_FLEURS")
+                        .param("entries[0].etiquette.formatPot", "POT_500G")
+                        .param("entries[0].etiquette.dateRecolte", "2024-08-15")
+                        .param("entries[0].quantite", "-3"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("etiquettes/lot"))
+                .andExpect(model().attributeHasFieldErrors("batchRequest", "entries[0].quantite"));
+
+        verify(pdfService, never()).writeEtiquetteBatch(anyList(), any(), any());
+    }
+
     // ==================== GET /etiquettes/regenerer Tests ====================
 
     @Test
@@ -1,11 +1,9 @@
 package com.honeyai.controller;
 
+import com.honeyai.dto.DashboardSnapshot;
+import com.honeyai.dto.DepenseCategorieDto;
 import com.honeyai.dto.TopProduitDto;
 import com.honeyai.enums.CategorieAchat;
-import com.honeyai.enums.OrderStatus;
-import com.honeyai.model.Order;
-import com.honeyai.repository.OrderRepository;
-import com.honeyai.service.AchatService;
 import com.honeyai.service.DashboardService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,11 +16,11 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -36,38 +34,32 @@ class HomeControllerTest {
     @MockBean
     private DashboardService dashboardService;
 
-    @MockBean
-    private AchatService achatService;
-
-    @MockBean
-    private OrderRepository orderRepository;
-
     @BeforeEach
     void setUp() {
-        // Default stubs for all tests
-        when(dashboardService.calculateChiffreAffaires(any(), any()))
-                .thenReturn(BigDecimal.ZERO);
-        when(dashboardService.calculateTotalDepenses(any(), any()))
-                .thenReturn(BigDecimal.ZERO);
-        when(dashboardService.calculateBenefice(any(), any()))
-                .thenReturn(BigDecimal.ZERO);
-        when(dashboardService.getTopProduits(any(), any(), anyInt()))
-                .thenReturn(Collections.emptyList());
-        when(achatService.calculateDepensesByCategorie(any(), any()))
-                .thenReturn(Collections.emptyMap());
-        when(orderRepository.findByStatus(OrderStatus.PAID))
-                .thenReturn(Collections.emptyList());
+        // Default stub for all tests
+        when(dashboardService.getSnapshot(any(), any(), anyInt()))
+                .thenReturn(snapshot().build());
+    }
+
+    private DashboardSnapshot.DashboardSnapshotBuilder snapshot() {
+        return DashboardSnapshot.builder()
+                .chiffreAffaires(BigDecimal.ZERO)
+                .totalDepenses(BigDecimal.ZERO)
+                .benefice(BigDecimal.ZERO)
+                .commandesPayees(0L)
+                .topProduits(Collections.emptyList())
+                .depensesParCategorie(Collections.emptyList());
     }
 
     @Test
     void home_shouldReturnDashboardView_withDefaultYear() throws Exception {
         // Given
-        when(dashboardService.calculateChiffreAffaires(any(), any()))
-                .thenReturn(new BigDecimal("500.00"));
-        when(dashboardService.calculateTotalDepenses(any(), any()))
-                .thenReturn(new BigDecimal("150.00"));
-        when(dashboardService.calculateBenefice(any(), any()))
-                .thenReturn(new BigDecimal("350.00"));
+        when(dashboardService.getSnapshot(any(), any(), anyInt()))
+                .thenReturn(snapshot()
+                        .chiffreAffaires(new BigDecimal("500.00"))
+                        .totalDepenses(new BigDecimal("150.00"))
+                        .benefice(new BigDecimal("350.00"))
+                        .build());
 
         // When / Then
         mockMvc.perform(get("/"))
@@ -85,9 +77,9 @@ class HomeControllerTest {
     @Test
     void home_shouldFilterByYear() throws Exception {
         // Given
-        when(dashboardService.calculateChiffreAffaires(
-                LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)))
-                .thenReturn(new BigDecimal("200.00"));
+        when(dashboardService.getSnapshot(
+                eq(LocalDate.of(2025, 1, 1)), eq(LocalDate.of(2025, 12, 31)), anyInt()))
+                .thenReturn(snapshot().chiffreAffaires(new BigDecimal("200.00")).build());
 
         // When / Then
         mockMvc.perform(get("/").param("year", "2025"))
@@ -97,19 +89,10 @@ class HomeControllerTest {
     }
 
     @Test
-    void home_shouldCountPaidOrdersInYear() throws Exception {
+    void home_shouldExposePaidOrderCount() throws Exception {
         // Given
-        Order paidInYear = Order.builder()
-                .orderDate(LocalDate.of(2025, 6, 15))
-                .status(OrderStatus.PAID)
-                .build();
-        Order paidOutOfYear = Order.builder()
-                .orderDate(LocalDate.of(2024, 3, 1))
-                .status(OrderStatus.PAID)
-                .build();
-
-        when(orderRepository.findByStatus(OrderStatus.PAID))
-                .thenReturn(List.of(paidInYear, paidOutOfYear));
+        when(dashboardService.getSnapshot(any(), any(), anyInt()))
+                .thenReturn(snapshot().commandesPayees(1L).build());
 
         // When / Then
         mockMvc.perform(get("/").param("year", "2025"))
@@ -144,8 +127,8 @@ class HomeControllerTest {
                         .chiffreAffaires(new BigDecimal("150.00"))
                         .build()
         );
-        when(dashboardService.getTopProduits(any(), any(), anyInt()))
-                .thenReturn(topProduits);
+        when(dashboardService.getSnapshot(any(), any(), anyInt()))
+                .thenReturn(snapshot().topProduits(topProduits).build());
 
         // When / Then
         mockMvc.perform(get("/"))
@@ -164,12 +147,13 @@ class HomeControllerTest {
     @Test
     void home_shouldIncludeDepensesParCategorie() throws Exception {
         // Given
-        when(dashboardService.calculateTotalDepenses(any(), any()))
-                .thenReturn(new BigDecimal("100.00"));
-        when(achatService.calculateDepensesByCategorie(any(), any()))
-                .thenReturn(Map.of(
-                        CategorieAchat.CIRE, new BigDecimal("60.00"),
-                        CategorieAchat.POTS, new BigDecimal("40.00")));
+        when(dashboardService.getSnapshot(any(), any(), anyInt()))
+                .thenReturn(snapshot()
+                        .totalDepenses(new BigDecimal("100.00"))
+                        .depensesParCategorie(List.of(
+                                new DepenseCategorieDto(CategorieAchat.CIRE, new BigDecimal("60.00"), 60),
+                                new DepenseCategorieDto(CategorieAchat.POTS, new BigDecimal("40.00"), 40)))
+                        .build());
 
         // When / Then
         mockMvc.perform(get("/"))
@@ -1,6 +1,9 @@
 package com.honeyai.controller;
 
-import com.honeyai.dto.ProductPriceDto;
+import com.honeyai.dto.KeysetPage;
+import com.honeyai.dto.OrderDetail;
+import com.honeyai.dto.OrderSummary;
+import com.honeyai.dto.ProductWithPrice;
 import com.honeyai.enums.OrderStatus;
 import com.honeyai.exception.InvalidStatusTransitionException;
 import com.honeyai.model.Client;
@@ -11,6 +14,7 @@ import com.honeyai.service.OrderService;
 import com.honeyai.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -22,8 +26,13 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasProperty;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -50,7 +59,9 @@ class OrderControllerTest {
     private Order order1;
     private Order order2;
     private Product product;
-    private ProductPriceDto productPriceDto;
+    private ProductWithPrice productWithPrice;
+    private OrderSummary summary1;
+    private OrderSummary summary2;
 
     @BeforeEach
     void setUp() {
@@ -65,12 +76,8 @@ class OrderControllerTest {
                 .unit("pot 500g")
                 .build();
 
-        productPriceDto = ProductPriceDto.builder()
-                .id(1L)
-                .name("Miel Toutes Fleurs 500g")
-                .unit("pot 500g")
-                .price(new BigDecimal("12.50"))
-                .build();
+        productWithPrice = new ProductWithPrice(1L, "Miel Toutes Fleurs 500g", null, "pot 500g",
+                new BigDecimal("12.50"));
 
         order1 = Order.builder()
                       .id(1L)
@@ -87,16 +94,19 @@ class OrderControllerTest {
                       .status(OrderStatus.PAID)
                       .lines(new ArrayList<>())
                       .build();
+
+        summary1 = new OrderSummary(1L, LocalDate.of(2026, 1, 15), "Dupont Jean",
+                OrderStatus.ORDERED, 2L, new BigDecimal("45.50"));
+        summary2 = new OrderSummary(2L, LocalDate.of(2026, 1, 10), "Dupont Jean",
+                OrderStatus.PAID, 3L, new BigDecimal("120.00"));
     }
 
     @Test
     void list_shouldReturnOrdersListView() throws Exception {
         // Given
-        when(orderService.findWithFilters(any(), any()))
-                .thenReturn(Arrays.asList(order1, order2));
+        when(orderService.findPage(any(), any(), any(), any(), any()))
+                .thenReturn(page(Arrays.asList(summary1, summary2), null, null));
         when(orderService.getDistinctYears()).thenReturn(Arrays.asList(2026, 2025));
-        when(orderService.calculateTotal(1L)).thenReturn(new BigDecimal("45.50"));
-        when(orderService.calculateTotal(2L)).thenReturn(new BigDecimal("120.00"));
 
         // When/Then
         mockMvc.perform(get("/orders"))
@@ -106,17 +116,19 @@ class OrderControllerTest {
                 .andExpect(model().attributeExists("currentYear"))
                 .andExpect(model().attributeExists("years"))
                 .andExpect(model().attributeExists("status"))
-                .andExpect(model().attribute("activeMenu", "orders"));
+                .andExpect(model().attribute("activeMenu", "orders"))
+                .andExpect(content().string(containsString("45.50 EUR")));
 
-        verify(orderService).findWithFilters(any(), any());
+        verify(orderService).findPage(any(), any(), any(), any(), any());
         verify(orderService).getDistinctYears();
+        verify(orderService, never()).calculateTotal(any());
     }
 
     @Test
     void list_withYearFilter_shouldFilterByYear() throws Exception {
         // Given
-        when(orderService.findWithFilters(eq(2025), any()))
-                .thenReturn(Collections.emptyList());
+        when(orderService.findPage(eq(2025), any(), any(), any(), any()))
+                .thenReturn(page(Collections.emptyList(), null, null));
         when(orderService.getDistinctYears()).thenReturn(Arrays.asList(2026, 2025));
 
         // When/Then
@@ -125,16 +137,15 @@ class OrderControllerTest {
                 .andExpect(view().name("orders/list"))
                 .andExpect(model().attribute("selectedYear", 2025));
 
-        verify(orderService).findWithFilters(eq(2025), isNull());
+        verify(orderService).findPage(eq(2025), isNull(), isNull(), isNull(), isNull());
     }
 
     @Test
     void list_withStatusFilter_shouldFilterByStatus() throws Exception {
         // Given
-        when(orderService.findWithFilters(any(), eq(OrderStatus.ORDERED)))
-                .thenReturn(List.of(order1));
+        when(orderService.findPage(any(), eq(OrderStatus.ORDERED), any(), any(), any()))
+                .thenReturn(page(List.of(summary1), null, null));
         when(orderService.getDistinctYears()).thenReturn(List.of(2026));
-        when(orderService.calculateTotal(1L)).thenReturn(new BigDecimal("45.50"));
 
         // When/Then
         mockMvc.perform(get("/orders").param("status", "ORDERED"))
@@ -142,16 +153,15 @@ class OrderControllerTest {
                 .andExpect(view().name("orders/list"))
                 .andExpect(model().attribute("selectedStatus", OrderStatus.ORDERED));
 
-        verify(orderService).findWithFilters(isNull(), eq(OrderStatus.ORDERED));
+        verify(orderService).findPage(isNull(), eq(OrderStatus.ORDERED), isNull(), isNull(), isNull());
     }
 
     @Test
     void list_withBothFilters_shouldFilterByYearAndStatus() throws Exception {
         // Given
-        when(orderService.findWithFilters(eq(2026), eq(OrderStatus.PAID)))
-                .thenReturn(List.of(order2));
+        when(orderService.findPage(eq(2026), eq(OrderStatus.PAID), any(), any(), any()))
+                .thenReturn(page(List.of(summary2), null, null));
         when(orderService.getDistinctYears()).thenReturn(List.of(2026));
-        when(orderService.calculateTotal(2L)).thenReturn(new BigDecimal("120.00"));
 
         // When/Then
         mockMvc.perform(get("/orders")
@@ -162,15 +172,15 @@ class OrderControllerTest {
                 .andExpect(model().attribute("selectedYear", 2026))
                 .andExpect(model().attribute("selectedStatus", OrderStatus.PAID));
 
-        verify(orderService).findWithFilters(eq(2026), eq(OrderStatus.PAID));
+        verify(orderService).findPage(eq(2026), eq(OrderStatus.PAID), isNull(), isNull(), isNull());
     }
 
     @Test
     void list_shouldIncludeCurrentYearInYearsListEvenIfNoOrders() throws Exception {
         // Given
         int currentYear = LocalDate.now().getYear();
-        when(orderService.findWithFilters(any(), any()))
-                .thenReturn(Collections.emptyList());
+        when(orderService.findPage(any(), any(), any(), any(), any()))
+                .thenReturn(page(Collections.emptyList(), null, null));
         when(orderService.getDistinctYears()).thenReturn(Collections.emptyList());
 
         // When/Then
@@ -178,46 +188,79 @@ class OrderControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(model().attribute("currentYear", currentYear));
 
-        verify(orderService).findWithFilters(any(), any());
+        verify(orderService).findPage(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void list_shouldExposeCursorLinksKeepingFilters() throws Exception {
+        // Given
+        when(orderService.findPage(eq(2026), isNull(), eq("abc"), isNull(), eq(20)))
+                .thenReturn(page(List.of(summary1), "next123", "prev456"));
+        when(orderService.getDistinctYears()).thenReturn(List.of(2026));
+
+        // When/Then
+        mockMvc.perform(get("/orders")
+                        .param("year", "2026")
+                        .param("after", "abc")
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("nextUrl", "/orders?year=2026&size=20&after=next123"))
+                .andExpect(model().attribute("prevUrl", "/orders?year=2026&size=20&before=prev456"))
+                .andExpect(content().string(containsString("Suivant")));
     }
 
     @Test
     void showCreateForm_shouldReturnFormView() throws Exception {
         // Given
-        when(clientService.findAllActive()).thenReturn(List.of(client));
-        when(productService.findAllWithCurrentYearPrices()).thenReturn(List.of(productPriceDto));
+        when(productService.findAllWithCurrentYearPrices()).thenReturn(List.of(productWithPrice));
 
         // When/Then
         mockMvc.perform(get("/orders/new"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("orders/form"))
                 .andExpect(model().attributeExists("orderForm"))
-                .andExpect(model().attributeExists("clients"))
+                .andExpect(model().attributeDoesNotExist("clients"))
                 .andExpect(model().attributeExists("products"))
-                .andExpect(model().attribute("activeMenu", "orders"));
+                .andExpect(model().attribute("activeMenu", "orders"))
+                .andExpect(content().string(containsString("/clients/autocomplete")))
+                .andExpect(content().string(containsString("\"displayLabel\":\"Miel Toutes Fleurs 500g - 12,50 EUR\"")));
 
-        verify(clientService).findAllActive();
+        verify(clientService, never()).findActiveRows();
         verify(productService).findAllWithCurrentYearPrices();
     }
 
     @Test
     void showCreateForm_withClientIdParam_shouldPreSelectClient() throws Exception {
         // Given
-        when(clientService.findAllActive()).thenReturn(List.of(client));
-        when(productService.findAllWithCurrentYearPrices()).thenReturn(List.of(productPriceDto));
+        when(clientService.findById(1L)).thenReturn(Optional.of(client));
+        when(productService.findAllWithCurrentYearPrices()).thenReturn(List.of(productWithPrice));
 
         // When/Then
         mockMvc.perform(get("/orders/new").param("clientId", "1"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("orders/form"))
-                .andExpect(model().attributeExists("orderForm"));
+                .andExpect(model().attribute("selectedClient", client))
+                .andExpect(content().string(containsString("value=\"Dupont Jean\"")));
+    }
+
+    @Test
+    void showCreateForm_withUnknownClientId_shouldLeaveClientEmpty() throws Exception {
+        // Given
+        when(clientService.findById(99L)).thenReturn(Optional.empty());
+        when(productService.findAllWithCurrentYearPrices()).thenReturn(List.of(productWithPrice));
+
+        // When/Then
+        mockMvc.perform(get("/orders/new").param("clientId", "99"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("selectedClient", (Object) null))
+                .andExpect(model().attribute("orderForm", hasProperty("clientId", nullValue())));
     }
 
     @Test
     void createOrder_withValidData_shouldRedirectToDetail() throws Exception {
         // Given
         when(clientService.findByIdOrThrow(1L)).thenReturn(client);
-        when(productService.findById(1L)).thenReturn(Optional.of(product));
+        when(productService.findAllById(List.of(1L))).thenReturn(Map.of(1L, product));
         when(orderService.create(any(Order.class))).thenReturn(order1);
 
         // When/Then
@@ -237,8 +280,7 @@ class OrderControllerTest {
     @Test
     void createOrder_withoutClient_shouldReturnFormWithErrors() throws Exception {
         // Given
-        when(clientService.findAllActive()).thenReturn(List.of(client));
-        when(productService.findAllWithCurrentYearPrices()).thenReturn(List.of(productPriceDto));
+        when(productService.findAllWithCurrentYearPrices()).thenReturn(List.of(productWithPrice));
 
         // When/Then
         mockMvc.perform(post("/orders")
@@ -256,8 +298,7 @@ class OrderControllerTest {
     @Test
     void createOrder_withoutLignes_shouldReturnFormWithErrors() throws Exception {
         // Given
-        when(clientService.findAllActive()).thenReturn(List.of(client));
-        when(productService.findAllWithCurrentYearPrices()).thenReturn(List.of(productPriceDto));
+        when(productService.findAllWithCurrentYearPrices()).thenReturn(List.of(productWithPrice));
 
         // When/Then
         mockMvc.perform(post("/orders")
@@ -271,21 +312,25 @@ class OrderControllerTest {
     }
 
     @Test
-    void showDetail_shouldReturnDetailView() throws Exception {
-        // Given - use order without ligne to avoid Lombok toString() recursion
-        when(orderService.findById(1L)).thenReturn(Optional.of(order1));
-        when(orderService.calculateTotal(1L)).thenReturn(new BigDecimal("25.00"));
+    void showDetail_shouldRenderOrderDetailReadModel() throws Exception {
+        // Given
+        OrderDetail detail = new OrderDetail(1L, LocalDate.of(2026, 1, 15), OrderStatus.ORDERED, null,
+                null, null, 1L, "Dupont Jean", "0612345678",
+                List.of(new OrderDetail.Line(10L, "Miel Toutes Fleurs 500g", 2, new BigDecimal("12.50"))));
+        when(orderService.findDetail(1L)).thenReturn(Optional.of(detail));
 
         // When/Then
         mockMvc.perform(get("/orders/1"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("orders/detail"))
-                .andExpect(model().attributeExists("order"))
-                .andExpect(model().attributeExists("total"))
-                .andExpect(model().attribute("activeMenu", "orders"));
-
-        verify(orderService).findById(1L);
-        verify(orderService).calculateTotal(1L);
+                .andExpect(model().attribute("order", detail))
+                .andExpect(model().attribute("total", new BigDecimal("25.00")))
+                .andExpect(model().attribute("activeMenu", "orders"))
+                .andExpect(content().string(containsString("Miel Toutes Fleurs 500g")))
+                .andExpect(content().string(containsString("0612345678")));
+
+        verify(orderService).findDetail(1L);
+        verify(orderService, never()).findById(any());
     }
 
     @Test
@@ -329,8 +374,7 @@ class OrderControllerTest {
     void showEditForm_shouldReturnFormViewWithOrderData() throws Exception {
         // Given
         when(orderService.findById(1L)).thenReturn(Optional.of(order1));
-        when(clientService.findAllActive()).thenReturn(List.of(client));
-        when(productService.findAllWithCurrentYearPrices()).thenReturn(List.of(productPriceDto));
+        when(productService.findAllWithCurrentYearPrices()).thenReturn(List.of(productWithPrice));
 
         // When/Then
         mockMvc.perform(get("/orders/1/edit"))
@@ -348,7 +392,7 @@ class OrderControllerTest {
         // Given
         when(orderService.findById(1L)).thenReturn(Optional.of(order1));
         when(clientService.findByIdOrThrow(1L)).thenReturn(client);
-        when(productService.findById(1L)).thenReturn(Optional.of(product));
+        when(productService.findAllById(List.of(1L))).thenReturn(Map.of(1L, product));
         when(orderService.save(any(Order.class))).thenReturn(order1);
 
         // When/Then
@@ -364,4 +408,60 @@ class OrderControllerTest {
 
         verify(orderService).save(any(Order.class));
     }
+
+    @Test
+    void createOrder_shouldResolveAllProductsWithOneLookup() throws Exception {
+        // Given
+        Product other = Product.builder().id(2L).name("Miel de Foret").build();
+        when(clientService.findByIdOrThrow(1L)).thenReturn(client);
+        when(productService.findAllById(List.of(1L, 2L, 1L))).thenReturn(Map.of(1L, product, 2L, other));
+        when(orderService.create(any(Order.class))).thenReturn(order1);
+
+        // When
+        mockMvc.perform(post("/orders")
+                        .param("clientId", "1")
+                        .param("orderDate", "2026-01-15")
+                        .param("lines[0].productId", "1")
+                        .param("lines[0].quantity", "2")
+                        .param("lines[0].unitPrice", "12.50")
+                        .param("lines[1].productId", "2")
+                        .param("lines[1].quantity", "1")
+                        .param("lines[1].unitPrice", "15.00")
+                        .param("lines[2].productId", "1")
+                        .param("lines[2].quantity", "4")
+                        .param("lines[2].unitPrice", "12.50"))
+                .andExpect(status().is3xxRedirection());
+
+        // Then
+        ArgumentCaptor<Order> created = ArgumentCaptor.forClass(Order.class);
+        verify(orderService).create(created.capture());
+        assertThat(created.getValue().getLines()).extracting(line -> line.getProduct().getId())
+                .containsExactly(1L, 2L, 1L);
+        verify(productService, never()).findById(any());
+    }
+
+    @Test
+    void createOrder_withUnknownProduct_shouldRedisplayFormWithError() throws Exception {
+        // Given
+        when(clientService.findByIdOrThrow(1L)).thenReturn(client);
+        when(productService.findAllById(List.of(9L))).thenReturn(Map.of());
+        when(productService.findAllWithCurrentYearPrices()).thenReturn(List.of(productWithPrice));
+
+        // When/Then
+        mockMvc.perform(post("/orders")
+                        .param("clientId", "1")
+                        .param("orderDate", "2026-01-15")
+                        .param("lines[0].productId", "9")
+                        .param("lines[0].quantity", "1")
+                        .param("lines[0].unitPrice", "12.50"))
+                .andExpect(status().isOk())
+                .andExpect(view().name("orders/form"))
+                .andExpect(model().attribute("error", containsString("Produit non trouve: 9")));
+
+        verify(orderService, never()).create(any());
+    }
+
+    private static <T> KeysetPage<T> page(List<T> content, String next, String prev) {
+        return new KeysetPage<>(content, next, prev, 50);
+    }
 }
@@ -1,8 +1,10 @@
 package com.honeyai.controller;
 
+import com.honeyai.dto.ProductWithPrice;
 import com.honeyai.enums.HoneyType;
 import com.honeyai.model.Price;
 import com.honeyai.model.Product;
+import com.honeyai.service.EntityCacheService;
 import com.honeyai.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -33,8 +35,13 @@ class ProductControllerTest {
     @MockBean
     private ProductService productService;
 
+    @MockBean
+    private EntityCacheService entityCacheService;
+
     private Product product1;
     private Product product2;
+    private ProductWithPrice row1;
+    private ProductWithPrice row2;
 
     @BeforeEach
     void setUp() {
@@ -51,12 +58,16 @@ class ProductControllerTest {
                 .type(HoneyType.FORET)
                 .unit("pot 1kg")
                 .build();
+
+        row1 = new ProductWithPrice(1L, "Miel Toutes Fleurs 500g", HoneyType.TOUTES_FLEURS, "pot 500g",
+                new BigDecimal("8.00"));
+        row2 = new ProductWithPrice(2L, "Miel Foret 1kg", HoneyType.FORET, "pot 1kg", null);
     }
 
     @Test
     void list_shouldReturnProductsListView() throws Exception {
         // Given
-        when(productService.findAll()).thenReturn(Arrays.asList(product1, product2));
+        when(productService.findAllWithCurrentYearPrices()).thenReturn(Arrays.asList(row1, row2));
         when(productService.getPriceForYear(eq(1L), any())).thenReturn(new BigDecimal("8.00"));
         when(productService.getPriceForYear(eq(2L), any())).thenReturn(new BigDecimal("17.00"));
 
@@ -69,7 +80,8 @@ class ProductControllerTest {
                 .andExpect(model().attributeExists("productService"))
                 .andExpect(model().attribute("activeMenu", "products"));
 
-        verify(productService).findAll();
+        verify(productService).findAllWithCurrentYearPrices();
+        verify(productService, never()).findAll();
     }
 
     @Test
@@ -97,7 +109,7 @@ class ProductControllerTest {
     @Test
     void list_shouldDisplayCurrentYear() throws Exception {
         // Given
-        when(productService.findAll()).thenReturn(Collections.singletonList(product1));
+        when(productService.findAllWithCurrentYearPrices()).thenReturn(Collections.singletonList(row1));
         int expectedYear = LocalDate.now().getYear();
 
         // When/Then
@@ -1,11 +1,13 @@
 package com.honeyai.repository;
 
+import com.honeyai.dto.DepenseCategorieDto;
 import com.honeyai.enums.CategorieAchat;
 import com.honeyai.model.Achat;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
@@ -166,4 +168,77 @@ class AchatRepositoryTest {
         // Then
         assertThat(retrieved.getMontant()).isEqualByComparingTo("123.45");
     }
+
+    @Test
+    void findPageAfter_shouldReturnMostRecentFirstAndContinueFromCursor() {
+        // When
+        List<Achat> firstPage = achatRepository.findPageAfter(null, null, null, null, null, PageRequest.of(0, 2));
+        Achat last = firstPage.getLast();
+        List<Achat> secondPage = achatRepository.findPageAfter(null, null, null,
+                last.getDateAchat(), last.getId(), PageRequest.of(0, 2));
+
+        // Then
+        assertThat(firstPage).extracting(Achat::getDateAchat)
+                .containsExactly(LocalDate.of(2025, 7, 5), LocalDate.of(2025, 6, 1));
+        assertThat(secondPage).extracting(Achat::getDateAchat)
+                .containsExactly(LocalDate.of(2025, 4, 20), LocalDate.of(2025, 4, 15));
+    }
+
+    @Test
+    void findPageBefore_shouldReturnNewerAchatsOldestFirst() {
+        // Given
+        Achat pots = achatRepository.findByCategorie(CategorieAchat.POTS).getFirst();
+
+        // When
+        List<Achat> result = achatRepository.findPageBefore(null, null, null,
+                pots.getDateAchat(), pots.getId(), PageRequest.of(0, 2));
+
+        // Then
+        assertThat(result).extracting(Achat::getDateAchat)
+                .containsExactly(LocalDate.of(2025, 4, 20), LocalDate.of(2025, 6, 1));
+    }
+
+    @Test
+    void findPageAfter_shouldApplyPeriodAndCategorieFilters() {
+        // When
+        List<Achat> result = achatRepository.findPageAfter(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 30),
+                CategorieAchat.POTS, null, null, PageRequest.of(0, 10));
+
+        // Then
+        assertThat(result).singleElement()
+                .extracting(Achat::getDesignation).isEqualTo("Pots verre 500g x100");
+    }
+
+    @Test
+    void sumMontant_shouldSumMatchingAchatsAndReturnZeroWhenNone() {
+        // When/Then - 45.00 + 32.50 + 18.90 + 25.00 + 15.99 = 137.39
+        assertThat(achatRepository.sumMontant(null, null, null)).isEqualByComparingTo("137.39");
+        assertThat(achatRepository.sumMontant(LocalDate.of(2025, 4, 1), LocalDate.of(2025, 4, 30), null))
+                .isEqualByComparingTo("51.40");
+        assertThat(achatRepository.sumMontant(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31), null))
+                .isEqualByComparingTo("0");
+    }
+
+    @Test
+    void sumMontantByCategorie_shouldGroupByCategorieLargestFirst() {
+        // Given
+        achatRepository.save(Achat.builder()
+                .dateAchat(LocalDate.of(2025, 8, 1))
+                .designation("Cire gaufrée 2kg")
+                .montant(new BigDecimal("20.00"))
+                .categorie(CategorieAchat.CIRE)
+                .build());
+
+        // When
+        List<DepenseCategorieDto> result = achatRepository.sumMontantByCategorie(
+                LocalDate.of(2025, 3, 1), LocalDate.of(2025, 8, 31));
+
+        // Then - CIRE 45.00 + 20.00 = 65.00 comes first
+        assertThat(result).hasSize(5);
+        assertThat(result.get(0).getCategorie()).isEqualTo(CategorieAchat.CIRE);
+        assertThat(result.get(0).getMontant()).isEqualByComparingTo("65.00");
+        assertThat(result.get(1).getCategorie()).isEqualTo(CategorieAchat.POTS);
+        assertThat(achatRepository.sumMontantByCategorie(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)))
+                .isEmpty();
+    }
 }
@@ -1,12 +1,16 @@
 package com.honeyai.repository;
 
+import com.honeyai.dto.ClientRow;
 import com.honeyai.model.Client;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -20,6 +24,9 @@ class ClientRepositoryTest {
     @Autowired
     private ClientRepository clientRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private Client client1;
     private Client client2;
     private Client client3;
@@ -169,6 +176,22 @@ class ClientRepositoryTest {
         assertThat(results.getFirst().getName()).isEqualTo("Martin Marie");
     }
 
+    @Test
+    void searchClients_shouldMatchEmailAndAddressLikeTheFullTextIndex() {
+        // Given
+        clientRepository.save(client1);
+        clientRepository.save(client2);
+        clientRepository.save(client3);
+
+        // When/Then
+        assertThat(clientRepository.searchClients("MARIE.MARTIN@"))
+                .extracting(Client::getName).containsExactly("Martin Marie");
+        assertThat(clientRepository.searchClients("rue de paris"))
+                .extracting(Client::getName).containsExactly("Dupont Jean");
+        assertThat(clientRepository.findActivePageAfter("avenue de lyon", null, null, PageRequest.of(0, 10)))
+                .extracting(ClientRow::name).containsExactly("Martin Marie");
+    }
+
     @Test
     void searchClients_shouldNotReturnDeletedClients() {
         // Given
@@ -230,4 +253,86 @@ class ClientRepositoryTest {
         List<Client> all = clientRepository.findAll();
         assertThat(all).hasSize(3);
     }
+
+    @Test
+    void findActivePageAfter_shouldWalkClientsByNameThenId() {
+        // Given
+        clientRepository.saveAll(List.of(client1, client2, client3));
+
+        // When - first page of 2, then the page after "Dupont Jean"
+        List<ClientRow> firstPage = clientRepository.findActivePageAfter(null, null, null, PageRequest.of(0, 2));
+        ClientRow last = firstPage.getLast();
+        List<ClientRow> secondPage = clientRepository.findActivePageAfter(null, last.name(), last.id(),
+                PageRequest.of(0, 2));
+
+        // Then
+        assertThat(firstPage).extracting(ClientRow::name).containsExactly("Bernard Pierre", "Dupont Jean");
+        assertThat(secondPage).extracting(ClientRow::name).containsExactly("Martin Marie");
+    }
+
+    @Test
+    void findActivePageBefore_shouldReturnPreviousClientsInReverseOrder() {
+        // Given
+        clientRepository.saveAll(List.of(client1, client2, client3));
+
+        // When
+        List<ClientRow> previous = clientRepository.findActivePageBefore(null, client2.getName(), client2.getId(),
+                PageRequest.of(0, 5));
+
+        // Then
+        assertThat(previous).extracting(ClientRow::name).containsExactly("Dupont Jean", "Bernard Pierre");
+    }
+
+    @Test
+    void findActivePageAfter_shouldApplySearchAndSkipDeletedClients() {
+        // Given
+        client1.setDeletedAt(LocalDateTime.now());
+        clientRepository.saveAll(List.of(client1, client2, client3));
+
+        // When
+        List<ClientRow> result = clientRepository.findActivePageAfter("061", null, null, PageRequest.of(0, 10));
+
+        // Then - client1 matches by phone but is deleted
+        assertThat(result).extracting(ClientRow::name).containsExactly("Bernard Pierre");
+    }
+
+    @Test
+    void findActiveRows_shouldProjectActiveClientsByName() {
+        // Given
+        client1.setDeletedAt(LocalDateTime.now());
+        clientRepository.saveAll(List.of(client1, client2, client3));
+
+        // When
+        List<ClientRow> rows = clientRepository.findActiveRows();
+        Optional<ClientRow> deleted = clientRepository.findActiveRowById(client1.getId());
+        List<ClientRow> byId = clientRepository.findActiveRowsById(List.of(client1.getId(), client3.getId()));
+
+        // Then
+        assertThat(rows).extracting(ClientRow::name).containsExactly("Bernard Pierre", "Martin Marie");
+        assertThat(clientRepository.findActiveRowById(client2.getId()))
+                .get().extracting(ClientRow::phone).isEqualTo(client2.getPhone());
+        assertThat(deleted).isEmpty();
+        assertThat(byId).extracting(ClientRow::id).containsExactly(client3.getId());
+    }
+
+    @Test
+    void findActiveValuePageAfter_shouldWalkClientsByPaidTotalThenId() {
+        // Given - the stats columns are read-only for JPA, set them as the refresh would
+        clientRepository.saveAllAndFlush(List.of(client1, client2, client3));
+        jdbcTemplate.update("UPDATE clients SET paid_total = ?, order_count = 2 WHERE id = ?", 120, client1.getId());
+        jdbcTemplate.update("UPDATE clients SET paid_total = ?, order_count = 1 WHERE id = ?", 40, client3.getId());
+
+        // When - first page of 2, then the page after the second row
+        List<ClientRow> firstPage = clientRepository.findActiveValuePageAfter(null, null, null,
+                PageRequest.of(0, 2));
+        ClientRow last = firstPage.getLast();
+        List<ClientRow> secondPage = clientRepository.findActiveValuePageAfter(null, last.lifetimeValue(),
+                last.id(), PageRequest.of(0, 2));
+
+        // Then
+        assertThat(firstPage).extracting(ClientRow::name).containsExactly("Dupont Jean", "Bernard Pierre");
+        assertThat(firstPage.getFirst().orderCount()).isEqualTo(2L);
+        assertThat(firstPage.getFirst().lifetimeValue()).isEqualByComparingTo(new BigDecimal("120"));
+        assertThat(secondPage).extracting(ClientRow::name).containsExactly("Martin Marie");
+    }
 }
@@ -1,5 +1,8 @@
 package com.honeyai.repository;
 
+import com.honeyai.dto.OrderDetail;
+import com.honeyai.dto.OrderSummary;
+import com.honeyai.dto.TopProduitDto;
 import com.honeyai.enums.HoneyType;
 import com.honeyai.enums.OrderStatus;
 import com.honeyai.model.Client;
@@ -12,6 +15,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.math.BigDecimal;
@@ -301,73 +305,6 @@ class OrderRepositoryTest {
         assertThat(ligne.getTotal()).isEqualByComparingTo(new BigDecimal("25.50"));
     }
 
-    @Test
-    void findByDateRangeOrderByOrderDateDesc_shouldReturnOrdersForDateRange() {
-        // Given
-        Order order2025 = Order.builder()
-                               .client(client)
-                               .orderDate(LocalDate.of(2025, 6, 15))
-                               .build();
-        orderRepository.save(order2025);
-
-        Order order2026A = Order.builder()
-                                .client(client)
-                                .orderDate(LocalDate.of(2026, 1, 10))
-                                .build();
-        orderRepository.save(order2026A);
-
-        Order order2026B = Order.builder()
-                                .client(client)
-                                .orderDate(LocalDate.of(2026, 3, 20))
-                                .build();
-        orderRepository.save(order2026B);
-
-        // When - Filter for year 2026 using date range
-        LocalDate startDate = LocalDate.of(2026, 1, 1);
-        LocalDate endDate = LocalDate.of(2027, 1, 1);
-        List<Order> orders2026 = orderRepository.findByDateRangeOrderByOrderDateDesc(startDate, endDate);
-
-        // Then
-        assertThat(orders2026).hasSize(2);
-        assertThat(orders2026.getFirst().getOrderDate()).isEqualTo(LocalDate.of(2026, 3, 20));
-        assertThat(orders2026.get(1).getOrderDate()).isEqualTo(LocalDate.of(2026, 1, 10));
-    }
-
-    @Test
-    void findByDateRangeAndStatusOrderByOrderDateDesc_shouldFilterByDateRangeAndStatus() {
-        // Given
-        Order order2026Commandee = Order.builder()
-                                        .client(client)
-                                        .orderDate(LocalDate.of(2026, 1, 15))
-                                        .status(OrderStatus.ORDERED)
-                                        .build();
-        orderRepository.save(order2026Commandee);
-
-        Order order2026Payee = Order.builder()
-                                    .client(client)
-                                    .orderDate(LocalDate.of(2026, 2, 20))
-                                    .status(OrderStatus.PAID)
-                                    .build();
-        orderRepository.save(order2026Payee);
-
-        Order order2025Commandee = Order.builder()
-                                        .client(client)
-                                        .orderDate(LocalDate.of(2025, 6, 10))
-                                        .status(OrderStatus.ORDERED)
-                                        .build();
-        orderRepository.save(order2025Commandee);
-
-        // When - Filter for year 2026 and ORDERED status using date range
-        LocalDate startDate = LocalDate.of(2026, 1, 1);
-        LocalDate endDate = LocalDate.of(2027, 1, 1);
-        List<Order> result = orderRepository.findByDateRangeAndStatusOrderByOrderDateDesc(startDate, endDate, OrderStatus.ORDERED);
-
-        // Then
-        assertThat(result).hasSize(1);
-        assertThat(result.getFirst().getOrderDate().getYear()).isEqualTo(2026);
-        assertThat(result.getFirst().getStatus()).isEqualTo(OrderStatus.ORDERED);
-    }
-
     @Test
     void findAllOrderDates_shouldReturnAllDatesDescending() {
         // Given
@@ -412,33 +349,178 @@ class OrderRepositoryTest {
     }
 
     @Test
-    void findAllByOrderByOrderDateDesc_shouldReturnAllOrdersSortedOrder() {
+    void findSummariesAfter_shouldAggregateLineCountAndTotalPerOrder() {
         // Given
-        Order c1 = Order.builder()
-                        .client(client)
-                        .orderDate(LocalDate.of(2025, 1, 1))
-                        .build();
-        orderRepository.save(c1);
-
-        Order c2 = Order.builder()
-                        .client(client)
-                        .orderDate(LocalDate.of(2026, 6, 15))
-                        .build();
-        orderRepository.save(c2);
-
-        Order c3 = Order.builder()
-                        .client(client)
-                        .orderDate(LocalDate.of(2025, 12, 31))
-                        .build();
-        orderRepository.save(c3);
+        Order withLines = Order.builder()
+                               .client(client)
+                               .orderDate(LocalDate.of(2026, 2, 1))
+                               .build();
+        withLines.addLigne(OrderLine.builder()
+                                    .product(product1)
+                                    .quantity(2)
+                                    .unitPrice(new BigDecimal("8.00"))
+                                    .build());
+        withLines.addLigne(OrderLine.builder()
+                                    .product(product2)
+                                    .quantity(1)
+                                    .unitPrice(new BigDecimal("17.00"))
+                                    .build());
+        orderRepository.save(withLines);
+
+        Order empty = Order.builder()
+                           .client(client)
+                           .orderDate(LocalDate.of(2026, 1, 1))
+                           .build();
+        orderRepository.save(empty);
+        entityManager.flush();
+        entityManager.clear();
 
         // When
-        List<Order> all = orderRepository.findAllByOrderByOrderDateDesc();
+        List<OrderSummary> summaries = orderRepository.findSummariesAfter(null, null, null,
+                null, null, PageRequest.of(0, 10));
+
+        // Then - (2 * 8.00) + (1 * 17.00) = 33.00, most recent first
+        assertThat(summaries).hasSize(2);
+        assertThat(summaries.getFirst().id()).isEqualTo(withLines.getId());
+        assertThat(summaries.getFirst().clientName()).isEqualTo("Test Client");
+        assertThat(summaries.getFirst().lineCount()).isEqualTo(2L);
+        assertThat(summaries.getFirst().total()).isEqualByComparingTo(new BigDecimal("33.00"));
+        assertThat(summaries.get(1).lineCount()).isZero();
+        assertThat(summaries.get(1).total()).isEqualByComparingTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void findSummariesAfter_shouldFilterByDateRangeAndStatus() {
+        // Given
+        orderRepository.save(Order.builder()
+                                  .client(client)
+                                  .orderDate(LocalDate.of(2026, 1, 15))
+                                  .status(OrderStatus.ORDERED)
+                                  .build());
+        orderRepository.save(Order.builder()
+                                  .client(client)
+                                  .orderDate(LocalDate.of(2026, 2, 20))
+                                  .status(OrderStatus.PAID)
+                                  .build());
+        orderRepository.save(Order.builder()
+                                  .client(client)
+                                  .orderDate(LocalDate.of(2025, 6, 10))
+                                  .status(OrderStatus.ORDERED)
+                                  .build());
+
+        LocalDate startDate = LocalDate.of(2026, 1, 1);
+        LocalDate endDate = LocalDate.of(2027, 1, 1);
+        PageRequest page = PageRequest.of(0, 10);
+
+        // When/Then
+        assertThat(orderRepository.findSummariesAfter(startDate, endDate, null, null, null, page)).hasSize(2);
+        assertThat(orderRepository.findSummariesAfter(null, null, OrderStatus.ORDERED, null, null, page)).hasSize(2);
+        assertThat(orderRepository.findSummariesAfter(startDate, endDate, OrderStatus.ORDERED, null, null, page))
+                .singleElement()
+                .satisfies(s -> assertThat(s.orderDate()).isEqualTo(LocalDate.of(2026, 1, 15)));
+    }
+
+    @Test
+    void findSummariesAfter_shouldBreakDateTiesById() {
+        // Given - three orders, two on the same day
+        Order a = orderRepository.save(Order.builder().client(client).orderDate(LocalDate.of(2026, 3, 1)).build());
+        Order b = orderRepository.save(Order.builder().client(client).orderDate(LocalDate.of(2026, 3, 1)).build());
+        Order c = orderRepository.save(Order.builder().client(client).orderDate(LocalDate.of(2026, 2, 1)).build());
+
+        // When
+        List<OrderSummary> firstPage = orderRepository.findSummariesAfter(null, null, null,
+                null, null, PageRequest.of(0, 1));
+        List<OrderSummary> secondPage = orderRepository.findSummariesAfter(null, null, null,
+                b.getOrderDate(), b.getId(), PageRequest.of(0, 5));
+        List<OrderSummary> previous = orderRepository.findSummariesBefore(null, null, null,
+                c.getOrderDate(), c.getId(), PageRequest.of(0, 5));
 
         // Then
-        assertThat(all).hasSize(3);
-        assertThat(all.get(0).getOrderDate()).isEqualTo(LocalDate.of(2026, 6, 15));
-        assertThat(all.get(1).getOrderDate()).isEqualTo(LocalDate.of(2025, 12, 31));
-        assertThat(all.get(2).getOrderDate()).isEqualTo(LocalDate.of(2025, 1, 1));
+        assertThat(firstPage).extracting(OrderSummary::id).containsExactly(b.getId());
+        assertThat(secondPage).extracting(OrderSummary::id).containsExactly(a.getId(), c.getId());
+        assertThat(previous).extracting(OrderSummary::id).containsExactly(a.getId(), b.getId());
+    }
+
+    @Test
+    void findSummariesByClientId_shouldReturnClientOrdersWithTotalsMostRecentFirst() {
+        // Given
+        Order older = Order.builder().client(client).orderDate(LocalDate.of(2026, 1, 5)).build();
+        older.addLigne(OrderLine.builder().product(product1).quantity(3).unitPrice(new BigDecimal("8.00")).build());
+        orderRepository.save(older);
+        Order recent = orderRepository.save(Order.builder().client(client).orderDate(LocalDate.of(2026, 2, 5)).build());
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        List<OrderSummary> summaries = orderRepository.findSummariesByClientId(client.getId(), PageRequest.of(0, 1));
+        List<OrderSummary> all = orderRepository.findSummariesByClientId(client.getId(), PageRequest.of(0, 10));
+
+        // Then
+        assertThat(summaries).extracting(OrderSummary::id).containsExactly(recent.getId());
+        assertThat(all).extracting(OrderSummary::id).containsExactly(recent.getId(), older.getId());
+        assertThat(all.get(1).total()).isEqualByComparingTo(new BigDecimal("24.00"));
+    }
+
+    @Test
+    void findDetailHeaderAndLines_shouldProjectOrderClientAndProductNames() {
+        // Given
+        Order order = Order.builder().client(client).orderDate(LocalDate.of(2026, 3, 1)).notes("Livraison").build();
+        order.addLigne(OrderLine.builder().product(product1).quantity(2).unitPrice(new BigDecimal("8.00")).build());
+        order.addLigne(OrderLine.builder().product(product2).quantity(1).unitPrice(new BigDecimal("17.00")).build());
+        orderRepository.save(order);
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        OrderDetail detail = orderRepository.findDetailHeader(order.getId())
+                .map(header -> header.withLines(orderRepository.findDetailLines(order.getId())))
+                .orElseThrow();
+
+        // Then
+        assertThat(detail.clientName()).isEqualTo("Test Client");
+        assertThat(detail.notes()).isEqualTo("Livraison");
+        assertThat(detail.lines()).extracting(OrderDetail.Line::productName)
+                .containsExactly(product1.getName(), product2.getName());
+        assertThat(detail.total()).isEqualByComparingTo(new BigDecimal("33.00"));
+        assertThat(orderRepository.findDetailHeader(999L)).isEmpty();
+    }
+
+    @Test
+    void sumPaidSalesByProduct_shouldGroupPaidLinesByProductBestSellerFirst() {
+        // Given - two paid orders in 2025, one unpaid order and one paid order out of range
+        Order paid1 = Order.builder().client(client).orderDate(LocalDate.of(2025, 3, 1)).status(OrderStatus.PAID).build();
+        paid1.addLigne(OrderLine.builder().product(product1).quantity(2).unitPrice(new BigDecimal("8.50")).build());
+        paid1.addLigne(OrderLine.builder().product(product2).quantity(1).unitPrice(new BigDecimal("15.00")).build());
+        orderRepository.save(paid1);
+
+        Order paid2 = Order.builder().client(client).orderDate(LocalDate.of(2025, 9, 1)).status(OrderStatus.PAID).build();
+        paid2.addLigne(OrderLine.builder().product(product1).quantity(3).unitPrice(new BigDecimal("9.00")).build());
+        orderRepository.save(paid2);
+
+        Order unpaid = Order.builder().client(client).orderDate(LocalDate.of(2025, 4, 1)).status(OrderStatus.ORDERED).build();
+        unpaid.addLigne(OrderLine.builder().product(product2).quantity(10).unitPrice(new BigDecimal("15.00")).build());
+        orderRepository.save(unpaid);
+
+        Order otherYear = Order.builder().client(client).orderDate(LocalDate.of(2024, 12, 31)).status(OrderStatus.PAID).build();
+        otherYear.addLigne(OrderLine.builder().product(product2).quantity(10).unitPrice(new BigDecimal("15.00")).build());
+        orderRepository.save(otherYear);
+        entityManager.flush();
+        entityManager.clear();
+
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        LocalDate end = LocalDate.of(2025, 12, 31);
+
+        // When
+        List<TopProduitDto> sales = orderRepository.sumPaidSalesByProduct(start, end);
+
+        // Then - product1: 2 + 3 = 5 sold, (2 * 8.50) + (3 * 9.00) = 44.00
+        assertThat(sales).hasSize(2);
+        assertThat(sales.get(0).getProduitNom()).isEqualTo("Miel Toutes Fleurs 500g");
+        assertThat(sales.get(0).getTypeMiel()).isEqualTo(HoneyType.TOUTES_FLEURS.getDisplayLabel());
+        assertThat(sales.get(0).getQuantiteTotale()).isEqualTo(5L);
+        assertThat(sales.get(0).getChiffreAffaires()).isEqualByComparingTo("44.00");
+        assertThat(sales.get(1).getQuantiteTotale()).isEqualTo(1L);
+        assertThat(sales.get(1).getChiffreAffaires()).isEqualByComparingTo("15.00");
+        assertThat(orderRepository.countByStatusAndOrderDateBetween(OrderStatus.PAID, start, end)).isEqualTo(2L);
     }
 }
@@ -0,0 +1,340 @@
+package com.honeyai.repository;
+
+import com.honeyai.enums.CategorieAchat;
+import com.honeyai.enums.HoneyType;
+import com.honeyai.enums.OrderStatus;
+import com.honeyai.model.Achat;
+import com.honeyai.model.Client;
+import com.honeyai.model.HistoriqueEtiquettes;
+import com.honeyai.model.Order;
+import com.honeyai.model.OrderLine;
+import com.honeyai.model.Product;
+import org.flywaydb.core.Flyway;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@code EXPLAIN QUERY PLAN} on the SQL of every repository query against a migrated and
+ * seeded SQLite database, and fails when a query scans a whole table instead of using an index.
+ * <p>
+ * Runs without the test profile: the plans of interest are SQLite's, on the schema built by the
+ * Flyway migrations, not H2's on the Hibernate-generated one. The second-level cache is off so
+ * that every query reaches the database.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "honeyai.entity-cache.enabled=false",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.honeyai.repository.QueryPlanRegressionTest$SqlRecorder"
+})
+class QueryPlanRegressionTest {
+
+    private static final Path DATABASE = createTempDatabase();
+
+    /**
+     * "SCAN t" without "USING ... INDEX": every row of the table is read. Index scans
+     * ("SCAN t USING INDEX ...") are accepted, they read rows in index order for ORDER BY.
+     */
+    private static final Pattern FULL_TABLE_SCAN = Pattern.compile("^SCAN \\w+$");
+
+    private static final Set<String> EXPECTED_INDEXES = Set.of(
+            "idx_orders_command_date", "idx_orders_status_command_date", "idx_orders_client_command_date",
+            "idx_order_lines_order_product", "idx_order_lines_product",
+            "uk_price_product_year", "idx_prices_year_product",
+            "idx_products_type_unit", "idx_products_name",
+            "idx_achats_date_categorie", "idx_achats_categorie_date",
+            "idx_historique_date_generation",
+            "idx_clients_deleted_name", "idx_clients_deleted_paid_total",
+            "uk_sales_rollup_period_product", "uk_achat_rollup_period_categorie");
+
+    @DynamicPropertySource
+    static void sqliteDatabase(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + DATABASE);
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderLineRepository orderLineRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PriceRepository priceRepository;
+
+    @Autowired
+    private AchatRepository achatRepository;
+
+    @Autowired
+    private HistoriqueEtiquettesRepository historiqueRepository;
+
+    @Autowired
+    private SalesRollupRepository salesRollupRepository;
+
+    @Autowired
+    private AchatRollupRepository achatRollupRepository;
+
+    @Test
+    void migrations_shouldCreateManagedIndexes() {
+        // When
+        List<String> indexes = jdbcTemplate.queryForList(
+                "SELECT name FROM sqlite_master WHERE type = 'index'", String.class);
+
+        // Then
+        assertThat(indexes).containsAll(EXPECTED_INDEXES);
+    }
+
+    @Test
+    void migrations_shouldKeepLatestPricePerProductAndYear_beforeUniqueIndex() {
+        // Given - a database created before the unique price index, with duplicate prices
+        String url = "jdbc:sqlite:" + createTempDatabase();
+        Flyway.configure().dataSource(url, null, null).target("1").load().migrate();
+        JdbcTemplate legacy = new JdbcTemplate(new DriverManagerDataSource(url));
+        legacy.update("INSERT INTO prices (id, product_id, price_year, price) VALUES (1, 7, 2024, 8.00)");
+        legacy.update("INSERT INTO prices (id, product_id, price_year, price) VALUES (2, 7, 2024, 8.50)");
+        legacy.update("INSERT INTO prices (id, product_id, price_year, price) VALUES (3, 7, 2025, 9.00)");
+        legacy.update("INSERT INTO prices (id, product_id, price_year, price) VALUES (4, 8, 2024, 12.00)");
+
+        // When
+        Flyway.configure().dataSource(url, null, null).load().migrate();
+
+        // Then
+        assertThat(legacy.queryForList("SELECT id FROM prices ORDER BY id", Long.class))
+                .containsExactly(2L, 3L, 4L);
+    }
+
+    @Test
+    void repositoryQueries_shouldNotFallBackToFullTableScans() {
+        // Given
+        seed();
+        Long clientId = clientRepository.findByDeletedAtIsNullOrderByNameAsc().getFirst().getId();
+        Long productId = productRepository.findAllByOrderByNameAsc().getFirst().getId();
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        LocalDate end = LocalDate.of(2024, 12, 31);
+        PageRequest page = PageRequest.of(0, 20);
+
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("OrderRepository.findByIdWithClient", () -> orderRepository.findByIdWithClient(1L));
+        queries.put("OrderRepository.countByClientId", () -> orderRepository.countByClientId(clientId));
+        queries.put("OrderRepository.findSummariesByClientId",
+                () -> orderRepository.findSummariesByClientId(clientId, page));
+        queries.put("OrderRepository.findDetailHeader", () -> orderRepository.findDetailHeader(1L));
+        queries.put("OrderRepository.findDetailLines", () -> orderRepository.findDetailLines(1L));
+        queries.put("OrderRepository.aggregateClientStats", () -> orderRepository.aggregateClientStats(clientId));
+        queries.put("OrderRepository.findByClientIdOrderByOrderDateDesc",
+                () -> orderRepository.findByClientIdOrderByOrderDateDesc(clientId));
+        queries.put("OrderRepository.findByStatus", () -> orderRepository.findByStatus(OrderStatus.PAID));
+        queries.put("OrderRepository.findByOrderDateBetween", () -> orderRepository.findByOrderDateBetween(start, end));
+        queries.put("OrderRepository.findAllOrderDates", () -> orderRepository.findAllOrderDates());
+        queries.put("OrderRepository.findPaidOrdersWithLinesBetween",
+                () -> orderRepository.findPaidOrdersWithLinesBetween(start, end));
+        queries.put("OrderRepository.sumPaidSalesByProduct", () -> orderRepository.sumPaidSalesByProduct(start, end));
+        queries.put("OrderRepository.countByStatusAndOrderDateBetween",
+                () -> orderRepository.countByStatusAndOrderDateBetween(OrderStatus.PAID, start, end));
+        queries.put("OrderRepository.findSummariesAfter",
+                () -> orderRepository.findSummariesAfter(start, end, null, end, 500L, page));
+        queries.put("OrderRepository.findSummariesBefore",
+                () -> orderRepository.findSummariesBefore(start, end, null, start, 1L, page));
+        queries.put("OrderLineRepository.findPaidSalesRows", () -> orderLineRepository.findPaidSalesRows());
+        queries.put("ClientRepository.findByDeletedAtIsNullOrderByNameAsc",
+                () -> clientRepository.findByDeletedAtIsNullOrderByNameAsc());
+        queries.put("ClientRepository.findActiveRows", () -> clientRepository.findActiveRows());
+        queries.put("ClientRepository.findActiveRowById", () -> clientRepository.findActiveRowById(clientId));
+        queries.put("ClientRepository.findActiveRowsById",
+                () -> clientRepository.findActiveRowsById(List.of(clientId, clientId + 1)));
+        queries.put("ClientRepository.countByDeletedAtIsNull", () -> clientRepository.countByDeletedAtIsNull());
+        queries.put("ClientRepository.findByIdAndDeletedAtIsNull", () -> clientRepository.findByIdAndDeletedAtIsNull(clientId));
+        queries.put("ClientRepository.searchClients", () -> clientRepository.searchClients("client"));
+        queries.put("ClientRepository.findActivePageAfter",
+                () -> clientRepository.findActivePageAfter(null, "Client 0100", 100L, page));
+        queries.put("ClientRepository.findActivePageBefore",
+                () -> clientRepository.findActivePageBefore(null, "Client 0100", 100L, page));
+        queries.put("ClientRepository.findActiveValuePageAfter",
+                () -> clientRepository.findActiveValuePageAfter(null, new BigDecimal("50.00"), 100L, page));
+        queries.put("ClientRepository.findActiveValuePageBefore",
+                () -> clientRepository.findActiveValuePageBefore(null, new BigDecimal("50.00"), 100L, page));
+        queries.put("ProductRepository.findAllByOrderByNameAsc", () -> productRepository.findAllByOrderByNameAsc());
+        queries.put("ProductRepository.findAllWithPriceForYear", () -> productRepository.findAllWithPriceForYear(2024));
+        queries.put("ProductRepository.findByTypeAndUnit", () -> productRepository.findByTypeAndUnit(HoneyType.FORET, "1kg"));
+        queries.put("PriceRepository.findByProductIdAndYear", () -> priceRepository.findByProductIdAndYear(productId, 2024));
+        queries.put("PriceRepository.findByYear", () -> priceRepository.findByYear(2024));
+        queries.put("PriceRepository.findByYearAndProductIdIn",
+                () -> priceRepository.findByYearAndProductIdIn(2024, List.of(productId)));
+        queries.put("AchatRepository.findByDateAchatBetween", () -> achatRepository.findByDateAchatBetween(start, end));
+        queries.put("AchatRepository.findByCategorie", () -> achatRepository.findByCategorie(CategorieAchat.CIRE));
+        queries.put("AchatRepository.findAllByOrderByDateAchatDesc", () -> achatRepository.findAllByOrderByDateAchatDesc());
+        queries.put("AchatRepository.findPageAfter",
+                () -> achatRepository.findPageAfter(start, end, null, end, 100L, page));
+        queries.put("AchatRepository.findPageBefore",
+                () -> achatRepository.findPageBefore(start, end, null, start, 1L, page));
+        queries.put("AchatRepository.sumMontant", () -> achatRepository.sumMontant(start, end, null));
+        queries.put("AchatRepository.sumMontantByCategorie", () -> achatRepository.sumMontantByCategorie(start, end));
+        queries.put("HistoriqueEtiquettesRepository.findTop20ByOrderByDateGenerationDesc",
+                () -> historiqueRepository.findTop20ByOrderByDateGenerationDesc());
+        queries.put("SalesRollupRepository.findByYearAndMonthAndProductId",
+                () -> salesRollupRepository.findByYearAndMonthAndProductId(2024, 6, productId));
+        queries.put("SalesRollupRepository.sumByProduct", () -> salesRollupRepository.sumByProduct(202401, 202412));
+        queries.put("AchatRollupRepository.findByYearAndMonthAndCategorie",
+                () -> achatRollupRepository.findByYearAndMonthAndCategorie(2024, 6, CategorieAchat.CIRE));
+        queries.put("AchatRollupRepository.sumByCategorie", () -> achatRollupRepository.sumByCategorie(202401, 202412));
+
+        // When
+        List<String> regressions = new ArrayList<>();
+        queries.forEach((name, query) -> {
+            SqlRecorder.clear();
+            query.run();
+            List<String> selects = SqlRecorder.selects();
+            assertThat(selects).as("SQL capture de %s", name).isNotEmpty();
+            for (String sql : selects) {
+                List<String> plan = explain(sql);
+                if (plan.stream().anyMatch(step -> FULL_TABLE_SCAN.matcher(step).matches())) {
+                    regressions.add(name + "\n  " + sql + "\n  " + String.join("\n  ", plan));
+                }
+            }
+        });
+
+        // Then
+        assertThat(regressions).as("Requetes en parcours complet de table").isEmpty();
+    }
+
+    private List<String> explain(String sql) {
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement("EXPLAIN QUERY PLAN " + sql);
+            // The plan does not depend on the values, only on which parameters exist
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= parameters; i++) {
+                statement.setObject(i, null);
+            }
+            return statement;
+        }, (rs, rowNum) -> rs.getString("detail"));
+    }
+
+    private void seed() {
+        List<Client> clients = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            clients.add(Client.builder()
+                    .name(String.format("Client %04d", i))
+                    .phone(String.format("06 00 00 %02d %02d", i / 100, i % 100))
+                    .deletedAt(i % 20 == 0 ? LocalDateTime.now() : null)
+                    .build());
+        }
+        clients = clientRepository.saveAll(clients);
+        List<Product> products = productRepository.findAllByOrderByNameAsc();
+
+        List<Order> orders = new ArrayList<>();
+        OrderStatus[] statuses = OrderStatus.values();
+        for (int i = 0; i < 1000; i++) {
+            Order order = Order.builder()
+                    .client(clients.get(i % clients.size()))
+                    .orderDate(LocalDate.of(2023, 1, 1).plusDays(i % 730))
+                    .status(statuses[i % statuses.length])
+                    .build();
+            for (int l = 0; l < 2; l++) {
+                order.addLigne(OrderLine.builder()
+                        .product(products.get((i + l) % products.size()))
+                        .quantity(1 + l)
+                        .unitPrice(new BigDecimal("8.50"))
+                        .build());
+            }
+            orders.add(order);
+        }
+        orderRepository.saveAll(orders);
+
+        List<Achat> achats = new ArrayList<>();
+        CategorieAchat[] categories = CategorieAchat.values();
+        for (int i = 0; i < 300; i++) {
+            achats.add(Achat.builder()
+                    .dateAchat(LocalDate.of(2023, 1, 1).plusDays(i * 2L))
+                    .designation("Achat " + i)
+                    .montant(new BigDecimal("12.00"))
+                    .categorie(categories[i % categories.length])
+                    .build());
+        }
+        achatRepository.saveAll(achats);
+
+        List<HistoriqueEtiquettes> historique = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            historique.add(HistoriqueEtiquettes.builder()
+                    .typeMiel(HoneyType.FORET.name())
+                    .formatPot("POT_500G")
+                    .dateRecolte(LocalDate.of(2024, 6, 1))
+                    .dluo(LocalDate.of(2026, 6, 1))
+                    .quantite(21)
+                    .dateGeneration(LocalDateTime.of(2024, 6, 1, 8, 0).plusHours(i))
+                    .build());
+        }
+        historiqueRepository.saveAll(historique);
+    }
+
+    private static Path createTempDatabase() {
+        try {
+            Path directory = Files.createTempDirectory("honeyai-query-plan");
+            directory.toFile().deleteOnExit();
+            return directory.resolve("honeyai.db");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Records the SQL Hibernate sends, unchanged. Instantiated by Hibernate from the
+     * {@code hibernate.session_factory.statement_inspector} property.
+     */
+    public static class SqlRecorder implements StatementInspector {
+
+        private static final List<String> STATEMENTS = new ArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            synchronized (STATEMENTS) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+
+        static void clear() {
+            synchronized (STATEMENTS) {
+                STATEMENTS.clear();
+            }
+        }
+
+        static List<String> selects() {
+            synchronized (STATEMENTS) {
+                return STATEMENTS.stream()
+                        .filter(sql -> sql.stripLeading().regionMatches(true, 0, "select", 0, 6))
+                        .toList();
+            }
+        }
+    }
+}
@@ -27,6 +27,9 @@ class AchatServiceTest {
     @Mock
     private AchatRepository achatRepository;
 
+    @Mock
+    private RollupService rollupService;
+
     @InjectMocks
     private AchatService achatService;
 
@@ -1,17 +1,34 @@
 package com.honeyai.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import org.sqlite.SQLiteDataSource;
+
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import com.honeyai.dto.BackupFileDto;
+import com.honeyai.dto.BackupResult;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -22,7 +39,9 @@ class BackupServiceTest {
 
     private Path databasePath;
     private Path backupDirectory;
+    private SQLiteDataSource dataSource;
     private BackupService backupService;
+    private SimpleMeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() throws IOException {
@@ -30,34 +49,247 @@ class BackupServiceTest {
         backupDirectory = tempDir.resolve("backups");
 
         Files.createDirectories(databasePath.getParent());
-        Files.writeString(databasePath, "SQLite test data");
-
+        dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + databasePath);
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE client (id INTEGER PRIMARY KEY, name TEXT)");
+            statement.executeUpdate("INSERT INTO client (name) VALUES ('Dupont'), ('Martin')");
+        } catch (SQLException e) {
+            throw new IOException(e);
+        }
+
+        meterRegistry = new SimpleMeterRegistry();
         backupService = new BackupService(
+                dataSource,
                 databasePath.toString(),
-                backupDirectory.toString());
+                backupDirectory.toString(),
+                1,
+                meterRegistry);
     }
 
     @Test
-    void performBackup_shouldCreateBackupFile() {
+    void performBackup_shouldCreateSnapshotManifest() {
         // When
-        Path result = backupService.performBackup();
+        BackupResult result = backupService.performBackup();
 
         // Then
         assertThat(result).isNotNull();
-        assertThat(Files.exists(result)).isTrue();
-        assertThat(result.getFileName().toString()).startsWith("honeyai-backup-");
-        assertThat(result.getFileName().toString()).endsWith(".db");
+        assertThat(Files.exists(result.getPath())).isTrue();
+        assertThat(result.getPath().getFileName().toString()).endsWith(".manifest");
+        assertThat(result.getFilename()).startsWith("honeyai-backup-");
+        assertThat(result.getFilename()).endsWith(".db");
+    }
+
+    @Test
+    void performBackup_shouldRecordDurationBytesAndPages() throws IOException {
+        // When
+        BackupResult result = backupService.performBackup();
+
+        // Then
+        assertThat(meterRegistry.get("honeyai.backup").tag("outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("honeyai.backup.bytes").summary().totalAmount())
+                .isEqualTo(Files.size(databasePath));
+        assertThat(meterRegistry.get("honeyai.backup.pages").summary().totalAmount())
+                .isEqualTo(result.getPagesCopied());
     }
 
     @Test
-    void performBackup_shouldCopyDatabaseContent() throws IOException {
+    void performBackup_shouldCopyDatabaseContent() throws SQLException, IOException {
         // When
-        Path result = backupService.performBackup();
+        BackupResult result = backupService.performBackup();
 
         // Then
         assertThat(result).isNotNull();
-        String content = Files.readString(result);
-        assertThat(content).isEqualTo("SQLite test data");
+        assertThat(countClients(restore(result.getFilename()))).isEqualTo(2);
+    }
+
+    @Test
+    void performBackup_shouldStoreUnchangedChunksOnce() throws SQLException {
+        // Given - a database spanning several chunks
+        insertPayload(40);
+        BackupResult first = backupService.performBackup();
+
+        // When - one small change, then a backup
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO client (name) VALUES ('Durand')");
+        }
+        BackupResult second = backupService.performBackup();
+
+        // Then
+        int totalChunks = first.getChunksWritten() + first.getChunksReused();
+        assertThat(totalChunks).isGreaterThan(3);
+        assertThat(first.getChunksReused()).isLessThan(totalChunks);
+        assertThat(second.getChunksWritten()).isBetween(1, totalChunks - 2);
+        assertThat(second.getChunksReused()).isGreaterThan(0);
+    }
+
+    @Test
+    void writeBackup_shouldRebuildEachSnapshotAsItWas() throws SQLException, IOException {
+        // Given
+        insertPayload(40);
+        BackupResult first = backupService.performBackup();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO client (name) VALUES ('Durand')");
+        }
+        Files.setLastModifiedTime(first.getPath(), FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS)));
+        BackupResult second = backupService.performBackup();
+
+        // When
+        Path firstRestored = restore(first.getFilename());
+        Path secondRestored = restore(second.getFilename());
+
+        // Then
+        assertThat(countClients(firstRestored)).isEqualTo(42);
+        assertThat(countClients(secondRestored)).isEqualTo(43);
+        assertThat(Files.size(secondRestored)).isEqualTo(backupService.getBackupFile(second.getFilename()).getSizeBytes());
+    }
+
+    @Test
+    void cleanupOldBackups_shouldDeleteExpiredSnapshotsAndUnreferencedChunks() throws SQLException, IOException {
+        // Given - an expired snapshot whose chunks are partly superseded
+        insertPayload(40);
+        BackupResult old = backupService.performBackup();
+        Files.setLastModifiedTime(old.getPath(), FileTime.from(Instant.now().minus(31, ChronoUnit.DAYS)));
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM client WHERE name LIKE 'payload%'");
+            statement.executeUpdate("VACUUM");
+        }
+        Path chunks = backupDirectory.resolve("store/chunks");
+        BackupResult recent = backupService.performBackup();
+
+        // When
+        backupService.cleanupOldBackups();
+
+        // Then
+        assertThat(Files.exists(old.getPath())).isFalse();
+        assertThat(backupService.getBackupFile(old.getFilename())).isNull();
+        assertThat(countChunkFiles(chunks)).isEqualTo(recent.getChunksWritten() + recent.getChunksReused());
+        assertThat(countClients(restore(recent.getFilename()))).isEqualTo(2);
+    }
+
+    @Test
+    void cleanupOldBackups_shouldKeepAllChunks_whenAManifestIsUnreadable() throws SQLException, IOException {
+        // Given - a snapshot whose manifest cannot be read, and an expired snapshot to clean up
+        insertPayload(40);
+        BackupResult unreadable = backupService.performBackup();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM client WHERE name LIKE 'payload%'");
+            statement.executeUpdate("VACUUM");
+        }
+        BackupResult expired = backupService.performBackup();
+        Files.setLastModifiedTime(expired.getPath(), FileTime.from(Instant.now().minus(31, ChronoUnit.DAYS)));
+        Path chunks = backupDirectory.resolve("store/chunks");
+        long chunksBefore = countChunkFiles(chunks);
+        byte[] manifest = Files.readAllBytes(unreadable.getPath());
+        Files.writeString(unreadable.getPath(), "not a manifest");
+
+        // When
+        backupService.cleanupOldBackups();
+
+        // Then - the expired snapshot is gone, but no chunk was collected
+        assertThat(Files.exists(expired.getPath())).isFalse();
+        assertThat(countChunkFiles(chunks)).isEqualTo(chunksBefore);
+        Files.write(unreadable.getPath(), manifest);
+        assertThat(countClients(restore(unreadable.getFilename()))).isEqualTo(42);
+    }
+
+    @Test
+    void cleanupOldBackups_shouldKeepExpiredSnapshot_whileItIsDownloaded() throws Exception {
+        // Given - an expired snapshot whose download is paused after its first chunk
+        insertPayload(40);
+        BackupResult old = backupService.performBackup();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("DELETE FROM client WHERE name LIKE 'payload%'");
+            statement.executeUpdate("VACUUM");
+        }
+        backupService.performBackup();
+        Files.setLastModifiedTime(old.getPath(), FileTime.from(Instant.now().minus(31, ChronoUnit.DAYS)));
+
+        Path restored = tempDir.resolve("restored-during-cleanup.db");
+        CountDownLatch firstChunk = new CountDownLatch(1);
+        CountDownLatch resume = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<?> download = pool.submit(() -> {
+            try (OutputStream out = new FilterOutputStream(Files.newOutputStream(restored)) {
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    out.write(b, off, len);
+                    firstChunk.countDown();
+                    try {
+                        resume.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }) {
+                backupService.writeBackup(old.getFilename(), out);
+            }
+            return null;
+        });
+        assertThat(firstChunk.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // When
+        backupService.cleanupOldBackups();
+        resume.countDown();
+        download.get(10, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        // Then - the download completed from intact chunks, the next cleanup deletes the snapshot
+        assertThat(countClients(restored)).isEqualTo(42);
+        assertThat(Files.exists(old.getPath())).isTrue();
+        backupService.cleanupOldBackups();
+        assertThat(Files.exists(old.getPath())).isFalse();
+    }
+
+    @Test
+    void performBackup_shouldReportPagesCopiedAndElapsedTime() throws SQLException {
+        // Given
+        int pageCount;
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("PRAGMA page_count")) {
+            pageCount = rs.getInt(1);
+        }
+
+        // When - one page per step
+        BackupResult result = backupService.performBackup();
+
+        // Then
+        assertThat(result.getPagesCopied()).isEqualTo(pageCount).isGreaterThan(1);
+        assertThat(result.getElapsedMs()).isGreaterThanOrEqualTo(0);
+    }
+
+    @Test
+    void performBackup_shouldCaptureWritesCommittedBeforeBackup_whileConnectionIsOpen() throws SQLException, IOException {
+        // Given - another connection stays open on the live database
+        try (Connection writer = dataSource.getConnection();
+             Statement statement = writer.createStatement()) {
+            statement.executeUpdate("INSERT INTO client (name) VALUES ('Durand')");
+
+            // When
+            BackupResult result = backupService.performBackup();
+
+            // Then
+            assertThat(countClients(restore(result.getFilename()))).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void exportDatabase_shouldWriteConsistentCopyToTemporaryFile() throws SQLException, IOException {
+        // When
+        BackupResult result = backupService.exportDatabase();
+
+        // Then
+        assertThat(result).isNotNull();
+        assertThat(result.getPath()).isNotEqualTo(databasePath);
+        assertThat(countClients(result.getPath())).isEqualTo(2);
+        Files.delete(result.getPath());
     }
 
     @Test
@@ -79,7 +311,7 @@ class BackupServiceTest {
         Files.delete(databasePath);
 
         // When
-        Path result = backupService.performBackup();
+        BackupResult result = backupService.performBackup();
 
         // Then
         assertThat(result).isNull();
@@ -88,11 +320,11 @@ class BackupServiceTest {
     @Test
     void performBackup_shouldGenerateTimestampedFilename() {
         // When
-        Path result = backupService.performBackup();
+        BackupResult result = backupService.performBackup();
 
         // Then
         assertThat(result).isNotNull();
-        String name = result.getFileName().toString();
+        String name = result.getFilename();
         // Format: honeyai-backup-YYYY-MM-DD-HHmmss.db
         assertThat(name).matches("honeyai-backup-\\d{4}-\\d{2}-\\d{2}-\\d{6}\\.db");
     }
@@ -100,8 +332,8 @@ class BackupServiceTest {
     @Test
     void performBackup_shouldCreateMultipleBackups() {
         // When
-        Path first = backupService.performBackup();
-        Path second = backupService.performBackup();
+        Path first = backupService.performBackup().getPath();
+        Path second = backupService.performBackup().getPath();
 
         // Then
         assertThat(first).isNotNull();
@@ -222,24 +454,39 @@ class BackupServiceTest {
     // --- getBackupFile tests ---
 
     @Test
-    void getBackupFile_shouldReturnPath_whenValidFilename() throws IOException {
+    void getBackupFile_shouldReturnLegacyCopy_whenValidFilename() throws IOException {
         // Given
         Files.createDirectories(backupDirectory);
         String filename = "honeyai-backup-2026-01-10-020000.db";
         Files.writeString(backupDirectory.resolve(filename), "backup data");
 
         // When
-        Path result = backupService.getBackupFile(filename);
+        BackupFileDto result = backupService.getBackupFile(filename);
 
         // Then
         assertThat(result).isNotNull();
-        assertThat(result.getFileName().toString()).isEqualTo(filename);
+        assertThat(result.getFilename()).isEqualTo(filename);
+        assertThat(result.getSizeBytes()).isEqualTo(11);
+    }
+
+    @Test
+    void getBackupFile_shouldReturnSnapshot_whenValidFilename() {
+        // Given
+        BackupResult backup = backupService.performBackup();
+
+        // When
+        BackupFileDto result = backupService.getBackupFile(backup.getFilename());
+
+        // Then
+        assertThat(result).isNotNull();
+        assertThat(result.getFilename()).isEqualTo(backup.getFilename());
+        assertThat(result.getSizeBytes()).isGreaterThan(0);
     }
 
     @Test
     void getBackupFile_shouldReturnNull_whenPathTraversal() {
         // When
-        Path result = backupService.getBackupFile("../etc/passwd");
+        BackupFileDto result = backupService.getBackupFile("../etc/passwd");
 
         // Then
         assertThat(result).isNull();
@@ -295,4 +542,35 @@ class BackupServiceTest {
         // Then - old backup should be cleaned up
         assertThat(Files.exists(oldBackup)).isFalse();
     }
+
+    private void insertPayload(int rows) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            for (int i = 0; i < rows; i++) {
+                statement.executeUpdate("INSERT INTO client (name) VALUES ('payload" + i + "' || hex(randomblob(4000)))");
+            }
+        }
+    }
+
+    private Path restore(String filename) throws IOException {
+        Path restored = Files.createTempFile(tempDir, "restored-", ".db");
+        try (OutputStream out = Files.newOutputStream(restored)) {
+            backupService.writeBackup(filename, out);
+        }
+        return restored;
+    }
+
+    private long countChunkFiles(Path chunks) throws IOException {
+        try (Stream<Path> files = Files.walk(chunks)) {
+            return files.filter(Files::isRegularFile).count();
+        }
+    }
+
+    private int countClients(Path database) throws SQLException {
+        try (Connection connection = DriverManager.getConnection("jdbc:sqlite:" + database);
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM client")) {
+            return rs.getInt(1);
+        }
+    }
 }
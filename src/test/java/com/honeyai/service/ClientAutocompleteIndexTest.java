@@ -0,0 +1,147 @@
+package com.honeyai.service;
+
+import com.honeyai.dto.ClientRow;
+import com.honeyai.dto.ClientSuggestion;
+import com.honeyai.model.Client;
+import com.honeyai.repository.ClientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClientAutocompleteIndexTest {
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @InjectMocks
+    private ClientAutocompleteIndex index;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(clientRepository.findActiveRows()).thenReturn(List.of(
+                row(1L, "Dupont Jean", "06 12 34 56 78"),
+                row(2L, "Hélène Martin", "07.00.00.00.01"),
+                row(3L, "Martine Durand", null)));
+    }
+
+    @Test
+    void suggest_shouldMatchPrefixIgnoringCaseAndAccents() {
+        // When/Then
+        assertThat(names(index.suggest("hel", null))).containsExactly("Hélène Martin");
+        assertThat(names(index.suggest("HÉ", null))).containsExactly("Hélène Martin");
+        assertThat(names(index.suggest("d", null))).containsExactly("Dupont Jean", "Martine Durand");
+    }
+
+    @Test
+    void suggest_shouldRankNameStartThenWordStartThenSubstring() {
+        // When
+        List<ClientSuggestion> matches = index.suggest("mar", null);
+
+        // Then
+        assertThat(names(matches)).containsExactly("Martine Durand", "Hélène Martin");
+        assertThat(names(index.suggest("tin", null))).containsExactly("Hélène Martin", "Martine Durand");
+    }
+
+    @Test
+    void suggest_shouldMatchEveryTerm() {
+        // When/Then
+        assertThat(names(index.suggest("jean dup", null))).containsExactly("Dupont Jean");
+        assertThat(index.suggest("jean martin", null)).isEmpty();
+    }
+
+    @Test
+    void suggest_shouldMatchPhoneWhateverTheFormat() {
+        // When/Then
+        assertThat(names(index.suggest("06 12", null))).containsExactly("Dupont Jean");
+        assertThat(names(index.suggest("3456", null))).containsExactly("Dupont Jean");
+        assertThat(names(index.suggest("+33 7 00", null))).containsExactly("Hélène Martin");
+    }
+
+    @Test
+    void suggest_shouldKeepBestMatchesUpToLimit() {
+        // Given
+        List<ClientRow> rows = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            rows.add(row((long) i + 1, String.format("Client %03d", 199 - i), null));
+        }
+        when(clientRepository.findActiveRows()).thenReturn(rows);
+
+        // When
+        List<ClientSuggestion> matches = index.suggest("client", 3);
+
+        // Then
+        assertThat(names(matches)).containsExactly("Client 000", "Client 001", "Client 002");
+        assertThat(index.suggest("client", 1000)).hasSize(ClientAutocompleteIndex.MAX_LIMIT);
+        assertThat(index.suggest("client", null)).hasSize(ClientAutocompleteIndex.DEFAULT_LIMIT);
+    }
+
+    @Test
+    void suggest_shouldBuildIndexOnceOnFirstUse() {
+        // When
+        index.suggest("dup", null);
+        index.suggest("mar", null);
+
+        // Then
+        verify(clientRepository, times(1)).findActiveRows();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    void suggest_shouldReturnEmptyForBlankQueryWithoutBuilding() {
+        // When/Then
+        assertThat(index.suggest("  ", null)).isEmpty();
+        assertThat(index.suggest(null, null)).isEmpty();
+        verifyNoInteractions(clientRepository);
+    }
+
+    @Test
+    void index_shouldAddRenameAndRemoveClients() {
+        // Given
+        index.rebuild();
+        Client client = Client.builder().id(4L).name("Lefebvre Paul").phone("0611223344").build();
+
+        // When - added
+        index.index(client);
+
+        // Then
+        assertThat(names(index.suggest("lef", null))).containsExactly("Lefebvre Paul");
+
+        // When - renamed
+        client.setName("Leroy Paul");
+        index.index(client);
+
+        // Then
+        assertThat(index.suggest("lef", null)).isEmpty();
+        assertThat(names(index.suggest("ler", null))).containsExactly("Leroy Paul");
+
+        // When - soft-deleted
+        client.setDeletedAt(LocalDateTime.now());
+        index.index(client);
+        index.remove(1L);
+
+        // Then
+        assertThat(index.suggest("ler", null)).isEmpty();
+        assertThat(index.suggest("dupont", null)).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    private static List<String> names(List<ClientSuggestion> suggestions) {
+        return suggestions.stream().map(ClientSuggestion::name).toList();
+    }
+
+    private static ClientRow row(Long id, String name, String phone) {
+        return new ClientRow(id, name, phone, null, null, null, null, null, 0L, BigDecimal.ZERO);
+    }
+}
@@ -0,0 +1,206 @@
+package com.honeyai.service;
+
+import com.honeyai.model.Client;
+import com.honeyai.repository.ClientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.sqlite.SQLiteDataSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClientSearchIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    private JdbcTemplate jdbcTemplate;
+    private ClientSearchIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        SQLiteDataSource dataSource = new SQLiteDataSource();
+        dataSource.setUrl("jdbc:sqlite:" + tempDir.resolve("honeyai.db"));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(Files.readString(Path.of("src/main/resources/db/migration/V3__client_search_index.sql")));
+        index = new ClientSearchIndex(jdbcTemplate, clientRepository);
+    }
+
+    @Test
+    void search_shouldIgnoreCaseAndAccents() {
+        // Given
+        index.index(client(1L, "Dupont Jean", "06 12 34 56 78"));
+        index.index(client(2L, "Hélène Martin", "07 00 00 00 00"));
+
+        // When/Then
+        assertThat(index.search("dupont", 10)).contains(List.of(1L));
+        assertThat(index.search("HELENE", 10)).contains(List.of(2L));
+        assertThat(index.search("hél", 10)).contains(List.of(2L));
+    }
+
+    @Test
+    void search_shouldMatchPhoneWhateverTheFormat() {
+        // Given
+        index.index(client(1L, "Dupont Jean", "06.12.34.56.78"));
+        index.index(client(2L, "Martin Marie", "+33 7 98 76 54 32"));
+
+        // When/Then
+        assertThat(index.search("06 12 34", 10)).contains(List.of(1L));
+        assertThat(index.search("0612", 10)).contains(List.of(1L));
+        assertThat(index.search("0798", 10)).contains(List.of(2L));
+    }
+
+    @Test
+    void search_shouldRequireEveryTerm_andRankNameMatchesFirst() {
+        // Given - "martin" is in the address of client 1 and the name of client 2
+        Client byAddress = client(1L, "Dupont Jean", null);
+        byAddress.setAddress("12 rue Saint-Martin, Toulouse");
+        index.index(byAddress);
+        index.index(client(2L, "Martin Marie", null));
+        index.index(client(3L, "Martin Paul", null));
+
+        // When/Then
+        assertThat(index.search("martin", 10).orElseThrow()).hasSize(3).endsWith(1L);
+        assertThat(index.search("martin marie", 10)).contains(List.of(2L));
+    }
+
+    @Test
+    void index_shouldReplacePreviousEntry_andDropDeletedClients() {
+        // Given
+        Client client = client(1L, "Dupont Jean", null);
+        index.index(client);
+
+        // When - renamed, then soft-deleted
+        client.setName("Durand Jean");
+        index.index(client);
+        assertThat(index.search("dupont", 10)).contains(List.of());
+        assertThat(index.search("durand", 10)).contains(List.of(1L));
+
+        client.setDeletedAt(LocalDateTime.now());
+        index.index(client);
+
+        // Then
+        assertThat(index.search("durand", 10)).contains(List.of());
+        assertThat(index.indexedCount()).isZero();
+    }
+
+    @Test
+    void remove_shouldDeleteEntry() {
+        // Given
+        index.index(client(1L, "Dupont Jean", null));
+
+        // When
+        index.remove(1L);
+
+        // Then
+        assertThat(index.search("dupont", 10)).contains(List.of());
+    }
+
+    @Test
+    void search_shouldPageRankedMatches() {
+        // Given
+        for (long id = 1; id <= 5; id++) {
+            index.index(client(id, "Dupont " + id, null));
+        }
+
+        // When
+        List<Long> all = index.search("dupont", 10).orElseThrow();
+
+        // Then
+        assertThat(all).hasSize(5);
+        assertThat(index.search("dupont", 0, 2)).contains(all.subList(0, 2));
+        assertThat(index.search("dupont", 2, 2)).contains(all.subList(2, 4));
+        assertThat(index.search("dupont", 4, 2)).contains(all.subList(4, 5));
+    }
+
+    @Test
+    void searchByValue_shouldOrderActiveMatchesByPaidTotal() {
+        // Given
+        jdbcTemplate.execute("CREATE TABLE clients (id INTEGER PRIMARY KEY, deleted_at TIMESTAMP, "
+                + "paid_total DECIMAL(12,2) NOT NULL DEFAULT 0)");
+        jdbcTemplate.update("INSERT INTO clients (id, paid_total) VALUES (1, 10), (2, 250), (3, 40), (4, 0)");
+        jdbcTemplate.update("INSERT INTO clients (id, paid_total, deleted_at) VALUES (5, 999, CURRENT_TIMESTAMP)");
+        for (long id = 1; id <= 5; id++) {
+            index.index(client(id, "Martin " + id, null));
+        }
+        index.index(client(6L, "Durand", null));
+
+        // When/Then
+        assertThat(index.searchByValue("martin", 0, 10)).contains(List.of(2L, 3L, 1L, 4L));
+        assertThat(index.searchByValue("martin", 1, 2)).contains(List.of(3L, 1L));
+    }
+
+    @Test
+    void search_shouldReturnEmpty_whenTermsTooShortForTrigrams() {
+        // When/Then - caller falls back to the LIKE search
+        assertThat(index.search("du", 10)).isEmpty();
+        assertThat(index.search("06", 10)).isEmpty();
+        assertThat(index.search("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void search_shouldTreatQuotesAndOperatorsAsText() {
+        // Given
+        index.index(client(1L, "O\"Neil NOT Smith", null));
+
+        // When/Then - no FTS syntax error
+        assertThat(index.search("\"neil", 10)).contains(List.of(1L));
+        assertThat(index.search("NOT smith", 10)).contains(List.of(1L));
+    }
+
+    @Test
+    void isAvailable_shouldBeFalse_whenTableMissing() {
+        // Given
+        jdbcTemplate.execute("DROP TABLE client_search");
+        ClientSearchIndex missing = new ClientSearchIndex(jdbcTemplate, clientRepository);
+
+        // When/Then
+        assertThat(missing.isAvailable()).isFalse();
+        assertThat(missing.search("dupont", 10)).isEmpty();
+        missing.index(client(1L, "Dupont Jean", null));
+    }
+
+    @Test
+    void rebuild_shouldIndexActiveClients_onLargeCustomerBase() {
+        // Given
+        List<Client> clients = new ArrayList<>();
+        for (long i = 1; i <= 30_000; i++) {
+            clients.add(client(i, "Client " + i + " Apiculteur", String.format("06 %02d %02d %02d %02d",
+                    i % 100, (i / 100) % 100, (i / 10_000) % 100, 42)));
+        }
+        clients.add(client(30_001L, "Séverine Lacroix", "04 71 03 12 43"));
+        when(clientRepository.findByDeletedAtIsNullOrderByNameAsc()).thenReturn(clients);
+
+        // When
+        int indexed = index.rebuild();
+        Optional<List<Long>> byName = index.search("severine", 50);
+        Optional<List<Long>> byPhone = index.search("04 71 03", 50);
+
+        // Then
+        assertThat(indexed).isEqualTo(30_001);
+        assertThat(index.indexedCount()).isEqualTo(30_001);
+        assertThat(byName).contains(List.of(30_001L));
+        assertThat(byPhone).contains(List.of(30_001L));
+    }
+
+    private static Client client(Long id, String name, String phone) {
+        return Client.builder().id(id).name(name).phone(phone).build();
+    }
+}
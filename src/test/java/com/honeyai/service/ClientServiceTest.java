@@ -1,5 +1,8 @@
 package com.honeyai.service;
 
+import com.honeyai.dto.ClientRow;
+import com.honeyai.dto.KeysetPage;
+import com.honeyai.enums.ClientSort;
 import com.honeyai.exception.ClientNotFoundException;
 import com.honeyai.model.Client;
 import com.honeyai.repository.ClientRepository;
@@ -11,6 +14,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
@@ -20,6 +24,8 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,6 +34,12 @@ class ClientServiceTest {
     @Mock
     private ClientRepository clientRepository;
 
+    @Mock
+    private ClientSearchIndex clientSearchIndex;
+
+    @Mock
+    private ClientAutocompleteIndex clientAutocompleteIndex;
+
     @InjectMocks
     private ClientService clientService;
 
@@ -137,6 +149,8 @@ class ClientServiceTest {
         // Then
         assertThat(result.getUpdatedAt()).isNotNull();
         verify(clientRepository).save(newClient);
+        verify(clientSearchIndex).index(result);
+        verify(clientAutocompleteIndex).index(result);
     }
 
     @Test
@@ -170,6 +184,8 @@ class ClientServiceTest {
         // Verify delete() was never called
         verify(clientRepository, never()).delete(any(Client.class));
         verify(clientRepository, never()).deleteById(anyLong());
+        verify(clientSearchIndex).remove(1L);
+        verify(clientAutocompleteIndex).remove(1L);
     }
 
     @Test
@@ -252,4 +268,112 @@ class ClientServiceTest {
         // Then
         verify(clientRepository).searchClients("Jean");
     }
+
+    @Test
+    void searchClients_shouldReturnIndexMatchesInRankOrder_whenIndexAnswers() {
+        // Given
+        Client second = Client.builder().id(2L).name("Marie Dupont").build();
+        Client deleted = Client.builder().id(3L).name("Paul Dupont").deletedAt(LocalDateTime.now()).build();
+        when(clientSearchIndex.search("dupont", 200)).thenReturn(Optional.of(List.of(2L, 3L, 1L)));
+        when(clientRepository.findAllById(List.of(2L, 3L, 1L))).thenReturn(Arrays.asList(activeClient, deleted, second));
+
+        // When
+        List<Client> result = clientService.searchClients("dupont");
+
+        // Then
+        assertThat(result).extracting(Client::getId).containsExactly(2L, 1L);
+        verify(clientRepository, never()).searchClients(any());
+    }
+
+    @Test
+    void findPage_shouldReturnRankedSinglePage_whenIndexAnswers() {
+        // Given
+        when(clientSearchIndex.search("jean", 0, 51)).thenReturn(Optional.of(List.of(1L)));
+        ClientRow row = new ClientRow(1L, "Jean Dupont", "0612345678", "jean@example.com", null, null, null, null,
+                0L, BigDecimal.ZERO);
+        when(clientRepository.findActiveRowsById(List.of(1L))).thenReturn(List.of(row));
+
+        // When
+        KeysetPage<ClientRow> page = clientService.findPage("jean", null, null, null);
+
+        // Then
+        assertThat(page.getContent()).containsExactly(row);
+        assertThat(page.hasNext()).isFalse();
+        assertThat(page.hasPrevious()).isFalse();
+        verify(clientRepository, never()).findActivePageAfter(any(), any(), any(), any());
+    }
+
+    @Test
+    void findPage_shouldPageRankedMatchesForwardAndBack_whenIndexAnswers() {
+        // Given - 5 matches ranked 5, 4, 3, 2, 1, two per page
+        ClientRow[] rows = new ClientRow[6];
+        for (int i = 1; i <= 5; i++) {
+            rows[i] = new ClientRow((long) i, "Dupont " + i, null, null, null, null, null, null, 0L, BigDecimal.ZERO);
+        }
+        when(clientSearchIndex.search("dupont", 0, 3)).thenReturn(Optional.of(List.of(5L, 4L, 3L)));
+        when(clientSearchIndex.search("dupont", 2, 3)).thenReturn(Optional.of(List.of(3L, 2L, 1L)));
+        when(clientSearchIndex.search("dupont", 4, 3)).thenReturn(Optional.of(List.of(1L)));
+        when(clientSearchIndex.search("dupont", 0, 2)).thenReturn(Optional.of(List.of(5L, 4L)));
+        when(clientRepository.findActiveRowsById(List.of(5L, 4L))).thenReturn(List.of(rows[4], rows[5]));
+        when(clientRepository.findActiveRowsById(List.of(3L, 2L))).thenReturn(List.of(rows[2], rows[3]));
+        when(clientRepository.findActiveRowsById(List.of(1L))).thenReturn(List.of(rows[1]));
+
+        // When
+        KeysetPage<ClientRow> first = clientService.findPage("dupont", null, null, 2);
+        KeysetPage<ClientRow> second = clientService.findPage("dupont", first.getNextCursor(), null, 2);
+        KeysetPage<ClientRow> last = clientService.findPage("dupont", second.getNextCursor(), null, 2);
+        KeysetPage<ClientRow> back = clientService.findPage("dupont", null, second.getPrevCursor(), 2);
+
+        // Then
+        assertThat(first.getContent()).extracting(ClientRow::id).containsExactly(5L, 4L);
+        assertThat(first.hasPrevious()).isFalse();
+        assertThat(second.getContent()).extracting(ClientRow::id).containsExactly(3L, 2L);
+        assertThat(second.hasPrevious()).isTrue();
+        assertThat(last.getContent()).extracting(ClientRow::id).containsExactly(1L);
+        assertThat(last.hasNext()).isFalse();
+        assertThat(back.getContent()).extracting(ClientRow::id).containsExactly(5L, 4L);
+        assertThat(back.hasNext()).isTrue();
+        assertThat(back.hasPrevious()).isFalse();
+        verify(clientRepository, never()).findActivePageAfter(any(), any(), any(), any());
+    }
+
+    @Test
+    void findPage_shouldSortSearchMatchesByValue_whenIndexAnswersAndSortedByValue() {
+        // Given - the index returns the matches highest value first
+        ClientRow rich = new ClientRow(7L, "Jean Riche", null, null, null, null, null, null,
+                9L, new BigDecimal("900.00"));
+        ClientRow poor = new ClientRow(3L, "Jean Modeste", null, null, null, null, null, null,
+                1L, new BigDecimal("8.00"));
+        when(clientSearchIndex.searchByValue("jean", 0, 51)).thenReturn(Optional.of(List.of(7L, 3L)));
+        when(clientRepository.findActiveRowsById(List.of(7L, 3L))).thenReturn(List.of(poor, rich));
+
+        // When
+        KeysetPage<ClientRow> page = clientService.findPage("jean", ClientSort.LIFETIME_VALUE, null, null, null);
+
+        // Then
+        assertThat(page.getContent()).containsExactly(rich, poor);
+        verify(clientSearchIndex, never()).search(any(), anyInt(), anyInt());
+        verify(clientRepository, never()).findActiveValuePageAfter(any(), any(), any(), any());
+    }
+
+    @Test
+    void findPage_shouldWalkLifetimeValueKeyset_whenSortedByValue() {
+        // Given - cursor on a client worth 33.00, one row more than the page size comes back
+        ClientRow first = new ClientRow(4L, "Marie Durand", null, null, null, null, null, null,
+                3L, new BigDecimal("33.00"));
+        ClientRow probe = new ClientRow(2L, "Paul Martin", null, null, null, null, null, null,
+                1L, new BigDecimal("8.00"));
+        String after = KeysetPaging.encode("33.00", 5L);
+        when(clientRepository.findActiveValuePageAfter(isNull(), eq(new BigDecimal("33.00")), eq(5L), any()))
+                .thenReturn(List.of(first, probe));
+
+        // When
+        KeysetPage<ClientRow> page = clientService.findPage(null, ClientSort.LIFETIME_VALUE, after, null, 1);
+
+        // Then
+        assertThat(page.getContent()).containsExactly(first);
+        assertThat(page.getNextCursor()).isEqualTo(KeysetPaging.encode("33.00", 4L));
+        assertThat(page.hasPrevious()).isTrue();
+        verify(clientRepository, never()).findActivePageAfter(any(), any(), any(), any());
+    }
 }
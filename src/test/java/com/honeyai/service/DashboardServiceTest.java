@@ -1,12 +1,15 @@
 package com.honeyai.service;
 
+import com.honeyai.dto.DashboardSnapshot;
+import com.honeyai.dto.DepenseCategorieDto;
 import com.honeyai.dto.TopProduitDto;
+import com.honeyai.enums.CategorieAchat;
 import com.honeyai.enums.HoneyType;
-import com.honeyai.model.Order;
-import com.honeyai.model.OrderLine;
-import com.honeyai.model.Product;
+import com.honeyai.enums.OrderStatus;
+import com.honeyai.repository.AchatRepository;
+import com.honeyai.repository.AchatRollupRepository;
 import com.honeyai.repository.OrderRepository;
-import org.junit.jupiter.api.BeforeEach;
+import com.honeyai.repository.SalesRollupRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -15,11 +18,13 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,7 +34,13 @@ class DashboardServiceTest {
     private OrderRepository orderRepository;
 
     @Mock
-    private AchatService achatService;
+    private AchatRepository achatRepository;
+
+    @Mock
+    private SalesRollupRepository salesRollupRepository;
+
+    @Mock
+    private AchatRollupRepository achatRollupRepository;
 
     @InjectMocks
     private DashboardService dashboardService;
@@ -37,51 +48,30 @@ class DashboardServiceTest {
     private static final LocalDate START = LocalDate.of(2025, 1, 1);
     private static final LocalDate END = LocalDate.of(2025, 12, 31);
 
-    private Product produitFleurs;
-    private Product produitForet;
-
-    @BeforeEach
-    void setUp() {
-        produitFleurs = Product.builder()
-                .id(1L)
-                .name("Miel Toutes Fleurs 500g")
-                .type(HoneyType.TOUTES_FLEURS)
-                .unit("pot")
-                .build();
-
-        produitForet = Product.builder()
-                .id(2L)
-                .name("Miel de Forêt 1kg")
-                .type(HoneyType.FORET)
-                .unit("pot")
-                .build();
+    /** Rows as returned by the grouped query: best seller first. */
+    private List<TopProduitDto> sales() {
+        return List.of(
+                new TopProduitDto("Miel Toutes Fleurs 500g", HoneyType.TOUTES_FLEURS, 8L, new BigDecimal("68.00")),
+                new TopProduitDto("Miel de Forêt 1kg", HoneyType.FORET, 2L, new BigDecimal("30.00")));
     }
 
     @Test
-    void calculateChiffreAffaires_shouldSumOnlyPaidOrders() {
-        // Given - 2 paid orders with lines
-        Order order1 = buildOrderWithLines(
-                buildLine(produitFleurs, 5, "8.50"),
-                buildLine(produitForet, 2, "15.00"));
-        Order order2 = buildOrderWithLines(
-                buildLine(produitFleurs, 3, "8.50"));
-
-        when(orderRepository.findPaidOrdersWithLinesBetween(START, END))
-                .thenReturn(List.of(order1, order2));
+    void calculateChiffreAffaires_shouldSumRollupRevenueForWholeYear() {
+        // Given
+        when(salesRollupRepository.sumByProduct(202501, 202512)).thenReturn(sales());
 
         // When
         BigDecimal ca = dashboardService.calculateChiffreAffaires(START, END);
 
-        // Then - (5*8.50) + (2*15.00) + (3*8.50) = 42.50 + 30.00 + 25.50 = 98.00
+        // Then - 68.00 + 30.00 = 98.00
         assertThat(ca).isEqualByComparingTo("98.00");
-        verify(orderRepository).findPaidOrdersWithLinesBetween(START, END);
+        verify(salesRollupRepository).sumByProduct(202501, 202512);
     }
 
     @Test
     void calculateChiffreAffaires_shouldReturnZero_whenNoPaidOrders() {
         // Given
-        when(orderRepository.findPaidOrdersWithLinesBetween(START, END))
-                .thenReturn(Collections.emptyList());
+        when(salesRollupRepository.sumByProduct(202501, 202512)).thenReturn(Collections.emptyList());
 
         // When
         BigDecimal ca = dashboardService.calculateChiffreAffaires(START, END);
@@ -91,27 +81,27 @@ class DashboardServiceTest {
     }
 
     @Test
-    void calculateTotalDepenses_shouldDelegateToAchatService() {
+    void calculateTotalDepenses_shouldSumAchatRollupForWholeYear() {
         // Given
-        when(achatService.calculateTotalDepenses(START, END)).thenReturn(new BigDecimal("150.00"));
+        when(achatRollupRepository.sumByCategorie(202501, 202512)).thenReturn(List.of(
+                new DepenseCategorieDto(CategorieAchat.CIRE, new BigDecimal("100.00")),
+                new DepenseCategorieDto(CategorieAchat.POTS, new BigDecimal("50.00"))));
 
         // When
         BigDecimal depenses = dashboardService.calculateTotalDepenses(START, END);
 
         // Then
         assertThat(depenses).isEqualByComparingTo("150.00");
-        verify(achatService).calculateTotalDepenses(START, END);
+        verify(achatRollupRepository).sumByCategorie(202501, 202512);
     }
 
     @Test
     void calculateBenefice_shouldReturnCaMinusDepenses() {
         // Given
-        Order order = buildOrderWithLines(
-                buildLine(produitFleurs, 10, "8.50")); // CA = 85.00
-        when(orderRepository.findPaidOrdersWithLinesBetween(START, END))
-                .thenReturn(List.of(order));
-        when(achatService.calculateTotalDepenses(START, END))
-                .thenReturn(new BigDecimal("30.00"));
+        when(salesRollupRepository.sumByProduct(202501, 202512)).thenReturn(List.of(
+                new TopProduitDto("Miel Toutes Fleurs 500g", HoneyType.TOUTES_FLEURS, 10L, new BigDecimal("85.00"))));
+        when(achatRollupRepository.sumByCategorie(202501, 202512)).thenReturn(List.of(
+                new DepenseCategorieDto(CategorieAchat.CIRE, new BigDecimal("30.00"))));
 
         // When
         BigDecimal benefice = dashboardService.calculateBenefice(START, END);
@@ -123,10 +113,9 @@ class DashboardServiceTest {
     @Test
     void calculateBenefice_shouldReturnNegative_whenDepensesExceedCa() {
         // Given
-        when(orderRepository.findPaidOrdersWithLinesBetween(START, END))
-                .thenReturn(Collections.emptyList());
-        when(achatService.calculateTotalDepenses(START, END))
-                .thenReturn(new BigDecimal("200.00"));
+        when(salesRollupRepository.sumByProduct(202501, 202512)).thenReturn(Collections.emptyList());
+        when(achatRollupRepository.sumByCategorie(202501, 202512)).thenReturn(List.of(
+                new DepenseCategorieDto(CategorieAchat.POTS, new BigDecimal("200.00"))));
 
         // When
         BigDecimal benefice = dashboardService.calculateBenefice(START, END);
@@ -136,16 +125,9 @@ class DashboardServiceTest {
     }
 
     @Test
-    void getTopProduits_shouldGroupByProductAndSortByQuantity() {
-        // Given - produitFleurs: 5+3=8 qty, produitForet: 2 qty
-        Order order1 = buildOrderWithLines(
-                buildLine(produitFleurs, 5, "8.50"),
-                buildLine(produitForet, 2, "15.00"));
-        Order order2 = buildOrderWithLines(
-                buildLine(produitFleurs, 3, "8.50"));
-
-        when(orderRepository.findPaidOrdersWithLinesBetween(START, END))
-                .thenReturn(List.of(order1, order2));
+    void getTopProduits_shouldKeepQueryOrderAndLabelHoneyType() {
+        // Given
+        when(salesRollupRepository.sumByProduct(202501, 202512)).thenReturn(sales());
 
         // When
         List<TopProduitDto> top = dashboardService.getTopProduits(START, END, 10);
@@ -154,23 +136,15 @@ class DashboardServiceTest {
         assertThat(top).hasSize(2);
         assertThat(top.get(0).getProduitNom()).isEqualTo("Miel Toutes Fleurs 500g");
         assertThat(top.get(0).getQuantiteTotale()).isEqualTo(8L);
-        assertThat(top.get(0).getChiffreAffaires()).isEqualByComparingTo("68.00"); // 8 * 8.50
+        assertThat(top.get(0).getChiffreAffaires()).isEqualByComparingTo("68.00");
         assertThat(top.get(0).getTypeMiel()).isEqualTo("Toutes Fleurs");
-
         assertThat(top.get(1).getProduitNom()).isEqualTo("Miel de Forêt 1kg");
-        assertThat(top.get(1).getQuantiteTotale()).isEqualTo(2L);
-        assertThat(top.get(1).getChiffreAffaires()).isEqualByComparingTo("30.00");
     }
 
     @Test
     void getTopProduits_shouldLimitResults() {
         // Given
-        Order order = buildOrderWithLines(
-                buildLine(produitFleurs, 5, "8.50"),
-                buildLine(produitForet, 2, "15.00"));
-
-        when(orderRepository.findPaidOrdersWithLinesBetween(START, END))
-                .thenReturn(List.of(order));
+        when(salesRollupRepository.sumByProduct(202501, 202512)).thenReturn(sales());
 
         // When
         List<TopProduitDto> top = dashboardService.getTopProduits(START, END, 1);
@@ -183,8 +157,7 @@ class DashboardServiceTest {
     @Test
     void getTopProduits_shouldReturnEmptyList_whenNoOrders() {
         // Given
-        when(orderRepository.findPaidOrdersWithLinesBetween(START, END))
-                .thenReturn(Collections.emptyList());
+        when(salesRollupRepository.sumByProduct(202501, 202512)).thenReturn(Collections.emptyList());
 
         // When
         List<TopProduitDto> top = dashboardService.getTopProduits(START, END, 5);
@@ -193,19 +166,61 @@ class DashboardServiceTest {
         assertThat(top).isEmpty();
     }
 
-    private Order buildOrderWithLines(OrderLine... lines) {
-        Order order = Order.builder().build();
-        for (OrderLine line : lines) {
-            order.addLigne(line);
-        }
-        return order;
+    @Test
+    void getSnapshot_shouldDeriveAllFiguresFromGroupedQueries() {
+        // Given
+        when(salesRollupRepository.sumByProduct(202501, 202512)).thenReturn(sales());
+        when(orderRepository.countByStatusAndOrderDateBetween(OrderStatus.PAID, START, END)).thenReturn(4L);
+        when(achatRollupRepository.sumByCategorie(202501, 202512)).thenReturn(new ArrayList<>(List.of(
+                new DepenseCategorieDto(CategorieAchat.CIRE, new BigDecimal("60.00")),
+                new DepenseCategorieDto(CategorieAchat.POTS, new BigDecimal("40.00")))));
+
+        // When
+        DashboardSnapshot snapshot = dashboardService.getSnapshot(START, END, 1);
+
+        // Then - CA 98.00, depenses 100.00
+        assertThat(snapshot.getChiffreAffaires()).isEqualByComparingTo("98.00");
+        assertThat(snapshot.getTotalDepenses()).isEqualByComparingTo("100.00");
+        assertThat(snapshot.getBenefice()).isEqualByComparingTo("-2.00");
+        assertThat(snapshot.getCommandesPayees()).isEqualTo(4L);
+        assertThat(snapshot.getTopProduits()).singleElement()
+                .extracting(TopProduitDto::getProduitNom).isEqualTo("Miel Toutes Fleurs 500g");
+        assertThat(snapshot.getDepensesParCategorie())
+                .extracting(DepenseCategorieDto::getPourcentage)
+                .containsExactly(60, 40);
+        verifyNoInteractions(achatRepository);
     }
 
-    private OrderLine buildLine(Product product, int quantity, String unitPrice) {
-        return OrderLine.builder()
-                .product(product)
-                .quantity(quantity)
-                .unitPrice(new BigDecimal(unitPrice))
-                .build();
+    @Test
+    void getSnapshot_shouldReturnZeroes_whenNoData() {
+        // Given
+        when(salesRollupRepository.sumByProduct(202501, 202512)).thenReturn(Collections.emptyList());
+        when(achatRollupRepository.sumByCategorie(202501, 202512)).thenReturn(Collections.emptyList());
+
+        // When
+        DashboardSnapshot snapshot = dashboardService.getSnapshot(START, END, 3);
+
+        // Then
+        assertThat(snapshot.getChiffreAffaires()).isEqualByComparingTo("0.00");
+        assertThat(snapshot.getTotalDepenses()).isEqualByComparingTo("0");
+        assertThat(snapshot.getBenefice()).isEqualByComparingTo("0.00");
+        assertThat(snapshot.getCommandesPayees()).isZero();
+        assertThat(snapshot.getTopProduits()).isEmpty();
+        assertThat(snapshot.getDepensesParCategorie()).isEmpty();
+    }
+
+    @Test
+    void calculateChiffreAffaires_shouldReadRawLines_whenPeriodIsNotWholeMonths() {
+        // Given
+        LocalDate start = LocalDate.of(2025, 3, 15);
+        LocalDate end = LocalDate.of(2025, 4, 14);
+        when(orderRepository.sumPaidSalesByProduct(start, end)).thenReturn(sales());
+
+        // When
+        BigDecimal ca = dashboardService.calculateChiffreAffaires(start, end);
+
+        // Then
+        assertThat(ca).isEqualByComparingTo("98.00");
+        verifyNoInteractions(salesRollupRepository);
     }
 }
@@ -0,0 +1,244 @@
+package com.honeyai.service;
+
+import com.honeyai.config.DatasetConfig;
+import com.honeyai.dto.DatasetReport;
+import com.honeyai.enums.CategorieAchat;
+import com.honeyai.enums.OrderStatus;
+import com.honeyai.model.Achat;
+import com.honeyai.model.Client;
+import com.honeyai.model.Order;
+import com.honeyai.model.OrderLine;
+import com.honeyai.model.Product;
+import com.honeyai.repository.AchatRepository;
+import com.honeyai.repository.ClientRepository;
+import com.honeyai.repository.OrderRepository;
+import com.honeyai.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Generates small datasets into a migrated SQLite database, each test on its own years so the
+ * runs do not overlap, and reads them back through the repositories and the dashboard.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class DatasetGeneratorTest {
+
+    private static final Path DATABASE = createTempDatabase();
+
+    @DynamicPropertySource
+    static void sqliteDatabase(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> "jdbc:sqlite:" + DATABASE);
+    }
+
+    @Autowired
+    private DatasetGenerator datasetGenerator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private AchatRepository achatRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    @Autowired
+    private ClientSearchIndex clientSearchIndex;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void generate_shouldWriteEveryStatusCategoryAndSoftDeletedClients() {
+        // Given
+        DatasetConfig config = config(2011, 2);
+        long firstClient = nextId("clients");
+        long firstOrder = nextId("orders");
+        long linesBefore = count("order_lines");
+
+        // When
+        DatasetReport report = datasetGenerator.generate(config);
+
+        // Then
+        assertThat(report.getClients()).isEqualTo(300);
+        assertThat(report.getOrders()).isEqualTo(1200);
+        assertThat(report.getOrderLines()).isBetween(1200, 4800);
+        assertThat(report.getAchats()).isEqualTo(40);
+        assertThat(report.getLabels()).isEqualTo(20);
+        assertThat(nextId("clients") - firstClient).isEqualTo(300);
+        assertThat(count("order_lines") - linesBefore).isEqualTo(report.getOrderLines());
+
+        assertThat(jdbcTemplate.queryForList("SELECT DISTINCT status FROM orders WHERE id >= ?", String.class,
+                firstOrder))
+                .containsExactlyInAnyOrder(Arrays.stream(OrderStatus.values()).map(Enum::name).toArray(String[]::new));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM clients WHERE deleted_at IS NOT NULL "
+                + "AND id >= ?", Long.class, firstClient)).isPositive();
+        assertThat(clientSearchIndex.indexedCount())
+                .isEqualTo(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM clients WHERE deleted_at IS NULL",
+                        Long.class));
+
+        long products = productRepository.count();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM prices WHERE price_year IN (2010, 2011)",
+                Long.class)).isEqualTo(2 * products);
+
+        List<Achat> achats = achatRepository.findByDateAchatBetween(LocalDate.of(2010, 1, 1),
+                LocalDate.of(2011, 12, 31));
+        assertThat(achats).hasSize(40);
+        assertThat(achats).extracting(Achat::getCategorie).containsAll(List.of(CategorieAchat.values()));
+    }
+
+    @Test
+    @Transactional
+    void generatedOrders_shouldMatchDashboardFigures() {
+        // Given
+        datasetGenerator.generate(config(2014, 1));
+        LocalDate start = LocalDate.of(2014, 1, 1);
+        LocalDate end = LocalDate.of(2014, 12, 31);
+
+        // When
+        List<Order> orders = orderRepository.findByOrderDateBetween(start, end);
+        BigDecimal paidTotal = orderRepository.findPaidOrdersWithLinesBetween(start, end).stream()
+                .flatMap(order -> order.getLines().stream())
+                .map(OrderLine::getTotal)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        // Then
+        assertThat(orders).hasSize(600);
+        assertThat(orders).allSatisfy(order -> assertThat(order.getOrderDate()).isBetween(start, end));
+        assertThat(paidTotal).isPositive();
+        assertThat(dashboardService.calculateChiffreAffaires(start, end)).isEqualByComparingTo(paidTotal);
+        assertThat(dashboardService.calculateTotalDepenses(start, end))
+                .isEqualByComparingTo(achatRepository.findByDateAchatBetween(start, end).stream()
+                        .map(Achat::getMontant)
+                        .reduce(BigDecimal.ZERO, BigDecimal::add));
+    }
+
+    @Test
+    void generate_shouldProduceSameRows_forSameSeed() {
+        // Given
+        DatasetConfig config = config(2017, 1);
+        long firstClient = nextId("clients");
+        long firstOrder = nextId("orders");
+        datasetGenerator.generate(config);
+        long secondClient = nextId("clients");
+        long secondOrder = nextId("orders");
+
+        // When
+        datasetGenerator.generate(config);
+
+        // Then
+        assertThat(orderRows(firstOrder, secondOrder, firstClient))
+                .isNotEmpty()
+                .isEqualTo(orderRows(secondOrder, nextId("orders"), secondClient));
+    }
+
+    @Test
+    void generate_shouldServeGeneratedPrices_whoseAbsenceWasCached() {
+        // Given - a lookup that cached "no price" for the year about to be generated
+        Long productId = productRepository.findAllByOrderByNameAsc().getFirst().getId();
+        assertThat(productService.getPriceForYear(productId, 2023)).isNull();
+
+        // When
+        datasetGenerator.generate(config(2023, 1));
+
+        // Then
+        assertThat(productService.getPriceForYear(productId, 2023))
+                .isEqualByComparingTo(jdbcTemplate.queryForObject(
+                        "SELECT price FROM prices WHERE product_id = ? AND price_year = 2023",
+                        BigDecimal.class, productId));
+    }
+
+    @Test
+    void ordersCreatedAfterGeneration_shouldTakeLineIdsAboveGeneratedRows() {
+        // Given - lines inserted by plain JDBC after the application already assigned line ids
+        Client client = clientRepository.save(Client.builder().name("Client Lot").build());
+        Product product = productRepository.findAllByOrderByNameAsc().getFirst();
+        orderService.create(orderOf(client, product, 3));
+        datasetGenerator.generate(config(2020, 1));
+        long generatedMax = nextId("order_lines") - 1;
+
+        // When
+        Order created = orderService.create(orderOf(client, product, 3));
+
+        // Then
+        assertThat(created.getLines()).extracting(OrderLine::getId)
+                .allSatisfy(id -> assertThat(id).isGreaterThan(generatedMax))
+                .doesNotHaveDuplicates();
+    }
+
+    private static Order orderOf(Client client, Product product, int lines) {
+        Order order = Order.builder().client(client).orderDate(LocalDate.of(2020, 6, 1)).build();
+        for (int i = 0; i < lines; i++) {
+            order.addLigne(OrderLine.builder().product(product).quantity(1).unitPrice(new BigDecimal("8.50")).build());
+        }
+        return order;
+    }
+
+    private List<String> orderRows(long fromOrder, long toOrder, long firstClient) {
+        return jdbcTemplate.queryForList("""
+                SELECT o.command_date || '|' || o.status || '|' || (o.client_id - ?) || '|'
+                       || l.product_id || '|' || l.quantity || '|' || l.prix_unitaire
+                FROM orders o JOIN order_lines l ON l.order_id = o.id
+                WHERE o.id >= ? AND o.id < ?
+                ORDER BY o.id, l.id
+                """, String.class, firstClient, fromOrder, toOrder);
+    }
+
+    private static DatasetConfig config(int lastYear, int years) {
+        DatasetConfig config = new DatasetConfig();
+        config.setSeed(7L);
+        config.setLastYear(lastYear);
+        config.setYears(years);
+        config.setClients(300);
+        config.setDeletedClientRatio(0.1);
+        config.setOrdersPerYear(600);
+        config.setAchatsPerYear(20);
+        config.setLabelsPerYear(10);
+        config.setBatchSize(100);
+        return config;
+    }
+
+    private long count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    private long nextId(String table) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table, Long.class);
+    }
+
+    private static Path createTempDatabase() {
+        try {
+            return Files.createTempDirectory("honeyai-dataset").resolve("honeyai.db");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.honeyai.service;
+
+import com.honeyai.dto.CacheStatsDto;
+import com.honeyai.dto.ProductWithPrice;
+import com.honeyai.enums.HoneyType;
+import com.honeyai.model.Client;
+import com.honeyai.model.Order;
+import com.honeyai.model.OrderLine;
+import com.honeyai.model.Price;
+import com.honeyai.model.Product;
+import com.honeyai.repository.ClientRepository;
+import com.honeyai.repository.OrderRepository;
+import com.honeyai.repository.PriceRepository;
+import com.honeyai.repository.ProductRepository;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Second-level and query cache of the reference entities, each call in its own transaction as
+ * in the application.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EntityCacheServiceTest {
+
+    @Autowired
+    private EntityCacheService entityCacheService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PriceRepository priceRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private OrderService orderService;
+
+    private Product product;
+    private Client client;
+    private int currentYear;
+
+    @BeforeEach
+    void setUp() {
+        currentYear = LocalDate.now().getYear();
+        product = productRepository.save(Product.builder()
+                .name("Miel Cache")
+                .type(HoneyType.CHATAIGNIER)
+                .unit("pot 250g")
+                .build());
+        priceRepository.save(Price.builder().product(product).year(currentYear).price(new BigDecimal("6.00")).build());
+        client = clientRepository.save(Client.builder().name("Client Cache").build());
+        entityCacheService.evictAll();
+        statistics().clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        orderRepository.deleteAll(orderRepository.findByClientIdOrderByOrderDateDesc(client.getId()));
+        clientRepository.delete(client);
+        priceRepository.deleteAll(priceRepository.findByYear(currentYear).stream()
+                .filter(price -> price.getProduct().getId().equals(product.getId()))
+                .toList());
+        productRepository.deleteById(product.getId());
+    }
+
+    @Test
+    void findById_shouldServeRepeatedLoadsFromSecondLevelCache() {
+        // Given
+        productRepository.findById(product.getId());
+
+        // When
+        productRepository.findById(product.getId());
+
+        // Then
+        assertThat(cache().contains(Product.class, product.getId())).isTrue();
+        assertThat(statistics().getSecondLevelCacheHitCount()).isEqualTo(1);
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void productsWithPrices_shouldComeFromQueryCache_untilAPriceChanges() {
+        // Given
+        productService.findAllWithCurrentYearPrices();
+
+        // When
+        List<ProductWithPrice> cached = productService.findAllWithCurrentYearPrices();
+        productService.updatePrice(product.getId(), currentYear, new BigDecimal("6.50"));
+        List<ProductWithPrice> afterUpdate = productService.findAllWithCurrentYearPrices();
+
+        // Then
+        assertThat(statistics().getQueryCacheHitCount()).isEqualTo(1);
+        assertThat(priceOf(cached)).isEqualByComparingTo("6.00");
+        assertThat(priceOf(afterUpdate)).isEqualByComparingTo("6.50");
+    }
+
+    @Test
+    void orderCreation_shouldEvictClientsButKeepCatalogCached() {
+        // Given
+        productRepository.findById(product.getId());
+        clientRepository.findById(client.getId());
+        Order order = Order.builder().client(client).orderDate(LocalDate.now()).build();
+        order.addLigne(OrderLine.builder().product(product).quantity(2).build());
+
+        // When - the client stats refresh is a native update on the clients table only
+        orderService.create(order);
+
+        // Then
+        assertThat(cache().contains(Product.class, product.getId())).isTrue();
+        assertThat(cache().contains(Client.class, client.getId())).isFalse();
+        assertThat(clientRepository.findById(client.getId()).orElseThrow().getOrderCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void getStats_shouldCountHitsMissesAndCachedEntities_andEvictAllShouldEmptyRegions() {
+        // Given
+        productRepository.findById(product.getId());
+        productRepository.findById(product.getId());
+
+        // When
+        CacheStatsDto stats = entityCacheService.getStats();
+        entityCacheService.evictAll();
+
+        // Then
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getMisses()).isEqualTo(1);
+        assertThat(stats.getSize()).isPositive();
+        assertThat(cache().contains(Product.class, product.getId())).isFalse();
+    }
+
+    private BigDecimal priceOf(List<ProductWithPrice> products) {
+        return products.stream()
+                .filter(row -> row.id().equals(product.getId()))
+                .findFirst()
+                .orElseThrow()
+                .price();
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.getCache();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
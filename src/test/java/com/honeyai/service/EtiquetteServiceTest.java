@@ -1,6 +1,7 @@
 package com.honeyai.service;
 
 import com.honeyai.config.EtiquetteConfig;
+import com.honeyai.dto.EtiquetteBatchLine;
 import com.honeyai.dto.EtiquetteData;
 import com.honeyai.dto.EtiquetteRequest;
 import com.honeyai.enums.FormatPot;
@@ -23,6 +24,7 @@ import java.util.List;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -193,6 +195,7 @@ class EtiquetteServiceTest {
                 .typeMiel(HoneyType.TOUTES_FLEURS)
                 .formatPot(FormatPot.POT_500G)
                 .dateRecolte(LocalDate.of(2024, 8, 15))
+                .presetName("Standard (60x40mm - 3x7)")
                 .build();
 
         EtiquetteData data = EtiquetteData.builder()
@@ -224,6 +227,7 @@ class EtiquetteServiceTest {
         assertThat(captured.getQuantite()).isEqualTo(21);
         assertThat(captured.getDateGeneration()).isNotNull();
         assertThat(captured.getPrixUnitaire()).isEqualByComparingTo("8.50");
+        assertThat(captured.getPresetName()).isEqualTo("Standard (60x40mm - 3x7)");
     }
 
     @Test
@@ -248,6 +252,51 @@ class EtiquetteServiceTest {
         assertThat(captor.getValue().getPrixUnitaire()).isNull();
     }
 
+    @Test
+    void saveHistoriqueBatch_shouldSaveOneRecordPerLineInOneCall() {
+        // Given
+        EtiquetteBatchLine tf = EtiquetteBatchLine.builder()
+                .request(EtiquetteRequest.builder()
+                        .typeMiel(HoneyType.TOUTES_FLEURS)
+                        .formatPot(FormatPot.POT_500G)
+                        .dateRecolte(LocalDate.of(2024, 8, 15))
+                        .build())
+                .data(EtiquetteData.builder()
+                        .dluo(LocalDate.of(2026, 8, 15))
+                        .prixUnitaire(new BigDecimal("8.50"))
+                        .build())
+                .quantite(30)
+                .build();
+        EtiquetteBatchLine foret = EtiquetteBatchLine.builder()
+                .request(EtiquetteRequest.builder()
+                        .typeMiel(HoneyType.FORET)
+                        .formatPot(FormatPot.POT_1KG)
+                        .dateRecolte(LocalDate.of(2024, 9, 1))
+                        .build())
+                .data(EtiquetteData.builder()
+                        .dluo(LocalDate.of(2026, 9, 1))
+                        .build())
+                .quantite(12)
+                .build();
+
+        when(historiqueEtiquettesRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        // When
+        List<HistoriqueEtiquettes> saved = etiquetteService.saveHistoriqueBatch(List.of(tf, foret));
+
+        // Then
+        assertThat(saved).hasSize(2);
+        assertThat(saved.get(0).getTypeMiel()).isEqualTo("TOUTES_FLEURS");
+        assertThat(saved.get(0).getQuantite()).isEqualTo(30);
+        assertThat(saved.get(0).getPrixUnitaire()).isEqualByComparingTo("8.50");
+        assertThat(saved.get(1).getFormatPot()).isEqualTo("POT_1KG");
+        assertThat(saved.get(1).getQuantite()).isEqualTo(12);
+        assertThat(saved.get(1).getPrixUnitaire()).isNull();
+        assertThat(saved.get(0).getDateGeneration()).isEqualTo(saved.get(1).getDateGeneration());
+        verify(historiqueEtiquettesRepository).saveAll(anyList());
+        verify(historiqueEtiquettesRepository, never()).save(any());
+    }
+
     // ==================== getRecentHistorique Tests ====================
 
     @Test
@@ -0,0 +1,61 @@
+package com.honeyai.service;
+
+import com.honeyai.dto.KeysetPage;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeysetPagingTest {
+
+    @Test
+    void pageSize_shouldDefaultAndClamp() {
+        assertThat(KeysetPaging.pageSize(null)).isEqualTo(KeysetPaging.DEFAULT_PAGE_SIZE);
+        assertThat(KeysetPaging.pageSize(0)).isEqualTo(KeysetPaging.DEFAULT_PAGE_SIZE);
+        assertThat(KeysetPaging.pageSize(20)).isEqualTo(20);
+        assertThat(KeysetPaging.pageSize(10_000)).isEqualTo(KeysetPaging.MAX_PAGE_SIZE);
+    }
+
+    @Test
+    void encodeDecode_shouldRoundTripKeysContainingSeparator() {
+        String cursor = KeysetPaging.encode("Dupont | Fils", 42L);
+
+        KeysetPaging.Cursor<String> decoded = KeysetPaging.decode(cursor, key -> key);
+
+        assertThat(cursor).doesNotContain("|", "/", "+", "=");
+        assertThat(decoded.key()).isEqualTo("Dupont | Fils");
+        assertThat(decoded.id()).isEqualTo(42L);
+    }
+
+    @Test
+    void decode_shouldReturnNull_whenCursorIsBlankOrMalformed() {
+        assertThat(KeysetPaging.decode(null, LocalDate::parse)).isNull();
+        assertThat(KeysetPaging.decode("", LocalDate::parse)).isNull();
+        assertThat(KeysetPaging.decode("not-base64!", LocalDate::parse)).isNull();
+        assertThat(KeysetPaging.decode(KeysetPaging.encode("garbage", 1L), LocalDate::parse)).isNull();
+    }
+
+    @Test
+    void toPage_forward_shouldExposeNextCursorOnlyWhenMoreRowsExist() {
+        KeysetPage<Integer> first = KeysetPaging.toPage(List.of(1, 2, 3), 2, false, false, String::valueOf);
+        KeysetPage<Integer> last = KeysetPaging.toPage(List.of(3), 2, false, true, String::valueOf);
+
+        assertThat(first.getContent()).containsExactly(1, 2);
+        assertThat(first.getNextCursor()).isEqualTo("2");
+        assertThat(first.hasPrevious()).isFalse();
+        assertThat(last.getContent()).containsExactly(3);
+        assertThat(last.hasNext()).isFalse();
+        assertThat(last.getPrevCursor()).isEqualTo("3");
+    }
+
+    @Test
+    void toPage_backward_shouldReverseRowsAndExposeBothCursors() {
+        KeysetPage<Integer> page = KeysetPaging.toPage(List.of(5, 4, 3), 2, true, true, String::valueOf);
+
+        assertThat(page.getContent()).containsExactly(4, 5);
+        assertThat(page.getPrevCursor()).isEqualTo("4");
+        assertThat(page.getNextCursor()).isEqualTo("5");
+    }
+}
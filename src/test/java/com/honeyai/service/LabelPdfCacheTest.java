@@ -0,0 +1,153 @@
+package com.honeyai.service;
+
+import com.honeyai.config.LabelCacheConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LabelPdfCacheTest {
+
+    private static final String KEY_A = "a".repeat(64);
+    private static final String KEY_B = "b".repeat(64);
+    private static final String KEY_C = "c".repeat(64);
+
+    @TempDir
+    Path tempDir;
+
+    private LabelCacheConfig config;
+    private MeterRegistry meterRegistry;
+    private AtomicInteger renders;
+
+    @BeforeEach
+    void setUp() {
+        config = new LabelCacheConfig();
+        config.setDirectory(tempDir.toString());
+        meterRegistry = new SimpleMeterRegistry();
+        renders = new AtomicInteger();
+    }
+
+    @Test
+    void getOrRender_shouldRenderOnceThenServeFromMemory() {
+        // Given
+        LabelPdfCache cache = new LabelPdfCache(config, meterRegistry);
+
+        // When
+        LabelPdfCache.CachedPdf first = cache.getOrRender(KEY_A, pdf("sheet A", 10));
+        LabelPdfCache.CachedPdf second = cache.getOrRender(KEY_A, pdf("sheet A", 10));
+
+        // Then
+        assertThat(renders).hasValue(1);
+        assertThat(second.content()).isEqualTo(first.content());
+        assertThat(second.etag()).isEqualTo("\"" + KEY_A + "\"");
+        assertThat(tempDir.resolve(KEY_A + ".pdf")).exists();
+        assertThat(lookups("miss")).isEqualTo(1);
+        assertThat(lookups("memory")).isEqualTo(1);
+    }
+
+    @Test
+    void getOrRender_shouldReadSheetsWrittenBeforeRestartFromDisk() {
+        // Given
+        new LabelPdfCache(config, meterRegistry).getOrRender(KEY_A, pdf("sheet A", 10));
+
+        // When
+        LabelPdfCache restarted = new LabelPdfCache(config, meterRegistry);
+        LabelPdfCache.CachedPdf cached = restarted.getOrRender(KEY_A, pdf("other", 10));
+
+        // Then
+        assertThat(renders).hasValue(1);
+        assertThat(cached.content()).startsWith("sheet A".getBytes());
+        assertThat(restarted.size()).isEqualTo(1);
+        assertThat(lookups("disk")).isEqualTo(1);
+    }
+
+    @Test
+    void getOrRender_shouldEvictLeastRecentlyUsedSheetBeyondDiskBudget() {
+        // Given - room for two sheets of 400 KiB
+        config.setMaxDiskMb(1);
+        config.setMaxMemoryMb(0);
+        LabelPdfCache cache = new LabelPdfCache(config, meterRegistry);
+        cache.getOrRender(KEY_A, pdf("sheet A", 400 * 1024));
+        cache.getOrRender(KEY_B, pdf("sheet B", 400 * 1024));
+        cache.getOrRender(KEY_A, pdf("sheet A", 400 * 1024));
+
+        // When
+        cache.getOrRender(KEY_C, pdf("sheet C", 400 * 1024));
+
+        // Then - B was used least recently
+        assertThat(tempDir.resolve(KEY_A + ".pdf")).exists();
+        assertThat(tempDir.resolve(KEY_B + ".pdf")).doesNotExist();
+        assertThat(tempDir.resolve(KEY_C + ".pdf")).exists();
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(renders).hasValue(3);
+    }
+
+    @Test
+    void getOrRender_shouldRenderAgainWhenFileWasDeleted() throws IOException {
+        // Given
+        config.setMaxMemoryMb(0);
+        LabelPdfCache cache = new LabelPdfCache(config, meterRegistry);
+        cache.getOrRender(KEY_A, pdf("sheet A", 10));
+        Files.delete(tempDir.resolve(KEY_A + ".pdf"));
+
+        // When
+        cache.getOrRender(KEY_A, pdf("sheet A", 10));
+
+        // Then
+        assertThat(renders).hasValue(2);
+        assertThat(tempDir.resolve(KEY_A + ".pdf")).exists();
+    }
+
+    @Test
+    void getOrRender_shouldAlwaysRender_whenDisabled() {
+        // Given
+        config.setEnabled(false);
+        LabelPdfCache cache = new LabelPdfCache(config, meterRegistry);
+
+        // When
+        cache.getOrRender(KEY_A, pdf("sheet A", 10));
+        cache.getOrRender(KEY_A, pdf("sheet A", 10));
+
+        // Then
+        assertThat(renders).hasValue(2);
+        assertThat(tempDir.resolve(KEY_A + ".pdf")).doesNotExist();
+    }
+
+    @Test
+    void getOrRender_shouldRejectKeysThatAreNotHashes() {
+        LabelPdfCache cache = new LabelPdfCache(config, meterRegistry);
+
+        assertThatThrownBy(() -> cache.getOrRender("../../etc/passwd", pdf("x", 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(renders).hasValue(0);
+    }
+
+    private double lookups(String result) {
+        return meterRegistry.counter("honeyai.label.cache", "result", result).count();
+    }
+
+    private Consumer<OutputStream> pdf(String text, int size) {
+        return out -> {
+            renders.incrementAndGet();
+            byte[] content = new byte[Math.max(size, text.length())];
+            System.arraycopy(text.getBytes(), 0, content, 0, text.length());
+            try {
+                out.write(content);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+}
@@ -1,5 +1,7 @@
 package com.honeyai.service;
 
+import com.honeyai.dto.ClientOrderStatsDto;
+import com.honeyai.dto.ClientRow;
 import com.honeyai.enums.HoneyType;
 import com.honeyai.enums.OrderStatus;
 import com.honeyai.model.*;
@@ -134,6 +136,48 @@ class OrderServiceIntegrationTest {
         assertThat(paid.getStatus()).isEqualTo(OrderStatus.PAID);
     }
 
+    @Test
+    void integrationTest_clientStats_shouldFollowOrdersAndStatusTransitions() {
+        // Given - two orders of 33.00, one of which gets paid
+        Order first = orderService.create(orderOf(LocalDate.of(2025, 3, 1)));
+        orderService.create(orderOf(LocalDate.of(2025, 5, 1)));
+        orderService.updateStatus(first.getId(), OrderStatus.RECOVERED);
+
+        // When
+        orderService.updateStatus(first.getId(), OrderStatus.PAID);
+
+        // Then - the aggregate query and the denormalised columns agree
+        ClientOrderStatsDto stats = orderService.getClientOrderStats(client.getId());
+        assertThat(stats.getTotalOrders()).isEqualTo(2);
+        assertThat(stats.getLastOrderDate()).isEqualTo(LocalDate.of(2025, 5, 1));
+        assertThat(stats.getTotalPaidAmount()).isEqualByComparingTo(new BigDecimal("33.00"));
+
+        ClientRow row = clientRepository.findActiveRowById(client.getId()).orElseThrow();
+        assertThat(row.orderCount()).isEqualTo(2L);
+        assertThat(row.lifetimeValue()).isEqualByComparingTo(new BigDecimal("33.00"));
+    }
+
+    @Test
+    void integrationTest_getClientOrderStats_shouldReturnZeros_whenClientHasNoOrder() {
+        // When
+        ClientOrderStatsDto stats = orderService.getClientOrderStats(client.getId());
+
+        // Then
+        assertThat(stats.hasOrders()).isFalse();
+        assertThat(stats.getTotalPaidAmount()).isEqualByComparingTo(BigDecimal.ZERO);
+        assertThat(stats.getLastOrderDate()).isNull();
+    }
+
+    private Order orderOf(LocalDate date) {
+        Order order = Order.builder()
+                .client(client)
+                .orderDate(date)
+                .build();
+        order.addLigne(OrderLine.builder().product(product1).quantity(2).build());
+        order.addLigne(OrderLine.builder().product(product2).quantity(1).build());
+        return order;
+    }
+
     @Test
     void integrationTest_getCurrentYearPrice_shouldReturnCorrectPrice() {
         // When
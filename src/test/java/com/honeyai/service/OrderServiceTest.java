@@ -1,12 +1,15 @@
 package com.honeyai.service;
 
+import com.honeyai.dto.ClientOrderStatsDto;
 import com.honeyai.enums.HoneyType;
 import com.honeyai.enums.OrderStatus;
 import com.honeyai.exception.InvalidStatusTransitionException;
+import com.honeyai.exception.PriceNotFoundException;
 import com.honeyai.model.Client;
 import com.honeyai.model.Order;
 import com.honeyai.model.OrderLine;
 import com.honeyai.model.Product;
+import com.honeyai.repository.ClientRepository;
 import com.honeyai.repository.OrderRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -19,7 +22,9 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -35,6 +40,12 @@ class OrderServiceTest {
     @Mock
     private ProductService productService;
 
+    @Mock
+    private RollupService rollupService;
+
+    @Mock
+    private ClientRepository clientRepository;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -140,7 +151,7 @@ class OrderServiceTest {
                                     .build();
         order.addLigne(ligne);
 
-        when(productService.getCurrentYearPrice(1L)).thenReturn(new BigDecimal("8.00"));
+        when(productService.getCurrentYearPrices(Set.of(1L))).thenReturn(Map.of(1L, new BigDecimal("8.00")));
         when(orderRepository.save(any(Order.class))).thenReturn(order);
 
         // When
@@ -149,7 +160,39 @@ class OrderServiceTest {
         // Then
         assertThat(result.getLines().getFirst().getUnitPrice())
                 .isEqualByComparingTo(new BigDecimal("8.00"));
-        verify(productService).getCurrentYearPrice(1L);
+        verify(productService).getCurrentYearPrices(Set.of(1L));
+        verify(productService, never()).getCurrentYearPrice(any());
+    }
+
+    @Test
+    void create_shouldResolveMissingPricesOnce_andKeepProvidedOnes() {
+        // Given - two unpriced lines on two products, one line with its own price
+        order.addLigne(OrderLine.builder().product(product1).quantity(2).build());
+        order.addLigne(OrderLine.builder().product(product2).quantity(1).build());
+        order.addLigne(OrderLine.builder().product(product1).quantity(1).unitPrice(new BigDecimal("7.50")).build());
+        when(productService.getCurrentYearPrices(Set.of(1L, 2L)))
+                .thenReturn(Map.of(1L, new BigDecimal("8.00"), 2L, new BigDecimal("17.00")));
+        when(orderRepository.save(any(Order.class))).thenReturn(order);
+
+        // When
+        Order result = orderService.create(order);
+
+        // Then
+        assertThat(result.getLines()).extracting(OrderLine::getUnitPrice)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("8.00"), new BigDecimal("17.00"), new BigDecimal("7.50"));
+        verify(productService, times(1)).getCurrentYearPrices(any());
+    }
+
+    @Test
+    void create_shouldThrow_whenProductHasNoCurrentYearPrice() {
+        // Given
+        order.addLigne(OrderLine.builder().product(product1).quantity(2).build());
+        when(productService.getCurrentYearPrices(Set.of(1L))).thenReturn(Map.of());
+
+        // When / Then
+        assertThatThrownBy(() -> orderService.create(order)).isInstanceOf(PriceNotFoundException.class);
+        verify(orderRepository, never()).save(any());
     }
 
     @Test
@@ -264,6 +307,39 @@ class OrderServiceTest {
 
         // Then
         assertThat(result.getStatus()).isEqualTo(OrderStatus.PAID);
+        verify(clientRepository).refreshStats(1L);
+    }
+
+    @Test
+    void save_shouldRefreshStatsOfPreviousAndNewClient_whenOrderChangesClient() {
+        // Given
+        Client previous = Client.builder().id(2L).name("Ancien Client").build();
+        Order stored = Order.builder().id(1L).client(previous).orderDate(LocalDate.now()).build();
+        when(orderRepository.findByIdWithClient(1L)).thenReturn(Optional.of(stored));
+        when(orderRepository.save(order)).thenReturn(order);
+
+        // When
+        orderService.save(order);
+
+        // Then
+        verify(clientRepository).refreshStats(1L);
+        verify(clientRepository).refreshStats(2L);
+    }
+
+    @Test
+    void getClientOrderStats_shouldUseAggregateQueryAndDefaultPaidTotal() {
+        // Given - aggregate without any paid order
+        when(orderRepository.aggregateClientStats(1L))
+                .thenReturn(new ClientOrderStatsDto(3L, null, LocalDate.of(2025, 6, 1)));
+
+        // When
+        ClientOrderStatsDto stats = orderService.getClientOrderStats(1L);
+
+        // Then
+        assertThat(stats.getTotalOrders()).isEqualTo(3);
+        assertThat(stats.getTotalPaidAmount()).isEqualByComparingTo("0.00");
+        assertThat(stats.getLastOrderDate()).isEqualTo(LocalDate.of(2025, 6, 1));
+        verify(orderRepository, never()).findByClientIdOrderByOrderDateDesc(any());
     }
 
     @Test
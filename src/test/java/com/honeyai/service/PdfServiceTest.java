@@ -2,22 +2,33 @@ package com.honeyai.service;
 
 import com.honeyai.config.EtiquetteConfig;
 import com.honeyai.config.LabelPreset;
+import com.honeyai.dto.EtiquetteBatchLine;
 import com.honeyai.dto.EtiquetteData;
 import com.honeyai.exception.PdfGenerationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -26,6 +37,7 @@ class PdfServiceTest {
 
     private PdfService pdfService;
     private EtiquetteConfig etiquetteConfig;
+    private SimpleMeterRegistry meterRegistry;
 
     @TempDir
     Path tempDir;
@@ -45,7 +57,8 @@ class PdfServiceTest {
         etiquetteConfig.setMarginTopMm(10.0f);
         etiquetteConfig.setMarginLeftMm(10.0f);
 
-        pdfService = new PdfService(etiquetteConfig);
+        meterRegistry = new SimpleMeterRegistry();
+        pdfService = new PdfService(etiquetteConfig, meterRegistry);
     }
 
     @Test
@@ -482,6 +495,43 @@ class PdfServiceTest {
         assertThat(pdfBytes).isNotNull();
     }
 
+    @Test
+    void generateEtiquetteSheet_shouldStampOneSharedHeaderTemplateInOneContentStream() throws IOException {
+        // Given
+        EtiquetteData data = createTestLabelData();
+
+        // When
+        byte[] pdfBytes = pdfService.generateEtiquetteSheet(data);
+
+        // Then - 21 labels reuse a single form XObject drawn from one page content stream
+        try (PDDocument document = Loader.loadPDF(pdfBytes)) {
+            PDPage page = document.getPage(0);
+            List<COSName> xObjectNames = new ArrayList<>();
+            page.getResources().getXObjectNames().forEach(xObjectNames::add);
+            assertThat(xObjectNames).hasSize(1);
+            assertThat(page.getResources().getXObject(xObjectNames.getFirst())).isInstanceOf(PDFormXObject.class);
+            assertThat(page.getContentStreams()).toIterable().hasSize(1);
+
+            String text = new PDFTextStripper().getText(document);
+            assertThat(text.split("FRANCE", -1)).hasSize(22);
+            assertThat(text).contains("SIRET: 12345678901234");
+        }
+    }
+
+    @Test
+    void labelFonts_shouldMatchPdfBoxStringWidths() throws IOException {
+        // Given
+        String text = "Recolté en FRANCE et mis en pot par l'apiculteur";
+
+        // When/Then
+        assertThat(LabelFonts.REGULAR.width(text, 10f))
+                .isCloseTo(new PDType1Font(Standard14Fonts.FontName.HELVETICA).getStringWidth(text) / 100f,
+                        org.assertj.core.api.Assertions.within(0.001f));
+        assertThat(LabelFonts.BOLD.width(text, 10f))
+                .isCloseTo(new PDType1Font(Standard14Fonts.FontName.HELVETICA_BOLD).getStringWidth(text) / 100f,
+                        org.assertj.core.api.Assertions.within(0.001f));
+    }
+
     @Test
     void generateEtiquetteSheet_shouldThrowException_forNullData() {
         // When/Then
@@ -561,4 +611,200 @@ class PdfServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("données d'étiquette");
     }
+
+    @Test
+    void writeEtiquetteSheet_shouldWriteSameDocumentAsByteArrayVariant() throws IOException {
+        // Given
+        EtiquetteData data = createTestLabelData();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        pdfService.writeEtiquetteSheet(data, null, out);
+
+        // Then
+        try (PDDocument document = Loader.loadPDF(out.toByteArray())) {
+            assertThat(document.getNumberOfPages()).isEqualTo(1);
+            assertThat(new PDFTextStripper().getText(document).split("FRANCE", -1)).hasSize(22);
+        }
+    }
+
+    @Test
+    void sheetCacheKey_shouldChangeWithEveryRenderInput() {
+        // Given
+        EtiquetteData data = createTestLabelData();
+        LabelPreset preset = LabelPreset.builder()
+                .name("Grand (70x50mm - 2x5)")
+                .labelWidthMm(70.0f)
+                .labelHeightMm(50.0f)
+                .labelsPerRow(2)
+                .labelsPerColumn(5)
+                .marginTopMm(15.0f)
+                .marginLeftMm(25.0f)
+                .build();
+        String key = pdfService.sheetCacheKey(data, null);
+
+        // When
+        EtiquetteData repriced = createTestLabelData();
+        repriced.setPrixUnitaire(new BigDecimal("9.00"));
+        EtiquetteData otherHarvest = createTestLabelData();
+        otherHarvest.setDluo(data.getDluo().plusMonths(1));
+
+        // Then
+        assertThat(key).matches("[0-9a-f]{64}");
+        assertThat(pdfService.sheetCacheKey(createTestLabelData(), null)).isEqualTo(key);
+        assertThat(pdfService.sheetCacheKey(repriced, null)).isNotEqualTo(key);
+        assertThat(pdfService.sheetCacheKey(otherHarvest, null)).isNotEqualTo(key);
+        assertThat(pdfService.sheetCacheKey(data, preset)).isNotEqualTo(key);
+    }
+
+    @Test
+    void writeEtiquetteBatch_shouldStayWithinSmallMemoryBuffer() throws IOException {
+        // Given - a 1 MB heap buffer forces page content beyond it into the scratch file
+        etiquetteConfig.setPdfMemoryBufferMb(1);
+        List<EtiquetteBatchLine> lines = List.of(
+                EtiquetteBatchLine.builder().data(createTestLabelData()).quantite(2100).build());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        int pages = pdfService.writeEtiquetteBatch(lines, null, out);
+
+        // Then
+        assertThat(pages).isEqualTo(100);
+        try (PDDocument document = Loader.loadPDF(out.toByteArray())) {
+            assertThat(document.getNumberOfPages()).isEqualTo(100);
+        }
+    }
+
+    // ==================== Batch Tests ====================
+
+    @Test
+    void writeEtiquetteBatch_shouldContinuePartialSheetsAcrossProducts() throws IOException {
+        // Given - 30 + 20 labels on a 3x7 sheet: 50 labels, 3 pages, second product starts on slot 10 of page 2
+        EtiquetteData first = createTestLabelData();
+        EtiquetteData second = createTestLabelData();
+        second.setPoids("Poids net: 1kg");
+        second.setPrixUnitaire(new BigDecimal("15.00"));
+        List<EtiquetteBatchLine> lines = List.of(
+                EtiquetteBatchLine.builder().data(first).quantite(30).build(),
+                EtiquetteBatchLine.builder().data(second).quantite(20).build());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        int pages = pdfService.writeEtiquetteBatch(lines, null, out);
+
+        // Then
+        assertThat(pages).isEqualTo(3);
+        try (PDDocument document = Loader.loadPDF(out.toByteArray())) {
+            assertThat(document.getNumberOfPages()).isEqualTo(3);
+
+            PDFTextStripper stripper = new PDFTextStripper();
+            String text = stripper.getText(document);
+            assertThat(text.split("FRANCE", -1)).hasSize(51);
+            assertThat(text.split("8.50 EUR", -1)).hasSize(31);
+            assertThat(text.split("15.00 EUR", -1)).hasSize(21);
+
+            stripper.setStartPage(2);
+            stripper.setEndPage(2);
+            String page2 = stripper.getText(document);
+            assertThat(page2.split("8.50 EUR", -1)).hasSize(10);
+            assertThat(page2.split("15.00 EUR", -1)).hasSize(13);
+
+            stripper.setStartPage(3);
+            stripper.setEndPage(3);
+            assertThat(stripper.getText(document).split("FRANCE", -1)).hasSize(9);
+        }
+    }
+
+    @Test
+    void writeEtiquetteBatch_shouldRenderPagesInParallelInPrintOrder() throws IOException {
+        // Given - 9 pages, alternating products every 10 labels
+        List<EtiquetteBatchLine> lines = new ArrayList<>();
+        for (int i = 0; i < 18; i++) {
+            EtiquetteData data = createTestLabelData();
+            data.setPrixUnitaire(new BigDecimal(i + ".00"));
+            lines.add(EtiquetteBatchLine.builder().data(data).quantite(10).build());
+        }
+        etiquetteConfig.setParallelRenderMinPages(1000);
+        ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+        new PdfService(etiquetteConfig, meterRegistry).writeEtiquetteBatch(lines, null, sequential);
+
+        etiquetteConfig.setRenderThreads(4);
+        etiquetteConfig.setParallelRenderMinPages(2);
+        ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+
+        // When
+        int pages = new PdfService(etiquetteConfig, meterRegistry).writeEtiquetteBatch(lines, null, parallel);
+
+        // Then - same pages, same text in the same order, one shared set of resources
+        assertThat(pages).isEqualTo(9);
+        try (PDDocument expected = Loader.loadPDF(sequential.toByteArray());
+             PDDocument actual = Loader.loadPDF(parallel.toByteArray())) {
+            assertThat(actual.getNumberOfPages()).isEqualTo(9);
+            PDFTextStripper stripper = new PDFTextStripper();
+            for (int page = 1; page <= 9; page++) {
+                stripper.setStartPage(page);
+                stripper.setEndPage(page);
+                assertThat(stripper.getText(actual)).isEqualTo(stripper.getText(expected));
+            }
+            assertThat(stripper.getText(actual)).contains("17.00 EUR");
+            assertThat(actual.getPage(8).getResources().getCOSObject())
+                    .isSameAs(actual.getPage(0).getResources().getCOSObject());
+        }
+    }
+
+    @Test
+    void writeEtiquetteBatch_shouldRecordDurationLabelsAndBytes() {
+        // Given
+        List<EtiquetteBatchLine> lines = List.of(
+                EtiquetteBatchLine.builder().data(createTestLabelData()).quantite(50).build());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        pdfService.writeEtiquetteBatch(lines, null, out);
+
+        // Then
+        assertThat(meterRegistry.get("honeyai.pdf.render").tag("kind", "batch").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("honeyai.pdf.labels").tag("kind", "batch").counter().count()).isEqualTo(50);
+        assertThat(meterRegistry.get("honeyai.pdf.bytes").tag("kind", "batch").summary().totalAmount())
+                .isEqualTo(out.size());
+        assertThat(meterRegistry.get("honeyai.pdf.bytes.per.label").tag("kind", "batch").summary().totalAmount())
+                .isEqualTo(out.size() / 50.0);
+    }
+
+    @Test
+    void writeEtiquetteBatch_shouldShareOneLabelTemplateAndContentAcrossIdenticalPages() throws IOException {
+        // Given - 5 full pages of the same label, then a partial page
+        List<EtiquetteBatchLine> lines = List.of(
+                EtiquetteBatchLine.builder().data(createTestLabelData()).quantite(110).build());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        pdfService.writeEtiquetteBatch(lines, null, out);
+
+        // Then - object and cross-reference streams, one content stream per distinct page
+        String raw = out.toString(StandardCharsets.ISO_8859_1);
+        assertThat(raw).contains("/ObjStm").contains("/XRef").doesNotContain("\nxref");
+        try (PDDocument document = Loader.loadPDF(out.toByteArray())) {
+            assertThat(document.getNumberOfPages()).isEqualTo(6);
+            COSBase firstContents = document.getPage(0).getCOSObject().getDictionaryObject(COSName.CONTENTS);
+            for (int page = 1; page < 5; page++) {
+                assertThat(document.getPage(page).getCOSObject().getDictionaryObject(COSName.CONTENTS))
+                        .isSameAs(firstContents);
+            }
+            assertThat(document.getPage(5).getCOSObject().getDictionaryObject(COSName.CONTENTS))
+                    .isNotSameAs(firstContents);
+            List<COSName> xObjectNames = new ArrayList<>();
+            document.getPage(5).getResources().getXObjectNames().forEach(xObjectNames::add);
+            assertThat(xObjectNames).hasSize(1);
+            assertThat(new PDFTextStripper().getText(document).split("FRANCE", -1)).hasSize(111);
+        }
+    }
+
+    @Test
+    void writeEtiquetteBatch_shouldThrowException_forEmptyBatch() {
+        // When/Then
+        assertThatThrownBy(() -> pdfService.writeEtiquetteBatch(List.of(), null, new ByteArrayOutputStream()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("vide");
+    }
 }
@@ -1,5 +1,7 @@
 package com.honeyai.service;
 
+import com.honeyai.dto.ProductWithPrice;
+import com.honeyai.enums.FormatPot;
 import com.honeyai.enums.HoneyType;
 import com.honeyai.exception.PriceNotFoundException;
 import com.honeyai.model.Price;
@@ -17,7 +19,9 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -154,4 +158,108 @@ class ProductServiceTest {
         assertThat(result.getPrice()).isEqualByComparingTo(new BigDecimal("10.00"));
         verify(priceRepository).save(price1);
     }
+
+    @Test
+    void getCurrentYearPrice_shouldServeRepeatedLookupsFromCache() {
+        // Given
+        int currentYear = LocalDate.now().getYear();
+        when(priceRepository.findByProductIdAndYear(1L, currentYear)).thenReturn(Optional.of(price1));
+
+        // When
+        productService.getCurrentYearPrice(1L);
+        BigDecimal second = productService.getCurrentYearPrice(1L);
+
+        // Then
+        assertThat(second).isEqualByComparingTo("8.00");
+        verify(priceRepository, times(1)).findByProductIdAndYear(1L, currentYear);
+        assertThat(productService.getPriceCacheStats().getHits()).isEqualTo(1L);
+        assertThat(productService.getPriceCacheStats().getMisses()).isEqualTo(1L);
+    }
+
+    @Test
+    void updatePrice_shouldInvalidateCachedPrice() {
+        // Given - price cached, then updated
+        int currentYear = LocalDate.now().getYear();
+        when(priceRepository.findByProductIdAndYear(1L, currentYear)).thenReturn(Optional.of(price1));
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product1));
+        when(priceRepository.save(any(Price.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        productService.getCurrentYearPrice(1L);
+
+        // When
+        productService.updatePrice(1L, currentYear, new BigDecimal("9.50"));
+
+        // Then - next lookup reloads
+        assertThat(productService.getCurrentYearPrice(1L)).isEqualByComparingTo("9.50");
+        verify(priceRepository, times(3)).findByProductIdAndYear(1L, currentYear);
+    }
+
+    @Test
+    void warmPriceCache_shouldLoadYearInOneQueryAndResolveTypeAndFormatFromMemory() {
+        // Given
+        int currentYear = LocalDate.now().getYear();
+        when(productRepository.findAll()).thenReturn(List.of(product1, product2));
+        when(priceRepository.findByYear(currentYear)).thenReturn(List.of(price1));
+
+        // When
+        productService.warmPriceCache();
+        BigDecimal fleurs = productService.findPriceByTypeAndFormat(HoneyType.TOUTES_FLEURS, FormatPot.POT_500G);
+        BigDecimal foret = productService.findPriceByTypeAndFormat(HoneyType.FORET, FormatPot.POT_1KG);
+
+        // Then - product2 has no price this year, which is cached too
+        assertThat(fleurs).isEqualByComparingTo("8.00");
+        assertThat(foret).isNull();
+        verify(priceRepository, never()).findByProductIdAndYear(any(), any());
+        verify(productRepository, times(1)).findAll();
+    }
+
+    @Test
+    void findAllWithCurrentYearPrices_shouldUseOneProjectionQueryForTheCurrentYear() {
+        // Given
+        int currentYear = LocalDate.now().getYear();
+        List<ProductWithPrice> rows = List.of(
+                new ProductWithPrice(2L, "Miel de Foret", HoneyType.FORET, "1kg", null),
+                new ProductWithPrice(1L, "Miel Toutes Fleurs", HoneyType.TOUTES_FLEURS, "500g", new BigDecimal("8.00")));
+        when(productRepository.findAllWithPriceForYear(currentYear)).thenReturn(rows);
+
+        // When
+        List<ProductWithPrice> result = productService.findAllWithCurrentYearPrices();
+
+        // Then
+        assertThat(result).extracting(ProductWithPrice::price).containsExactly(null, new BigDecimal("8.00"));
+        assertThat(result.get(1).displayLabel()).isEqualTo("Miel Toutes Fleurs - 8,00 EUR");
+        verifyNoInteractions(priceRepository);
+    }
+
+    @Test
+    void getCurrentYearPrices_shouldLoadOnlyCacheMissesWithOneQuery() {
+        // Given - product1 cached, product2 and product3 missing, product3 without a price
+        int currentYear = LocalDate.now().getYear();
+        Price price2 = Price.builder().id(2L).product(product2).year(currentYear).price(new BigDecimal("17.00")).build();
+        when(priceRepository.findByProductIdAndYear(1L, currentYear)).thenReturn(Optional.of(price1));
+        when(priceRepository.findByYearAndProductIdIn(currentYear, Set.of(2L, 3L))).thenReturn(List.of(price2));
+        productService.getCurrentYearPrice(1L);
+
+        // When
+        Map<Long, BigDecimal> prices = productService.getCurrentYearPrices(List.of(1L, 2L, 3L));
+        Map<Long, BigDecimal> again = productService.getCurrentYearPrices(List.of(2L, 3L));
+
+        // Then
+        assertThat(prices).containsOnlyKeys(1L, 2L);
+        assertThat(prices.get(2L)).isEqualByComparingTo("17.00");
+        assertThat(again).containsOnlyKeys(2L);
+        verify(priceRepository, times(1)).findByYearAndProductIdIn(eq(currentYear), any());
+    }
+
+    @Test
+    void findAllById_shouldLoadProductsWithOneQueryKeyedById() {
+        // Given
+        when(productRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(product1, product2));
+
+        // When
+        Map<Long, Product> products = productService.findAllById(List.of(1L, 2L, 1L));
+
+        // Then
+        assertThat(products).containsOnlyKeys(1L, 2L);
+        assertThat(products.get(2L)).isSameAs(product2);
+    }
 }
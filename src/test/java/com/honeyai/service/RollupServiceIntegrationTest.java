@@ -0,0 +1,223 @@
+package com.honeyai.service;
+
+import com.honeyai.dto.RollupRebuildReport;
+import com.honeyai.enums.CategorieAchat;
+import com.honeyai.enums.HoneyType;
+import com.honeyai.enums.OrderStatus;
+import com.honeyai.model.*;
+import com.honeyai.repository.*;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class RollupServiceIntegrationTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private AchatService achatService;
+
+    @Autowired
+    private RollupService rollupService;
+
+    @Autowired
+    private SalesRollupRepository salesRollupRepository;
+
+    @Autowired
+    private AchatRollupRepository achatRollupRepository;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Client client;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        client = clientRepository.save(Client.builder()
+                .name("Test Client")
+                .phone("0612345678")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build());
+        product = productRepository.save(Product.builder()
+                .name("Miel Toutes Fleurs 500g")
+                .type(HoneyType.TOUTES_FLEURS)
+                .unit("pot 500g")
+                .build());
+    }
+
+    @Test
+    void updateStatus_shouldAddOrderToSalesRollupOnlyOncePaid() {
+        // Given
+        Order order = orderService.create(order(LocalDate.of(2025, 5, 10), 3, "8.00"));
+        orderService.updateStatus(order.getId(), OrderStatus.RECOVERED);
+        assertThat(salesRollupRepository.findAll()).isEmpty();
+
+        // When
+        orderService.updateStatus(order.getId(), OrderStatus.PAID);
+
+        // Then
+        assertThat(salesRollupRepository.findByYearAndMonthAndProductId(2025, 5, product.getId()))
+                .hasValueSatisfying(row -> {
+                    assertThat(row.getQuantity()).isEqualTo(3L);
+                    assertThat(row.getRevenue()).isEqualByComparingTo("24.00");
+                });
+    }
+
+    @Test
+    void save_shouldMovePaidOrderBetweenMonths() {
+        // Given - a paid order in May, edited from a detached copy as the controller does
+        Order created = order(LocalDate.of(2025, 5, 10), 3, "8.00");
+        created.setStatus(OrderStatus.PAID);
+        created = orderService.create(created);
+        entityManager.flush();
+        entityManager.clear();
+
+        Order edited = orderService.findById(created.getId()).orElseThrow();
+        entityManager.clear();
+        edited.setOrderDate(LocalDate.of(2025, 6, 2));
+        edited.getLines().getFirst().setQuantity(5);
+
+        // When
+        orderService.save(edited);
+
+        // Then
+        assertThat(salesRollupRepository.findByYearAndMonthAndProductId(2025, 5, product.getId())).isEmpty();
+        assertThat(salesRollupRepository.findByYearAndMonthAndProductId(2025, 6, product.getId()))
+                .hasValueSatisfying(row -> assertThat(row.getRevenue()).isEqualByComparingTo("40.00"));
+    }
+
+    @Test
+    void achatSaveAndDelete_shouldKeepAchatRollupInSync() {
+        // Given
+        Achat first = achatService.save(achat(LocalDate.of(2025, 3, 1), "45.00"));
+        achatService.save(achat(LocalDate.of(2025, 3, 20), "15.00"));
+
+        // When
+        achatService.delete(first.getId());
+
+        // Then
+        assertThat(achatRollupRepository.findByYearAndMonthAndCategorie(2025, 3, CategorieAchat.CIRE))
+                .hasValueSatisfying(row -> assertThat(row.getMontant()).isEqualByComparingTo("15.00"));
+    }
+
+    @Test
+    void rebuild_shouldReportDriftAndRestoreRollups() {
+        // Given - rollups kept in sync, then one row tampered with
+        Order order = order(LocalDate.of(2025, 5, 10), 2, "8.00");
+        order.setStatus(OrderStatus.PAID);
+        orderService.create(order);
+        achatService.save(achat(LocalDate.of(2025, 3, 1), "45.00"));
+        SalesRollup row = salesRollupRepository.findByYearAndMonthAndProductId(2025, 5, product.getId()).orElseThrow();
+        row.setQuantity(99L);
+        salesRollupRepository.saveAndFlush(row);
+
+        // When
+        RollupRebuildReport report = rollupService.rebuild();
+
+        // Then
+        assertThat(report.getSalesMismatches()).isEqualTo(1);
+        assertThat(report.getAchatMismatches()).isZero();
+        assertThat(report.getSalesRows()).isEqualTo(1);
+        assertThat(report.getAchatRows()).isEqualTo(1);
+        assertThat(salesRollupRepository.findByYearAndMonthAndProductId(2025, 5, product.getId()))
+                .hasValueSatisfying(r -> assertThat(r.getQuantity()).isEqualTo(2L));
+        assertThat(rollupService.rebuild().isConsistent()).isTrue();
+        assertThat(salesRollupRepository.sumByProduct(202501, 202512))
+                .singleElement()
+                .satisfies(p -> assertThat(p.getChiffreAffaires()).isEqualByComparingTo("16.00"));
+        assertThat(achatRollupRepository.sumByCategorie(202501, 202512))
+                .singleElement()
+                .satisfies(d -> assertThat(d.getMontant()).isEqualByComparingTo("45.00"));
+    }
+
+    @Test
+    void rebuild_shouldSaveRowsReusingTheIdsOfTheDeletedOnes() {
+        // Given - loaded rollup rows, and ids handed out again from the first deleted one as
+        // SQLite does for rowids once a table is empty
+        Order order = order(LocalDate.of(2025, 5, 10), 2, "8.00");
+        order.setStatus(OrderStatus.PAID);
+        orderService.create(order);
+        achatService.save(achat(LocalDate.of(2025, 3, 1), "45.00"));
+        Long salesId = salesRollupRepository.findAll().getFirst().getId();
+        Long achatId = achatRollupRepository.findAll().getFirst().getId();
+        entityManager.createNativeQuery("ALTER TABLE sales_rollup ALTER COLUMN id RESTART WITH " + salesId)
+                .executeUpdate();
+        entityManager.createNativeQuery("ALTER TABLE achat_rollup ALTER COLUMN id RESTART WITH " + achatId)
+                .executeUpdate();
+
+        // When
+        RollupRebuildReport report = rollupService.rebuild();
+        entityManager.flush();
+
+        // Then
+        assertThat(report.isConsistent()).isTrue();
+        assertThat(salesRollupRepository.findByYearAndMonthAndProductId(2025, 5, product.getId()))
+                .hasValueSatisfying(r -> assertThat(r.getId()).isEqualTo(salesId));
+        assertThat(achatRollupRepository.findByYearAndMonthAndCategorie(2025, 3, CategorieAchat.CIRE))
+                .hasValueSatisfying(r -> assertThat(r.getId()).isEqualTo(achatId));
+    }
+
+    @Test
+    void rebuild_shouldKeepTheCallersOtherEntitiesManaged() {
+        // Given - a pending change on an entity the caller still holds
+        Order order = order(LocalDate.of(2025, 5, 10), 2, "8.00");
+        order.setStatus(OrderStatus.PAID);
+        orderService.create(order);
+        client.setNotes("Livraison le samedi");
+
+        // When
+        rollupService.rebuild();
+
+        // Then
+        assertThat(entityManager.contains(client)).isTrue();
+        assertThat(entityManager.contains(product)).isTrue();
+        entityManager.flush();
+        entityManager.clear();
+        assertThat(clientRepository.findById(client.getId()))
+                .hasValueSatisfying(c -> assertThat(c.getNotes()).isEqualTo("Livraison le samedi"));
+    }
+
+    private Order order(LocalDate date, int quantity, String unitPrice) {
+        Order order = Order.builder()
+                .client(client)
+                .orderDate(date)
+                .build();
+        order.addLigne(OrderLine.builder()
+                .product(product)
+                .quantity(quantity)
+                .unitPrice(new BigDecimal(unitPrice))
+                .build());
+        return order;
+    }
+
+    private Achat achat(LocalDate date, String montant) {
+        return Achat.builder()
+                .dateAchat(date)
+                .designation("Cire gaufree")
+                .montant(new BigDecimal(montant))
+                .categorie(CategorieAchat.CIRE)
+                .build();
+    }
+}